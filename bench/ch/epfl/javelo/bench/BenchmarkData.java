@@ -0,0 +1,153 @@
+package ch.epfl.javelo.bench;
+
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.data.GraphEdges;
+import ch.epfl.javelo.projection.PointCh;
+import ch.epfl.javelo.projection.SwissBounds;
+import ch.epfl.javelo.routing.CityBikeCF;
+import ch.epfl.javelo.routing.Route;
+import ch.epfl.javelo.routing.RouteComputer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Données communes aux bancs d'essai : le graphe mesuré, dont le répertoire est donné par la propriété système
+ * javelo.graph (lausanne par défaut), et des requêtes tirées au hasard avec une graine fixe, de sorte que deux
+ * exécutions mesurent exactement les mêmes opérations.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+final class BenchmarkData {
+
+    static final long SEED = 2022;
+    static final int QUERY_COUNT = 1 << 10; // puissance de deux, les requêtes étant parcourues modulo leur nombre
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Méthode retournant le chemin d'accès du répertoire du graphe mesuré
+     *
+     * @return (Path) : le chemin d'accès du répertoire
+     */
+    static Path graphPath() {
+        return Path.of(System.getProperty("javelo.graph", "lausanne"));
+    }
+
+    /**
+     * Méthode retournant la manière de stocker les nœuds et les arêtes du graphe mesuré, donnée par la propriété
+     * système javelo.storage (BUFFER par défaut)
+     *
+     * @return (Graph.StorageMode) : la manière de stocker le graphe
+     */
+    static Graph.StorageMode storageMode() {
+        return Graph.StorageMode.valueOf(System.getProperty("javelo.storage", Graph.StorageMode.BUFFER.name()));
+    }
+
+    /**
+     * Méthode chargeant le graphe mesuré
+     *
+     * @return (Graph) : le graphe
+     */
+    static Graph graph() {
+        try {
+            return Graph.loadFrom(graphPath(), storageMode());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Méthode chargeant les arêtes du graphe mesuré, de la même manière que Graph.loadFrom
+     *
+     * @return (GraphEdges) : les arêtes du graphe
+     */
+    static GraphEdges edges() {
+        try (FileChannel edges = FileChannel.open(graphPath().resolve("edges.bin"));
+             FileChannel profileIds = FileChannel.open(graphPath().resolve("profile_ids.bin"));
+             FileChannel elevations = FileChannel.open(graphPath().resolve("elevations.bin"))) {
+            return new GraphEdges(
+                    edges.map(FileChannel.MapMode.READ_ONLY, 0, edges.size()),
+                    profileIds.map(FileChannel.MapMode.READ_ONLY, 0, profileIds.size()).asIntBuffer(),
+                    elevations.map(FileChannel.MapMode.READ_ONLY, 0, elevations.size()).asShortBuffer());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Méthode retournant des points tirés au hasard à au plus la distance donnée de nœuds du graphe tirés au hasard
+     *
+     * @param graph       (Graph) : le graphe
+     * @param maxDistance (double) : l'écart maximal, en mètres, selon chaque axe
+     * @return (PointCh[]) : QUERY_COUNT points
+     */
+    static PointCh[] pointsNearNodes(Graph graph, double maxDistance) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        PointCh[] points = new PointCh[QUERY_COUNT];
+        int count = 0;
+        while (count < QUERY_COUNT) {
+            PointCh node = graph.nodePoint(random.nextInt(graph.nodeCount()));
+            double e = node.e() + random.nextDouble(-maxDistance, maxDistance);
+            double n = node.n() + random.nextDouble(-maxDistance, maxDistance);
+            if (SwissBounds.containsEN(e, n)) points[count++] = new PointCh(e, n);
+        }
+        return points;
+    }
+
+    /**
+     * Méthode retournant des paires de nœuds tirées au hasard dont la distance à vol d'oiseau est comprise entre les
+     * bornes données et entre lesquels un itinéraire existe
+     *
+     * @param graph       (Graph) : le graphe
+     * @param minDistance (double) : la distance minimale, en mètres
+     * @param maxDistance (double) : la distance maximale (exclue), en mètres
+     * @param pairCount   (int) : le nombre de paires
+     * @return (int[][]) : les nœuds de départ puis les nœuds d'arrivée des paires
+     * @throws IllegalStateException si le graphe ne contient pas assez de telles paires
+     */
+    static int[][] routablePairs(Graph graph, double minDistance, double maxDistance, int pairCount) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        RouteComputer routeComputer = new RouteComputer(graph, new CityBikeCF(graph));
+        int[][] pairs = new int[2][pairCount];
+        int count = 0;
+        for (int attempt = 0; count < pairCount; attempt++) {
+            if (attempt == 1_000 * pairCount) {
+                throw new IllegalStateException("pas assez de paires distantes de " + minDistance + " à "
+                        + maxDistance + " m dans " + graphPath());
+            }
+            int from = random.nextInt(graph.nodeCount());
+            int to = random.nextInt(graph.nodeCount());
+            double d = graph.nodePoint(from).distanceTo(graph.nodePoint(to));
+            if (d < minDistance || d >= maxDistance) continue;
+            if (routeComputer.bestRouteBetween(from, to) == null) continue;
+            pairs[0][count] = from;
+            pairs[1][count] = to;
+            count += 1;
+        }
+        return pairs;
+    }
+
+    /**
+     * Méthode retournant des itinéraires calculés entre des paires de nœuds tirées au hasard dont la distance à vol
+     * d'oiseau est comprise entre les bornes données
+     *
+     * @param graph       (Graph) : le graphe
+     * @param minDistance (double) : la distance minimale, en mètres
+     * @param maxDistance (double) : la distance maximale (exclue), en mètres
+     * @param routeCount  (int) : le nombre d'itinéraires
+     * @return (Route[]) : les itinéraires
+     */
+    static Route[] routes(Graph graph, double minDistance, double maxDistance, int routeCount) {
+        int[][] pairs = routablePairs(graph, minDistance, maxDistance, routeCount);
+        RouteComputer routeComputer = new RouteComputer(graph, new CityBikeCF(graph));
+        Route[] routes = new Route[routeCount];
+        for (int i = 0; i < routeCount; i++) routes[i] = routeComputer.bestRouteBetween(pairs[0][i], pairs[1][i]);
+        return routes;
+    }
+
+}
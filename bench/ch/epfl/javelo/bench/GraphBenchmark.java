@@ -0,0 +1,45 @@
+package ch.epfl.javelo.bench;
+
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.projection.PointCh;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bancs d'essai du chargement du graphe et de la recherche du nœud le plus proche d'un point
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+
+    private static final double SEARCH_DISTANCE = 500;
+
+    private Graph graph;
+    private PointCh[] points;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = BenchmarkData.graph();
+        points = BenchmarkData.pointsNearNodes(graph, SEARCH_DISTANCE);
+    }
+
+    @Benchmark
+    public Graph loadFrom() {
+        return BenchmarkData.graph();
+    }
+
+    @Benchmark
+    public int nodeClosestTo() {
+        PointCh point = points[next++ & (BenchmarkData.QUERY_COUNT - 1)];
+        return graph.nodeClosestTo(point, SEARCH_DISTANCE);
+    }
+
+}
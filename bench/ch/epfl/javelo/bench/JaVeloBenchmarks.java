@@ -0,0 +1,56 @@
+package ch.epfl.javelo.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Classe principale de la suite de bancs d'essai JMH de JaVelo. Elle exécute tous les bancs d'essai du paquetage (ou
+ * ceux sélectionnés par les options de JMH passées en arguments, p. ex. « RouteComputerJmh ») et écrit leurs
+ * résultats au format JSON dans le répertoire bench-results, dans un fichier nommé d'après la date de l'exécution ;
+ * ces fichiers peuvent être comparés d'une version à l'autre pour détecter les régressions, p. ex. au moyen de
+ * https://jmh.morethan.io.
+ * <p>
+ * Le graphe mesuré est celui du répertoire lausanne, ou celui donné par la propriété système javelo.graph ; il est
+ * chargé avec la manière de stocker les nœuds et les arêtes donnée par la propriété javelo.storage (BUFFER par
+ * défaut, voir Graph.StorageMode). Ces deux propriétés sont transmises aux processus lancés par JMH.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class JaVeloBenchmarks {
+
+    private static final Path RESULTS_DIRECTORY = Path.of("bench-results");
+
+    private JaVeloBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        Files.createDirectories(RESULTS_DIRECTORY);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path resultPath = RESULTS_DIRECTORY.resolve("jmh-" + timestamp + ".json");
+
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLineOptions);
+        if (commandLineOptions.getIncludes().isEmpty()) builder.include(JaVeloBenchmarks.class.getPackageName() + ".");
+        Options options = builder
+                .jvmArgsAppend("-Djavelo.graph=" + BenchmarkData.graphPath(),
+                        "-Djavelo.storage=" + BenchmarkData.storageMode())
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultPath.toString())
+                .build();
+        new Runner(options).run();
+        System.out.println("Résultats écrits dans " + resultPath);
+    }
+
+}
@@ -0,0 +1,133 @@
+package ch.epfl.javelo.bench;
+
+import ch.epfl.javelo.Bits;
+import ch.epfl.javelo.Q28_4;
+import ch.epfl.javelo.data.GraphEdges;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bancs d'essai du décodage des profils des arêtes, pour chacun des types de profil ; legacyProfileSamples mesure,
+ * à titre de comparaison, l'ancien décodeur qui extrayait les différences une à une
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfileBenchmark {
+
+    /**
+     * Énumération des types de profil, dans l'ordre de leur codage dans profile_ids.bin
+     */
+    public enum ProfileType {
+        NONE, UNCOMPRESSED, COMPRESSED_Q4_4, COMPRESSED_Q0_4
+    }
+
+    @Param
+    public ProfileType profileType;
+
+    // Nombre d'arêtes décodées ensemble par manyProfileSamples
+    private static final int BATCH_SIZE = 64;
+
+    private GraphEdges edges;
+    private int[] edgeIds;
+    private int[] batch;
+    private int[] batchOffsets;
+    private float[] samples;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        edges = BenchmarkData.edges();
+        // Les arêtes du type mesuré, réparties sur tout le graphe
+        int[] ids = new int[BenchmarkData.QUERY_COUNT];
+        int count = 0;
+        int edgeCount = edges.profileIds().capacity();
+        int step = Math.max(1, edgeCount / (16 * BenchmarkData.QUERY_COUNT));
+        for (int edgeId = 0; edgeId < edgeCount && count < ids.length; edgeId += step) {
+            if (edges.profileIds().get(edgeId) >>> 30 == profileType.ordinal()) ids[count++] = edgeId;
+        }
+        if (count == 0) throw new IllegalStateException("aucune arête de profil " + profileType);
+        // On complète le tableau en répétant les arêtes trouvées
+        for (int i = count; i < ids.length; i++) ids[i] = ids[i % count];
+        edgeIds = ids;
+        batch = new int[BATCH_SIZE];
+        System.arraycopy(ids, 0, batch, 0, BATCH_SIZE);
+        batchOffsets = new int[BATCH_SIZE + 1];
+        int maxSampleCount = 0;
+        for (int edgeId : ids) maxSampleCount = Math.max(maxSampleCount, edges.profileSampleCount(edgeId));
+        samples = new float[maxSampleCount];
+    }
+
+    @Benchmark
+    public float[] profileSamples() {
+        return edges.profileSamples(edgeIds[next++ & (BenchmarkData.QUERY_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public float[] profileSamplesIntoArray() {
+        edges.profileSamples(edgeIds[next++ & (BenchmarkData.QUERY_COUNT - 1)], samples, 0);
+        return samples;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public float[] manyProfileSamples() {
+        return edges.profileSamples(batch, batchOffsets);
+    }
+
+    @Benchmark
+    public float[] legacyProfileSamples() {
+        return legacyProfileSamples(edges, edgeIds[next++ & (BenchmarkData.QUERY_COUNT - 1)]);
+    }
+
+    /**
+     * Méthode privée décodant le profil de l'arête d'identité donnée comme le faisait GraphEdges avant le décodage
+     * par valeurs entières de elevations.bin, un échantillon à la fois
+     *
+     * @param edges  (GraphEdges) : les arêtes
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (float[]) : les échantillons du profil de l'arête
+     */
+    private static float[] legacyProfileSamples(GraphEdges edges, int edgeId) {
+        if (!edges.hasProfile(edgeId)) {
+            return new float[0];
+        }
+        int profileId = edges.profileIds().get(edgeId);
+        int nbEch = 1 + (int) Math.ceil(edges.length(edgeId) / 2.0);
+        float[] tab = new float[nbEch];
+        int firstIndex = Bits.extractUnsigned(profileId, 0, 30);
+        double profileType = Bits.extractUnsigned(profileId, 30, 2);
+        tab[0] = Q28_4.asFloat(Bits.extractUnsigned(edges.elevations().get(firstIndex), 0, 16));
+        for (int i = firstIndex + 1; i < firstIndex + nbEch; ++i) {
+            int n = i - firstIndex;
+            if (profileType == 1) {
+                tab[n] = Q28_4.asFloat(Bits.extractUnsigned(edges.elevations().get(i), 0, 16));
+            }
+            if (profileType == 3 || profileType == 2) {
+                int m = profileType == 3 ? 4 : 2;
+                int length = 16 / m;
+                double k = Math.ceil(((double) n) / (double) m);
+                int fact = (m - n % m) % m;
+                short info = edges.elevations().get(firstIndex + (int) k);
+                float dif = (float) Bits.extractSigned(info, length * fact, length);
+                dif = (float) Q28_4.asDouble((int) dif);
+                tab[n] = tab[n - 1] + dif;
+            }
+        }
+        if (!edges.isInverted(edgeId)) {
+            return tab;
+        }
+        float[] tabFin = new float[nbEch];
+        for (int i = 0; i < nbEch; ++i) {
+            tabFin[i] = tab[nbEch - 1 - i];
+        }
+        return tabFin;
+    }
+
+}
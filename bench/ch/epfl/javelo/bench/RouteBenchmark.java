@@ -0,0 +1,104 @@
+package ch.epfl.javelo.bench;
+
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.projection.PointCh;
+import ch.epfl.javelo.projection.SwissBounds;
+import ch.epfl.javelo.routing.*;
+import org.openjdk.jmh.annotations.*;
+import org.w3c.dom.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bancs d'essai des opérations effectuées sur un itinéraire une fois calculé : profil en long, point le plus proche
+ * (pour un itinéraire simple et multiple) et génération du document GPX. Les itinéraires mesurés relient des nœuds
+ * distants de 4 à 8 km à vol d'oiseau.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteBenchmark {
+
+    private static final int ROUTE_COUNT = 8; // puissance de deux
+    private static final int SEGMENTS_PER_MULTI_ROUTE = 4;
+    private static final double MAX_STEP_LENGTH = 5;
+    private static final double MAX_POINT_OFFSET = 200;
+
+    private Route[] singleRoutes;
+    private Route[] multiRoutes;
+    private ElevationProfile[] profiles;
+    private PointCh[] points;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Graph graph = BenchmarkData.graph();
+        singleRoutes = BenchmarkData.routes(graph, 4_000, 8_000, ROUTE_COUNT);
+        multiRoutes = new Route[ROUTE_COUNT];
+        profiles = new ElevationProfile[ROUTE_COUNT];
+        for (int i = 0; i < ROUTE_COUNT; i++) {
+            multiRoutes[i] = multiRoute(singleRoutes[i]);
+            profiles[i] = ElevationProfileComputer.elevationProfile(singleRoutes[i], MAX_STEP_LENGTH);
+        }
+
+        // Des points proches de chaque itinéraire, l'itinéraire d'index i utilisant les points d'index i modulo
+        // ROUTE_COUNT
+        SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        points = new PointCh[BenchmarkData.QUERY_COUNT];
+        int count = 0;
+        while (count < points.length) {
+            Route route = singleRoutes[count % ROUTE_COUNT];
+            PointCh onRoute = route.pointAt(random.nextDouble(route.length()));
+            double e = onRoute.e() + random.nextDouble(-MAX_POINT_OFFSET, MAX_POINT_OFFSET);
+            double n = onRoute.n() + random.nextDouble(-MAX_POINT_OFFSET, MAX_POINT_OFFSET);
+            if (SwissBounds.containsEN(e, n)) points[count++] = new PointCh(e, n);
+        }
+    }
+
+    /**
+     * Méthode privée découpant l'itinéraire simple donné en un itinéraire multiple de même tracé
+     */
+    private static Route multiRoute(Route route) {
+        List<Edge> edges = route.edges();
+        List<Route> segments = new ArrayList<>();
+        int segmentCount = Math.min(SEGMENTS_PER_MULTI_ROUTE, edges.size());
+        for (int s = 0; s < segmentCount; s++) {
+            int from = edges.size() * s / segmentCount;
+            int to = edges.size() * (s + 1) / segmentCount;
+            segments.add(new SingleRoute(edges.subList(from, to)));
+        }
+        return new MultiRoute(segments);
+    }
+
+    @Benchmark
+    public ElevationProfile elevationProfile() {
+        return ElevationProfileComputer.elevationProfile(singleRoutes[next++ & (ROUTE_COUNT - 1)], MAX_STEP_LENGTH);
+    }
+
+    @Benchmark
+    public RoutePoint singleRoutePointClosestTo() {
+        int i = next++ & (BenchmarkData.QUERY_COUNT - 1);
+        return singleRoutes[i % ROUTE_COUNT].pointClosestTo(points[i]);
+    }
+
+    @Benchmark
+    public RoutePoint multiRoutePointClosestTo() {
+        int i = next++ & (BenchmarkData.QUERY_COUNT - 1);
+        return multiRoutes[i % ROUTE_COUNT].pointClosestTo(points[i]);
+    }
+
+    @Benchmark
+    public Document createGpx() {
+        int i = next++ & (ROUTE_COUNT - 1);
+        return GpxGenerator.createGpx(singleRoutes[i], profiles[i]);
+    }
+
+}
@@ -0,0 +1,64 @@
+package ch.epfl.javelo.bench;
+
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.routing.CityBikeCF;
+import ch.epfl.javelo.routing.Route;
+import ch.epfl.javelo.routing.RouteComputer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bancs d'essai du calcul d'itinéraire, sur des paires de nœuds proches, moyennement éloignés et éloignés
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteComputerJmh {
+
+    private static final int PAIR_COUNT = 16; // puissance de deux
+
+    /**
+     * Énumération des classes de longueur des itinéraires mesurés, définies par la distance à vol d'oiseau entre
+     * leurs extrémités
+     */
+    public enum Distance {
+        SHORT(500, 2_000),
+        MEDIUM(4_000, 8_000),
+        LONG(12_000, Double.POSITIVE_INFINITY);
+
+        private final double minDistance;
+        private final double maxDistance;
+
+        Distance(double minDistance, double maxDistance) {
+            this.minDistance = minDistance;
+            this.maxDistance = maxDistance;
+        }
+    }
+
+    @Param
+    public Distance distance;
+
+    private RouteComputer routeComputer;
+    private int[][] pairs;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Graph graph = BenchmarkData.graph();
+        routeComputer = new RouteComputer(graph, new CityBikeCF(graph));
+        pairs = BenchmarkData.routablePairs(graph, distance.minDistance, distance.maxDistance, PAIR_COUNT);
+    }
+
+    @Benchmark
+    public Route bestRouteBetween() {
+        int i = next++ & (PAIR_COUNT - 1);
+        return routeComputer.bestRouteBetween(pairs[0][i], pairs[1][i]);
+    }
+
+}
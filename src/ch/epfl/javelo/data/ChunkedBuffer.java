@@ -0,0 +1,132 @@
+package ch.epfl.javelo.data;
+
+import ch.epfl.javelo.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Classe représentant le contenu d'un fichier projeté en mémoire par tranches, accessible au moyen de positions de type
+ * long et pouvant donc dépasser la taille maximale d'un ByteBuffer (2 Gio). Chaque tranche déborde de quelques octets
+ * sur la suivante, de sorte qu'une valeur commençant dans une tranche s'y trouve toujours en entier et qu'aucune
+ * lecture ne doit être découpée.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+final class ChunkedBuffer {
+
+    /**
+     * Le logarithme en base 2 de la taille par défaut des tranches (1 Gio)
+     */
+    static final int DEFAULT_CHUNK_SHIFT = 30;
+    // Débordement de chaque tranche sur la suivante, égal à la taille de la plus grande valeur lue
+    private static final int OVERLAP = Long.BYTES;
+
+    private final ByteBuffer[] chunks;
+    private final int chunkShift;
+    private final long chunkMask;
+    private final long byteSize;
+
+    private ChunkedBuffer(ByteBuffer[] chunks, int chunkShift, long byteSize) {
+        this.chunks = chunks;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1L << chunkShift) - 1;
+        this.byteSize = byteSize;
+    }
+
+    /**
+     * Méthode projetant en mémoire, en lecture seule, la totalité du fichier donné par tranches de 1 Gio
+     *
+     * @param path (Path) : le chemin d'accès du fichier
+     * @return (ChunkedBuffer) : le contenu du fichier
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    static ChunkedBuffer map(Path path) throws IOException {
+        return map(path, DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * Méthode projetant en mémoire, en lecture seule, la totalité du fichier donné par tranches de 2^chunkShift octets
+     * (les tranches plus petites que la taille par défaut ne servant qu'aux tests)
+     *
+     * @param path       (Path) : le chemin d'accès du fichier
+     * @param chunkShift (int) : le logarithme en base 2 de la taille des tranches
+     * @return (ChunkedBuffer) : le contenu du fichier
+     * @throws IOException              en cas d'erreur d'entrée/sortie
+     * @throws IllegalArgumentException si la taille des tranches n'est pas comprise entre 16 octets et 1 Gio
+     */
+    static ChunkedBuffer map(Path path, int chunkShift) throws IOException {
+        Preconditions.checkArgument(4 <= chunkShift && chunkShift <= DEFAULT_CHUNK_SHIFT);
+        try (FileChannel channel = FileChannel.open(path)) {
+            long size = channel.size();
+            long chunkSize = 1L << chunkShift;
+            int chunkCount = (int) Math.max(1, (size + chunkSize - 1) >>> chunkShift);
+            ByteBuffer[] chunks = new ByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                long position = (long) i << chunkShift;
+                long length = Math.min(size - position, chunkSize + OVERLAP);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.max(0, length));
+            }
+            return new ChunkedBuffer(chunks, chunkShift, size);
+        }
+    }
+
+    /**
+     * Méthode retournant la taille du contenu, en octets
+     *
+     * @return (long) : la taille du contenu
+     */
+    long byteSize() {
+        return byteSize;
+    }
+
+    /**
+     * Méthode retournant les tranches projetées en mémoire, p. ex. pour les libérer
+     *
+     * @return (List<ByteBuffer>) : les tranches, dans l'ordre du fichier
+     */
+    List<ByteBuffer> chunks() {
+        return List.of(chunks);
+    }
+
+    /**
+     * Méthode retournant la valeur de type short commençant à la position donnée
+     *
+     * @param offset (long) : la position, en octets
+     * @return (short) : la valeur
+     * @throws IndexOutOfBoundsException si la valeur ne se trouve pas entièrement dans le contenu
+     */
+    short getShort(long offset) {
+        Objects.checkFromIndexSize(offset, Short.BYTES, byteSize);
+        return chunks[(int) (offset >>> chunkShift)].getShort((int) (offset & chunkMask));
+    }
+
+    /**
+     * Méthode retournant la valeur de type int commençant à la position donnée
+     *
+     * @param offset (long) : la position, en octets
+     * @return (int) : la valeur
+     * @throws IndexOutOfBoundsException si la valeur ne se trouve pas entièrement dans le contenu
+     */
+    int getInt(long offset) {
+        Objects.checkFromIndexSize(offset, Integer.BYTES, byteSize);
+        return chunks[(int) (offset >>> chunkShift)].getInt((int) (offset & chunkMask));
+    }
+
+    /**
+     * Méthode retournant la valeur de type long commençant à la position donnée
+     *
+     * @param offset (long) : la position, en octets
+     * @return (long) : la valeur
+     * @throws IndexOutOfBoundsException si la valeur ne se trouve pas entièrement dans le contenu
+     */
+    long getLong(long offset) {
+        Objects.checkFromIndexSize(offset, Long.BYTES, byteSize);
+        return chunks[(int) (offset >>> chunkShift)].getLong((int) (offset & chunkMask));
+    }
+
+}
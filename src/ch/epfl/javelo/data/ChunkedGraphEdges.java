@@ -0,0 +1,108 @@
+package ch.epfl.javelo.data;
+
+import ch.epfl.javelo.Bits;
+import ch.epfl.javelo.Q28_4;
+
+/**
+ * Classe représentant le tableau de toutes les arêtes du graphe JaVelo, lu dans le contenu de edges.bin,
+ * profile_ids.bin et elevations.bin projeté en mémoire par tranches ; contrairement à GraphEdges, elle calcule les
+ * positions en long et accepte donc des fichiers de plus de 2 Gio. Les profils sont décodés par le même code que
+ * celui de GraphEdges.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+final class ChunkedGraphEdges implements EdgeStorage {
+
+    private static final int OFFSET_W = 0;
+    private static final int OFFSET_L = OFFSET_W + Integer.BYTES;
+    private static final int OFFSET_E = OFFSET_L + Short.BYTES;
+    private static final int OFFSET_ATT = OFFSET_E + Short.BYTES;
+    private static final int EDGE_BYTES = OFFSET_ATT + Short.BYTES;
+    private static final int PROFILE_TYPE_START = 30;
+    private static final int PROFILE_TYPE_LENGTH = 2;
+
+    private final ChunkedBuffer edges;
+    private final ChunkedBuffer profileIds;
+    private final ChunkedBuffer elevations;
+
+    /**
+     * Construit le tableau des arêtes contenues dans les tampons donnés
+     *
+     * @param edges      (ChunkedBuffer) : le contenu de edges.bin
+     * @param profileIds (ChunkedBuffer) : le contenu de profile_ids.bin
+     * @param elevations (ChunkedBuffer) : le contenu de elevations.bin
+     */
+    ChunkedGraphEdges(ChunkedBuffer edges, ChunkedBuffer profileIds, ChunkedBuffer elevations) {
+        this.edges = edges;
+        this.profileIds = profileIds;
+        this.elevations = elevations;
+    }
+
+    @Override
+    public int count() {
+        return Math.toIntExact(edges.byteSize() / EDGE_BYTES);
+    }
+
+    @Override
+    public boolean isInverted(int edgeId) {
+        return edges.getInt((long) edgeId * EDGE_BYTES + OFFSET_W) < 0;
+    }
+
+    @Override
+    public int targetNodeId(int edgeId) {
+        int target = edges.getInt((long) edgeId * EDGE_BYTES + OFFSET_W);
+        return target < 0 ? ~target : target;
+    }
+
+    @Override
+    public double length(int edgeId) {
+        return Q28_4.asDouble(Short.toUnsignedInt(edges.getShort((long) edgeId * EDGE_BYTES + OFFSET_L)));
+    }
+
+    @Override
+    public double elevationGain(int edgeId) {
+        return Q28_4.asDouble(Short.toUnsignedInt(edges.getShort((long) edgeId * EDGE_BYTES + OFFSET_E)));
+    }
+
+    @Override
+    public boolean hasProfile(int edgeId) {
+        return Bits.extractUnsigned(profileId(edgeId), PROFILE_TYPE_START, PROFILE_TYPE_LENGTH) != 0;
+    }
+
+    @Override
+    public float[] profileSamples(int edgeId) {
+        float[] samples = new float[profileSampleCount(edgeId)];
+        profileSamples(edgeId, samples, 0);
+        return samples;
+    }
+
+    @Override
+    public int profileSampleCount(int edgeId) {
+        return hasProfile(edgeId) ? GraphEdges.sampleCount(length(edgeId)) : 0;
+    }
+
+    @Override
+    public int profileSamples(int edgeId, float[] samples, int offset) {
+        if (!hasProfile(edgeId)) {
+            return 0;
+        }
+        return GraphEdges.decodeProfile(profileId(edgeId), GraphEdges.sampleCount(length(edgeId)),
+                isInverted(edgeId), i -> elevations.getShort((long) i * Short.BYTES), samples, offset);
+    }
+
+    @Override
+    public int attributesIndex(int edgeId) {
+        return Short.toUnsignedInt(edges.getShort((long) edgeId * EDGE_BYTES + OFFSET_ATT));
+    }
+
+    /**
+     * Méthode privée retournant le type de profil et l'identité du premier échantillon de l'arête donnée
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (int) : le contenu de profile_ids.bin pour l'arête
+     */
+    private int profileId(int edgeId) {
+        return profileIds.getInt((long) edgeId * Integer.BYTES);
+    }
+
+}
@@ -0,0 +1,69 @@
+package ch.epfl.javelo.data;
+
+import ch.epfl.javelo.Bits;
+import ch.epfl.javelo.Q28_4;
+
+/**
+ * Classe représentant le tableau de tous les nœuds du graphe JaVelo, lu dans le contenu de nodes.bin projeté en
+ * mémoire par tranches ; contrairement à GraphNodes, elle calcule les positions en long et accepte donc un fichier
+ * de plus de 2 Gio.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+final class ChunkedGraphNodes implements NodeStorage {
+
+    private static final int OFFSET_E = 0;
+    private static final int OFFSET_N = OFFSET_E + Integer.BYTES;
+    private static final int OFFSET_OUT_EDGES = OFFSET_N + Integer.BYTES;
+    private static final int NODE_BYTES = OFFSET_OUT_EDGES + Integer.BYTES;
+    private static final int DEGREE_START = 28;
+    private static final int DEGREE_LENGTH = 4;
+
+    private final ChunkedBuffer buffer;
+
+    /**
+     * Construit le tableau des nœuds contenus dans le tampon donné
+     *
+     * @param buffer (ChunkedBuffer) : le contenu de nodes.bin
+     */
+    ChunkedGraphNodes(ChunkedBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int count() {
+        return Math.toIntExact(buffer.byteSize() / NODE_BYTES);
+    }
+
+    @Override
+    public double nodeE(int nodeId) {
+        return Q28_4.asDouble(buffer.getInt((long) nodeId * NODE_BYTES + OFFSET_E));
+    }
+
+    @Override
+    public double nodeN(int nodeId) {
+        return Q28_4.asDouble(buffer.getInt((long) nodeId * NODE_BYTES + OFFSET_N));
+    }
+
+    @Override
+    public int outDegree(int nodeId) {
+        return Bits.extractUnsigned(outEdges(nodeId), DEGREE_START, DEGREE_LENGTH);
+    }
+
+    @Override
+    public int edgeId(int nodeId, int edgeIndex) {
+        assert 0 <= edgeIndex && edgeIndex < outDegree(nodeId);
+        return Bits.extractUnsigned(outEdges(nodeId), 0, DEGREE_START) + edgeIndex;
+    }
+
+    /**
+     * Méthode privée retournant l'entier contenant le degré sortant et l'identité de la première arête du nœud donné
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (int) : le degré sortant et l'identité de la première arête
+     */
+    private int outEdges(int nodeId) {
+        return buffer.getInt((long) nodeId * NODE_BYTES + OFFSET_OUT_EDGES);
+    }
+
+}
@@ -0,0 +1,110 @@
+package ch.epfl.javelo.data;
+
+/**
+ * Classe représentant le tableau de toutes les arêtes du graphe JaVelo, dont la destination, le sens, la longueur, le
+ * dénivelé positif et l'ensemble d'attributs sont décodés une fois pour toutes lors du chargement dans des tableaux de
+ * types primitifs résidant sur le tas. Les profils, volumineux et déjà mémorisés par le cache des profils du graphe,
+ * restent lus dans les arêtes d'origine.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+final class DecodedGraphEdges implements EdgeStorage {
+
+    private final EdgeStorage source;
+    private final int[] targetNodeIds;
+    private final boolean[] inverted;
+    // Les longueurs et dénivelés, au format UQ12.4, sont représentables exactement par des float
+    private final float[] lengths;
+    private final float[] elevationGains;
+    private final char[] attributesIndices;
+
+    private DecodedGraphEdges(EdgeStorage source, int[] targetNodeIds, boolean[] inverted, float[] lengths,
+                              float[] elevationGains, char[] attributesIndices) {
+        this.source = source;
+        this.targetNodeIds = targetNodeIds;
+        this.inverted = inverted;
+        this.lengths = lengths;
+        this.elevationGains = elevationGains;
+        this.attributesIndices = attributesIndices;
+    }
+
+    /**
+     * Méthode décodant toutes les arêtes données, à l'exception de leurs profils
+     *
+     * @param edges (EdgeStorage) : les arêtes à décoder, dont les profils restent lus
+     * @return (DecodedGraphEdges) : les arêtes décodées
+     */
+    static DecodedGraphEdges of(EdgeStorage edges) {
+        int count = edges.count();
+        int[] targetNodeIds = new int[count];
+        boolean[] inverted = new boolean[count];
+        float[] lengths = new float[count];
+        float[] elevationGains = new float[count];
+        char[] attributesIndices = new char[count];
+        for (int edgeId = 0; edgeId < count; edgeId++) {
+            targetNodeIds[edgeId] = edges.targetNodeId(edgeId);
+            inverted[edgeId] = edges.isInverted(edgeId);
+            lengths[edgeId] = (float) edges.length(edgeId);
+            elevationGains[edgeId] = (float) edges.elevationGain(edgeId);
+            attributesIndices[edgeId] = (char) edges.attributesIndex(edgeId);
+        }
+        return new DecodedGraphEdges(edges, targetNodeIds, inverted, lengths, elevationGains, attributesIndices);
+    }
+
+    @Override
+    public int count() {
+        return targetNodeIds.length;
+    }
+
+    @Override
+    public boolean isInverted(int edgeId) {
+        return inverted[edgeId];
+    }
+
+    @Override
+    public int targetNodeId(int edgeId) {
+        return targetNodeIds[edgeId];
+    }
+
+    @Override
+    public double length(int edgeId) {
+        return lengths[edgeId];
+    }
+
+    @Override
+    public double elevationGain(int edgeId) {
+        return elevationGains[edgeId];
+    }
+
+    @Override
+    public boolean hasProfile(int edgeId) {
+        return source.hasProfile(edgeId);
+    }
+
+    @Override
+    public float[] profileSamples(int edgeId) {
+        return source.profileSamples(edgeId);
+    }
+
+    @Override
+    public int profileSampleCount(int edgeId) {
+        return source.profileSampleCount(edgeId);
+    }
+
+    @Override
+    public int profileSamples(int edgeId, float[] samples, int offset) {
+        return source.profileSamples(edgeId, samples, offset);
+    }
+
+    @Override
+    public int attributesIndex(int edgeId) {
+        return attributesIndices[edgeId];
+    }
+
+    @Override
+    public long heapBytes() {
+        // Un boolean occupe un octet dans un tableau
+        return (long) count() * (Integer.BYTES + Byte.BYTES + 2 * Float.BYTES + Character.BYTES);
+    }
+
+}
@@ -0,0 +1,78 @@
+package ch.epfl.javelo.data;
+
+/**
+ * Classe représentant le tableau de tous les nœuds du graphe JaVelo, décodés une fois pour toutes lors du chargement
+ * dans des tableaux de types primitifs résidant sur le tas. Elle occupe davantage de mémoire que GraphNodes, mais ses
+ * méthodes ne font plus aucun décodage.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+final class DecodedGraphNodes implements NodeStorage {
+
+    private final double[] e;
+    private final double[] n;
+    private final int[] firstEdgeIds;
+    private final byte[] outDegrees;
+
+    private DecodedGraphNodes(double[] e, double[] n, int[] firstEdgeIds, byte[] outDegrees) {
+        this.e = e;
+        this.n = n;
+        this.firstEdgeIds = firstEdgeIds;
+        this.outDegrees = outDegrees;
+    }
+
+    /**
+     * Méthode décodant tous les nœuds donnés
+     *
+     * @param nodes (NodeStorage) : les nœuds à décoder
+     * @return (DecodedGraphNodes) : les nœuds décodés
+     */
+    static DecodedGraphNodes of(NodeStorage nodes) {
+        int count = nodes.count();
+        double[] e = new double[count];
+        double[] n = new double[count];
+        int[] firstEdgeIds = new int[count];
+        byte[] outDegrees = new byte[count];
+        for (int nodeId = 0; nodeId < count; nodeId++) {
+            e[nodeId] = nodes.nodeE(nodeId);
+            n[nodeId] = nodes.nodeN(nodeId);
+            int outDegree = nodes.outDegree(nodeId);
+            outDegrees[nodeId] = (byte) outDegree;
+            // Un nœud sans arête sortante n'a pas de première arête, on mémorise alors 0
+            firstEdgeIds[nodeId] = outDegree == 0 ? 0 : nodes.edgeId(nodeId, 0);
+        }
+        return new DecodedGraphNodes(e, n, firstEdgeIds, outDegrees);
+    }
+
+    @Override
+    public int count() {
+        return e.length;
+    }
+
+    @Override
+    public double nodeE(int nodeId) {
+        return e[nodeId];
+    }
+
+    @Override
+    public double nodeN(int nodeId) {
+        return n[nodeId];
+    }
+
+    @Override
+    public int outDegree(int nodeId) {
+        return outDegrees[nodeId];
+    }
+
+    @Override
+    public int edgeId(int nodeId, int edgeIndex) {
+        assert 0 <= edgeIndex && edgeIndex < outDegree(nodeId);
+        return firstEdgeIds[nodeId] + edgeIndex;
+    }
+
+    @Override
+    public long heapBytes() {
+        return (long) count() * (2 * Double.BYTES + Integer.BYTES + Byte.BYTES);
+    }
+
+}
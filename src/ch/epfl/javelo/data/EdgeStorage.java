@@ -0,0 +1,106 @@
+package ch.epfl.javelo.data;
+
+/**
+ * Interface représentant le tableau de toutes les arêtes du graphe JaVelo, quelle que soit la manière dont le contenu
+ * de edges.bin, profile_ids.bin et elevations.bin est stocké en mémoire
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+interface EdgeStorage {
+
+    /**
+     * Méthode retournant le nombre total d'arêtes
+     *
+     * @return (int) : le nombre total d'arêtes
+     */
+    int count();
+
+    /**
+     * Méthode retournant vrai ssi l'arête d'identité donnée va dans le sens inverse de la voie OSM dont elle provient
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (boolean) : vrai ssi l'arête est inversée
+     */
+    boolean isInverted(int edgeId);
+
+    /**
+     * Méthode retournant l'identité du nœud destination de l'arête d'identité donnée
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (int) : l'identité du nœud destination
+     */
+    int targetNodeId(int edgeId);
+
+    /**
+     * Méthode retournant la longueur, en mètres, de l'arête d'identité donnée
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (double) : la longueur de l'arête
+     */
+    double length(int edgeId);
+
+    /**
+     * Méthode retournant le dénivelé positif, en mètres, de l'arête d'identité donnée
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (double) : le dénivelé positif de l'arête
+     */
+    double elevationGain(int edgeId);
+
+    /**
+     * Méthode retournant vrai ssi l'arête d'identité donnée possède un profil
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (boolean) : vrai ssi l'arête possède un profil
+     */
+    boolean hasProfile(int edgeId);
+
+    /**
+     * Méthode retournant le tableau des échantillons du profil de l'arête d'identité donnée, qui est vide si l'arête
+     * ne possède pas de profil
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (float[]) : les échantillons du profil de l'arête
+     */
+    float[] profileSamples(int edgeId);
+
+    /**
+     * Méthode retournant le nombre d'échantillons du profil de l'arête d'identité donnée, qui est nul si l'arête ne
+     * possède pas de profil
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (int) : le nombre d'échantillons du profil
+     */
+    int profileSampleCount(int edgeId);
+
+    /**
+     * Méthode écrivant les échantillons du profil de l'arête d'identité donnée dans le tableau donné, à partir de la
+     * position donnée
+     *
+     * @param edgeId  (int) : l'identité de l'arête
+     * @param samples (float[]) : le tableau dans lequel écrire les échantillons
+     * @param offset  (int) : la position du premier échantillon dans le tableau
+     * @return (int) : le nombre d'échantillons écrits, nul si l'arête ne possède pas de profil
+     * @throws IndexOutOfBoundsException si les échantillons ne tiennent pas dans le tableau
+     */
+    int profileSamples(int edgeId, float[] samples, int offset);
+
+    /**
+     * Méthode retournant l'identité de l'ensemble d'attributs attaché à l'arête d'identité donnée
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (int) : l'identité de l'ensemble d'attributs
+     */
+    int attributesIndex(int edgeId);
+
+    /**
+     * Méthode retournant la taille, en octets, des tableaux alloués sur le tas pour stocker les arêtes, nulle si leur
+     * contenu est seulement projeté en mémoire
+     *
+     * @return (long) : la taille occupée sur le tas
+     */
+    default long heapBytes() {
+        return 0;
+    }
+
+}
@@ -5,6 +5,7 @@
 package ch.epfl.javelo.data;
 
 import ch.epfl.javelo.Functions;
+import ch.epfl.javelo.Preconditions;
 import ch.epfl.javelo.projection.PointCh;
 
 import java.io.*;
@@ -13,7 +14,10 @@ import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntPredicate;
 
 /**
  * Classe publique et immuable représentant le graphe JaVelo
@@ -24,13 +28,178 @@ import java.util.function.DoubleUnaryOperator;
 public final class Graph {
 
     /**
-     * Méthode permettant de charger le graphe depuis un répertoire
+     * Énumération représentant les manières de stocker en mémoire les nœuds et les arêtes d'un graphe chargé
+     */
+    public enum StorageMode {
+        /**
+         * Chaque fichier est projeté en mémoire dans un seul ByteBuffer ; c'est le mode le plus rapide, mais il est
+         * limité aux fichiers de moins de 2 Gio
+         */
+        BUFFER,
+        /**
+         * Chaque fichier est projeté en mémoire par tranches de 1 Gio, accessibles au moyen de positions de type long ;
+         * ce mode accepte des graphes de plus de 2 Gio (p. ex. toute l'Europe)
+         */
+        CHUNKED,
+        /**
+         * Les fichiers sont projetés en mémoire comme avec BUFFER, puis les nœuds et les arêtes (à l'exception des
+         * profils) sont décodés dans des tableaux résidant sur le tas ; ce mode occupe environ 21 octets de plus par
+         * nœud et 15 de plus par arête (voir heapBytes), mais évite tout décodage lors des recherches d'itinéraire
+         */
+        DECODED
+    }
+
+    /**
+     * Énumération représentant les fichiers d'un graphe
+     */
+    public enum DataFile {
+        NODES("nodes.bin"),
+        SECTORS("sectors.bin"),
+        EDGES("edges.bin"),
+        PROFILE_IDS("profile_ids.bin"),
+        ELEVATIONS("elevations.bin"),
+        ATTRIBUTES("attributes.bin");
+
+        /**
+         * Les fichiers utilisés à chaque recherche d'itinéraire ; les données dérivées de tout le graphe, p. ex. une
+         * fonction de coût tabulée (CityBikeCFTable) ou ses composantes connexes (ComponentIndex), les lisent déjà en
+         * entier, ce qui rend inutile leur chargement à l'avance lorsqu'elles sont calculées avant la première
+         * recherche
+         */
+        public static final Set<DataFile> ROUTING = Set.of(NODES, EDGES, ATTRIBUTES);
+        /**
+         * Les fichiers utilisés par les profils en long des arêtes, lus lors de la construction du profil d'un
+         * itinéraire mais par aucune recherche ni aucune des données dérivées mentionnées ci-dessus
+         */
+        public static final Set<DataFile> PROFILES = Set.of(PROFILE_IDS, ELEVATIONS);
+
+        private final String fileName;
+
+        DataFile(String fileName) {
+            this.fileName = fileName;
+        }
+
+        /**
+         * Méthode retournant le nom du fichier, dans le répertoire du graphe
+         *
+         * @return (String) : le nom du fichier
+         */
+        public String fileName() {
+            return fileName;
+        }
+    }
+
+    /**
+     * Enregistrement représentant les options de chargement d'un graphe
+     *
+     * @param storageMode     (StorageMode) : la manière de stocker les nœuds et les arêtes
+     * @param verifyChecksums (boolean) : vrai ssi les sommes de contrôle des fichiers doivent être vérifiées, ce qui
+     *                        exige que le répertoire contienne un manifeste (voir GraphManifest), le chargement
+     *                        échouant sinon ; cette vérification lit la totalité des fichiers et ralentit donc le
+     *                        démarrage
+     * @param warmUpFiles     (Set<DataFile>) : les fichiers à charger dans le cache de pages du système avant de
+     *                        retourner le graphe, afin que les premières recherches ne soient pas ralenties par des
+     *                        lectures sur disque (voir warmUpNanos)
+     */
+    public record LoadOptions(StorageMode storageMode, boolean verifyChecksums, Set<DataFile> warmUpFiles) {
+
+        /**
+         * Les options par défaut : fichiers projetés dans un seul ByteBuffer, sommes de contrôle non vérifiées et
+         * aucun fichier chargé à l'avance
+         */
+        public static final LoadOptions DEFAULT = new LoadOptions(StorageMode.BUFFER, false);
+
+        /**
+         * Constructeur compact validant les options et copiant l'ensemble des fichiers à charger à l'avance
+         *
+         * @throws NullPointerException si l'une des options est nulle
+         */
+        public LoadOptions {
+            Objects.requireNonNull(storageMode);
+            warmUpFiles = Set.copyOf(warmUpFiles);
+        }
+
+        /**
+         * Constructeur d'options ne chargeant aucun fichier à l'avance
+         *
+         * @param storageMode     (StorageMode) : la manière de stocker les nœuds et les arêtes
+         * @param verifyChecksums (boolean) : vrai ssi les sommes de contrôle des fichiers doivent être vérifiées
+         */
+        public LoadOptions(StorageMode storageMode, boolean verifyChecksums) {
+            this(storageMode, verifyChecksums, Set.of());
+        }
+
+        /**
+         * Méthode retournant des options identiques à celles-ci, mais avec la manière de stocker le graphe donnée
+         *
+         * @param storageMode (StorageMode) : la manière de stocker les nœuds et les arêtes
+         * @return (LoadOptions) : les nouvelles options
+         */
+        public LoadOptions withStorageMode(StorageMode storageMode) {
+            return new LoadOptions(storageMode, verifyChecksums, warmUpFiles);
+        }
+
+        /**
+         * Méthode retournant des options identiques à celles-ci, mais vérifiant ou non les sommes de contrôle
+         *
+         * @param verifyChecksums (boolean) : vrai ssi les sommes de contrôle doivent être vérifiées
+         * @return (LoadOptions) : les nouvelles options
+         */
+        public LoadOptions withChecksumVerification(boolean verifyChecksums) {
+            return new LoadOptions(storageMode, verifyChecksums, warmUpFiles);
+        }
+
+        /**
+         * Méthode retournant des options identiques à celles-ci, mais chargeant à l'avance les fichiers donnés
+         *
+         * @param warmUpFiles (Set<DataFile>) : les fichiers à charger à l'avance, p. ex. DataFile.PROFILES
+         * @return (LoadOptions) : les nouvelles options
+         */
+        public LoadOptions withWarmUp(Set<DataFile> warmUpFiles) {
+            return new LoadOptions(storageMode, verifyChecksums, warmUpFiles);
+        }
+    }
+
+    /**
+     * Méthode permettant de charger le graphe depuis un répertoire, chaque fichier étant projeté en mémoire dans un
+     * seul ByteBuffer (StorageMode.BUFFER)
      *
      * @param basePath (Path) : chemin d'accès du répertoire
      * @return (Graph) : le graphe chargé grâce au répertoire
      * @throws IOException en cas d'erreur d'entrée/sortie, p. ex. si l'un des fichiers attendus n'existe pas.
      */
     public static Graph loadFrom(Path basePath) throws IOException {
+        return loadFrom(basePath, LoadOptions.DEFAULT);
+    }
+
+    /**
+     * Méthode permettant de charger le graphe depuis un répertoire, les nœuds et les arêtes étant stockés de la
+     * manière donnée ; les secteurs et les attributs, de petite taille, sont toujours stockés de la même manière
+     *
+     * @param basePath    (Path) : chemin d'accès du répertoire
+     * @param storageMode (StorageMode) : la manière de stocker les nœuds et les arêtes
+     * @return (Graph) : le graphe chargé grâce au répertoire
+     * @throws IOException en cas d'erreur d'entrée/sortie, p. ex. si l'un des fichiers attendus n'existe pas.
+     */
+    public static Graph loadFrom(Path basePath, StorageMode storageMode) throws IOException {
+        return loadFrom(basePath, LoadOptions.DEFAULT.withStorageMode(storageMode));
+    }
+
+    /**
+     * Méthode permettant de charger le graphe depuis un répertoire avec les options données. Les tailles des fichiers
+     * sont d'abord vérifiées (voir GraphManifest.verify), de sorte qu'un fichier tronqué soit signalé dès le
+     * chargement plutôt que lors d'une recherche d'itinéraire.
+     *
+     * @param basePath (Path) : chemin d'accès du répertoire
+     * @param options  (LoadOptions) : les options de chargement
+     * @return (Graph) : le graphe chargé grâce au répertoire
+     * @throws IOException en cas d'erreur d'entrée/sortie, p. ex. si l'un des fichiers attendus n'existe pas, si les
+     *                     fichiers sont incohérents ou si leurs sommes de contrôle sont invalides
+     */
+    public static Graph loadFrom(Path basePath, LoadOptions options) throws IOException {
+        GraphManifest.verify(basePath, options.verifyChecksums());
+        long warmUpNanos = options.warmUpFiles().isEmpty() ? 0 : GraphWarmUp.warmUp(basePath, options.warmUpFiles());
+        StorageMode storageMode = options.storageMode();
         Path attributesPath = basePath.resolve("attributes.bin");
         Path edgesPath = basePath.resolve("edges.bin");
         Path nodesPath = basePath.resolve("nodes.bin");
@@ -43,49 +212,91 @@ public final class Graph {
         ByteBuffer edgesBuffer;
         IntBuffer profileIds;
         ShortBuffer elevations;
-        List<AttributeSet> attributeSets = new ArrayList<AttributeSet>();
         LongBuffer attReader;
+        List<ByteBuffer> mappings = new ArrayList<>();
 
-        try (FileChannel channel = FileChannel.open(nodesPath)) {
-            nodesBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asIntBuffer();
-        }
-        GraphNodes graphNodes = new GraphNodes(nodesBuffer);
-
-        try (FileChannel channel = FileChannel.open(sectorsPath)) {
-            sectorsBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
-        }
+        sectorsBuffer = mapFile(sectorsPath, mappings);
         GraphSectors graphSectors = new GraphSectors(sectorsBuffer);
 
-        try (FileChannel channel = FileChannel.open(edgesPath)) {
-            edgesBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
-        }
-
-        try (FileChannel channel = FileChannel.open(profileIdsPath)) {
-            profileIds = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asIntBuffer();
-        }
+        NodeStorage graphNodes;
+        EdgeStorage graphedges;
+        if (storageMode == StorageMode.CHUNKED) {
+            graphNodes = new ChunkedGraphNodes(mapChunkedFile(nodesPath, mappings));
+            graphedges = new ChunkedGraphEdges(mapChunkedFile(edgesPath, mappings),
+                    mapChunkedFile(profileIdsPath, mappings), mapChunkedFile(elevationsPath, mappings));
+        } else {
+            nodesBuffer = mapFile(nodesPath, mappings).asIntBuffer();
+            graphNodes = new GraphNodes(nodesBuffer);
 
-        try (FileChannel channel = FileChannel.open(elevationsPath)) {
-            elevations = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asShortBuffer();
+            edgesBuffer = mapFile(edgesPath, mappings);
+            profileIds = mapFile(profileIdsPath, mappings).asIntBuffer();
+            elevations = mapFile(elevationsPath, mappings).asShortBuffer();
+            graphedges = new GraphEdges(edgesBuffer, profileIds, elevations);
+            if (storageMode == StorageMode.DECODED) {
+                graphNodes = DecodedGraphNodes.of(graphNodes);
+                graphedges = DecodedGraphEdges.of(graphedges);
+            }
         }
-        GraphEdges graphedges = new GraphEdges(edgesBuffer, profileIds, elevations);
 
-        try (FileChannel channel = FileChannel.open(attributesPath)) {
-            attReader = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asLongBuffer();
-        }
+        attReader = mapFile(attributesPath, mappings).asLongBuffer();
 
         for (int i = 0; i < attReader.capacity(); i++) {
-            AttributeSet attributeSet = new AttributeSet(attReader.get(i));
-            attributeSets.add(attributeSet);
+            Preconditions.checkArgument((attReader.get(i) >>> Attribute.COUNT) == 0);
         }
 
-        return new Graph(graphNodes, graphSectors, graphedges, attributeSets);
+        return new Graph(graphNodes, graphSectors, graphedges, attReader.asReadOnlyBuffer(),
+                new ProfileCache(ProfileCache.DEFAULT_BYTE_BUDGET), warmUpNanos, List.copyOf(mappings));
 
     }
 
-    private final GraphNodes nodes;
+    /**
+     * Méthode privée projetant en mémoire, en lecture seule, la totalité du fichier donné ; chaque projection émet un
+     * événement Java Flight Recorder (GraphFileLoadEvent)
+     *
+     * @param path     (Path) : le chemin d'accès du fichier
+     * @param mappings (List<ByteBuffer>) : la liste à laquelle ajouter la projection, afin de pouvoir la libérer
+     * @return (ByteBuffer) : le contenu du fichier
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    private static ByteBuffer mapFile(Path path, List<ByteBuffer> mappings) throws IOException {
+        GraphFileLoadEvent event = new GraphFileLoadEvent();
+        event.begin();
+        try (FileChannel channel = FileChannel.open(path)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            event.commit(path, buffer.capacity());
+            mappings.add(buffer);
+            return buffer;
+        }
+    }
+
+    /**
+     * Méthode privée projetant en mémoire par tranches, en lecture seule, la totalité du fichier donné ; chaque
+     * projection émet un événement Java Flight Recorder (GraphFileLoadEvent)
+     *
+     * @param path     (Path) : le chemin d'accès du fichier
+     * @param mappings (List<ByteBuffer>) : la liste à laquelle ajouter les tranches, afin de pouvoir les libérer
+     * @return (ChunkedBuffer) : le contenu du fichier
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    private static ChunkedBuffer mapChunkedFile(Path path, List<ByteBuffer> mappings) throws IOException {
+        GraphFileLoadEvent event = new GraphFileLoadEvent();
+        event.begin();
+        ChunkedBuffer buffer = ChunkedBuffer.map(path);
+        event.commit(path, buffer.byteSize());
+        mappings.addAll(buffer.chunks());
+        return buffer;
+    }
+
+    private final NodeStorage nodes;
     private final GraphSectors sectors;
-    private final GraphEdges edges;
-    private final List<AttributeSet> attributeSets;
+    private final EdgeStorage edges;
+    // Les séquences de bits des ensembles d'attributs, lues directement dans attributes.bin projeté en mémoire
+    private final LongBuffer attributeBits;
+    private final ProfileCache profileCache;
+    private final long warmUpNanos;
+    // Les projections en mémoire des fichiers, telles que retournées par FileChannel.map (les vues qui en sont
+    // dérivées, p. ex. par asIntBuffer, ne pouvant pas être libérées), vide si le graphe n'a pas été chargé
+    private final List<ByteBuffer> mappings;
 
     /**
      * Constructeur public de Graph
@@ -96,10 +307,115 @@ public final class Graph {
      * @param attributeSets (List<AttributeSet>) : représente l'ensemble des attributs du graphe
      */
     public Graph(GraphNodes nodes, GraphSectors sectors, GraphEdges edges, List<AttributeSet> attributeSets) {
+        this(nodes, sectors, edges,
+                LongBuffer.wrap(attributeSets.stream().mapToLong(AttributeSet::bits).toArray()));
+    }
+
+    /**
+     * Constructeur de Graph acceptant n'importe quelle manière de stocker les nœuds et les arêtes ; les ensembles
+     * d'attributs ne sont pas copiés, et leurs séquences de bits doivent déjà avoir été validées
+     *
+     * @param nodes         (NodeStorage) : représente l'ensemble de nœuds du graphe
+     * @param sectors       (GraphSectors) : représente l'ensemble des secteurs du graphe
+     * @param edges         (EdgeStorage) : représente l'ensemble des arêtes du graphe
+     * @param attributeBits (LongBuffer) : les séquences de bits des ensembles d'attributs du graphe
+     */
+    Graph(NodeStorage nodes, GraphSectors sectors, EdgeStorage edges, LongBuffer attributeBits) {
+        this(nodes, sectors, edges, attributeBits.asReadOnlyBuffer(),
+                new ProfileCache(ProfileCache.DEFAULT_BYTE_BUDGET), 0, List.of());
+    }
+
+    private Graph(NodeStorage nodes, GraphSectors sectors, EdgeStorage edges, LongBuffer attributeBits,
+                  ProfileCache profileCache, long warmUpNanos, List<ByteBuffer> mappings) {
         this.nodes = nodes;
         this.sectors = sectors;
         this.edges = edges;
-        this.attributeSets = List.copyOf(attributeSets);
+        this.attributeBits = attributeBits;
+        this.profileCache = profileCache;
+        this.warmUpNanos = warmUpNanos;
+        this.mappings = mappings;
+    }
+
+    /**
+     * Méthode retournant un graphe identique à celui-ci, partageant ses données, mais dont les profils des arêtes
+     * sont mémorisés dans le cache donné ; le même cache ne doit pas être partagé entre deux graphes différents.
+     * Les deux graphes partageant aussi les projections en mémoire des fichiers, unmap les libère pour chacun d'eux.
+     *
+     * @param profileCache (ProfileCache) : le cache des profils
+     * @return (Graph) : le graphe utilisant le cache donné
+     */
+    public Graph withProfileCache(ProfileCache profileCache) {
+        return new Graph(nodes, sectors, edges, attributeBits, Objects.requireNonNull(profileCache), warmUpNanos,
+                mappings);
+    }
+
+    /**
+     * Méthode libérant immédiatement les projections en mémoire des fichiers du graphe, sans attendre que le ramasse-
+     * miettes s'en charge, et vidant le cache des profils. Le graphe ne doit plus du tout être utilisé ensuite, toute
+     * lecture de ses nœuds, arêtes, secteurs ou attributs pouvant provoquer l'arrêt brutal de la machine virtuelle ;
+     * c'est pourquoi cette méthode n'est appelée que par GraphHolder, une fois le graphe remplacé et toutes les
+     * recherches qui l'utilisaient terminées.
+     *
+     * @return (boolean) : vrai ssi les projections ont été libérées, faux si le graphe n'a pas été chargé depuis un
+     * répertoire ou si la machine virtuelle ne permet pas de les libérer (elles le seront alors par le ramasse-miettes)
+     */
+    boolean unmap() {
+        profileCache.clear();
+        if (mappings.isEmpty()) return false;
+        boolean unmapped = true;
+        for (ByteBuffer mapping : mappings) {
+            unmapped &= MappedBuffers.unmap(mapping);
+        }
+        return unmapped;
+    }
+
+    /**
+     * Méthode retournant la durée du chargement à l'avance des fichiers du graphe dans le cache de pages du système
+     * (voir LoadOptions.warmUpFiles), qui était terminé lorsque loadFrom a retourné le graphe
+     *
+     * @return (long) : la durée du chargement à l'avance, en nanosecondes (0 si aucun fichier n'a été chargé)
+     */
+    public long warmUpNanos() {
+        return warmUpNanos;
+    }
+
+    /**
+     * Méthode retournant le cache dans lequel sont mémorisés les profils des arêtes, p. ex. pour en consulter les
+     * statistiques
+     *
+     * @return (ProfileCache) : le cache des profils
+     */
+    public ProfileCache profileCache() {
+        return profileCache;
+    }
+
+    /**
+     * Méthode retournant la taille, en octets, des tableaux alloués sur le tas pour stocker les nœuds et les arêtes du
+     * graphe ; elle est nulle sauf pour un graphe chargé avec StorageMode.DECODED, dont elle permet d'évaluer le coût
+     * en mémoire. Les ensembles d'attributs et le cache des profils ne sont pas comptés, pas plus que les fichiers
+     * projetés en mémoire, qui le sont par mappedBytes.
+     *
+     * @return (long) : la taille occupée sur le tas
+     */
+    public long heapBytes() {
+        return nodes.heapBytes() + edges.heapBytes();
+    }
+
+    /**
+     * Méthode retournant la taille totale, en octets, des projections en mémoire des fichiers du graphe, quelle que
+     * soit la manière dont il a été chargé (les tranches de StorageMode.CHUNKED, qui se chevauchent de quelques
+     * octets, étant comptées chacune en entier) ; elle est nulle pour un graphe qui n'a pas été chargé depuis un
+     * répertoire. Ces projections sont hors du tas, et n'occupent de la mémoire physique que pour les pages lues ;
+     * l'empreinte mémoire maximale du graphe est donc la somme de heapBytes et de mappedBytes.
+     *
+     * @return (long) : la taille des projections en mémoire
+     */
+    public long mappedBytes() {
+        long bytes = 0;
+        for (ByteBuffer mapping : mappings) {
+            bytes += mapping.capacity();
+        }
+        return bytes;
     }
 
     /**
@@ -151,6 +467,20 @@ public final class Graph {
      * @return (int) : le nœud le plus proche du point donné (ou -1)
      */
     public int nodeClosestTo(PointCh point, double searchDistance) {
+        return nodeClosestTo(point, searchDistance, nodeId -> true);
+    }
+
+    /**
+     * Méthode retournant l'identité du nœud satisfaisant le prédicat donné se trouvant le plus proche du point donné,
+     * à la distance maximale donnée (en mètres), ou -1 si aucun nœud ne correspond à ces critères ; elle permet p. ex.
+     * de n'accrocher un point qu'aux nœuds de la composante principale du réseau
+     *
+     * @param point          (PointCh) : le point autour duquel on cherche
+     * @param searchDistance (double) : la distance maximale à laquelle on cherche
+     * @param nodeFilter     (IntPredicate) : le prédicat que doit satisfaire l'identité du nœud
+     * @return (int) : le nœud le plus proche du point donné satisfaisant le prédicat (ou -1)
+     */
+    public int nodeClosestTo(PointCh point, double searchDistance, IntPredicate nodeFilter) {
         double distanceMax = searchDistance * searchDistance;
         int identyMemory = -1;
         List<GraphSectors.Sector> sectorsInArea = sectors.sectorsInArea(point, searchDistance);
@@ -158,7 +488,7 @@ public final class Graph {
             for (int j = secteur.startNodeId(); j < secteur.endNodeId(); j++) {
                 PointCh nodePoint = nodePoint(j);
                 double distance = point.squaredDistanceTo(nodePoint);
-                if (distance <= distanceMax) {
+                if (distance <= distanceMax && nodeFilter.test(j)) {
                     distanceMax = distance;
                     identyMemory = j;
                 }
@@ -167,6 +497,15 @@ public final class Graph {
         return identyMemory;
     }
 
+    /**
+     * Méthode retournant le nombre total d'arêtes dans le graphe
+     *
+     * @return (int) : le nombre total d'arêtes dans le graphe
+     */
+    public int edgeCount() {
+        return edges.count();
+    }
+
     /**
      * Méthode retournant l'identité du nœud destination de l'arête d'identité donnée
      *
@@ -195,7 +534,48 @@ public final class Graph {
      * @return (AttributeSet) : l'ensemble des attributs OSM attachés à l'arête d'identité donnée
      */
     public AttributeSet edgeAttributes(int edgeId) {
-        return attributeSets.get(edges.attributesIndex(edgeId));
+        return new AttributeSet(edgeAttributeBits(edgeId));
+    }
+
+    /**
+     * Méthode retournant la séquence de bits de l'ensemble des attributs OSM attachés à l'arête d'identité donnée,
+     * telle que retournée par AttributeSet.bits, sans allouer d'objet ; elle est destinée aux fonctions de coût
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (long) : la séquence de bits de l'ensemble des attributs de l'arête
+     */
+    public long edgeAttributeBits(int edgeId) {
+        return attributeBits.get(edges.attributesIndex(edgeId));
+    }
+
+    /**
+     * Méthode retournant l'index, dans la liste des ensembles d'attributs du graphe, de l'ensemble des attributs OSM
+     * attachés à l'arête d'identité donnée ; deux arêtes ont les mêmes attributs ssi elles ont le même index
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (int) : l'index de l'ensemble des attributs de l'arête
+     */
+    public int edgeAttributesIndex(int edgeId) {
+        return edges.attributesIndex(edgeId);
+    }
+
+    /**
+     * Méthode retournant le nombre d'ensembles d'attributs distincts du graphe
+     *
+     * @return (int) : le nombre d'ensembles d'attributs
+     */
+    public int attributeSetCount() {
+        return attributeBits.capacity();
+    }
+
+    /**
+     * Méthode retournant l'ensemble d'attributs d'index donné
+     *
+     * @param index (int) : l'index de l'ensemble d'attributs
+     * @return (AttributeSet) : l'ensemble d'attributs
+     */
+    public AttributeSet attributeSet(int index) {
+        return new AttributeSet(attributeBits.get(index));
     }
 
     /**
@@ -219,7 +599,8 @@ public final class Graph {
     }
 
     /**
-     * Méthode retournant le profil en long de l'arête d'identité donnée, sous la forme d'une fonction
+     * Méthode retournant le profil en long de l'arête d'identité donnée, sous la forme d'une fonction ; les
+     * échantillons du profil décodés sont mémorisés dans le cache des profils du graphe
      *
      * @param edgeId (int) : l'identité de l'arête
      * @return (DoubleUnaryOperator) : le profil en long de l'arête d'identité donnée, sous la forme d'une fonction
@@ -229,7 +610,7 @@ public final class Graph {
         if (!edges.hasProfile(edgeId)) {
             return Functions.constant(Double.NaN);
         }
-        return Functions.sampled(edges.profileSamples(edgeId), edgeLength(edgeId));
+        return Functions.sampled(profileCache.get(edgeId, edges::profileSamples), edgeLength(edgeId));
     }
 
 }
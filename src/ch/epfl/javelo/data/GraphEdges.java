@@ -5,11 +5,14 @@
 package ch.epfl.javelo.data;
 
 import ch.epfl.javelo.Bits;
+import ch.epfl.javelo.Preconditions;
 import ch.epfl.javelo.Q28_4;
 
 import java.nio.*;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Enregistrement représentant le tableau de toutes les arêtes du graphe JaVelo
@@ -20,7 +23,7 @@ import java.util.List;
  * @param elevations (ShortBuffer) : la mémoire tampon contenant la totalité des échantillons des profils, compressés ou non
  * @author : Roxanne Chevalley (339716)
  */
-public record GraphEdges(ByteBuffer edgesBuffer, IntBuffer profileIds, ShortBuffer elevations) {
+public record GraphEdges(ByteBuffer edgesBuffer, IntBuffer profileIds, ShortBuffer elevations) implements EdgeStorage {
 
     private static final int OFFSET_W = 0;
     private static final int OFFSET_L = OFFSET_W + Integer.BYTES;
@@ -33,6 +36,15 @@ public record GraphEdges(ByteBuffer edgesBuffer, IntBuffer profileIds, ShortBuff
     private static final int EXTRACT_MIDDLE1 = 30;
     private static final int EXTRACT_MIDDLE2 = 2;
 
+    /**
+     * Méthode retournant le nombre total d'arêtes
+     *
+     * @return (int) : le nombre total d'arêtes
+     */
+    public int count() {
+        return edgesBuffer.capacity() / EDGES_INTS;
+    }
+
     /**
      * Méthode retournant vrai si l'arête d'identité donnée va dans le sens inverse de la voie OSM dont elle provient
      * et retourne faux sinon.
@@ -101,46 +113,138 @@ public record GraphEdges(ByteBuffer edgesBuffer, IntBuffer profileIds, ShortBuff
      * @return (float[]) : le tableau des échantillons du profil de l'arête d'identité donnée
      */
     public float[] profileSamples(int edgeId) {
+        float[] samples = new float[profileSampleCount(edgeId)];
+        profileSamples(edgeId, samples, 0);
+        return samples;
+    }
+
+    /**
+     * Méthode retournant le nombre d'échantillons du profil de l'arête d'identité donnée, qui est nul si l'arête ne
+     * possède pas de profil
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (int) : le nombre d'échantillons du profil
+     */
+    public int profileSampleCount(int edgeId) {
+        return hasProfile(edgeId) ? sampleCount(length(edgeId)) : 0;
+    }
+
+    /**
+     * Méthode écrivant les échantillons du profil de l'arête d'identité donnée dans le tableau donné, à partir de la
+     * position donnée, sans allouer de mémoire
+     *
+     * @param edgeId  (int) : l'identité de l'arête
+     * @param samples (float[]) : le tableau dans lequel écrire les échantillons
+     * @param offset  (int) : la position du premier échantillon dans le tableau
+     * @return (int) : le nombre d'échantillons écrits, nul si l'arête ne possède pas de profil
+     * @throws IndexOutOfBoundsException si les échantillons ne tiennent pas dans le tableau
+     */
+    public int profileSamples(int edgeId, float[] samples, int offset) {
         if (!hasProfile(edgeId)) {
-            return new float[0];
+            return 0;
         }
-        int nbEch = 1 + (int) Math.ceil(length(edgeId) / MAX_LENGTH); //calcul le nombre d'échantillons dont on aura besoin
-        float[] tab = new float[nbEch]; //créations dun tableau pour mettre les échantillons
-        int firstIndex = Bits.extractUnsigned(profileIds.get(edgeId),EXTRACT_START,EXTRACT_MIDDLE1); //identité du premier échantillon
-        double profileType = Bits.extractUnsigned(profileIds.get(edgeId),EXTRACT_MIDDLE1,EXTRACT_MIDDLE2); //savoir le type de profil
-        tab[0] = Q28_4.asFloat(Bits.extractUnsigned(elevations.get(firstIndex),EXTRACT_START,EXTRACT_2BYTE)); //remplit avec le premier échantillon
+        return decodeProfile(profileIds.get(edgeId), sampleCount(length(edgeId)), isInverted(edgeId),
+                elevations::get, samples, offset);
+    }
 
-        for (int i = firstIndex + 1; i < firstIndex + nbEch; ++i) { //remplissage du tableau
-            int n = i - firstIndex;
+    /**
+     * Méthode décodant les profils des arêtes données, les uns à la suite des autres, dans un unique tableau ; les
+     * échantillons de l'arête edgeIds[i] occupent les positions offsets[i] (inclus) à offsets[i + 1] (exclu)
+     *
+     * @param edgeIds (int[]) : les identités des arêtes
+     * @param offsets (int[]) : le tableau, de taille edgeIds.length + 1, dans lequel écrire la position des profils
+     * @return (float[]) : les échantillons des profils de toutes les arêtes
+     * @throws IllegalArgumentException si le tableau des positions n'a pas la bonne taille
+     */
+    public float[] profileSamples(int[] edgeIds, int[] offsets) {
+        return decodeProfiles(this, edgeIds, offsets);
+    }
 
-            if (profileType == 1) { //cas 1
-                tab[n] = Q28_4.asFloat(Bits.extractUnsigned(elevations.get(i),EXTRACT_START,EXTRACT_2BYTE));
-            }
+    /**
+     * Méthode décodant les profils des arêtes données dans un unique tableau, partagée par toutes les manières de
+     * stocker les arêtes
+     *
+     * @param edges   (EdgeStorage) : les arêtes
+     * @param edgeIds (int[]) : les identités des arêtes
+     * @param offsets (int[]) : le tableau, de taille edgeIds.length + 1, dans lequel écrire la position des profils
+     * @return (float[]) : les échantillons des profils de toutes les arêtes
+     * @throws IllegalArgumentException si le tableau des positions n'a pas la bonne taille
+     */
+    static float[] decodeProfiles(EdgeStorage edges, int[] edgeIds, int[] offsets) {
+        Preconditions.checkArgument(offsets.length == edgeIds.length + 1);
+        offsets[0] = 0;
+        for (int i = 0; i < edgeIds.length; i++) {
+            offsets[i + 1] = Math.addExact(offsets[i], edges.profileSampleCount(edgeIds[i]));
+        }
+        float[] samples = new float[offsets[edgeIds.length]];
+        for (int i = 0; i < edgeIds.length; i++) {
+            edges.profileSamples(edgeIds[i], samples, offsets[i]);
+        }
+        return samples;
+    }
+
+    /**
+     * Méthode retournant le nombre d'échantillons du profil d'une arête de longueur donnée
+     *
+     * @param edgeLength (double) : la longueur de l'arête
+     * @return (int) : le nombre d'échantillons
+     */
+    static int sampleCount(double edgeLength) {
+        return 1 + (int) Math.ceil(edgeLength / MAX_LENGTH);
+    }
 
-            if(profileType == 3 || profileType == 2){ // 2 ou 3
-                int m = 2;
-                if(profileType == 3){
-                    m = 4;
+    /**
+     * Méthode décodant les échantillons d'un profil dans le tableau donné, partagée par toutes les manières de stocker
+     * les arêtes. Les profils compressés sont décodés une valeur de elevations.bin à la fois : la valeur est placée
+     * dans les bits de poids fort d'un int, dont chaque différence est extraite par un décalage arithmétique avant
+     * d'être ajoutée à l'échantillon précédent. Toutes les opérations en virgule flottante sont exactes, sauf
+     * l'addition, faite en float comme dans la définition du format.
+     *
+     * @param profileId   (int) : le type de profil (non nul) et l'identité du premier échantillon, tels que dans
+     *                    profile_ids.bin
+     * @param sampleCount (int) : le nombre d'échantillons du profil
+     * @param inverted    (boolean) : vrai ssi l'arête est inversée
+     * @param elevations  (IntUnaryOperator) : la fonction donnant le contenu de elevations.bin à l'index donné
+     * @param samples     (float[]) : le tableau dans lequel écrire les échantillons
+     * @param offset      (int) : la position du premier échantillon dans le tableau
+     * @return (int) : le nombre d'échantillons écrits
+     * @throws IndexOutOfBoundsException si les échantillons ne tiennent pas dans le tableau
+     */
+    static int decodeProfile(int profileId, int sampleCount, boolean inverted, IntUnaryOperator elevations,
+                             float[] samples, int offset) {
+        Objects.checkFromIndexSize(offset, sampleCount, samples.length);
+        int firstIndex = Bits.extractUnsigned(profileId, EXTRACT_START, EXTRACT_MIDDLE1);
+        int profileType = Bits.extractUnsigned(profileId, EXTRACT_MIDDLE1, EXTRACT_MIDDLE2);
+        int end = offset + sampleCount;
+
+        float sample = Q28_4.asFloat(Short.toUnsignedInt((short) elevations.applyAsInt(firstIndex)));
+        samples[offset] = sample;
+        if (profileType == 1) {
+            for (int i = 1; i < sampleCount; i++) {
+                samples[offset + i] = Q28_4.asFloat(Short.toUnsignedInt((short) elevations.applyAsInt(firstIndex + i)));
+            }
+        } else {
+            int deltaBits = profileType == 2 ? Byte.SIZE : Byte.SIZE / 2;
+            int i = offset + 1;
+            for (int index = firstIndex + 1; i < end; index++) {
+                // La première différence de la valeur se trouve dans ses bits de poids fort
+                int deltas = elevations.applyAsInt(index) << Short.SIZE;
+                for (int bits = 0; bits < Short.SIZE && i < end; bits += deltaBits, i++) {
+                    sample += Q28_4.asFloat(deltas >> (Integer.SIZE - deltaBits));
+                    samples[i] = sample;
+                    deltas <<= deltaBits;
                 }
-                int length= EXTRACT_2BYTE / m;
-                double k = Math.ceil(((double) n) / (double)m); //savoir quel index chercher dans elevations
-                int fact = (m - n % m) % m; //permettra de savoir ce qu'il faut extraire de "info"
-                short info = elevations.get(firstIndex + (int) k);
-                float dif = (float) Bits.extractSigned(info, length * fact, length);
-                dif = (float) Q28_4.asDouble((int)dif);
-                tab[n] = tab[n - 1] + dif; //remplissage du tableau
             }
-
-        }
-        if (!isInverted(edgeId)) {
-            return tab; //tab est dans le bon ordre si la route n'est pas inversée
-        }
-        float[] tabFin = new float[nbEch]; //tableau au cas où la route est inversée
-        for (int i = 0; i < nbEch; ++i) {
-            tabFin[i] = tab[nbEch - 1 - i];//inverse les indices si la route est inversée
         }
-        return tabFin;
 
+        if (inverted) {
+            for (int i = offset, j = end - 1; i < j; i++, j--) {
+                float tmp = samples[i];
+                samples[i] = samples[j];
+                samples[j] = tmp;
+            }
+        }
+        return sampleCount;
     }
 
     /**
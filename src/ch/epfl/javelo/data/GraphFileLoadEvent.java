@@ -0,0 +1,39 @@
+package ch.epfl.javelo.data;
+
+import jdk.jfr.*;
+
+import java.nio.file.Path;
+
+/**
+ * Événement Java Flight Recorder émis lors du chargement de chacun des fichiers d'un graphe, dont la durée est celle
+ * de l'ouverture et de la projection en mémoire du fichier
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+@Name("ch.epfl.javelo.GraphFileLoad")
+@Label("Graph File Load")
+@Category({"JaVelo", "Data"})
+@Description("Ouverture et projection en mémoire d'un fichier du graphe")
+final class GraphFileLoadEvent extends Event {
+
+    @Label("File")
+    private String file;
+
+    @Label("Bytes Mapped")
+    @DataAmount
+    private long bytesMapped;
+
+    /**
+     * Méthode terminant l'événement et l'enregistrant, si l'enregistrement est actif, avec les valeurs données
+     *
+     * @param path        (Path) : le chemin d'accès du fichier chargé
+     * @param bytesMapped (long) : le nombre d'octets projetés en mémoire
+     */
+    void commit(Path path, long bytesMapped) {
+        if (!shouldCommit()) return;
+        this.file = path.toString();
+        this.bytesMapped = bytesMapped;
+        commit();
+    }
+
+}
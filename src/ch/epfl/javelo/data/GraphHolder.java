@@ -0,0 +1,284 @@
+package ch.epfl.javelo.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Classe représentant le détenteur d'un graphe pouvant être remplacé pendant que des recherches l'utilisent, p. ex.
+ * pour prendre en compte de nouvelles données OpenStreetMap sans redémarrer un serveur. Avec le graphe, le détenteur
+ * conserve des données qui en sont dérivées (fonction de coût, composantes connexes, planificateur d'itinéraire,
+ * etc.), calculées une fois par graphe au moyen d'une fonction de dérivation ; remplacer le graphe invalide donc
+ * toujours ces données.
+ * <p>
+ * Un graphe et ses données dérivées forment un instantané, que les lecteurs obtiennent au moyen d'un bail (acquire)
+ * et doivent utiliser jusqu'à la fin de leur recherche, même si le graphe est remplacé entre-temps ; les nouveaux
+ * baux portent sur le nouvel instantané. Chaque instantané compte ses références (celle du détenteur et celle de
+ * chaque bail) : lorsque la dernière disparaît, ses données dérivées sont fermées si elles implémentent
+ * AutoCloseable, le cache des profils de son graphe est vidé et les projections en mémoire des fichiers sont libérées
+ * immédiatement plutôt que lorsque le ramasse-miettes le décide (voir Graph.unmap). Les graphes confiés au détenteur
+ * lui appartiennent donc, et ne doivent plus être utilisés en dehors d'un bail.
+ *
+ * @param <T> le type des données dérivées du graphe
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class GraphHolder<T> implements AutoCloseable {
+
+    private final Function<Graph, T> derivation;
+    private final Graph.LoadOptions loadOptions;
+    private final AtomicReference<Snapshot<T>> current;
+    private final ExecutorService reloader;
+
+    /**
+     * Construit un détenteur du graphe donné, qui lui appartient désormais, et des données qui en sont dérivées
+     *
+     * @param graph       (Graph) : le graphe initial
+     * @param loadOptions (Graph.LoadOptions) : les options avec lesquelles les graphes suivants sont chargés (voir
+     *                    reload)
+     * @param derivation  (Function<Graph, T>) : la fonction calculant les données dérivées d'un graphe
+     */
+    public GraphHolder(Graph graph, Graph.LoadOptions loadOptions, Function<Graph, T> derivation) {
+        this.derivation = Objects.requireNonNull(derivation);
+        this.loadOptions = Objects.requireNonNull(loadOptions);
+        this.current = new AtomicReference<>(new Snapshot<>(graph, derivation.apply(graph), 1));
+        this.reloader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "javelo-graph-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Méthode chargeant le graphe contenu dans le répertoire donné avec les options données, et retournant un
+     * détenteur de ce graphe et des données qui en sont dérivées
+     *
+     * @param basePath    (Path) : chemin d'accès du répertoire du graphe
+     * @param loadOptions (Graph.LoadOptions) : les options de chargement de ce graphe et des suivants
+     * @param derivation  (Function<Graph, T>) : la fonction calculant les données dérivées d'un graphe
+     * @return (GraphHolder<T>) : le détenteur du graphe chargé
+     * @throws IOException en cas d'erreur d'entrée/sortie lors du chargement (voir Graph.loadFrom)
+     */
+    public static <T> GraphHolder<T> loadFrom(Path basePath, Graph.LoadOptions loadOptions,
+                                              Function<Graph, T> derivation) throws IOException {
+        return new GraphHolder<>(Graph.loadFrom(basePath, loadOptions), loadOptions, derivation);
+    }
+
+    /**
+     * Méthode retournant un bail sur l'instantané actuel, qui reste utilisable jusqu'à la fermeture du bail même si
+     * le graphe est remplacé entre-temps
+     *
+     * @return (Lease<T>) : le bail, à fermer dès la fin de la recherche (p. ex. au moyen de try-with-resources)
+     * @throws IllegalStateException si le détenteur a été fermé
+     */
+    public Lease<T> acquire() {
+        while (true) {
+            Snapshot<T> snapshot = current.get();
+            if (snapshot == null) throw new IllegalStateException("graph holder closed");
+            // L'instantané peut avoir été remplacé, puis libéré par son dernier bail, depuis sa lecture : on relit
+            // alors l'instantané actuel
+            if (snapshot.retain()) return new Lease<>(snapshot);
+        }
+    }
+
+    /**
+     * Méthode retournant la génération de l'instantané actuel, qui vaut 1 pour le graphe initial et augmente de 1 à
+     * chaque remplacement
+     *
+     * @return (long) : la génération actuelle
+     * @throws IllegalStateException si le détenteur a été fermé
+     */
+    public long generation() {
+        Snapshot<T> snapshot = current.get();
+        if (snapshot == null) throw new IllegalStateException("graph holder closed");
+        return snapshot.generation;
+    }
+
+    /**
+     * Méthode remplaçant le graphe détenu par le graphe donné, qui appartient désormais au détenteur, après avoir
+     * calculé ses données dérivées ; les baux en cours continuent d'utiliser l'ancien instantané, qui est libéré à la
+     * fermeture du dernier d'entre eux (ou immédiatement s'il n'y en a aucun)
+     *
+     * @param graph (Graph) : le nouveau graphe
+     * @return (long) : la génération du nouvel instantané
+     * @throws IllegalStateException si le détenteur a été fermé ; le graphe donné est alors libéré
+     */
+    public long swap(Graph graph) {
+        T derived;
+        try {
+            derived = derivation.apply(graph);
+        } catch (RuntimeException | Error e) {
+            graph.unmap();
+            throw e;
+        }
+        Snapshot<T> previous;
+        Snapshot<T> next;
+        synchronized (current) {
+            previous = current.get();
+            next = new Snapshot<>(graph, derived, previous == null ? 0 : previous.generation + 1);
+            if (previous != null) current.set(next);
+        }
+        if (previous == null) {
+            next.release();
+            throw new IllegalStateException("graph holder closed");
+        }
+        previous.release();
+        return next.generation;
+    }
+
+    /**
+     * Méthode chargeant en arrière-plan le graphe contenu dans le répertoire donné, avec les options de ce détenteur,
+     * puis le substituant au graphe détenu (voir swap). Les rechargements sont effectués l'un après l'autre, sur un
+     * fil d'exécution dédié ; les recherches continuent d'utiliser le graphe actuel pendant le chargement et le
+     * calcul des données dérivées.
+     *
+     * @param basePath (Path) : chemin d'accès du répertoire du nouveau graphe, qui doit différer de celui du graphe
+     *                 actuel si ses fichiers sont remplacés (un fichier projeté en mémoire ne devant pas être modifié)
+     * @return (CompletableFuture<Long>) : la future génération du nouvel instantané, complétée exceptionnellement
+     * (p. ex. par une UncheckedIOException) si le chargement échoue, le graphe actuel étant alors conservé
+     */
+    public CompletableFuture<Long> reload(Path basePath) {
+        Objects.requireNonNull(basePath);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return swap(Graph.loadFrom(basePath, loadOptions));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, reloader);
+    }
+
+    /**
+     * Méthode fermant le détenteur : aucun nouveau bail ne peut être obtenu, et l'instantané actuel est libéré à la
+     * fermeture du dernier bail en cours ; un rechargement en cours est mené à terme, puis son graphe est libéré
+     */
+    @Override
+    public void close() {
+        Snapshot<T> previous;
+        synchronized (current) {
+            previous = current.getAndSet(null);
+        }
+        reloader.shutdown();
+        if (previous != null) previous.release();
+    }
+
+    /**
+     * Classe représentant un bail sur un instantané, c.-à-d. un graphe et ses données dérivées, garantissant qu'ils
+     * ne sont pas libérés avant sa fermeture ; un bail ne doit être utilisé que par un seul fil d'exécution
+     *
+     * @param <T> le type des données dérivées du graphe
+     */
+    public static final class Lease<T> implements AutoCloseable {
+
+        private final Snapshot<T> snapshot;
+        private boolean closed;
+
+        private Lease(Snapshot<T> snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * Méthode retournant le graphe de l'instantané
+         *
+         * @return (Graph) : le graphe
+         * @throws IllegalStateException si le bail a été fermé
+         */
+        public Graph graph() {
+            checkOpen();
+            return snapshot.graph;
+        }
+
+        /**
+         * Méthode retournant les données dérivées du graphe de l'instantané
+         *
+         * @return (T) : les données dérivées
+         * @throws IllegalStateException si le bail a été fermé
+         */
+        public T derived() {
+            checkOpen();
+            return snapshot.derived;
+        }
+
+        /**
+         * Méthode retournant la génération de l'instantané (voir GraphHolder.generation)
+         *
+         * @return (long) : la génération
+         */
+        public long generation() {
+            return snapshot.generation;
+        }
+
+        /**
+         * Méthode fermant le bail, ce qui libère l'instantané s'il a été remplacé et que ce bail était le dernier ;
+         * fermer plusieurs fois le même bail n'a aucun effet
+         */
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            snapshot.release();
+        }
+
+        private void checkOpen() {
+            if (closed) throw new IllegalStateException("lease closed");
+        }
+    }
+
+    /**
+     * Classe privée représentant un instantané, c.-à-d. un graphe et ses données dérivées, ainsi que le nombre de
+     * références qu'il reste sur lui ; un instantané dont le nombre de références a atteint 0 a été libéré et ne peut
+     * plus être retenu
+     *
+     * @param <T> le type des données dérivées du graphe
+     */
+    private static final class Snapshot<T> {
+
+        private final Graph graph;
+        private final T derived;
+        private final long generation;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private Snapshot(Graph graph, T derived, long generation) {
+            this.graph = Objects.requireNonNull(graph);
+            this.derived = derived;
+            this.generation = generation;
+        }
+
+        /**
+         * Méthode ajoutant une référence à l'instantané, s'il n'a pas encore été libéré
+         *
+         * @return (boolean) : vrai ssi la référence a été ajoutée
+         */
+        private boolean retain() {
+            int count;
+            do {
+                count = references.get();
+                if (count == 0) return false;
+            } while (!references.compareAndSet(count, count + 1));
+            return true;
+        }
+
+        /**
+         * Méthode retirant une référence à l'instantané, et le libérant s'il s'agissait de la dernière
+         */
+        private void release() {
+            if (references.decrementAndGet() != 0) return;
+            try {
+                if (derived instanceof AutoCloseable closeable) closeable.close();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                graph.unmap();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,357 @@
+package ch.epfl.javelo.data;
+
+import ch.epfl.javelo.Preconditions;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Classe non instanciable gérant le manifeste d'un graphe, le fichier texte manifest.txt décrivant la taille et les
+ * sommes de contrôle des fichiers du graphe, et vérifiant la cohérence de ces fichiers avant leur chargement.
+ * <p>
+ * Le manifeste est séparé des fichiers qu'il décrit afin que ceux-ci restent projetables en mémoire tels quels et
+ * lisibles par les outils existants. Sa première ligne contient le mot javelo-manifest, la version du format et la
+ * taille des blocs ; chacune des suivantes le nom d'un fichier, sa taille en octets et la somme de contrôle CRC32C de
+ * chacun de ses blocs, en hexadécimal et séparées par des virgules (- si le fichier est vide). Le découpage en blocs
+ * permet de vérifier un fichier volumineux en parallèle.
+ * <p>
+ * Un répertoire sans manifeste, p. ex. lausanne, reste chargeable tant que la vérification des sommes de contrôle
+ * n'est pas demandée ; la méthode main permet de lui en ajouter un.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class GraphManifest {
+
+    /**
+     * Le nom du fichier du manifeste, dans le répertoire du graphe
+     */
+    public static final String FILE_NAME = "manifest.txt";
+    /**
+     * La version du format du manifeste écrite par cette classe
+     */
+    public static final int VERSION = 1;
+
+    private static final String MAGIC = "javelo-manifest";
+    private static final int DEFAULT_BLOCK_SIZE = 1 << 24; // 16 Mio
+    private static final List<String> FILE_NAMES = Arrays.stream(Graph.DataFile.values())
+            .map(Graph.DataFile::fileName)
+            .toList();
+
+    // Tailles des enregistrements des fichiers, voir GraphNodes, GraphSectors, GraphEdges et AttributeSet
+    private static final int NODE_BYTES = 3 * Integer.BYTES;
+    private static final int SECTOR_COUNT = 128 * 128;
+    private static final int SECTOR_BYTES = Integer.BYTES + Short.BYTES;
+    private static final int EDGE_BYTES = Integer.BYTES + 3 * Short.BYTES;
+
+    private GraphManifest() {
+    }
+
+    /**
+     * Enregistrement représentant la description d'un fichier dans le manifeste
+     *
+     * @param name      (String) : le nom du fichier
+     * @param size      (long) : la taille du fichier, en octets
+     * @param checksums (int[]) : les sommes de contrôle CRC32C des blocs du fichier
+     */
+    record Entry(String name, long size, int[] checksums) {
+    }
+
+    /**
+     * Méthode écrivant le manifeste des fichiers du graphe contenu dans le répertoire donné, après avoir vérifié
+     * leur cohérence ; un éventuel manifeste existant est remplacé
+     *
+     * @param basePath (Path) : chemin d'accès du répertoire du graphe
+     * @throws IOException en cas d'erreur d'entrée/sortie, ou si les fichiers sont incohérents
+     */
+    public static void write(Path basePath) throws IOException {
+        checkStructure(basePath);
+        List<Path> paths = new ArrayList<>();
+        for (String name : FILE_NAMES) paths.add(basePath.resolve(name));
+        List<int[]> checksums = checksums(paths, DEFAULT_BLOCK_SIZE);
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) {
+            entries.add(new Entry(FILE_NAMES.get(i), Files.size(paths.get(i)), checksums.get(i)));
+        }
+
+        Path temporary = basePath.resolve(FILE_NAME + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.US_ASCII)) {
+            writer.write(MAGIC + " " + VERSION + " " + DEFAULT_BLOCK_SIZE);
+            writer.newLine();
+            for (Entry entry : entries) {
+                writer.write(entry.name() + " " + entry.size() + " " + formatChecksums(entry.checksums()));
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, basePath.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Méthode vérifiant les fichiers du graphe contenu dans le répertoire donné : leurs tailles doivent être
+     * cohérentes entre elles et, si le répertoire contient un manifeste, égales à celles qu'il indique. Si demandé, les
+     * sommes de contrôle de tous les blocs sont de plus vérifiées, en parallèle ; le manifeste est alors obligatoire.
+     *
+     * @param basePath        (Path) : chemin d'accès du répertoire du graphe
+     * @param verifyChecksums (boolean) : vrai ssi les sommes de contrôle doivent être vérifiées
+     * @throws IOException en cas d'erreur d'entrée/sortie, p. ex. si l'un des fichiers attendus n'existe pas, si les
+     *                     fichiers sont incohérents ou ne correspondent pas au manifeste, si le format du manifeste
+     *                     est inconnu, ou si les sommes de contrôle doivent être vérifiées et que le manifeste
+     *                     n'existe pas (NoSuchFileException)
+     */
+    public static void verify(Path basePath, boolean verifyChecksums) throws IOException {
+        checkStructure(basePath);
+        Path manifestPath = basePath.resolve(FILE_NAME);
+        if (!Files.exists(manifestPath)) {
+            if (verifyChecksums) {
+                throw new NoSuchFileException(manifestPath.toString(), null,
+                        "manifeste requis pour vérifier les sommes de contrôle");
+            }
+            return;
+        }
+
+        List<String> lines = Files.readAllLines(manifestPath, StandardCharsets.US_ASCII);
+        String[] header = lines.isEmpty() ? new String[0] : lines.get(0).split(" ");
+        if (header.length != 3 || !header[0].equals(MAGIC))
+            throw new IOException(manifestPath + " : manifeste invalide");
+        if (!header[1].equals(Integer.toString(VERSION)))
+            throw new IOException(manifestPath + " : version du manifeste inconnue : " + header[1]);
+        int blockSize = parseBlockSize(manifestPath, header[2]);
+
+        List<Entry> entries = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) continue;
+            entries.add(parseEntry(manifestPath, line));
+        }
+        List<Path> paths = new ArrayList<>();
+        for (Entry entry : entries) {
+            Path path = basePath.resolve(entry.name());
+            long size = Files.size(path);
+            if (size != entry.size())
+                throw new IOException(path + " : taille " + size + " au lieu de " + entry.size() + " octets");
+            paths.add(path);
+        }
+        if (!verifyChecksums) return;
+
+        List<int[]> actual = checksums(paths, blockSize);
+        for (int i = 0; i < entries.size(); i++) {
+            int[] expected = entries.get(i).checksums();
+            if (expected.length != actual.get(i).length)
+                throw new IOException(manifestPath + " : nombre de blocs invalide pour " + entries.get(i).name());
+            for (int block = 0; block < expected.length; block++) {
+                if (expected[block] != actual.get(i)[block])
+                    throw new IOException(paths.get(i) + " : somme de contrôle invalide pour le bloc " + block);
+            }
+        }
+    }
+
+    /**
+     * Méthode ajoutant un manifeste aux répertoires de graphe donnés en arguments, ou, si le premier argument est
+     * --verify, vérifiant les sommes de contrôle de ces répertoires
+     *
+     * @param args (String[]) : [--verify] répertoire...
+     * @throws IOException en cas d'erreur d'entrée/sortie, ou si un graphe est invalide
+     */
+    public static void main(String[] args) throws IOException {
+        boolean verify = args.length > 0 && args[0].equals("--verify");
+        if (args.length == (verify ? 1 : 0)) {
+            System.err.println("Usage : GraphManifest [--verify] répertoire...");
+            System.exit(1);
+        }
+        for (int i = verify ? 1 : 0; i < args.length; i++) {
+            Path basePath = Path.of(args[i]);
+            long start = System.nanoTime();
+            if (verify) {
+                verify(basePath, true);
+            } else {
+                write(basePath);
+            }
+            System.out.printf("%s : %s en %d ms%n", basePath, verify ? "vérifié" : "manifeste écrit",
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Méthode privée vérifiant que les tailles des fichiers du graphe sont cohérentes entre elles, ce qui permet de
+     * détecter la plupart des fichiers tronqués même en l'absence de manifeste
+     *
+     * @param basePath (Path) : chemin d'accès du répertoire du graphe
+     * @throws IOException si l'un des fichiers n'existe pas ou si leurs tailles sont incohérentes
+     */
+    private static void checkStructure(Path basePath) throws IOException {
+        long nodesSize = size(basePath, "nodes.bin");
+        long sectorsSize = size(basePath, "sectors.bin");
+        long edgesSize = size(basePath, "edges.bin");
+        long profileIdsSize = size(basePath, "profile_ids.bin");
+        long elevationsSize = size(basePath, "elevations.bin");
+        long attributesSize = size(basePath, "attributes.bin");
+
+        checkSize(basePath, "nodes.bin", nodesSize % NODE_BYTES == 0);
+        checkSize(basePath, "sectors.bin", sectorsSize == (long) SECTOR_COUNT * SECTOR_BYTES);
+        checkSize(basePath, "edges.bin", edgesSize % EDGE_BYTES == 0);
+        checkSize(basePath, "profile_ids.bin", profileIdsSize == edgesSize / EDGE_BYTES * Integer.BYTES);
+        checkSize(basePath, "elevations.bin", elevationsSize % Short.BYTES == 0);
+        checkSize(basePath, "attributes.bin", attributesSize % Long.BYTES == 0);
+    }
+
+    /**
+     * Méthode privée retournant la taille du fichier de nom donné du graphe
+     *
+     * @param basePath (Path) : chemin d'accès du répertoire du graphe
+     * @param name     (String) : le nom du fichier
+     * @return (long) : la taille du fichier, en octets
+     * @throws IOException si le fichier n'existe pas
+     */
+    private static long size(Path basePath, String name) throws IOException {
+        Path path = basePath.resolve(name);
+        if (!Files.isRegularFile(path)) throw new NoSuchFileException(path.toString());
+        return Files.size(path);
+    }
+
+    /**
+     * Méthode privée lançant une exception si la taille du fichier de nom donné est incohérente
+     *
+     * @param basePath (Path) : chemin d'accès du répertoire du graphe
+     * @param name     (String) : le nom du fichier
+     * @param valid    (boolean) : vrai ssi la taille du fichier est cohérente
+     * @throws IOException si la taille est incohérente
+     */
+    private static void checkSize(Path basePath, String name, boolean valid) throws IOException {
+        if (!valid) throw new IOException(basePath.resolve(name) + " : taille incohérente, fichier tronqué ?");
+    }
+
+    /**
+     * Méthode privée calculant les sommes de contrôle des blocs des fichiers donnés ; tous les blocs de tous les
+     * fichiers sont traités en parallèle par les fils d'exécution du pool fork/join commun
+     *
+     * @param paths     (List<Path>) : les chemins d'accès des fichiers
+     * @param blockSize (int) : la taille des blocs, en octets
+     * @return (List<int[]>) : pour chaque fichier, les sommes de contrôle de ses blocs
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    private static List<int[]> checksums(List<Path> paths, int blockSize) throws IOException {
+        List<int[]> checksums = new ArrayList<>();
+        List<long[]> blocks = new ArrayList<>(); // index du fichier et du bloc
+        for (int i = 0; i < paths.size(); i++) {
+            long size = Files.size(paths.get(i));
+            int blockCount = Math.toIntExact((size + blockSize - 1) / blockSize);
+            checksums.add(new int[blockCount]);
+            for (int block = 0; block < blockCount; block++) blocks.add(new long[]{i, block});
+        }
+        try {
+            IntStream.range(0, blocks.size()).parallel().forEach(b -> {
+                int file = (int) blocks.get(b)[0];
+                int block = (int) blocks.get(b)[1];
+                checksums.get(file)[block] = blockChecksum(paths.get(file), (long) block * blockSize, blockSize);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return checksums;
+    }
+
+    /**
+     * Méthode privée calculant la somme de contrôle d'un bloc d'un fichier
+     *
+     * @param path      (Path) : le chemin d'accès du fichier
+     * @param position  (long) : la position du bloc, en octets
+     * @param blockSize (int) : la taille des blocs, en octets
+     * @return (int) : la somme de contrôle CRC32C du bloc
+     * @throws UncheckedIOException en cas d'erreur d'entrée/sortie
+     */
+    private static int blockChecksum(Path path, long position, int blockSize) {
+        try (FileChannel channel = FileChannel.open(path)) {
+            long length = Math.min(blockSize, channel.size() - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            CRC32C crc = new CRC32C();
+            crc.update(buffer);
+            return (int) crc.getValue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Méthode privée lisant la taille des blocs de l'en-tête du manifeste
+     *
+     * @param manifestPath (Path) : le chemin d'accès du manifeste
+     * @param text         (String) : la taille des blocs, en décimal
+     * @return (int) : la taille des blocs
+     * @throws IOException si la taille des blocs est invalide
+     */
+    private static int parseBlockSize(Path manifestPath, String text) throws IOException {
+        try {
+            int blockSize = Integer.parseInt(text);
+            Preconditions.checkArgument(blockSize > 0);
+            return blockSize;
+        } catch (IllegalArgumentException e) {
+            throw new IOException(manifestPath + " : taille de bloc invalide : " + text, e);
+        }
+    }
+
+    /**
+     * Méthode privée lisant la description d'un fichier dans une ligne du manifeste
+     *
+     * @param manifestPath (Path) : le chemin d'accès du manifeste
+     * @param line         (String) : la ligne
+     * @return (Entry) : la description du fichier
+     * @throws IOException si la ligne est invalide
+     */
+    private static Entry parseEntry(Path manifestPath, String line) throws IOException {
+        String[] fields = line.split(" ");
+        try {
+            Preconditions.checkArgument(fields.length == 3 && !fields[0].contains("/") && !fields[0].contains("\\"));
+            long size = Long.parseLong(fields[1]);
+            Preconditions.checkArgument(size >= 0);
+            int[] checksums = fields[2].equals("-") ? new int[0] : parseChecksums(fields[2]);
+            return new Entry(fields[0], size, checksums);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(manifestPath + " : ligne invalide : " + line, e);
+        }
+    }
+
+    /**
+     * Méthode privée lisant des sommes de contrôle en hexadécimal séparées par des virgules
+     *
+     * @param text (String) : les sommes de contrôle
+     * @return (int[]) : les sommes de contrôle
+     * @throws NumberFormatException si l'une des sommes de contrôle est invalide
+     */
+    private static int[] parseChecksums(String text) {
+        String[] parts = text.split(",");
+        int[] checksums = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            checksums[i] = Integer.parseUnsignedInt(parts[i], 16);
+        }
+        return checksums;
+    }
+
+    /**
+     * Méthode privée écrivant des sommes de contrôle en hexadécimal séparées par des virgules
+     *
+     * @param checksums (int[]) : les sommes de contrôle
+     * @return (String) : les sommes de contrôle, ou - s'il n'y en a aucune
+     */
+    private static String formatChecksums(int[] checksums) {
+        if (checksums.length == 0) return "-";
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < checksums.length; i++) {
+            if (i > 0) builder.append(',');
+            builder.append(String.format("%08x", checksums[i]));
+        }
+        return builder.toString();
+    }
+
+}
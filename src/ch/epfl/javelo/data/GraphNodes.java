@@ -15,7 +15,7 @@ import ch.epfl.javelo.Q28_4;
  * @param buffer (IntBuffer) : la mémoire tampon contenant la valeur des attributs de la totalité des nœuds du graphe
  * @author: Roxanne Chevalley (339716)
  */
-public record GraphNodes(IntBuffer buffer) {
+public record GraphNodes(IntBuffer buffer) implements NodeStorage {
 
     private static final int OFFSET_E = 0;
     private static final int OFFSET_N = OFFSET_E + 1;
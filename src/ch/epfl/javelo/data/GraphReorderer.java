@@ -0,0 +1,430 @@
+package ch.epfl.javelo.data;
+
+import ch.epfl.javelo.Q28_4;
+import ch.epfl.javelo.projection.SwissBounds;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+
+/**
+ * Classe non instanciable représentant un outil hors ligne renumérotant les nœuds d'un graphe afin que des nœuds
+ * proches dans l'espace, donc généralement voisins dans le graphe, aient des identités proches. Les secteurs sont
+ * parcourus le long d'une courbe de Hilbert de 128 × 128 cases et, à l'intérieur de chacun d'eux, les nœuds le long
+ * d'une courbe de Hilbert plus fine ; chaque secteur reste ainsi formé de nœuds consécutifs, comme l'exige
+ * sectors.bin. Les arêtes sont renumérotées dans le même ordre que leur nœud de départ.
+ * <p>
+ * Les fichiers nodes.bin, edges.bin, profile_ids.bin et sectors.bin (ainsi que nodes_osmid.bin s'il existe) sont
+ * réécrits dans le répertoire de destination, elevations.bin et attributes.bin y sont copiés tels quels. Les autres
+ * fichiers, p. ex. les points de repère ou les composantes, dépendent des identités des nœuds et doivent être
+ * recalculés sur le graphe renuméroté.
+ * <p>
+ * La localité des deux numérotations est estimée en simulant un cache de pages LRU lors de parcours en largeur du
+ * graphe, qui accèdent aux nœuds et aux arêtes dans un ordre proche de celui de l'algorithme A*.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class GraphReorderer {
+
+    private static final int NODE_BYTES = 3 * Integer.BYTES;
+    private static final int EDGE_BYTES = Integer.BYTES + 3 * Short.BYTES;
+    private static final int SECTOR_BYTES = Integer.BYTES + Short.BYTES;
+    private static final int OSM_ID_BYTES = Long.BYTES;
+    private static final int SECTORS_PER_SIDE = 128;
+    private static final int SECTOR_ORDER = 7; // 128 = 2^7
+    private static final int NODE_ORDER = 16; // précision de la courbe à l'intérieur d'un secteur
+    private static final int DEGREE_SHIFT = 28;
+    private static final int FIRST_EDGE_MASK = (1 << DEGREE_SHIFT) - 1;
+
+    // Paramètres de la simulation du cache de pages
+    private static final int PAGE_BYTES = 4096;
+    private static final int CACHED_PAGES = 64;
+    private static final int TRAVERSALS = 16;
+    private static final int NODES_PER_TRAVERSAL = 20_000;
+    private static final long SEED = 2022;
+
+    private GraphReorderer() {
+    }
+
+    /**
+     * Enregistrement représentant la localité des accès aux fichiers d'un graphe pour une numérotation donnée
+     *
+     * @param crossPageEdges (double) : la fraction des arêtes dont le nœud d'arrivée se trouve sur une autre page de
+     *                       nodes.bin que leur nœud de départ
+     * @param pageMissRate   (double) : la fraction des accès aux pages de nodes.bin et edges.bin manquant un cache
+     *                       LRU de CACHED_PAGES pages lors des parcours simulés
+     * @author : Roxanne Chevalley (339716)
+     */
+    public record Locality(double crossPageEdges, double pageMissRate) {
+    }
+
+    /**
+     * Enregistrement représentant le résultat d'une renumérotation
+     *
+     * @param newNodeIds (int[]) : la nouvelle identité de chaque nœud, indexée par son ancienne identité
+     * @param before     (Locality) : la localité de la numérotation d'origine
+     * @param after      (Locality) : la localité de la nouvelle numérotation
+     * @author : Roxanne Chevalley (339716)
+     */
+    public record Result(int[] newNodeIds, Locality before, Locality after) {
+
+        /**
+         * Méthode retournant le facteur par lequel la renumérotation divise le taux d'échec du cache simulé
+         *
+         * @return (double) : le rapport des taux d'échec avant et après
+         */
+        public double missReduction() {
+            return before.pageMissRate() / after.pageMissRate();
+        }
+    }
+
+    /**
+     * Renumérote le graphe du répertoire source et l'écrit dans le répertoire destination, puis affiche l'estimation
+     * de la réduction des échecs de cache.
+     * Usage : GraphReorderer répertoire_source répertoire_destination
+     *
+     * @param args (String[]) : les arguments de la ligne de commande
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage : GraphReorderer répertoire_source répertoire_destination");
+            System.exit(2);
+        }
+        Result result = reorder(Path.of(args[0]), Path.of(args[1]));
+        System.out.printf("Arêtes changeant de page de nodes.bin : %.1f %% -> %.1f %%%n",
+                100 * result.before().crossPageEdges(), 100 * result.after().crossPageEdges());
+        System.out.printf("Échecs du cache de %d pages simulé : %.2f %% -> %.2f %% (%.1f fois moins)%n",
+                CACHED_PAGES, 100 * result.before().pageMissRate(), 100 * result.after().pageMissRate(),
+                result.missReduction());
+        System.out.println("Les fichiers dérivés des identités des nœuds (points de repère, composantes, "
+                + "hiérarchie de contraction) doivent être recalculés");
+    }
+
+    /**
+     * Méthode renumérotant le graphe du répertoire source et l'écrivant dans le répertoire destination, qui est créé
+     * au besoin et ne doit pas être le répertoire source
+     *
+     * @param source      (Path) : le répertoire du graphe à renuméroter
+     * @param destination (Path) : le répertoire dans lequel écrire le graphe renuméroté
+     * @return (Result) : la nouvelle identité de chaque nœud et la localité des deux numérotations
+     * @throws IOException              en cas d'erreur d'entrée/sortie, p. ex. si l'un des fichiers n'existe pas
+     * @throws IllegalArgumentException si les deux répertoires sont identiques
+     */
+    public static Result reorder(Path source, Path destination) throws IOException {
+        if (Files.exists(destination) && Files.isSameFile(source, destination))
+            throw new IllegalArgumentException("le graphe ne peut pas être renuméroté sur place");
+
+        ByteBuffer nodes = map(source.resolve("nodes.bin"));
+        ByteBuffer sectors = map(source.resolve("sectors.bin"));
+        ByteBuffer edges = map(source.resolve("edges.bin"));
+        IntBuffer profileIds = map(source.resolve("profile_ids.bin")).asIntBuffer();
+        int nodeCount = nodes.capacity() / NODE_BYTES;
+        int edgeCount = edges.capacity() / EDGE_BYTES;
+
+        int[] newNodeIds = new int[nodeCount];
+        int[] oldNodeIds = new int[nodeCount];
+        ByteBuffer newSectors = ByteBuffer.allocate(sectors.capacity());
+        renumberNodes(nodes, sectors, newNodeIds, oldNodeIds, newSectors);
+
+        // Les arêtes sont recopiées dans l'ordre de leur nouveau nœud de départ
+        ByteBuffer newNodes = ByteBuffer.allocate(nodes.capacity());
+        ByteBuffer newEdges = ByteBuffer.allocate(edges.capacity());
+        ByteBuffer newProfileIds = ByteBuffer.allocate(edgeCount * Integer.BYTES);
+        int[] newEdgeIds = new int[edgeCount];
+        int nextEdgeId = 0;
+        for (int newId = 0; newId < nodeCount; newId++) {
+            int oldId = oldNodeIds[newId];
+            int outEdges = nodes.getInt(oldId * NODE_BYTES + 2 * Integer.BYTES);
+            int degree = outEdges >>> DEGREE_SHIFT;
+            int firstEdgeId = outEdges & FIRST_EDGE_MASK;
+            newNodes.putInt(nodes.getInt(oldId * NODE_BYTES))
+                    .putInt(nodes.getInt(oldId * NODE_BYTES + Integer.BYTES))
+                    .putInt(degree << DEGREE_SHIFT | nextEdgeId);
+            for (int oldEdgeId = firstEdgeId; oldEdgeId < firstEdgeId + degree; oldEdgeId++) {
+                int offset = oldEdgeId * EDGE_BYTES;
+                int target = edges.getInt(offset);
+                // Le bit de signe (inversion du sens de l'arête) est conservé
+                int newTarget = target < 0 ? ~newNodeIds[~target] : newNodeIds[target];
+                newEdges.putInt(newTarget)
+                        .putShort(edges.getShort(offset + Integer.BYTES))
+                        .putShort(edges.getShort(offset + Integer.BYTES + Short.BYTES))
+                        .putShort(edges.getShort(offset + Integer.BYTES + 2 * Short.BYTES));
+                newProfileIds.putInt(profileIds.get(oldEdgeId));
+                newEdgeIds[oldEdgeId] = nextEdgeId++;
+            }
+        }
+        if (nextEdgeId != edgeCount) throw new IOException("arêtes n'appartenant à aucun nœud dans " + source);
+
+        Files.createDirectories(destination);
+        write(destination.resolve("nodes.bin"), newNodes);
+        write(destination.resolve("sectors.bin"), newSectors);
+        write(destination.resolve("edges.bin"), newEdges);
+        write(destination.resolve("profile_ids.bin"), newProfileIds);
+        Path osmIds = source.resolve("nodes_osmid.bin");
+        if (Files.exists(osmIds)) {
+            ByteBuffer ids = map(osmIds);
+            ByteBuffer newIds = ByteBuffer.allocate(ids.capacity());
+            for (int newId = 0; newId < nodeCount; newId++) newIds.putLong(ids.getLong(oldNodeIds[newId] * OSM_ID_BYTES));
+            write(destination.resolve("nodes_osmid.bin"), newIds);
+        }
+        for (String name : new String[]{"elevations.bin", "attributes.bin"}) {
+            Files.copy(source.resolve(name), destination.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        Locality[] locality = locality(nodes, edges, newNodeIds, newEdgeIds);
+        return new Result(newNodeIds, locality[0], locality[1]);
+    }
+
+    /**
+     * Méthode privée calculant la nouvelle numérotation des nœuds et le contenu du nouveau fichier des secteurs
+     *
+     * @param nodes      (ByteBuffer) : le contenu de nodes.bin
+     * @param sectors    (ByteBuffer) : le contenu de sectors.bin
+     * @param newNodeIds (int[]) : le tableau à remplir de la nouvelle identité de chaque nœud
+     * @param oldNodeIds (int[]) : le tableau à remplir de l'ancienne identité de chaque nœud
+     * @param newSectors (ByteBuffer) : le tampon à remplir du nouveau contenu de sectors.bin
+     * @throws IOException si les secteurs ne contiennent pas chaque nœud exactement une fois
+     */
+    private static void renumberNodes(ByteBuffer nodes, ByteBuffer sectors, int[] newNodeIds, int[] oldNodeIds,
+                                      ByteBuffer newSectors) throws IOException {
+        int sectorCount = SECTORS_PER_SIDE * SECTORS_PER_SIDE;
+        long[] sectorKeys = new long[sectorCount];
+        for (int s = 0; s < sectorCount; s++) {
+            sectorKeys[s] = hilbertIndex(SECTOR_ORDER, s % SECTORS_PER_SIDE, s / SECTORS_PER_SIDE) << 32 | s;
+        }
+        Arrays.sort(sectorKeys);
+
+        double sectorWidth = SwissBounds.WIDTH / SECTORS_PER_SIDE;
+        double sectorHeight = SwissBounds.HEIGHT / SECTORS_PER_SIDE;
+        int cells = 1 << NODE_ORDER;
+        Arrays.fill(newNodeIds, -1);
+        int nextNodeId = 0;
+        for (long sectorKey : sectorKeys) {
+            int s = (int) sectorKey;
+            int start = sectors.getInt(s * SECTOR_BYTES);
+            int count = Short.toUnsignedInt(sectors.getShort(s * SECTOR_BYTES + Integer.BYTES));
+            newSectors.putInt(s * SECTOR_BYTES, nextNodeId);
+            newSectors.putShort(s * SECTOR_BYTES + Integer.BYTES, (short) count);
+
+            // Les nœuds du secteur sont triés selon leur position sur la courbe de Hilbert du secteur
+            double minE = SwissBounds.MIN_E + (s % SECTORS_PER_SIDE) * sectorWidth;
+            double minN = SwissBounds.MIN_N + (s / SECTORS_PER_SIDE) * sectorHeight;
+            long[] nodeKeys = new long[count];
+            for (int i = 0; i < count; i++) {
+                int nodeId = start + i;
+                double e = Q28_4.asDouble(nodes.getInt(nodeId * NODE_BYTES));
+                double n = Q28_4.asDouble(nodes.getInt(nodeId * NODE_BYTES + Integer.BYTES));
+                int x = cell((e - minE) / sectorWidth, cells);
+                int y = cell((n - minN) / sectorHeight, cells);
+                nodeKeys[i] = hilbertIndex(NODE_ORDER, x, y) << Short.SIZE | i;
+            }
+            Arrays.sort(nodeKeys);
+            for (long nodeKey : nodeKeys) {
+                int oldId = start + (int) (nodeKey & 0xFFFF);
+                if (newNodeIds[oldId] != -1) throw new IOException("nœud " + oldId + " dans plusieurs secteurs");
+                newNodeIds[oldId] = nextNodeId;
+                oldNodeIds[nextNodeId] = oldId;
+                nextNodeId += 1;
+            }
+        }
+        if (nextNodeId != newNodeIds.length) throw new IOException("nœuds n'appartenant à aucun secteur");
+    }
+
+    /**
+     * Méthode retournant la position du point de coordonnées données sur la courbe de Hilbert d'ordre donné, qui
+     * parcourt une grille de 2^order × 2^order cases
+     *
+     * @param order (int) : l'ordre de la courbe, compris entre 1 et 31
+     * @param x     (int) : l'abscisse de la case, comprise entre 0 et 2^order (exclu)
+     * @param y     (int) : l'ordonnée de la case, comprise entre 0 et 2^order (exclu)
+     * @return (long) : la position de la case sur la courbe, comprise entre 0 et 4^order (exclu)
+     */
+    static long hilbertIndex(int order, int x, int y) {
+        int n = 1 << order;
+        long d = 0;
+        for (int s = n / 2; s > 0; s /= 2) {
+            int rx = (x & s) != 0 ? 1 : 0;
+            int ry = (y & s) != 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            // Rotation du quadrant, afin que la courbe y soit parcourue dans le bon sens
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = n - 1 - x;
+                    y = n - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Méthode privée retournant l'index de la case contenant la position relative donnée
+     *
+     * @param fraction (double) : la position relative, normalement comprise entre 0 et 1
+     * @param cells    (int) : le nombre de cases
+     * @return (int) : l'index de la case, compris entre 0 et cells (exclu)
+     */
+    private static int cell(double fraction, int cells) {
+        return Math.max(0, Math.min(cells - 1, (int) (fraction * cells)));
+    }
+
+    /**
+     * Méthode privée estimant la localité de la numérotation d'origine et de la nouvelle numérotation, en simulant
+     * pour chacune un cache de pages lors des mêmes parcours en largeur, partant de nœuds tirés au hasard
+     *
+     * @param nodes      (ByteBuffer) : le contenu de nodes.bin d'origine
+     * @param edges      (ByteBuffer) : le contenu de edges.bin d'origine
+     * @param newNodeIds (int[]) : la nouvelle identité de chaque nœud
+     * @param newEdgeIds (int[]) : la nouvelle identité de chaque arête
+     * @return (Locality[]) : la localité avant puis après la renumérotation
+     */
+    private static Locality[] locality(ByteBuffer nodes, ByteBuffer edges, int[] newNodeIds, int[] newEdgeIds) {
+        int nodeCount = newNodeIds.length;
+        long crossBefore = 0;
+        long crossAfter = 0;
+        long edgeCount = 0;
+        for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+            int outEdges = nodes.getInt(nodeId * NODE_BYTES + 2 * Integer.BYTES);
+            int firstEdgeId = outEdges & FIRST_EDGE_MASK;
+            for (int edgeId = firstEdgeId; edgeId < firstEdgeId + (outEdges >>> DEGREE_SHIFT); edgeId++) {
+                int target = targetNodeId(edges, edgeId);
+                if (nodePage(nodeId) != nodePage(target)) crossBefore += 1;
+                if (nodePage(newNodeIds[nodeId]) != nodePage(newNodeIds[target])) crossAfter += 1;
+                edgeCount += 1;
+            }
+        }
+
+        PageCache before = new PageCache();
+        PageCache after = new PageCache();
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] queue = new int[nodeCount];
+        int[] visited = new int[nodeCount]; // numéro du dernier parcours ayant atteint chaque nœud
+        for (int traversal = 1; traversal <= TRAVERSALS && nodeCount > 0; traversal++) {
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = random.nextInt(nodeCount);
+            visited[queue[0]] = traversal;
+            while (head < tail && head < NODES_PER_TRAVERSAL) {
+                int nodeId = queue[head++];
+                before.access(nodePage(nodeId));
+                after.access(nodePage(newNodeIds[nodeId]));
+                int outEdges = nodes.getInt(nodeId * NODE_BYTES + 2 * Integer.BYTES);
+                int firstEdgeId = outEdges & FIRST_EDGE_MASK;
+                for (int edgeId = firstEdgeId; edgeId < firstEdgeId + (outEdges >>> DEGREE_SHIFT); edgeId++) {
+                    before.access(~edgePage(edgeId));
+                    after.access(~edgePage(newEdgeIds[edgeId]));
+                    int target = targetNodeId(edges, edgeId);
+                    // Comme A*, le parcours lit la position du nœud d'arrivée de chaque arête
+                    before.access(nodePage(target));
+                    after.access(nodePage(newNodeIds[target]));
+                    if (visited[target] != traversal) {
+                        visited[target] = traversal;
+                        queue[tail++] = target;
+                    }
+                }
+            }
+        }
+        return new Locality[]{
+                new Locality(edgeCount == 0 ? 0 : (double) crossBefore / edgeCount, before.missRate()),
+                new Locality(edgeCount == 0 ? 0 : (double) crossAfter / edgeCount, after.missRate())
+        };
+    }
+
+    /**
+     * Méthode privée retournant l'identité du nœud d'arrivée de l'arête donnée
+     *
+     * @param edges  (ByteBuffer) : le contenu de edges.bin
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (int) : l'identité du nœud d'arrivée
+     */
+    private static int targetNodeId(ByteBuffer edges, int edgeId) {
+        int target = edges.getInt(edgeId * EDGE_BYTES);
+        return target < 0 ? ~target : target;
+    }
+
+    /**
+     * Méthode privée retournant l'index de la page de nodes.bin contenant le nœud donné
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (long) : l'index de la page
+     */
+    private static long nodePage(int nodeId) {
+        return (long) nodeId * NODE_BYTES / PAGE_BYTES;
+    }
+
+    /**
+     * Méthode privée retournant l'index de la page de edges.bin contenant l'arête donnée
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (long) : l'index de la page
+     */
+    private static long edgePage(int edgeId) {
+        return (long) edgeId * EDGE_BYTES / PAGE_BYTES;
+    }
+
+    /**
+     * Classe privée représentant un cache de pages LRU simulé, les pages de edges.bin étant distinguées de celles de
+     * nodes.bin par leur complément
+     */
+    private static final class PageCache {
+
+        // Les pages en cache, de la moins récemment accédée à la plus récemment accédée
+        private final LinkedHashMap<Long, Boolean> pages = new LinkedHashMap<>(2 * CACHED_PAGES, 0.75f, true);
+        private long accesses;
+        private long misses;
+
+        private void access(long page) {
+            accesses += 1;
+            if (pages.get(page) == null) {
+                misses += 1;
+                pages.put(page, Boolean.TRUE);
+                if (pages.size() > CACHED_PAGES) {
+                    Iterator<Long> eldest = pages.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+
+        private double missRate() {
+            return accesses == 0 ? 0 : (double) misses / accesses;
+        }
+    }
+
+    /**
+     * Méthode privée projetant en mémoire, en lecture seule, la totalité du fichier donné
+     *
+     * @param path (Path) : le chemin d'accès du fichier
+     * @return (ByteBuffer) : le contenu du fichier
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    private static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Méthode privée écrivant la totalité du contenu du tampon donné dans le fichier donné
+     *
+     * @param path   (Path) : le chemin d'accès du fichier
+     * @param buffer (ByteBuffer) : le tampon, dont le contenu est stocké dans un tableau
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    private static void write(Path path, ByteBuffer buffer) throws IOException {
+        Files.write(path, buffer.array());
+    }
+
+}
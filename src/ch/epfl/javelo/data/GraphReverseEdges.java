@@ -0,0 +1,95 @@
+package ch.epfl.javelo.data;
+
+/**
+ * Classe publique et immuable représentant les arêtes entrantes de chaque nœud d'un graphe JaVelo, qui ne stocke
+ * lui-même que les arêtes sortantes. Les arêtes arrivant à un même nœud sont rangées de manière contiguë, ce qui permet
+ * de parcourir le graphe à rebours, p. ex. pour une recherche d'itinéraire partant du nœud d'arrivée.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class GraphReverseEdges {
+
+    private final int[] firstInEdge; // pour chaque nœud, l'index de sa première arête entrante (nodeCount + 1 valeurs)
+    private final int[] inEdges; // les identités des arêtes, regroupées par nœud de destination
+    private final int[] sources; // le nœud de départ de chacune de ces arêtes
+
+    private GraphReverseEdges(int[] firstInEdge, int[] inEdges, int[] sources) {
+        this.firstInEdge = firstInEdge;
+        this.inEdges = inEdges;
+        this.sources = sources;
+    }
+
+    /**
+     * Méthode construisant les arêtes entrantes du graphe donné, en temps proportionnel à sa taille
+     *
+     * @param graph (Graph) : le graphe
+     * @return (GraphReverseEdges) : les arêtes entrantes de chaque nœud du graphe
+     */
+    public static GraphReverseEdges of(Graph graph) {
+        int nodeCount = graph.nodeCount();
+        int[] firstInEdge = new int[nodeCount + 1];
+
+        // On compte d'abord le nombre d'arêtes entrantes de chaque nœud...
+        for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+            int outDegree = graph.nodeOutDegree(nodeId);
+            for (int i = 0; i < outDegree; i++) {
+                firstInEdge[graph.edgeTargetNodeId(graph.nodeOutEdgeId(nodeId, i)) + 1] += 1;
+            }
+        }
+        for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+            firstInEdge[nodeId + 1] += firstInEdge[nodeId];
+        }
+
+        // ...puis on range chaque arête à la suite de celles arrivant au même nœud
+        int edgeCount = firstInEdge[nodeCount];
+        int[] inEdges = new int[edgeCount];
+        int[] sources = new int[edgeCount];
+        int[] next = new int[nodeCount];
+        System.arraycopy(firstInEdge, 0, next, 0, nodeCount);
+        for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+            int outDegree = graph.nodeOutDegree(nodeId);
+            for (int i = 0; i < outDegree; i++) {
+                int edgeId = graph.nodeOutEdgeId(nodeId, i);
+                int index = next[graph.edgeTargetNodeId(edgeId)]++;
+                inEdges[index] = edgeId;
+                sources[index] = nodeId;
+            }
+        }
+        return new GraphReverseEdges(firstInEdge, inEdges, sources);
+    }
+
+    /**
+     * Méthode retournant le nombre d'arêtes arrivant au nœud d'identité donnée
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (int) : le nombre d'arêtes arrivant au nœud
+     */
+    public int inDegree(int nodeId) {
+        return firstInEdge[nodeId + 1] - firstInEdge[nodeId];
+    }
+
+    /**
+     * Méthode retournant l'identité de la edgeIndex-ième arête arrivant au nœud d'identité nodeId
+     *
+     * @param nodeId    (int) : l'identité du nœud
+     * @param edgeIndex (int) : l'index de l'arête recherchée
+     * @return (int) : l'identité de l'arête
+     */
+    public int edgeId(int nodeId, int edgeIndex) {
+        assert 0 <= edgeIndex && edgeIndex < inDegree(nodeId);
+        return inEdges[firstInEdge[nodeId] + edgeIndex];
+    }
+
+    /**
+     * Méthode retournant l'identité du nœud de départ de la edgeIndex-ième arête arrivant au nœud d'identité nodeId
+     *
+     * @param nodeId    (int) : l'identité du nœud
+     * @param edgeIndex (int) : l'index de l'arête recherchée
+     * @return (int) : l'identité du nœud de départ de l'arête
+     */
+    public int sourceNodeId(int nodeId, int edgeIndex) {
+        assert 0 <= edgeIndex && edgeIndex < inDegree(nodeId);
+        return sources[firstInEdge[nodeId] + edgeIndex];
+    }
+
+}
@@ -0,0 +1,73 @@
+package ch.epfl.javelo.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Classe non instanciable chargeant à l'avance dans le cache de pages du système d'exploitation les fichiers d'un
+ * graphe, afin que les premières recherches d'itinéraire après un démarrage ne soient pas ralenties par des lectures
+ * sur disque. Chaque fichier est découpé en blocs projetés en mémoire et chargés (MappedByteBuffer.load) en parallèle
+ * par les fils d'exécution du pool fork/join commun ; le cache de pages étant partagé, les projections du graphe en
+ * profitent ensuite.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+final class GraphWarmUp {
+
+    private static final int BLOCK_SIZE = 1 << 24; // 16 Mio
+
+    private GraphWarmUp() {
+    }
+
+    /**
+     * Méthode chargeant dans le cache de pages les fichiers donnés du graphe contenu dans le répertoire donné
+     *
+     * @param basePath (Path) : chemin d'accès du répertoire du graphe
+     * @param files    (Set<Graph.DataFile>) : les fichiers à charger
+     * @return (long) : la durée du chargement, en nanosecondes
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    static long warmUp(Path basePath, Set<Graph.DataFile> files) throws IOException {
+        long start = System.nanoTime();
+        List<Path> paths = new ArrayList<>();
+        List<Long> positions = new ArrayList<>(); // position de chaque bloc, le fichier étant celui de même index
+        for (Graph.DataFile file : files) {
+            Path path = basePath.resolve(file.fileName());
+            long size = Files.size(path);
+            for (long position = 0; position < size; position += BLOCK_SIZE) {
+                paths.add(path);
+                positions.add(position);
+            }
+        }
+        try {
+            IntStream.range(0, paths.size()).parallel().forEach(i -> load(paths.get(i), positions.get(i)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Méthode privée chargeant dans le cache de pages le bloc du fichier donné commençant à la position donnée
+     *
+     * @param path     (Path) : le chemin d'accès du fichier
+     * @param position (long) : la position du bloc, en octets
+     * @throws UncheckedIOException en cas d'erreur d'entrée/sortie
+     */
+    private static void load(Path path, long position) {
+        try (FileChannel channel = FileChannel.open(path)) {
+            long length = Math.min(BLOCK_SIZE, channel.size() - position);
+            channel.map(FileChannel.MapMode.READ_ONLY, position, length).load();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
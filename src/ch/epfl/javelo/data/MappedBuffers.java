@@ -0,0 +1,69 @@
+package ch.epfl.javelo.data;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Classe non instanciable permettant de libérer une projection en mémoire d'un fichier sans attendre que le
+ * ramasse-miettes s'en charge. Java 17 n'offrant aucun moyen standard de le faire, la méthode invokeCleaner de
+ * sun.misc.Unsafe (module jdk.unsupported) est utilisée par réflexion ; si elle n'est pas disponible, les projections
+ * sont simplement laissées au ramasse-miettes.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+final class MappedBuffers {
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private MappedBuffers() {
+    }
+
+    /**
+     * Méthode retournant vrai ssi la machine virtuelle permet de libérer les projections en mémoire
+     *
+     * @return (boolean) : vrai ssi unmap peut libérer une projection
+     */
+    static boolean isSupported() {
+        return INVOKE_CLEANER != null;
+    }
+
+    /**
+     * Méthode libérant immédiatement la projection en mémoire donnée, qui ne doit plus être utilisée ensuite (pas plus
+     * que les vues qui en sont dérivées) ; libérer plusieurs fois la même projection n'a aucun effet
+     *
+     * @param buffer (ByteBuffer) : la projection, telle que retournée par FileChannel.map
+     * @return (boolean) : vrai ssi la projection a été libérée, faux si la machine virtuelle ne le permet pas ou si le
+     * tampon n'est pas une projection
+     */
+    static boolean unmap(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null || !buffer.isDirect()) return false;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            return true;
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            // p. ex. si le tampon est une vue (slice, duplicate) plutôt que la projection elle-même
+            return false;
+        }
+    }
+
+}
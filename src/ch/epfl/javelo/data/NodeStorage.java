@@ -0,0 +1,61 @@
+package ch.epfl.javelo.data;
+
+/**
+ * Interface représentant le tableau de tous les nœuds du graphe JaVelo, quelle que soit la manière dont le contenu de
+ * nodes.bin est stocké en mémoire
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+interface NodeStorage {
+
+    /**
+     * Méthode retournant le nombre total de nœuds
+     *
+     * @return (int) : le nombre total de nœuds
+     */
+    int count();
+
+    /**
+     * Méthode retournant la coordonnée E du nœud d'identité donnée
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (double) : la coordonnée E du nœud
+     */
+    double nodeE(int nodeId);
+
+    /**
+     * Méthode retournant la coordonnée N du nœud d'identité donnée
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (double) : la coordonnée N du nœud
+     */
+    double nodeN(int nodeId);
+
+    /**
+     * Méthode retournant le nombre d'arêtes sortant du nœud d'identité donnée
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (int) : le nombre d'arêtes sortant du nœud
+     */
+    int outDegree(int nodeId);
+
+    /**
+     * Méthode retournant l'identité de la edgeIndex-ième arête sortant du nœud d'identité donnée
+     *
+     * @param nodeId    (int) : l'identité du nœud
+     * @param edgeIndex (int) : l'index de l'arête parmi celles sortant du nœud
+     * @return (int) : l'identité de l'arête
+     */
+    int edgeId(int nodeId, int edgeIndex);
+
+    /**
+     * Méthode retournant la taille, en octets, des tableaux alloués sur le tas pour stocker les nœuds, nulle si leur
+     * contenu est seulement projeté en mémoire
+     *
+     * @return (long) : la taille occupée sur le tas
+     */
+    default long heapBytes() {
+        return 0;
+    }
+
+}
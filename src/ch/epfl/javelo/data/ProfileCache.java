@@ -0,0 +1,260 @@
+package ch.epfl.javelo.data;
+
+import ch.epfl.javelo.Preconditions;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Classe représentant un cache des profils décodés des arêtes d'un graphe, indexés par l'identité de l'arête, dont la
+ * taille mémoire estimée ne dépasse pas un budget donné. Les profils les moins récemment utilisés sont évincés en
+ * premier.
+ * <p>
+ * Le cache peut être utilisé simultanément par plusieurs fils d'exécution : il est découpé en segments indépendants,
+ * chacun disposant d'une part égale du budget et étant protégé par son propre verrou. Le décodage d'un profil absent
+ * se fait hors de tout verrou, de sorte que deux fils peuvent occasionnellement décoder le même profil.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class ProfileCache {
+
+    /**
+     * Le budget par défaut du cache, en octets (16 Mio, soit environ 100 000 profils d'arêtes typiques)
+     */
+    public static final long DEFAULT_BYTE_BUDGET = 16L << 20;
+
+    private static final int SEGMENT_SHIFT = 4;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_SHIFT;
+    // Estimation de la place occupée par l'en-tête d'un tableau et par une entrée d'un LinkedHashMap (entrée, clef
+    // de type Integer et case de la table)
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private final long byteBudget;
+    private final Segment[] segments;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Construit un cache vide dont la taille mémoire estimée ne dépasse pas le budget donné ; un budget nul désactive
+     * le cache, chaque profil étant alors décodé à chaque demande
+     *
+     * @param byteBudget (long) : le budget, en octets
+     * @throws IllegalArgumentException si le budget est négatif
+     */
+    public ProfileCache(long byteBudget) {
+        Preconditions.checkArgument(byteBudget >= 0);
+        this.byteBudget = byteBudget;
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(byteBudget / SEGMENT_COUNT);
+        }
+    }
+
+    /**
+     * Méthode retournant le profil décodé de l'arête d'identité donnée, le décodant au moyen de la fonction donnée et
+     * le mémorisant s'il n'est pas dans le cache. Le tableau retourné est partagé et ne doit pas être modifié.
+     *
+     * @param edgeId  (int) : l'identité de l'arête
+     * @param decoder (IntFunction<float[]>) : la fonction décodant le profil de l'arête d'identité donnée
+     * @return (float[]) : les échantillons du profil de l'arête
+     */
+    float[] get(int edgeId, IntFunction<float[]> decoder) {
+        Segment segment = segments[segmentIndex(edgeId)];
+        float[] samples;
+        synchronized (segment) {
+            samples = segment.get(edgeId);
+        }
+        if (samples != null) {
+            hitCount.increment();
+            return samples;
+        }
+        missCount.increment();
+        samples = decoder.apply(edgeId);
+        synchronized (segment) {
+            evictionCount.add(segment.add(edgeId, samples));
+        }
+        return samples;
+    }
+
+    /**
+     * Méthode vidant le cache, sans remettre à zéro ses statistiques
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Méthode retournant le budget du cache, en octets
+     *
+     * @return (long) : le budget
+     */
+    public long byteBudget() {
+        return byteBudget;
+    }
+
+    /**
+     * Méthode retournant la taille mémoire estimée des profils actuellement dans le cache, en octets
+     *
+     * @return (long) : la taille estimée
+     */
+    public long byteSize() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                bytes += segment.bytes;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Méthode retournant le nombre de profils actuellement dans le cache
+     *
+     * @return (int) : le nombre de profils
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Méthode retournant le nombre de demandes auxquelles le cache a pu répondre sans décoder le profil
+     *
+     * @return (long) : le nombre de succès
+     */
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Méthode retournant le nombre de demandes pour lesquelles le profil a dû être décodé
+     *
+     * @return (long) : le nombre d'échecs
+     */
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Méthode retournant le nombre de profils évincés du cache faute de place
+     *
+     * @return (long) : le nombre d'évictions
+     */
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Méthode retournant la proportion des demandes auxquelles le cache a pu répondre sans décoder le profil, ou 0
+     * si aucune demande n'a été faite
+     *
+     * @return (double) : le taux de succès, compris entre 0 et 1
+     */
+    public double hitRate() {
+        long hits = hitCount();
+        long requests = hits + missCount();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /**
+     * Méthode retournant la taille mémoire estimée d'un profil dans le cache
+     *
+     * @param samples (float[]) : les échantillons du profil
+     * @return (long) : la taille estimée, en octets
+     */
+    static long entryBytes(float[] samples) {
+        return ENTRY_OVERHEAD_BYTES + ARRAY_HEADER_BYTES + (long) samples.length * Float.BYTES;
+    }
+
+    /**
+     * Méthode privée retournant l'index du segment contenant le profil de l'arête d'identité donnée ; les identités
+     * sont mélangées afin que les arêtes voisines, souvent demandées ensemble, soient réparties entre les segments
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (int) : l'index du segment
+     */
+    private static int segmentIndex(int edgeId) {
+        return (edgeId * 0x9E3779B9) >>> (Integer.SIZE - SEGMENT_SHIFT);
+    }
+
+    /**
+     * Classe privée représentant un segment du cache, ordonné du profil le moins récemment utilisé au plus récemment
+     * utilisé ; elle doit être utilisée sous son propre verrou
+     */
+    private static final class Segment {
+
+        private final LinkedHashMap<Integer, float[]> profiles = new LinkedHashMap<>(16, 0.75f, true);
+        private final long byteBudget;
+        private long bytes;
+
+        private Segment(long byteBudget) {
+            this.byteBudget = byteBudget;
+        }
+
+        /**
+         * Méthode retournant le profil de l'arête d'identité donnée s'il est dans le segment, et le marquant alors
+         * comme le plus récemment utilisé
+         *
+         * @param edgeId (int) : l'identité de l'arête
+         * @return (float[]) : les échantillons du profil de l'arête, ou null s'il n'est pas dans le segment
+         */
+        private float[] get(int edgeId) {
+            return profiles.get(edgeId);
+        }
+
+        /**
+         * Méthode retournant le nombre de profils dans le segment
+         *
+         * @return (int) : le nombre de profils
+         */
+        private int size() {
+            return profiles.size();
+        }
+
+        /**
+         * Méthode vidant le segment
+         */
+        private void clear() {
+            profiles.clear();
+            bytes = 0;
+        }
+
+        /**
+         * Méthode ajoutant le profil donné au segment s'il n'y est pas déjà, puis évinçant les profils les moins
+         * récemment utilisés jusqu'à ce que le budget soit respecté ; un profil plus grand que le budget n'est pas
+         * ajouté
+         *
+         * @param edgeId  (int) : l'identité de l'arête
+         * @param samples (float[]) : les échantillons du profil de l'arête
+         * @return (int) : le nombre de profils évincés
+         */
+        private int add(int edgeId, float[] samples) {
+            long entryBytes = entryBytes(samples);
+            if (entryBytes > byteBudget || profiles.putIfAbsent(edgeId, samples) != null) return 0;
+            bytes += entryBytes;
+            int evicted = 0;
+            Iterator<Map.Entry<Integer, float[]>> iterator = profiles.entrySet().iterator();
+            while (bytes > byteBudget) {
+                bytes -= entryBytes(iterator.next().getValue());
+                iterator.remove();
+                evicted += 1;
+            }
+            return evicted;
+        }
+    }
+
+}
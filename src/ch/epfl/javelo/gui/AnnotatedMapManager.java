@@ -12,6 +12,7 @@ import javafx.collections.ObservableList;
 import javafx.scene.layout.StackPane;
 
 import java.util.function.Consumer;
+import java.util.function.IntPredicate;
 
 /**
  * Classe publique et instantiable qui gère l'affichage de la carte "annotée"
@@ -30,6 +31,14 @@ public final class AnnotatedMapManager {
      * Constructeur public de la classe
      */
     public AnnotatedMapManager(Graph graph, TileManager tileManager, RouteBean routeBean, Consumer<String> errorConsumer) {
+        this(graph, tileManager, routeBean, errorConsumer, nodeId -> true);
+    }
+
+    /**
+     * Constructeur public de la classe, n'accrochant les points de passage qu'aux nœuds satisfaisant le prédicat donné
+     */
+    public AnnotatedMapManager(Graph graph, TileManager tileManager, RouteBean routeBean, Consumer<String> errorConsumer,
+                               IntPredicate nodeFilter) {
         this.routeBean = routeBean;
         this.mousePositionOnRoute = new SimpleDoubleProperty();
         MapViewParameters mapViewParameters =
@@ -38,7 +47,8 @@ public final class AnnotatedMapManager {
         this.mapViewParametersProperty = new SimpleObjectProperty<>(mapViewParameters);
 
         ObservableList<Waypoint> waypoints = routeBean.waypoints();
-        WaypointsManager waypointsManager = new WaypointsManager(graph, mapViewParametersProperty, waypoints, errorConsumer);
+        WaypointsManager waypointsManager = new WaypointsManager(graph, mapViewParametersProperty, waypoints, errorConsumer,
+                nodeFilter);
         BaseMapManager baseMapManager = new BaseMapManager(tileManager, waypointsManager, mapViewParametersProperty);
         RouteManager routeManager = new RouteManager(routeBean, mapViewParametersProperty);
 
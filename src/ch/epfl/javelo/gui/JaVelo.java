@@ -46,18 +46,24 @@ public final class JaVelo extends Application {
     @Override
     public void start(Stage primaryStage) throws Exception {
 
-        Graph graph = Graph.loadFrom(Path.of("javelo-data"));
+        Path graphPath = Path.of("javelo-data");
+        Graph graph = Graph.loadFrom(graphPath);
         Path cacheBasePath = Path.of("osm-cache");
 
         String tileServerHost = "tile.openstreetmap.org";
         TileManager tileManager = new TileManager(cacheBasePath, tileServerHost);
 
-        RouteBean routeBean = new RouteBean(new RouteComputer(graph, new CityBikeCF(graph)));
+        CostFunction costFunction = CityBikeCFTable.of(graph);
+        // Les points de passage ne sont accrochés qu'aux nœuds de la composante principale du réseau, entre lesquels
+        // un itinéraire existe toujours
+        ComponentIndex components = ComponentIndex.loadOrCompute(graphPath, "citybike", graph, costFunction);
+        RouteBean routeBean = new RouteBean(new RouteComputer(graph, costFunction, components));
 
         ErrorManager errorManager = new ErrorManager();
         Consumer<String> errorConsumer = (errorManager::displayError);
 
-        AnnotatedMapManager mapPane = new AnnotatedMapManager(graph, tileManager, routeBean, errorConsumer);
+        AnnotatedMapManager mapPane = new AnnotatedMapManager(graph, tileManager, routeBean, errorConsumer,
+                components::isInLargestComponent);
 
         // SplitPane contenant la carte en haut et le profil en long de l'itinéraire en bas
         SplitPane splitPane = new SplitPane();
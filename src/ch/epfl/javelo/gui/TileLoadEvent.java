@@ -0,0 +1,68 @@
+package ch.epfl.javelo.gui;
+
+import jdk.jfr.*;
+
+/**
+ * Événement Java Flight Recorder émis lors de chaque obtention de l'image d'une tuile, dont la durée est celle de
+ * l'obtention et qui indique d'où l'image provient ; il n'est créé que si un enregistrement actif l'a activé (voir
+ * beginIfEnabled), l'affichage de la carte n'allouant donc rien en l'absence d'enregistrement
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+@Name("ch.epfl.javelo.TileLoad")
+@Label("Tile Load")
+@Category({"JaVelo", "GUI"})
+@Description("Obtention de l'image d'une tuile depuis le cache mémoire, le cache disque ou le serveur")
+@StackTrace(false)
+final class TileLoadEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(TileLoadEvent.class);
+
+    /**
+     * Énumération des provenances possibles de l'image d'une tuile
+     */
+    enum Source {
+        MEMORY, DISK, NETWORK, FAILED
+    }
+
+    @Label("Zoom Level")
+    private int zoomLevel;
+
+    @Label("X")
+    private int x;
+
+    @Label("Y")
+    private int y;
+
+    @Label("Source")
+    @Description("MEMORY (succès du cache mémoire), DISK, NETWORK ou FAILED")
+    private String source;
+
+    /**
+     * Méthode créant et commençant un événement si un enregistrement actif l'a activé
+     *
+     * @return (TileLoadEvent) : l'événement commencé, ou null si aucun enregistrement actif ne l'a activé
+     */
+    static TileLoadEvent beginIfEnabled() {
+        if (!TYPE.isEnabled()) return null;
+        TileLoadEvent event = new TileLoadEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Méthode terminant l'événement et l'enregistrant, si l'enregistrement est actif, avec les valeurs données
+     *
+     * @param tileId (TileManager.TileId) : l'identité de la tuile
+     * @param source (Source) : la provenance de l'image
+     */
+    void commit(TileManager.TileId tileId, Source source) {
+        if (!shouldCommit()) return;
+        this.zoomLevel = tileId.zoomLevel();
+        this.x = tileId.x();
+        this.y = tileId.y();
+        this.source = source.name();
+        commit();
+    }
+
+}
@@ -11,7 +11,9 @@ import ch.epfl.javelo.Preconditions;
 import javafx.scene.image.Image;
 
 /**
- * Classe publique et finale représentant un gestionnaire de tuiles OSM
+ * Classe publique et finale représentant un gestionnaire de tuiles OSM. Chaque obtention d'une image émet un
+ * événement Java Flight Recorder (TileLoadEvent) indiquant si elle provient du cache mémoire, du cache disque ou du
+ * serveur.
  *
  * @author Roxanne Chevalley (339716)
  */
@@ -46,34 +48,43 @@ public final class TileManager {
      */
     public Image imageForTileAt(TileId tileId) throws IOException {
         Preconditions.checkArgument(TileId.isValid(tileId.zoomLevel, tileId.x(), tileId.y()));
+        TileLoadEvent event = TileLoadEvent.beginIfEnabled();
+        TileLoadEvent.Source source = TileLoadEvent.Source.FAILED;
+        try {
+            if (cacheMemory.containsKey(tileId)) {
+                source = TileLoadEvent.Source.MEMORY;
+                return cacheMemory.get(tileId);
+            }
 
-        if (cacheMemory.containsKey(tileId)) {
-            return cacheMemory.get(tileId);
-        }
-
-        Image tileImage;
-        Path dir = path.resolve(String.valueOf(tileId.zoomLevel()));
-        dir = dir.resolve(String.valueOf(tileId.x()));
-        Path tilePath = dir.resolve(tileId.y() + ".png");
-        if (!Files.exists(tilePath)) {
-            Files.createDirectories(dir);
-            URL u = new URL( serverName + tileId.zoomLevel + "/" + tileId.x + "/" + tileId.y + ".png");
-            URLConnection c = u.openConnection();
-            c.setRequestProperty("User-Agent", "JaVelo");
-            try (InputStream i = c.getInputStream()) {
-                FileOutputStream file = new FileOutputStream(tilePath.toString());
-                i.transferTo(file);
+            Image tileImage;
+            Path dir = path.resolve(String.valueOf(tileId.zoomLevel()));
+            dir = dir.resolve(String.valueOf(tileId.x()));
+            Path tilePath = dir.resolve(tileId.y() + ".png");
+            TileLoadEvent.Source found = TileLoadEvent.Source.DISK;
+            if (!Files.exists(tilePath)) {
+                Files.createDirectories(dir);
+                URL u = new URL( serverName + tileId.zoomLevel + "/" + tileId.x + "/" + tileId.y + ".png");
+                URLConnection c = u.openConnection();
+                c.setRequestProperty("User-Agent", "JaVelo");
+                try (InputStream i = c.getInputStream()) {
+                    FileOutputStream file = new FileOutputStream(tilePath.toString());
+                    i.transferTo(file);
+                }
+                found = TileLoadEvent.Source.NETWORK;
             }
-        }
-        if (Files.exists(tilePath)) {
-            File file = tilePath.toFile();
-            try (InputStream inputStream = new FileInputStream(file)) {
-                tileImage = new Image(inputStream);
-                addToCacheMemory(tileId, tileImage);
-                return tileImage;
+            if (Files.exists(tilePath)) {
+                File file = tilePath.toFile();
+                try (InputStream inputStream = new FileInputStream(file)) {
+                    tileImage = new Image(inputStream);
+                    addToCacheMemory(tileId, tileImage);
+                    source = found;
+                    return tileImage;
+                }
             }
+            return null;
+        } finally {
+            if (event != null) event.commit(tileId, source);
         }
-        return null;
 
     }
 
@@ -18,6 +18,7 @@ import javafx.scene.shape.SVGPath;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.function.IntPredicate;
 
 /**
  * Classe publique et finale qui gère l'affichage et l'interaction avec les points de passage
@@ -37,6 +38,7 @@ public final class WaypointsManager {
     private final ObjectProperty<MapViewParameters> mapViewParametersProperty;
     private final ObservableList<Waypoint> waypointsList;
     private final Consumer<String> errorConsumer;
+    private final IntPredicate nodeFilter;
     private final Pane waypointsPane;
     private final Map<Group, Waypoint> pinsToWaypoint = new HashMap<>();
 
@@ -53,11 +55,28 @@ public final class WaypointsManager {
      */
     public WaypointsManager(Graph graph, ObjectProperty<MapViewParameters> mapViewParametersProperty,
                             ObservableList<Waypoint> wayPoints, Consumer<String> errorConsumer) {
+        this(graph, mapViewParametersProperty, wayPoints, errorConsumer, nodeId -> true);
+    }
+
+    /**
+     * Constructeur public de la classe, n'accrochant les points de passage qu'aux nœuds satisfaisant le prédicat
+     * donné, p. ex. ceux de la composante principale du réseau
+     *
+     * @param graph                     (Graph) : le graphe du réseau routier
+     * @param mapViewParametersProperty (ObjectProperty) : une propriété JavaFX contenant les paramètres de la carte affichée
+     * @param wayPoints                 (List<Waypoint>) : la liste de tous les points de passage
+     * @param errorConsumer (Consumer<String>) : message d'erreur sous la forme d'une chaîne de caractères
+     * @param nodeFilter    (IntPredicate) : le prédicat que doivent satisfaire les nœuds des points de passage
+     */
+    public WaypointsManager(Graph graph, ObjectProperty<MapViewParameters> mapViewParametersProperty,
+                            ObservableList<Waypoint> wayPoints, Consumer<String> errorConsumer,
+                            IntPredicate nodeFilter) {
 
         this.graph = graph;
         this.mapViewParametersProperty = mapViewParametersProperty;
         this.waypointsList = wayPoints;
         this.errorConsumer = errorConsumer;
+        this.nodeFilter = nodeFilter;
 
         this.waypointsPane = new Pane();
         waypointsPane.setPickOnBounds(false);
@@ -86,7 +105,7 @@ public final class WaypointsManager {
 
         if (inSwissBounds(pWM)) { // On vérifie que le point est dans les limites suisses
             PointCh pointOfXY = pWM.toPointCh();
-            int closestNode = graph.nodeClosestTo(pointOfXY, SEARCH_DISTANCE);
+            int closestNode = graph.nodeClosestTo(pointOfXY, SEARCH_DISTANCE, nodeFilter);
             if (closestNode == -1) { // S'il n'y a pas de nœuds proches du point
                 nodeError();
                 return;
@@ -134,7 +153,7 @@ public final class WaypointsManager {
 
                     PointCh mousePointCh = mousePointWebMercator.toPointCh();
                     int i = waypointsList.indexOf(waypointForPin);
-                    int node = graph.nodeClosestTo(mousePointCh, SEARCH_DISTANCE);
+                    int node = graph.nodeClosestTo(mousePointCh, SEARCH_DISTANCE, nodeFilter);
 
                     if (node == -1) { // On n'a pas trouvé de nœud proche donc erreur
                         nodeError();
@@ -0,0 +1,340 @@
+package ch.epfl.javelo.headless;
+
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.projection.Ch1903;
+import ch.epfl.javelo.projection.PointCh;
+import ch.epfl.javelo.projection.SwissBounds;
+import ch.epfl.javelo.routing.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Classe publique calculant en lot les itinéraires entre des paires de points lues dans un fichier CSV, et écrivant
+ * au fur et à mesure la longueur, le dénivelé positif et le coût de chacun d'eux dans un autre fichier CSV.
+ * <p>
+ * Chaque ligne non vide du fichier d'entrée contient les coordonnées latitude,longitude en degrés (WGS 84) du point de
+ * départ puis du point d'arrivée ; une éventuelle ligne d'en-tête est ignorée. Les lignes sont traitées par blocs :
+ * les itinéraires d'un bloc sont calculés en parallèle sur tous les cœurs, puis seuls leurs résultats sont écrits,
+ * dans l'ordre des lignes, si bien qu'aucun itinéraire n'est conservé en mémoire. La progression, le débit et le
+ * nombre d'échecs sont rapportés régulièrement.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class BatchRouter {
+
+    private static final double SEARCH_DISTANCE = 500; // distance maximale d'accrochage d'un point à un nœud
+    private static final int BLOCK_SIZE = 4096; // nombre de lignes traitées en parallèle
+    private static final long PROGRESS_INTERVAL_NS = 5_000_000_000L;
+    private static final String OUTPUT_HEADER = "line,status,length,elevationGain,cost";
+
+    /**
+     * Énumération des issues possibles du traitement d'une ligne, écrites dans la colonne status du fichier de sortie
+     */
+    public enum Status {
+        /**
+         * L'itinéraire a été calculé
+         */
+        OK,
+        /**
+         * La ligne est mal formée, ou l'un des points est hors des limites de la Suisse
+         */
+        INVALID,
+        /**
+         * Aucun nœud ne se trouve à proximité de l'un des points
+         */
+        NO_NODE,
+        /**
+         * Aucun itinéraire ne relie les deux points
+         */
+        NO_ROUTE
+    }
+
+    /**
+     * Enregistrement résumant un lot d'itinéraires
+     *
+     * @param lineCount    (long) : le nombre de lignes traitées
+     * @param statusCounts (Map<Status, Long>) : le nombre de lignes de chaque issue, les issues absentes n'ayant
+     *                     concerné aucune ligne
+     * @param seconds      (double) : la durée du traitement, en secondes
+     */
+    public record Summary(long lineCount, Map<Status, Long> statusCounts, double seconds) {
+
+        /**
+         * Constructeur compact copiant le nombre de lignes de chaque issue dans une table non modifiable
+         */
+        public Summary {
+            EnumMap<Status, Long> counts = new EnumMap<>(Status.class);
+            counts.putAll(statusCounts);
+            statusCounts = Collections.unmodifiableMap(counts);
+        }
+
+        /**
+         * Méthode retournant le nombre de lignes de l'issue donnée
+         *
+         * @param status (Status) : l'issue
+         * @return (long) : le nombre de lignes
+         */
+        public long count(Status status) {
+            return statusCounts.getOrDefault(status, 0L);
+        }
+
+        /**
+         * Méthode retournant le nombre d'itinéraires traités par seconde
+         *
+         * @return (double) : le débit, en itinéraires par seconde
+         */
+        public double routesPerSecond() {
+            return seconds == 0 ? 0 : lineCount / seconds;
+        }
+    }
+
+    private final Graph graph;
+    private final CostFunction costFunction;
+    private final RouteComputer routeComputer;
+    private final IntPredicate nodeFilter;
+
+    /**
+     * Construit un calculateur d'itinéraires en lot
+     *
+     * @param graph         (Graph) : le graphe
+     * @param costFunction  (CostFunction) : la fonction de coût, utilisée pour le coût écrit de chaque itinéraire
+     * @param routeComputer (RouteComputer) : le planificateur d'itinéraire, utilisant cette même fonction de coût
+     * @param nodeFilter    (IntPredicate) : le prédicat que doivent satisfaire les nœuds auxquels les points sont
+     *                      accrochés, p. ex. l'appartenance à la composante principale du réseau
+     */
+    public BatchRouter(Graph graph, CostFunction costFunction, RouteComputer routeComputer, IntPredicate nodeFilter) {
+        this.graph = graph;
+        this.costFunction = costFunction;
+        this.routeComputer = routeComputer;
+        this.nodeFilter = nodeFilter;
+    }
+
+    /**
+     * Méthode calculant les itinéraires des paires du fichier CSV donné en premier argument et écrivant les résultats
+     * dans le fichier donné en second argument, sur le graphe dont le répertoire est donné en troisième argument
+     * (javelo-data par défaut), avec la fonction de coût CityBikeCF
+     *
+     * @param args (String[]) : le fichier d'entrée, le fichier de sortie et le répertoire du graphe, facultatif
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage : BatchRouter entrée.csv sortie.csv [répertoire du graphe]");
+            System.exit(2);
+        }
+        Path graphPath = Path.of(args.length > 2 ? args[2] : "javelo-data");
+        Graph graph = Graph.loadFrom(graphPath);
+        CostFunction costFunction = CityBikeCFTable.of(graph);
+        ComponentIndex components = ComponentIndex.loadOrCompute(graphPath, "citybike", graph, costFunction);
+        BatchRouter router = new BatchRouter(graph, costFunction,
+                new RouteComputer(graph, costFunction, components), components::isInLargestComponent);
+
+        try (BufferedReader input = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8);
+             BufferedWriter output = Files.newBufferedWriter(Path.of(args[1]), StandardCharsets.UTF_8)) {
+            router.run(input, output, System.err::println);
+        }
+    }
+
+    /**
+     * Méthode calculant les itinéraires des paires lues depuis l'entrée donnée et écrivant leurs résultats, au format
+     * CSV, dans la sortie donnée
+     *
+     * @param input       (BufferedReader) : l'entrée, au format décrit plus haut
+     * @param output      (Writer) : la sortie, dont chaque ligne contient le numéro de la ligne d'entrée, l'issue,
+     *                    puis la longueur (en mètres), le dénivelé positif (en mètres) et le coût de l'itinéraire
+     * @param progressLog (Consumer<String>) : le destinataire des rapports de progression
+     * @return (Summary) : le résumé du lot
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    public Summary run(BufferedReader input, Writer output, Consumer<String> progressLog) throws IOException {
+        long startTime = System.nanoTime();
+        long lastReport = startTime;
+        long lineCount = 0;
+        long[] statusCounts = new long[Status.values().length];
+
+        Block block = new Block();
+        output.write(OUTPUT_HEADER);
+        output.write('\n');
+        long lineNumber = 0;
+        String line;
+        while ((line = input.readLine()) != null) {
+            lineNumber += 1;
+            if (line.isBlank() || (lineNumber == 1 && isHeader(line))) continue;
+            block.add(lineNumber, line);
+            if (block.size == BLOCK_SIZE) {
+                lineCount += processAndWrite(block, output, statusCounts);
+                long now = System.nanoTime();
+                if (now - lastReport >= PROGRESS_INTERVAL_NS) {
+                    progressLog.accept(progress(lineCount, statusCounts, now - startTime));
+                    lastReport = now;
+                }
+            }
+        }
+        lineCount += processAndWrite(block, output, statusCounts);
+        output.flush();
+
+        long elapsed = System.nanoTime() - startTime;
+        progressLog.accept(progress(lineCount, statusCounts, elapsed));
+        EnumMap<Status, Long> counts = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) counts.put(status, statusCounts[status.ordinal()]);
+        return new Summary(lineCount, counts, elapsed / 1e9);
+    }
+
+    /**
+     * Classe privée représentant un bloc de lignes traitées ensemble, ainsi que leurs résultats ; ses tableaux sont
+     * réutilisés d'un bloc à l'autre
+     */
+    private static final class Block {
+        private final long[] lineNumbers = new long[BLOCK_SIZE];
+        private final String[] lines = new String[BLOCK_SIZE];
+        private final Status[] statuses = new Status[BLOCK_SIZE];
+        private final double[] lengths = new double[BLOCK_SIZE];
+        private final double[] elevationGains = new double[BLOCK_SIZE];
+        private final double[] costs = new double[BLOCK_SIZE];
+        private int size;
+
+        private void add(long lineNumber, String line) {
+            lineNumbers[size] = lineNumber;
+            lines[size] = line;
+            size += 1;
+        }
+    }
+
+    /**
+     * Méthode privée calculant en parallèle les itinéraires du bloc donné, puis écrivant leurs résultats et vidant
+     * le bloc
+     *
+     * @return (int) : le nombre de lignes traitées
+     */
+    private int processAndWrite(Block block, Writer output, long[] statusCounts) throws IOException {
+        IntStream.range(0, block.size).parallel().forEach(i -> process(block, i));
+
+        int size = block.size;
+        for (int i = 0; i < size; i++) {
+            statusCounts[block.statuses[i].ordinal()] += 1;
+            output.write(Long.toString(block.lineNumbers[i]));
+            output.write(',');
+            output.write(block.statuses[i].name());
+            if (block.statuses[i] == Status.OK) {
+                output.write(String.format(Locale.ROOT, ",%.1f,%.1f,%.1f",
+                        block.lengths[i], block.elevationGains[i], block.costs[i]));
+            } else {
+                output.write(",,,");
+            }
+            output.write('\n');
+            block.lines[i] = null;
+        }
+        block.size = 0;
+        return size;
+    }
+
+    /**
+     * Méthode privée calculant l'itinéraire de la ligne d'index donné du bloc et y mémorisant son résultat
+     */
+    private void process(Block block, int i) {
+        String[] fields = block.lines[i].split(",", -1);
+        PointCh from = fields.length == 4 ? point(fields[0], fields[1]) : null;
+        PointCh to = fields.length == 4 ? point(fields[2], fields[3]) : null;
+        if (from == null || to == null) {
+            block.statuses[i] = Status.INVALID;
+            return;
+        }
+        int startNodeId = graph.nodeClosestTo(from, SEARCH_DISTANCE, nodeFilter);
+        int endNodeId = graph.nodeClosestTo(to, SEARCH_DISTANCE, nodeFilter);
+        if (startNodeId == -1 || endNodeId == -1) {
+            block.statuses[i] = Status.NO_NODE;
+            return;
+        }
+        block.statuses[i] = Status.OK;
+        block.lengths[i] = 0;
+        block.elevationGains[i] = 0;
+        block.costs[i] = 0;
+        if (startNodeId == endNodeId) return;
+
+        Route route = routeComputer.bestRouteBetween(startNodeId, endNodeId);
+        if (route == null) {
+            block.statuses[i] = Status.NO_ROUTE;
+            return;
+        }
+        block.lengths[i] = route.length();
+        for (Edge edge : route.edges()) {
+            int edgeId = cheapestEdgeId(edge.fromNodeId(), edge.toNodeId());
+            block.elevationGains[i] += graph.edgeElevationGain(edgeId);
+            block.costs[i] += graph.edgeLength(edgeId) * costFunction.costFactor(edge.fromNodeId(), edgeId);
+        }
+    }
+
+    /**
+     * Méthode privée retournant l'identité de l'arête de coût minimal reliant les deux nœuds donnés, qui est celle
+     * empruntée par l'itinéraire lorsque plusieurs arêtes les relient
+     */
+    private int cheapestEdgeId(int fromNodeId, int toNodeId) {
+        int cheapestEdgeId = -1;
+        double cheapestCost = Double.POSITIVE_INFINITY;
+        int outDegree = graph.nodeOutDegree(fromNodeId);
+        for (int i = 0; i < outDegree; i++) {
+            int edgeId = graph.nodeOutEdgeId(fromNodeId, i);
+            if (graph.edgeTargetNodeId(edgeId) != toNodeId) continue;
+            double cost = graph.edgeLength(edgeId) * costFunction.costFactor(fromNodeId, edgeId);
+            if (cheapestEdgeId == -1 || cost < cheapestCost) {
+                cheapestEdgeId = edgeId;
+                cheapestCost = cost;
+            }
+        }
+        return cheapestEdgeId;
+    }
+
+    /**
+     * Méthode privée retournant le point de coordonnées WGS 84 données en degrés, ou null s'il est mal formé ou hors
+     * des limites de la Suisse
+     */
+    private static PointCh point(String latitude, String longitude) {
+        try {
+            double lat = Math.toRadians(Double.parseDouble(latitude.strip()));
+            double lon = Math.toRadians(Double.parseDouble(longitude.strip()));
+            double e = Ch1903.e(lon, lat);
+            double n = Ch1903.n(lon, lat);
+            return SwissBounds.containsEN(e, n) ? new PointCh(e, n) : null;
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Méthode privée retournant vrai ssi la ligne donnée est une ligne d'en-tête, c.-à-d. si son premier champ n'est
+     * pas un nombre
+     */
+    private static boolean isHeader(String line) {
+        try {
+            Double.parseDouble(line.split(",", -1)[0].strip());
+            return false;
+        } catch (NumberFormatException exception) {
+            return true;
+        }
+    }
+
+    /**
+     * Méthode privée retournant le rapport de progression correspondant aux compteurs donnés
+     */
+    private static String progress(long lineCount, long[] statusCounts, long elapsedNs) {
+        double seconds = elapsedNs / 1e9;
+        return String.format(Locale.ROOT, "%d itinéraires en %.1f s (%.0f/s), échecs : %d invalides, %d sans nœud, "
+                        + "%d sans itinéraire",
+                lineCount, seconds, seconds == 0 ? 0 : lineCount / seconds, statusCounts[Status.INVALID.ordinal()],
+                statusCounts[Status.NO_NODE.ordinal()], statusCounts[Status.NO_ROUTE.ordinal()]);
+    }
+
+}
@@ -0,0 +1,521 @@
+package ch.epfl.javelo.headless;
+
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.data.GraphHolder;
+import ch.epfl.javelo.projection.Ch1903;
+import ch.epfl.javelo.projection.PointCh;
+import ch.epfl.javelo.projection.SwissBounds;
+import ch.epfl.javelo.routing.*;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Classe publique représentant un serveur HTTP exposant le planificateur d'itinéraire de JaVelo, pour les
+ * déploiements sans interface graphique. Il n'utilise que le serveur HTTP fourni par le JDK, ses requêtes étant
+ * traitées sur des fils virtuels lorsque la machine virtuelle Java en dispose. Il offre trois points d'accès, dont les
+ * points sont donnés sous la forme latitude,longitude en degrés (WGS 84) :
+ * <ul>
+ * <li>/nearest?point=lat,lon : le nœud le plus proche du point, au format JSON ;</li>
+ * <li>/route?from=lat,lon&amp;to=lat,lon[&amp;format=gpx] : l'itinéraire entre les nœuds les plus proches des deux
+ * points, au format JSON ou GPX ;</li>
+ * <li>/profile?from=lat,lon&amp;to=lat,lon[&amp;samples=n] : le profil en long de cet itinéraire, au format JSON.</li>
+ * </ul>
+ * Tout ce qui peut échouer (l'accrochage des points, la recherche de l'itinéraire et le calcul de son profil) est
+ * effectué avant l'envoi des en-têtes, puis le corps est écrit par morceaux (chunked) au fur et à mesure de sa
+ * production, sans être préalablement stocké en mémoire. Une erreur survenant pendant son écriture, en pratique la
+ * fermeture de la connexion par le client, ne peut donc plus changer le statut de la réponse : la connexion est
+ * alors fermée sans que le corps soit terminé, afin que le client ne puisse le prendre pour une réponse complète.
+ * Les réponses d'erreur, courtes, sont envoyées avec leur longueur exacte. La durée de traitement de chaque requête,
+ * jusqu'à l'envoi des en-têtes, est donnée dans l'en-tête Server-Timing de la réponse et, avec la durée totale,
+ * dans le journal des accès.
+ * <p>
+ * Le graphe peut être remplacé pendant que le serveur fonctionne (voir GraphHolder) : chaque requête obtient un bail
+ * sur le graphe actuel et ses données dérivées, qu'elle utilise jusqu'à la fin de son traitement.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class RoutingServer implements AutoCloseable {
+
+    private static final double SEARCH_DISTANCE = 500; // distance maximale d'accrochage d'un point à un nœud
+    private static final double MAX_STEP_LENGTH = 5; // l'espacement maximal entre les échantillons du profil
+    private static final int DEFAULT_PROFILE_SAMPLES = 100;
+    private static final int MAX_PROFILE_SAMPLES = 10_000;
+    private static final int DEFAULT_PORT = 8080;
+    private static final long RELOAD_CHECK_PERIOD = 60; // secondes
+
+    /**
+     * Enregistrement représentant les données dérivées d'un graphe dont le serveur a besoin
+     *
+     * @param routeComputer (RouteComputer) : le planificateur d'itinéraire sur le graphe
+     * @param nodeFilter    (IntPredicate) : le prédicat que doivent satisfaire les nœuds auxquels les points sont
+     *                      accrochés, p. ex. l'appartenance à la composante principale du réseau
+     */
+    public record Routing(RouteComputer routeComputer, IntPredicate nodeFilter) {
+
+        /**
+         * Méthode calculant les données dérivées du graphe donné utilisées par main : la fonction de coût CityBikeCF
+         * tabulée, les composantes connexes du réseau, chargées depuis le répertoire du graphe si elles y ont déjà été
+         * écrites (voir ComponentIndex.loadOrCompute), et le planificateur utilisant ces deux données
+         *
+         * @param graph    (Graph) : le graphe
+         * @param basePath (Path) : chemin d'accès du répertoire depuis lequel le graphe a été chargé
+         * @return (Routing) : les données dérivées du graphe
+         */
+        public static Routing of(Graph graph, Path basePath) {
+            CostFunction costFunction = CityBikeCFTable.of(graph);
+            ComponentIndex components = ComponentIndex.loadOrCompute(basePath, "citybike", graph, costFunction);
+            return new Routing(new RouteComputer(graph, costFunction, components), components::isInLargestComponent);
+        }
+    }
+
+    private final GraphHolder<Routing> graphHolder;
+    private final RoutingService routingService;
+    private final Consumer<String> accessLog;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Construit un serveur, non encore démarré, écoutant à l'adresse donnée
+     *
+     * @param graph          (Graph) : le graphe
+     * @param routingService (RoutingService) : le service de calcul d'itinéraires sur ce graphe
+     * @param nodeFilter     (IntPredicate) : le prédicat que doivent satisfaire les nœuds auxquels les points sont
+     *                       accrochés, p. ex. l'appartenance à la composante principale du réseau
+     * @param address        (InetSocketAddress) : l'adresse d'écoute, de port 0 pour un port libre quelconque
+     * @param accessLog      (Consumer<String>) : le destinataire des lignes du journal des accès
+     * @throws IOException en cas d'erreur d'entrée/sortie, p. ex. si l'adresse est déjà utilisée
+     */
+    public RoutingServer(Graph graph, RoutingService routingService, IntPredicate nodeFilter,
+                         InetSocketAddress address, Consumer<String> accessLog) throws IOException {
+        // Le détenteur n'étant jamais ni fermé ni rechargé, le graphe reste utilisable par l'appelant
+        this(new GraphHolder<>(graph, Graph.LoadOptions.DEFAULT,
+                        g -> new Routing(routingService.routeComputer(), nodeFilter)),
+                routingService, address, accessLog);
+    }
+
+    /**
+     * Construit un serveur, non encore démarré, écoutant à l'adresse donnée, dont le graphe peut être remplacé au
+     * moyen du détenteur donné ; le serveur ne ferme pas le détenteur
+     *
+     * @param graphHolder    (GraphHolder<Routing>) : le détenteur du graphe et de ses données dérivées
+     * @param routingService (RoutingService) : le service de calcul d'itinéraires, auquel chaque requête donne le
+     *                       planificateur de l'instantané qu'elle utilise
+     * @param address        (InetSocketAddress) : l'adresse d'écoute, de port 0 pour un port libre quelconque
+     * @param accessLog      (Consumer<String>) : le destinataire des lignes du journal des accès
+     * @throws IOException en cas d'erreur d'entrée/sortie, p. ex. si l'adresse est déjà utilisée
+     */
+    public RoutingServer(GraphHolder<Routing> graphHolder, RoutingService routingService,
+                         InetSocketAddress address, Consumer<String> accessLog) throws IOException {
+        this.graphHolder = graphHolder;
+        this.routingService = routingService;
+        this.accessLog = accessLog;
+        this.server = HttpServer.create(address, 0);
+        this.executor = RoutingService.newRequestExecutor(4 * Runtime.getRuntime().availableProcessors());
+        server.setExecutor(executor);
+        server.createContext("/nearest", exchange -> handle(exchange, this::nearest));
+        server.createContext("/route", exchange -> handle(exchange, this::route));
+        server.createContext("/profile", exchange -> handle(exchange, this::profile));
+    }
+
+    /**
+     * Méthode démarrant un serveur sur le graphe dont le répertoire est donné en premier argument (javelo-data par
+     * défaut), écoutant sur le port donné en second argument (8080 par défaut), avec la fonction de coût CityBikeCF.
+     * Le serveur ne commence à écouter, et donc à être considéré comme prêt, qu'une fois les fichiers du graphe dans le
+     * cache de pages du système : les arêtes et les attributs y sont placés par le calcul des données dérivées
+     * (Routing.of), qui les lit en entier ; les nœuds, que ce calcul ne lit pas lorsque les composantes connexes sont
+     * chargées depuis le répertoire du graphe, et les profils (DataFile.PROFILES), lus par chaque réponse mais par
+     * aucun de ces calculs, sont chargés à l'avance.
+     * <p>
+     * Le répertoire du graphe est typiquement un lien symbolique vers le répertoire des dernières données : chaque
+     * minute, le serveur vérifie la cible de ce lien et, si elle a changé, charge en arrière-plan le graphe qu'elle
+     * contient puis le substitue à l'ancien, sans interrompre les requêtes en cours. Les nouvelles données doivent
+     * donc être écrites dans un nouveau répertoire, le lien étant remplacé une fois qu'elles sont complètes. Si le
+     * chargement échoue, l'ancien graphe est conservé et le chargement est retenté à la vérification suivante.
+     *
+     * @param args (String[]) : le répertoire du graphe et le port d'écoute, facultatifs
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    public static void main(String[] args) throws IOException {
+        Path basePath = Path.of(args.length > 0 ? args[0] : "javelo-data");
+        Path[] dataPath = {basePath.toRealPath()};
+        // Le répertoire du graphe en cours de chargement, dans lequel Routing.of cherche les composantes connexes ; les
+        // rechargements ayant lieu l'un après l'autre, il est fixé avant chacun d'eux
+        Path[] loadingPath = {dataPath[0]};
+        Set<Graph.DataFile> warmUpFiles = EnumSet.of(Graph.DataFile.NODES);
+        warmUpFiles.addAll(Graph.DataFile.PROFILES);
+        GraphHolder<Routing> graphHolder = GraphHolder.loadFrom(dataPath[0],
+                Graph.LoadOptions.DEFAULT.withWarmUp(warmUpFiles), graph -> Routing.of(graph, loadingPath[0]));
+        try (GraphHolder.Lease<Routing> lease = graphHolder.acquire()) {
+            System.out.printf(Locale.ROOT, "Graphe chargé à l'avance en %d ms%n",
+                    TimeUnit.NANOSECONDS.toMillis(lease.graph().warmUpNanos()));
+        }
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+
+        RoutingService routingService = new RoutingService(Runtime.getRuntime().availableProcessors());
+        RoutingServer server = new RoutingServer(graphHolder, routingService, new InetSocketAddress(port),
+                System.out::println);
+        server.start();
+        System.out.printf(Locale.ROOT, "JaVelo écoute sur le port %d%n", server.port());
+
+        ScheduledExecutorService reloadChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "javelo-reload-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Le rechargement ayant lieu sur le fil du détenteur, cette tâche ne fait que lancer puis attendre
+        reloadChecker.scheduleWithFixedDelay(() -> {
+            try {
+                Path newDataPath = basePath.toRealPath();
+                if (newDataPath.equals(dataPath[0]) || !Files.isDirectory(newDataPath)) return;
+                loadingPath[0] = newDataPath;
+                long generation = graphHolder.reload(newDataPath).join();
+                // Mémorisé seulement après le succès, afin qu'un échec soit retenté à la vérification suivante
+                dataPath[0] = newDataPath;
+                System.out.printf(Locale.ROOT, "Graphe %d chargé depuis %s%n", generation, newDataPath);
+            } catch (IOException | RuntimeException e) {
+                System.out.printf(Locale.ROOT, "Échec du rechargement du graphe : %s%n", e);
+            }
+        }, RELOAD_CHECK_PERIOD, RELOAD_CHECK_PERIOD, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Méthode démarrant le serveur
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Méthode retournant le port sur lequel le serveur écoute
+     *
+     * @return (int) : le port d'écoute
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Méthode arrêtant le serveur, après avoir laissé au plus une seconde aux requêtes en cours pour se terminer ;
+     * le service de calcul d'itinéraires n'est pas arrêté
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Interface fonctionnelle représentant le traitement d'une requête, écrivant sa réponse au moyen de Response
+     */
+    @FunctionalInterface
+    private interface Handler {
+        void handle(GraphHolder.Lease<Routing> lease, Map<String, String> parameters, Response response)
+                throws IOException;
+    }
+
+    /**
+     * Classe privée représentant une réponse en cours d'écriture. Ses en-têtes sont envoyés à l'ouverture du corps
+     * (open) ou à l'envoi d'une réponse d'erreur (error) ; une fois envoyés, la réponse ne peut plus être remplacée.
+     */
+    private static final class Response {
+        private static final String JSON = "application/json; charset=utf-8";
+
+        private final HttpExchange exchange;
+        private final long startTime;
+        private int status;
+        private boolean sent;
+        private Writer body;
+
+        private Response(HttpExchange exchange, long startTime) {
+            this.exchange = exchange;
+            this.startTime = startTime;
+        }
+
+        /**
+         * Méthode envoyant les en-têtes, dont la durée de traitement de la requête jusque-là, avec la longueur donnée
+         * du corps, 0 si elle est inconnue et que le corps est envoyé par morceaux
+         */
+        private void sendHeaders(int status, String contentType, long length) throws IOException {
+            this.status = status;
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.getResponseHeaders().set("Server-Timing",
+                    String.format(Locale.ROOT, "app;dur=%.3f", (System.nanoTime() - startTime) / 1e6));
+            sent = true;
+            exchange.sendResponseHeaders(status, length);
+        }
+
+        /**
+         * Méthode envoyant les en-têtes puis retournant le corps de la réponse, écrit par morceaux directement sur la
+         * connexion ; tout ce qui peut échouer doit donc avoir été calculé auparavant
+         */
+        private Writer open(int status, String contentType) throws IOException {
+            sendHeaders(status, contentType, 0);
+            body = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8));
+            return body;
+        }
+
+        private Writer openJson(int status) throws IOException {
+            return open(status, JSON);
+        }
+
+        private void error(int status, String message) throws IOException {
+            StringWriter w = new StringWriter();
+            w.write("{\"error\":");
+            writeString(w, message);
+            w.write('}');
+            byte[] bytes = w.toString().getBytes(StandardCharsets.UTF_8);
+            sendHeaders(status, JSON, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+
+        /**
+         * Méthode terminant la réponse, dont le corps est vidé puis clos
+         */
+        private void finish() throws IOException {
+            if (body != null) body.flush();
+            exchange.close();
+        }
+    }
+
+    /**
+     * Méthode privée traitant une requête au moyen du traitement donné, sur l'instantané actuel du graphe, puis
+     * consignant sa durée dans le journal
+     *
+     * @param exchange (HttpExchange) : l'échange HTTP
+     * @param handler  (Handler) : le traitement de la requête
+     * @throws IOException si la réponse n'a pu être terminée, le serveur HTTP fermant alors la connexion
+     */
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        long startTime = System.nanoTime();
+        Response response = new Response(exchange, startTime);
+        try {
+            try (GraphHolder.Lease<Routing> lease = graphHolder.acquire()) {
+                if (!exchange.getRequestMethod().equals("GET")) {
+                    response.error(405, "seule la méthode GET est acceptée");
+                } else {
+                    handler.handle(lease, parameters(exchange.getRequestURI().getRawQuery()), response);
+                }
+                if (!response.sent) throw new IllegalStateException("no response");
+            } catch (IOException | RuntimeException e) {
+                // Une fois les en-têtes envoyés, la réponse ne peut plus être remplacée par une réponse d'erreur
+                if (response.sent) throw e;
+                // Les paramètres étant validés avant l'envoi des en-têtes, seule une erreur survenant avant est due à
+                // la requête
+                if (e instanceof IllegalArgumentException) response.error(400, "paramètres invalides");
+                else response.error(500, "erreur interne");
+            }
+            response.finish();
+        } catch (IOException | RuntimeException e) {
+            // L'échange n'étant pas clos, ce qui terminerait le corps, le serveur HTTP ferme la connexion, et le
+            // client ne peut prendre le corps tronqué pour une réponse complète
+            log(exchange, response, startTime, " interrompue");
+            throw e;
+        }
+        log(exchange, response, startTime, "");
+    }
+
+    /**
+     * Méthode privée consignant une requête dans le journal des accès
+     */
+    private void log(HttpExchange exchange, Response response, long startTime, String suffix) {
+        accessLog.accept(String.format(Locale.ROOT, "%s %s %d %.3f ms%s", exchange.getRequestMethod(),
+                exchange.getRequestURI(), response.status, (System.nanoTime() - startTime) / 1e6, suffix));
+    }
+
+    /**
+     * Méthode privée traitant une requête /nearest
+     */
+    private void nearest(GraphHolder.Lease<Routing> lease, Map<String, String> parameters, Response response)
+            throws IOException {
+        PointCh point = point(parameters, "point");
+        int nodeId = closestNode(lease, point);
+        if (nodeId == -1) {
+            response.error(404, "aucun nœud à proximité");
+            return;
+        }
+        PointCh nodePoint = lease.graph().nodePoint(nodeId);
+        Writer w = response.openJson(200);
+        w.write("{\"nodeId\":" + nodeId + ",\"lat\":");
+        writeNumber(w, Math.toDegrees(nodePoint.lat()));
+        w.write(",\"lon\":");
+        writeNumber(w, Math.toDegrees(nodePoint.lon()));
+        w.write(",\"distance\":");
+        writeNumber(w, point.distanceTo(nodePoint));
+        w.write('}');
+    }
+
+    /**
+     * Méthode privée traitant une requête /route
+     */
+    private void route(GraphHolder.Lease<Routing> lease, Map<String, String> parameters, Response response)
+            throws IOException {
+        String format = parameters.getOrDefault("format", "json");
+        if (!format.equals("json") && !format.equals("gpx")) throw new IllegalArgumentException();
+        Route route = routeBetweenPoints(lease, parameters, response);
+        if (route == null) return;
+        ElevationProfile profile = ElevationProfileComputer.elevationProfile(route, MAX_STEP_LENGTH);
+
+        if (format.equals("gpx")) {
+            GpxGenerator.writeGpx(response.open(200, "application/gpx+xml; charset=utf-8"), route, profile);
+            return;
+        }
+        Writer w = response.openJson(200);
+        w.write("{\"length\":");
+        writeNumber(w, route.length());
+        w.write(",\"ascent\":");
+        writeNumber(w, profile.totalAscent());
+        w.write(",\"descent\":");
+        writeNumber(w, profile.totalDescent());
+        w.write(",\"points\":[");
+        boolean first = true;
+        for (PointCh point : route.points()) {
+            if (!first) w.write(',');
+            first = false;
+            w.write('[');
+            writeNumber(w, Math.toDegrees(point.lat()));
+            w.write(',');
+            writeNumber(w, Math.toDegrees(point.lon()));
+            w.write(']');
+        }
+        w.write("]}");
+    }
+
+    /**
+     * Méthode privée traitant une requête /profile
+     */
+    private void profile(GraphHolder.Lease<Routing> lease, Map<String, String> parameters, Response response)
+            throws IOException {
+        int samples = parameters.containsKey("samples")
+                ? Integer.parseInt(parameters.get("samples"))
+                : DEFAULT_PROFILE_SAMPLES;
+        if (samples < 2 || samples > MAX_PROFILE_SAMPLES) throw new IllegalArgumentException();
+        Route route = routeBetweenPoints(lease, parameters, response);
+        if (route == null) return;
+        ElevationProfile profile = ElevationProfileComputer.elevationProfile(route, MAX_STEP_LENGTH);
+
+        Writer w = response.openJson(200);
+        w.write("{\"length\":");
+        writeNumber(w, profile.length());
+        w.write(",\"minElevation\":");
+        writeNumber(w, profile.minElevation());
+        w.write(",\"maxElevation\":");
+        writeNumber(w, profile.maxElevation());
+        w.write(",\"ascent\":");
+        writeNumber(w, profile.totalAscent());
+        w.write(",\"descent\":");
+        writeNumber(w, profile.totalDescent());
+        w.write(",\"elevations\":[");
+        double step = profile.length() / (samples - 1);
+        for (int i = 0; i < samples; i++) {
+            if (i > 0) w.write(',');
+            writeNumber(w, profile.elevationAt(i * step));
+        }
+        w.write("]}");
+    }
+
+    /**
+     * Méthode privée calculant l'itinéraire entre les nœuds les plus proches des points from et to de la requête,
+     * ou écrivant une réponse d'erreur et retournant null si ces nœuds ou l'itinéraire n'existent pas
+     */
+    private Route routeBetweenPoints(GraphHolder.Lease<Routing> lease, Map<String, String> parameters,
+                                     Response response) throws IOException {
+        int startNodeId = closestNode(lease, point(parameters, "from"));
+        int endNodeId = closestNode(lease, point(parameters, "to"));
+        if (startNodeId == -1 || endNodeId == -1) {
+            response.error(404, "aucun nœud à proximité");
+            return null;
+        }
+        if (startNodeId == endNodeId) {
+            response.error(400, "les points de départ et d'arrivée sont identiques");
+            return null;
+        }
+        Route route = routingService.route(lease.derived().routeComputer(), startNodeId, endNodeId).join();
+        if (route == null) response.error(404, "aucun itinéraire");
+        return route;
+    }
+
+    /**
+     * Méthode privée retournant le nœud du graphe du bail satisfaisant son filtre le plus proche du point donné, ou -1
+     */
+    private static int closestNode(GraphHolder.Lease<Routing> lease, PointCh point) {
+        return lease.graph().nodeClosestTo(point, SEARCH_DISTANCE, lease.derived().nodeFilter());
+    }
+
+    /**
+     * Méthode privée retournant le point de nom donné de la requête, donné sous la forme latitude,longitude en degrés
+     *
+     * @throws IllegalArgumentException si le point est absent, mal formé ou hors des limites de la Suisse
+     */
+    private static PointCh point(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null) throw new IllegalArgumentException();
+        String[] coordinates = value.split(",", -1);
+        if (coordinates.length != 2) throw new IllegalArgumentException();
+        double lat = Math.toRadians(Double.parseDouble(coordinates[0]));
+        double lon = Math.toRadians(Double.parseDouble(coordinates[1]));
+        double e = Ch1903.e(lon, lat);
+        double n = Ch1903.n(lon, lat);
+        if (!SwissBounds.containsEN(e, n)) throw new IllegalArgumentException();
+        return new PointCh(e, n);
+    }
+
+    /**
+     * Méthode privée décodant les paramètres d'une requête
+     */
+    private static Map<String, String> parameters(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return parameters;
+        for (String parameter : rawQuery.split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals == -1) continue;
+            parameters.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                    URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    /**
+     * Méthode privée écrivant un nombre au format JSON, les valeurs non définies (p. ex. l'altitude d'un itinéraire
+     * sans profil) étant écrites null
+     */
+    private static void writeNumber(Writer w, double value) throws IOException {
+        w.write(Double.isFinite(value) ? String.format(Locale.ROOT, "%.6f", value) : "null");
+    }
+
+    /**
+     * Méthode privée écrivant une chaîne au format JSON
+     */
+    private static void writeString(Writer w, String value) throws IOException {
+        w.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') w.write('\\');
+            if (c < 0x20) w.write(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            else w.write(c);
+        }
+        w.write('"');
+    }
+
+}
@@ -0,0 +1,235 @@
+package ch.epfl.javelo.headless;
+
+import ch.epfl.javelo.Preconditions;
+import ch.epfl.javelo.routing.Route;
+import ch.epfl.javelo.routing.RouteComputer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Classe publique représentant un service de calcul d'itinéraires sans interface graphique, acceptant des requêtes
+ * concurrentes. Chaque requête est exécutée sur un fil virtuel lorsque la machine virtuelle Java en dispose (depuis
+ * Java 21), et sur un fil d'un pool de taille fixe sinon. Tous les fils partagent le même planificateur, donc le même
+ * graphe et la même réserve d'espaces de travail ; le nombre de recherches simultanées est limité au nombre de cœurs,
+ * de sorte que les requêtes en excès attendent sans consommer de mémoire supplémentaire. Le planificateur peut aussi
+ * être donné à chaque requête, p. ex. lorsque le graphe est remplacé pendant que le service fonctionne (voir
+ * GraphHolder).
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class RoutingService implements AutoCloseable {
+
+    private final RouteComputer routeComputer;
+    private final int maxConcurrentSearches;
+    private final Semaphore searchPermits;
+    private final ExecutorService executor;
+
+    /**
+     * Construit un service utilisant le planificateur donné, effectuant au plus autant de recherches simultanées
+     * qu'il y a de cœurs
+     *
+     * @param routeComputer (RouteComputer) : le planificateur d'itinéraire
+     */
+    public RoutingService(RouteComputer routeComputer) {
+        this(routeComputer, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Construit un service utilisant le planificateur donné, effectuant au plus le nombre donné de recherches
+     * simultanées
+     *
+     * @param routeComputer         (RouteComputer) : le planificateur d'itinéraire
+     * @param maxConcurrentSearches (int) : le nombre maximal de recherches simultanées
+     * @throws IllegalArgumentException si le nombre maximal de recherches simultanées n'est pas strictement positif
+     */
+    public RoutingService(RouteComputer routeComputer, int maxConcurrentSearches) {
+        Preconditions.checkArgument(maxConcurrentSearches > 0);
+        this.routeComputer = routeComputer;
+        this.maxConcurrentSearches = maxConcurrentSearches;
+        this.searchPermits = new Semaphore(maxConcurrentSearches);
+        this.executor = newRequestExecutor(maxConcurrentSearches);
+    }
+
+    /**
+     * Construit un service sans planificateur par défaut, dont chaque requête doit donner le planificateur à utiliser,
+     * effectuant au plus le nombre donné de recherches simultanées
+     *
+     * @param maxConcurrentSearches (int) : le nombre maximal de recherches simultanées
+     * @throws IllegalArgumentException si le nombre maximal de recherches simultanées n'est pas strictement positif
+     */
+    public RoutingService(int maxConcurrentSearches) {
+        this(null, maxConcurrentSearches);
+    }
+
+    /**
+     * Méthode retournant le planificateur d'itinéraire utilisé par défaut par le service
+     *
+     * @return (RouteComputer) : le planificateur d'itinéraire, null si le service n'en a pas
+     */
+    public RouteComputer routeComputer() {
+        return routeComputer;
+    }
+
+    /**
+     * Méthode calculant de manière asynchrone l'itinéraire de coût total minimal entre les deux nœuds donnés
+     *
+     * @param startNodeId (int) : l'identité du nœud de départ
+     * @param endNodeId   (int) : l'identité du nœud d'arrivée
+     * @return (CompletableFuture<Route>) : le futur itinéraire, null si aucun itinéraire n'existe
+     * @throws IllegalArgumentException si le nœud de départ et d'arrivée sont identiques
+     * @throws IllegalStateException    si le service n'a pas de planificateur par défaut
+     */
+    public CompletableFuture<Route> route(int startNodeId, int endNodeId) {
+        return route(defaultRouteComputer(), startNodeId, endNodeId);
+    }
+
+    /**
+     * Méthode calculant de manière asynchrone, au moyen du planificateur donné, l'itinéraire de coût total minimal
+     * entre les deux nœuds donnés
+     *
+     * @param routeComputer (RouteComputer) : le planificateur d'itinéraire
+     * @param startNodeId   (int) : l'identité du nœud de départ
+     * @param endNodeId     (int) : l'identité du nœud d'arrivée
+     * @return (CompletableFuture<Route>) : le futur itinéraire, null si aucun itinéraire n'existe
+     * @throws IllegalArgumentException si le nœud de départ et d'arrivée sont identiques
+     */
+    public CompletableFuture<Route> route(RouteComputer routeComputer, int startNodeId, int endNodeId) {
+        Objects.requireNonNull(routeComputer);
+        Preconditions.checkArgument(startNodeId != endNodeId);
+        return submit(() -> routeComputer.bestRouteBetween(startNodeId, endNodeId));
+    }
+
+    /**
+     * Méthode calculant de manière asynchrone les itinéraires de coût total minimal entre les paires de nœuds
+     * données. Plutôt que de créer une tâche par itinéraire, le lot est découpé en autant de tranches contiguës qu'il
+     * peut y avoir de recherches simultanées, chacune calculée d'un seul tenant ; cela maximise le débit sur les gros
+     * lots.
+     *
+     * @param startNodeIds (int[]) : l'identité du nœud de départ de chaque itinéraire
+     * @param endNodeIds   (int[]) : l'identité du nœud d'arrivée de chaque itinéraire
+     * @return (CompletableFuture<List<Route>>) : les futurs itinéraires, dans l'ordre des paires, null pour les paires
+     * entre lesquelles aucun itinéraire n'existe
+     * @throws IllegalArgumentException si les deux tableaux n'ont pas la même taille, ou si une paire est formée de
+     *                                  deux nœuds identiques
+     * @throws IllegalStateException    si le service n'a pas de planificateur par défaut
+     */
+    public CompletableFuture<List<Route>> routeAll(int[] startNodeIds, int[] endNodeIds) {
+        return routeAll(defaultRouteComputer(), startNodeIds, endNodeIds);
+    }
+
+    /**
+     * Méthode calculant de manière asynchrone, au moyen du planificateur donné, les itinéraires de coût total minimal
+     * entre les paires de nœuds données (voir routeAll(int[], int[]))
+     *
+     * @param routeComputer (RouteComputer) : le planificateur d'itinéraire
+     * @param startNodeIds  (int[]) : l'identité du nœud de départ de chaque itinéraire
+     * @param endNodeIds    (int[]) : l'identité du nœud d'arrivée de chaque itinéraire
+     * @return (CompletableFuture<List<Route>>) : les futurs itinéraires, dans l'ordre des paires, null pour les paires
+     * entre lesquelles aucun itinéraire n'existe
+     * @throws IllegalArgumentException si les deux tableaux n'ont pas la même taille, ou si une paire est formée de
+     *                                  deux nœuds identiques
+     */
+    public CompletableFuture<List<Route>> routeAll(RouteComputer routeComputer, int[] startNodeIds,
+                                                   int[] endNodeIds) {
+        Objects.requireNonNull(routeComputer);
+        Preconditions.checkArgument(startNodeIds.length == endNodeIds.length);
+        for (int i = 0; i < startNodeIds.length; i++) Preconditions.checkArgument(startNodeIds[i] != endNodeIds[i]);
+        int[] starts = startNodeIds.clone();
+        int[] ends = endNodeIds.clone();
+
+        Route[] routes = new Route[starts.length];
+        int sliceCount = Math.max(1, Math.min(maxConcurrentSearches, starts.length));
+        CompletableFuture<?>[] slices = new CompletableFuture<?>[sliceCount];
+        for (int slice = 0; slice < sliceCount; slice++) {
+            int from = (int) ((long) starts.length * slice / sliceCount);
+            int to = (int) ((long) starts.length * (slice + 1) / sliceCount);
+            slices[slice] = submit(() -> {
+                for (int i = from; i < to; i++) routes[i] = routeComputer.bestRouteBetween(starts[i], ends[i]);
+                return null;
+            });
+        }
+        return CompletableFuture.allOf(slices)
+                .thenApply(ignored -> Collections.unmodifiableList(Arrays.asList(routes)));
+    }
+
+    /**
+     * Méthode arrêtant le service : les requêtes déjà soumises sont menées à terme, puis les fils d'exécution sont
+     * libérés ; aucune nouvelle requête ne peut être soumise
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            boolean terminated = false;
+            while (!terminated) terminated = executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Méthode privée retournant le planificateur par défaut du service
+     *
+     * @return (RouteComputer) : le planificateur par défaut
+     * @throws IllegalStateException si le service n'a pas de planificateur par défaut
+     */
+    private RouteComputer defaultRouteComputer() {
+        if (routeComputer == null) throw new IllegalStateException("no default route computer");
+        return routeComputer;
+    }
+
+    /**
+     * Méthode privée exécutant la recherche donnée sur un fil du service, une fois obtenue l'autorisation d'effectuer
+     * une recherche
+     *
+     * @param search (Supplier<T>) : la recherche
+     * @return (CompletableFuture<T>) : le futur résultat de la recherche
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> search) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                searchPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return search.get();
+            } finally {
+                searchPermits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Méthode créant l'exécuteur des requêtes : un fil virtuel par requête si la machine virtuelle Java le
+     * permet (la méthode correspondante est cherchée par réflexion, le projet visant Java 17), un pool de fils de
+     * taille fixe sinon
+     *
+     * @param threadCount (int) : le nombre de fils du pool utilisé à défaut de fils virtuels
+     * @return (ExecutorService) : l'exécuteur des requêtes
+     */
+    static ExecutorService newRequestExecutor(int threadCount) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newFixedThreadPool(threadCount, runnable -> {
+                Thread thread = new Thread(runnable, "javelo-routing");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Classe publique et immuable représentant une fonction de coût mémorisant, pour chaque arête d'un graphe, le facteur
+ * de coût d'une autre fonction de coût, arrondi au float. Le calcul de ces facteurs, réparti entre les fils
+ * d'exécution du pool fork/join commun, n'est fait qu'une fois ; il peut aussi être écrit dans le répertoire du graphe
+ * puis projeté en mémoire lors des chargements suivants.
+ * <p>
+ * La fonction de coût mémorisée doit ne dépendre que de l'arête, le nœud passé à costFactor étant toujours le nœud de
+ * départ de celle-ci.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class CachedCostFunction implements CostFunction {
+
+    // Taille du tampon utilisé pour lire les fichiers du graphe lors du calcul d'une empreinte
+    private static final int FINGERPRINT_BUFFER_SIZE = 1 << 20;
+
+    private final FloatBuffer factors;
+
+    private CachedCostFunction(FloatBuffer factors) {
+        this.factors = factors;
+    }
+
+    /**
+     * Méthode calculant les facteurs de coût de toutes les arêtes du graphe donné pour la fonction de coût donnée
+     *
+     * @param graph        (Graph) : le graphe
+     * @param costFunction (CostFunction) : la fonction de coût à mémoriser
+     * @return (CachedCostFunction) : la fonction de coût mémorisée
+     */
+    public static CachedCostFunction of(Graph graph, CostFunction costFunction) {
+        float[] factors = new float[graph.edgeCount()];
+        // Chaque arête sortant d'un unique nœud, les nœuds peuvent être traités en parallèle sans synchronisation
+        IntStream.range(0, graph.nodeCount()).parallel().forEach(nodeId -> {
+            int outDegree = graph.nodeOutDegree(nodeId);
+            for (int i = 0; i < outDegree; i++) {
+                int edgeId = graph.nodeOutEdgeId(nodeId, i);
+                factors[edgeId] = (float) costFunction.costFactor(nodeId, edgeId);
+            }
+        });
+        return new CachedCostFunction(FloatBuffer.wrap(factors));
+    }
+
+    /**
+     * Méthode projetant en mémoire les facteurs de coût précédemment écrits dans le répertoire du graphe pour
+     * l'empreinte donnée, ou, s'ils n'existent pas, les calculant et les y écrivant, dans le fichier
+     * cost_[empreinte].bin
+     *
+     * @param graph        (Graph) : le graphe
+     * @param costFunction (CostFunction) : la fonction de coût à mémoriser
+     * @param basePath     (Path) : chemin d'accès du répertoire du graphe
+     * @param fingerprint  (String) : l'empreinte identifiant la fonction de coût et le graphe, p. ex. celle
+     *                     retournée par fingerprint ; une empreinte ne changeant pas avec le graphe ferait charger
+     *                     des facteurs périmés
+     * @return (CachedCostFunction) : la fonction de coût mémorisée
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    public static CachedCostFunction loadOrCompute(Graph graph, CostFunction costFunction, Path basePath,
+                                                   String fingerprint) throws IOException {
+        Path path = basePath.resolve("cost_" + fingerprint + ".bin");
+        long expectedSize = (long) graph.edgeCount() * Float.BYTES;
+        if (Files.exists(path) && Files.size(path) == expectedSize) {
+            try (FileChannel channel = FileChannel.open(path)) {
+                return new CachedCostFunction(
+                        channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedSize).asFloatBuffer());
+            }
+        }
+
+        CachedCostFunction cached = of(graph, costFunction);
+        ByteBuffer bytes = ByteBuffer.allocate((int) expectedSize);
+        bytes.asFloatBuffer().put(cached.factors.duplicate().clear());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) channel.write(bytes);
+        }
+        return cached;
+    }
+
+    /**
+     * Méthode retournant une empreinte de la fonction de coût donnée sur le graphe contenu dans le répertoire donné,
+     * formée du nom de sa classe, de la version donnée et d'une somme de contrôle du contenu et de la taille de tous
+     * les fichiers du graphe ; elle change donc dès que le graphe change, même si son nombre d'arêtes reste le même,
+     * ainsi que lorsque la version de la fonction de coût change. La somme de contrôle lit la totalité des fichiers,
+     * ce qui reste bien plus rapide que le calcul des facteurs qu'elle permet d'éviter.
+     *
+     * @param basePath     (Path) : chemin d'accès du répertoire du graphe
+     * @param costFunction (CostFunction) : la fonction de coût
+     * @param version      (int) : la version de la définition de la fonction de coût, à changer à chaque
+     *                     modification de la manière dont elle calcule ses facteurs
+     * @return (String) : l'empreinte de la fonction de coût
+     * @throws IOException en cas d'erreur d'entrée/sortie, p. ex. si l'un des fichiers du graphe n'existe pas
+     */
+    public static String fingerprint(Path basePath, CostFunction costFunction, int version) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(FINGERPRINT_BUFFER_SIZE);
+        for (Graph.DataFile file : Graph.DataFile.values()) {
+            try (FileChannel channel = FileChannel.open(basePath.resolve(file.fileName()))) {
+                buffer.clear();
+                buffer.putLong(channel.size());
+                crc.update(buffer.flip());
+                buffer.clear();
+                while (channel.read(buffer) != -1) {
+                    crc.update(buffer.flip());
+                    buffer.clear();
+                }
+            }
+        }
+        // Le nom d'une classe anonyme ou d'une lambda peut être vide ou contenir des caractères interdits
+        String name = costFunction.getClass().getSimpleName().replaceAll("[^A-Za-z0-9]", "");
+        return (name.isEmpty() ? "CostFunction" : name) + "_v" + version + "_"
+                + Integer.toHexString((int) crc.getValue());
+    }
+
+    /**
+     * Méthode retournant le facteur de coût mémorisé de l'arête d'identité donnée
+     *
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (float) : le facteur de coût de l'arête
+     */
+    public float factor(int edgeId) {
+        return factors.get(edgeId);
+    }
+
+    @Override
+    public double costFactor(int nodeId, int edgeId) {
+        return factors.get(edgeId);
+    }
+
+}
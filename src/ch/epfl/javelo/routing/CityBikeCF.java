@@ -1,5 +1,6 @@
 package ch.epfl.javelo.routing;
 
+import ch.epfl.javelo.data.Attribute;
 import ch.epfl.javelo.data.AttributeSet;
 import ch.epfl.javelo.data.Graph;
 
@@ -13,149 +14,175 @@ import static ch.epfl.javelo.data.Attribute.*;
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public record CityBikeCF(Graph graph) implements CostFunction {
     // Any kind of marked cycle route (international, national, regional or local)
-    private static final AttributeSet CYCLE_ROUTE =
-            AttributeSet.of(ICN_YES, NCN_YES, RCN_YES, LCN_YES);
+    private static final long CYCLE_ROUTE =
+            AttributeSet.of(ICN_YES, NCN_YES, RCN_YES, LCN_YES).bits();
 
-    private static final AttributeSet BIKE =
-            AttributeSet.of(BICYCLE_YES, BICYCLE_DESIGNATED, BICYCLE_PERMISSIVE);
+    private static final long BIKE =
+            AttributeSet.of(BICYCLE_YES, BICYCLE_DESIGNATED, BICYCLE_PERMISSIVE).bits();
 
     // Tags indicating that access by bike is allowed/forbidden
-    private static final AttributeSet BIKE_ACCESS_ALLOWED =
-            AttributeSet.of(BICYCLE_YES, BICYCLE_DESIGNATED, BICYCLE_PERMISSIVE, BICYCLE_DISMOUNT);
-    private static final AttributeSet BIKE_ACCESS_FORBIDDEN =
-            AttributeSet.of(BICYCLE_NO, BICYCLE_USE_SIDEPATH, BICYCLE_PRIVATE);
+    private static final long BIKE_ACCESS_ALLOWED =
+            AttributeSet.of(BICYCLE_YES, BICYCLE_DESIGNATED, BICYCLE_PERMISSIVE, BICYCLE_DISMOUNT).bits();
+    private static final long BIKE_ACCESS_FORBIDDEN =
+            AttributeSet.of(BICYCLE_NO, BICYCLE_USE_SIDEPATH, BICYCLE_PRIVATE).bits();
 
     // Tags indicating that access by any kind of vehicle is forbidden
-    private static final AttributeSet VEHICLE_ACCESS_FORBIDDEN =
-            AttributeSet.of(VEHICLE_NO, VEHICLE_PRIVATE);
+    private static final long VEHICLE_ACCESS_FORBIDDEN =
+            AttributeSet.of(VEHICLE_NO, VEHICLE_PRIVATE).bits();
 
     // Tags indicating that access by public is allowed/forbidden
-    private static final AttributeSet ACCESS_ALLOWED =
-            AttributeSet.of(ACCESS_YES, ACCESS_PERMISSIVE);
-    private static final AttributeSet ACCESS_FORBIDDEN =
-            AttributeSet.of(ACCESS_NO, ACCESS_PRIVATE);
+    private static final long ACCESS_ALLOWED =
+            AttributeSet.of(ACCESS_YES, ACCESS_PERMISSIVE).bits();
+    private static final long ACCESS_FORBIDDEN =
+            AttributeSet.of(ACCESS_NO, ACCESS_PRIVATE).bits();
 
     // Tags explicitly or implicitly indicating that a street is one-way.
-    private static final AttributeSet ONEWAY_FORWARD =
-            AttributeSet.of(ONEWAY_YES, ONEWAY_BICYCLE_YES);
+    private static final long ONEWAY_FORWARD =
+            AttributeSet.of(ONEWAY_YES, ONEWAY_BICYCLE_YES).bits();
 
     // Tags indicating that cyclists can travel against traffic along a one-way street.
-    private static final AttributeSet ONEWAY_DOES_NOT_APPLY_TO_CYCLISTS =
-            AttributeSet.of(ONEWAY_BICYCLE_NO, CYCLEWAY_OPPOSITE, CYCLEWAY_OPPOSITE_LANE, CYCLEWAY_OPPOSITE_TRACK);
+    private static final long ONEWAY_DOES_NOT_APPLY_TO_CYCLISTS = AttributeSet.of(
+            ONEWAY_BICYCLE_NO, CYCLEWAY_OPPOSITE, CYCLEWAY_OPPOSITE_LANE, CYCLEWAY_OPPOSITE_TRACK).bits();
 
     // Tags indicating some kind of residential street.
-    private static final AttributeSet RESIDENTIAL_STREET =
-            AttributeSet.of(HIGHWAY_RESIDENTIAL, HIGHWAY_LIVING_STREET);
+    private static final long RESIDENTIAL_STREET =
+            AttributeSet.of(HIGHWAY_RESIDENTIAL, HIGHWAY_LIVING_STREET).bits();
 
-    private static final AttributeSet PAVED_SURFACE = AttributeSet.of(
-            SURFACE_PAVED, SURFACE_ASPHALT, SURFACE_CONCRETE, SURFACE_PAVING_STONES, SURFACE_SETT);
-    private static final AttributeSet UNPAVED_SURFACE = AttributeSet.of(
+    private static final long PAVED_SURFACE = AttributeSet.of(
+            SURFACE_PAVED, SURFACE_ASPHALT, SURFACE_CONCRETE, SURFACE_PAVING_STONES, SURFACE_SETT).bits();
+    private static final long UNPAVED_SURFACE = AttributeSet.of(
             SURFACE_UNPAVED, SURFACE_GRAVEL, SURFACE_GROUND, SURFACE_COMPACTED, SURFACE_GRASS,
             SURFACE_DIRT, SURFACE_FINE_GRAVEL, SURFACE_PEBBLESTONE, SURFACE_WOOD, SURFACE_SAND,
-            SURFACE_COBBLESTONE);
+            SURFACE_COBBLESTONE).bits();
 
-    private static final AttributeSet TRACKLIKE =
-            AttributeSet.of(HIGHWAY_TRACK, HIGHWAY_ROAD, HIGHWAY_PATH, HIGHWAY_FOOTWAY);
+    private static final long TRACKLIKE =
+            AttributeSet.of(HIGHWAY_TRACK, HIGHWAY_ROAD, HIGHWAY_PATH, HIGHWAY_FOOTWAY).bits();
 
     // Ternary logic
     private static final Optional<Boolean> TRUE = Optional.of(Boolean.TRUE);
     private static final Optional<Boolean> FALSE = Optional.of(Boolean.FALSE);
     private static final Optional<Boolean> UNKNOWN = Optional.empty();
 
+    // Number of average up slope classes distinguished by the cost function, see slopeClass.
+    static final int SLOPE_CLASSES = 5;
+    private static final double[] SLOPE_FACTORS = {1, 1.2, 1.4, 1.8, 2.6};
+
     @Override
     public double costFactor(int nodeId, int edgeId) {
-        var edgeAttributes = graph.edgeAttributes(edgeId);
+        var averageUpSlope = graph.edgeElevationGain(edgeId) / graph.edgeLength(edgeId);
+        return costFactor(graph.edgeAttributeBits(edgeId), graph.edgeIsInverted(edgeId), slopeClass(averageUpSlope));
+    }
 
+    /**
+     * Returns the class of the given average up slope: 0 below 1%, 1 below 3%, 2 below 5%, 3 below 10% and 4 otherwise
+     * (including NaN, e.g. for zero-length edges).
+     */
+    static int slopeClass(double averageUpSlope) {
+        if (averageUpSlope < 0.01) return 0;
+        else if (averageUpSlope < 0.03) return 1;
+        else if (averageUpSlope < 0.05) return 2;
+        else if (averageUpSlope < 0.10) return 3;
+        else return 4;
+    }
+
+    /**
+     * Returns the cost factor of an edge having the given attributes (as returned by AttributeSet.bits), direction and
+     * average up slope class. As it only depends on these, it can be computed once for all edges sharing them (see
+     * CityBikeCFTable). Attributes are tested with bit masks, so that computing a cost factor allocates nothing.
+     */
+    static double costFactor(long edgeAttributes, boolean isInverted, int slopeClass) {
         // Exclude motorways.
-        if (edgeAttributes.contains(HIGHWAY_MOTORWAY)) return Double.POSITIVE_INFINITY;
+        if (contains(edgeAttributes, HIGHWAY_MOTORWAY)) return Double.POSITIVE_INFINITY;
 
         // Exclude forbidden one-way streets.
-        var isInverted = graph.edgeIsInverted(edgeId);
         var wrongOneWay = isInverted
-                ? edgeAttributes.intersects(ONEWAY_FORWARD)
-                : edgeAttributes.contains(ONEWAY_M1);
-        if (wrongOneWay && !edgeAttributes.intersects(ONEWAY_DOES_NOT_APPLY_TO_CYCLISTS))
+                ? intersects(edgeAttributes, ONEWAY_FORWARD)
+                : contains(edgeAttributes, ONEWAY_M1);
+        if (wrongOneWay && !intersects(edgeAttributes, ONEWAY_DOES_NOT_APPLY_TO_CYCLISTS))
             return Double.POSITIVE_INFINITY;
 
         // Penalize steps, as the bike has to be carried.
-        if (edgeAttributes.contains(HIGHWAY_STEPS)) return 40d;
+        if (contains(edgeAttributes, HIGHWAY_STEPS)) return 40d;
 
-        var isCycleRoute = edgeAttributes.intersects(CYCLE_ROUTE);
+        var isCycleRoute = intersects(edgeAttributes, CYCLE_ROUTE);
 
         // Check that the edge is accessible
-        var isAccessible = isCycleRoute ||
-                isAccessibleByBike(edgeAttributes)
-                        .or(() -> isAccessibleByVehicle(edgeAttributes))
-                        .or(() -> isAccessible(edgeAttributes))
-                        .orElse(true);
-        if (!isAccessible) return Double.POSITIVE_INFINITY;
+        if (!isCycleRoute) {
+            var isAccessible = isAccessibleByBike(edgeAttributes);
+            if (isAccessible.isEmpty()) isAccessible = isAccessibleByVehicle(edgeAttributes);
+            if (isAccessible.isEmpty()) isAccessible = isAccessible(edgeAttributes);
+            if (!isAccessible.orElse(true)) return Double.POSITIVE_INFINITY;
+        }
 
         // Marked cycle routes are always considered as perfect, anything else is worse.
         var flatCost = isCycleRoute
                 ? 1d
                 : 0.05 + nonCycleRouteCostFactor(edgeAttributes);
 
-        var averageUpSlope = graph.edgeElevationGain(edgeId) / graph.edgeLength(edgeId);
-        if (averageUpSlope < 0.01) return flatCost;
-        else if (averageUpSlope < 0.03) return flatCost * 1.2;
-        else if (averageUpSlope < 0.05) return flatCost * 1.4;
-        else if (averageUpSlope < 0.10) return flatCost * 1.8;
-        else return flatCost * 2.6;
+        return slopeClass == 0 ? flatCost : flatCost * SLOPE_FACTORS[slopeClass];
     }
 
-    private Optional<Boolean> isAccessibleByBike(AttributeSet edgeAttributes) {
-        if (edgeAttributes.intersects(BIKE_ACCESS_ALLOWED)) return TRUE;
-        if (edgeAttributes.intersects(BIKE_ACCESS_FORBIDDEN)) return FALSE;
+    private static Optional<Boolean> isAccessibleByBike(long edgeAttributes) {
+        if (intersects(edgeAttributes, BIKE_ACCESS_ALLOWED)) return TRUE;
+        if (intersects(edgeAttributes, BIKE_ACCESS_FORBIDDEN)) return FALSE;
         return UNKNOWN;
     }
 
-    private Optional<Boolean> isAccessibleByVehicle(AttributeSet edgeAttributes) {
-        return edgeAttributes.intersects(VEHICLE_ACCESS_FORBIDDEN) ? FALSE : UNKNOWN;
+    private static Optional<Boolean> isAccessibleByVehicle(long edgeAttributes) {
+        return intersects(edgeAttributes, VEHICLE_ACCESS_FORBIDDEN) ? FALSE : UNKNOWN;
     }
 
-    private Optional<Boolean> isAccessible(AttributeSet edgeAttributes) {
-        if (edgeAttributes.intersects(ACCESS_ALLOWED)) return TRUE;
-        if (edgeAttributes.intersects(ACCESS_FORBIDDEN)) return FALSE;
-        if (edgeAttributes.contains(MOTORROAD_YES)) return FALSE;
+    private static Optional<Boolean> isAccessible(long edgeAttributes) {
+        if (intersects(edgeAttributes, ACCESS_ALLOWED)) return TRUE;
+        if (intersects(edgeAttributes, ACCESS_FORBIDDEN)) return FALSE;
+        if (contains(edgeAttributes, MOTORROAD_YES)) return FALSE;
         return UNKNOWN;
     }
 
-    private double nonCycleRouteCostFactor(AttributeSet edgeAttributes) {
-        if (edgeAttributes.contains(HIGHWAY_PEDESTRIAN)) return 3;
-        if (edgeAttributes.contains(HIGHWAY_CYCLEWAY)) return 1;
+    private static double nonCycleRouteCostFactor(long edgeAttributes) {
+        if (contains(edgeAttributes, HIGHWAY_PEDESTRIAN)) return 3;
+        if (contains(edgeAttributes, HIGHWAY_CYCLEWAY)) return 1;
 
         // True iff we're sure the edge is unpaved.
-        var isUnpaved = edgeAttributes.intersects(UNPAVED_SURFACE);
+        var isUnpaved = intersects(edgeAttributes, UNPAVED_SURFACE);
 
-        if (edgeAttributes.intersects(RESIDENTIAL_STREET)) return isUnpaved ? 1.5 : 1.1;
-        if (edgeAttributes.contains(HIGHWAY_SERVICE)) return isUnpaved ? 1.6 : 1.3;
+        if (intersects(edgeAttributes, RESIDENTIAL_STREET)) return isUnpaved ? 1.5 : 1.1;
+        if (contains(edgeAttributes, HIGHWAY_SERVICE)) return isUnpaved ? 1.6 : 1.3;
 
         // True iff the edge is designated for bicycle use.
-        var isBike = edgeAttributes.intersects(BIKE);
+        var isBike = intersects(edgeAttributes, BIKE);
 
         // Main roads
-        if (edgeAttributes.contains(HIGHWAY_TRUNK)) return isBike ? 1.5 : 10;
-        if (edgeAttributes.contains(HIGHWAY_PRIMARY)) return isBike ? 1.2 : 3;
-        if (edgeAttributes.contains(HIGHWAY_SECONDARY)) return isBike ? 1.1 : 1.6;
-        if (edgeAttributes.contains(HIGHWAY_TERTIARY)) return isBike ? 1.0 : 1.4;
-        if (edgeAttributes.contains(HIGHWAY_UNCLASSIFIED)) return isBike ? 1.0 : 1.3;
+        if (contains(edgeAttributes, HIGHWAY_TRUNK)) return isBike ? 1.5 : 10;
+        if (contains(edgeAttributes, HIGHWAY_PRIMARY)) return isBike ? 1.2 : 3;
+        if (contains(edgeAttributes, HIGHWAY_SECONDARY)) return isBike ? 1.1 : 1.6;
+        if (contains(edgeAttributes, HIGHWAY_TERTIARY)) return isBike ? 1.0 : 1.4;
+        if (contains(edgeAttributes, HIGHWAY_UNCLASSIFIED)) return isBike ? 1.0 : 1.3;
 
         // Tracks, paths, etc.
-        if (edgeAttributes.intersects(TRACKLIKE)) {
+        if (intersects(edgeAttributes, TRACKLIKE)) {
             // True iff we're sure the edge is paved.
-            var isPaved = edgeAttributes.intersects(PAVED_SURFACE);
+            var isPaved = intersects(edgeAttributes, PAVED_SURFACE);
             // True iff the edge is probably good to ride on.
             var probablyGood = isPaved
-                    || (!isUnpaved && (isBike || edgeAttributes.contains(HIGHWAY_FOOTWAY)));
+                    || (!isUnpaved && (isBike || contains(edgeAttributes, HIGHWAY_FOOTWAY)));
 
-            if (edgeAttributes.contains(TRACKTYPE_GRADE1)) return probablyGood ? 1.0 : 1.3;
-            if (edgeAttributes.contains(TRACKTYPE_GRADE2)) return probablyGood ? 1.1 : 2.0;
-            if (edgeAttributes.contains(TRACKTYPE_GRADE3)) return probablyGood ? 1.5 : 3.0;
-            if (edgeAttributes.contains(TRACKTYPE_GRADE4)) return probablyGood ? 2.0 : 5.0;
-            if (edgeAttributes.contains(TRACKTYPE_GRADE5)) return probablyGood ? 3.0 : 5.0;
+            if (contains(edgeAttributes, TRACKTYPE_GRADE1)) return probablyGood ? 1.0 : 1.3;
+            if (contains(edgeAttributes, TRACKTYPE_GRADE2)) return probablyGood ? 1.1 : 2.0;
+            if (contains(edgeAttributes, TRACKTYPE_GRADE3)) return probablyGood ? 1.5 : 3.0;
+            if (contains(edgeAttributes, TRACKTYPE_GRADE4)) return probablyGood ? 2.0 : 5.0;
+            if (contains(edgeAttributes, TRACKTYPE_GRADE5)) return probablyGood ? 3.0 : 5.0;
             return probablyGood ? 1.0 : 5.0;
         }
 
         return 2;
     }
+
+    private static boolean contains(long edgeAttributes, Attribute attribute) {
+        return (edgeAttributes & (1L << attribute.ordinal())) != 0;
+    }
+
+    private static boolean intersects(long edgeAttributes, long mask) {
+        return (edgeAttributes & mask) != 0;
+    }
 }
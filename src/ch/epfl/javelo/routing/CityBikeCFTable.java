@@ -0,0 +1,70 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+
+import java.util.stream.IntStream;
+
+/**
+ * Classe publique et immuable représentant la fonction de coût CityBikeCF « compilée » pour un graphe donné. Le
+ * facteur de coût de CityBikeCF ne dépendant que de l'ensemble des attributs d'une arête, de son sens et de la classe
+ * de sa pente moyenne, il est calculé une fois pour toutes pour chacune de ces combinaisons ; chaque arête est
+ * associée à l'index de la sienne dans cette table, si bien que le facteur de coût d'une arête s'obtient en deux
+ * lectures de tableau. Les facteurs obtenus sont exactement ceux de CityBikeCF.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class CityBikeCFTable implements CostFunction {
+
+    private final double[] factors; // le facteur de chaque combinaison (attributs, sens, classe de pente)
+    private final int[] edgeFactorIndices; // pour chaque arête, l'index de sa combinaison dans factors
+
+    private CityBikeCFTable(double[] factors, int[] edgeFactorIndices) {
+        this.factors = factors;
+        this.edgeFactorIndices = edgeFactorIndices;
+    }
+
+    /**
+     * Méthode construisant la table des facteurs de coût de CityBikeCF pour le graphe donné
+     *
+     * @param graph (Graph) : le graphe
+     * @return (CityBikeCFTable) : la fonction de coût compilée
+     */
+    public static CityBikeCFTable of(Graph graph) {
+        int attributeSetCount = graph.attributeSetCount();
+        double[] factors = new double[attributeSetCount * 2 * CityBikeCF.SLOPE_CLASSES];
+        for (int attributesIndex = 0; attributesIndex < attributeSetCount; attributesIndex++) {
+            for (int inverted = 0; inverted < 2; inverted++) {
+                for (int slopeClass = 0; slopeClass < CityBikeCF.SLOPE_CLASSES; slopeClass++) {
+                    factors[factorIndex(attributesIndex, inverted == 1, slopeClass)] = CityBikeCF.costFactor(
+                            graph.attributeSet(attributesIndex).bits(), inverted == 1, slopeClass);
+                }
+            }
+        }
+
+        int[] edgeFactorIndices = new int[graph.edgeCount()];
+        IntStream.range(0, edgeFactorIndices.length).parallel().forEach(edgeId -> {
+            double averageUpSlope = graph.edgeElevationGain(edgeId) / graph.edgeLength(edgeId);
+            edgeFactorIndices[edgeId] = factorIndex(graph.edgeAttributesIndex(edgeId), graph.edgeIsInverted(edgeId),
+                    CityBikeCF.slopeClass(averageUpSlope));
+        });
+        return new CityBikeCFTable(factors, edgeFactorIndices);
+    }
+
+    @Override
+    public double costFactor(int nodeId, int edgeId) {
+        return factors[edgeFactorIndices[edgeId]];
+    }
+
+    /**
+     * Méthode privée retournant l'index, dans la table des facteurs, de la combinaison donnée
+     *
+     * @param attributesIndex (int) : l'index de l'ensemble des attributs
+     * @param inverted        (boolean) : vrai ssi l'arête va dans le sens inverse de la voie OSM
+     * @param slopeClass      (int) : la classe de la pente moyenne
+     * @return (int) : l'index de la combinaison
+     */
+    private static int factorIndex(int attributesIndex, boolean inverted, int slopeClass) {
+        return (2 * attributesIndex + (inverted ? 1 : 0)) * CityBikeCF.SLOPE_CLASSES + slopeClass;
+    }
+
+}
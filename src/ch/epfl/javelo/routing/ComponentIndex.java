@@ -0,0 +1,442 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.Preconditions;
+import ch.epfl.javelo.data.Graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Classe publique et immuable associant à chaque nœud d'un graphe JaVelo sa composante fortement connexe et sa
+ * composante faiblement connexe, pour une fonction de coût donnée : les arêtes de coût infini sont considérées comme
+ * absentes. Elle sert de préfiltre prudent aux recherches d'itinéraire : elle permet de déterminer instantanément,
+ * pour une partie des requêtes sans itinéraire, que celui-ci n'existe pas, sans explorer toute la composante du nœud
+ * de départ. Les autres requêtes sans itinéraire donnent toujours lieu à une recherche complète.
+ * <p>
+ * Les composantes fortement connexes sont numérotées dans l'ordre topologique inverse : si une arête mène d'une
+ * composante à une autre, la première a un numéro supérieur à la seconde. Il n'existe donc aucun itinéraire d'un nœud
+ * à un autre de composante fortement connexe de numéro supérieur, ni d'un nœud à un autre de composante faiblement
+ * connexe différente. La réciproque est fausse : deux composantes fortement connexes d'une même composante
+ * faiblement connexe, numérotées dans le bon ordre, ne sont pas forcément reliées.
+ * <p>
+ * Pour les requêtes dont l'une des extrémités appartient à la plus grande composante fortement connexe, de loin les
+ * plus fréquentes, le résultat est toutefois exact : l'index mémorise, pour chaque composante fortement connexe, si
+ * elle permet d'atteindre la plus grande et si elle est accessible depuis celle-ci, ce qui se calcule en temps
+ * linéaire sur le graphe acyclique des composantes.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class ComponentIndex {
+
+    private final IntBuffer strongComponents;
+    private final IntBuffer weakComponents;
+    private final ByteBuffer reachability;
+    private final int largestStrongComponent;
+
+    // Indicateurs de la relation de chaque composante fortement connexe avec la plus grande
+    private static final byte REACHES_LARGEST = 1;
+    private static final byte REACHED_FROM_LARGEST = 2;
+
+    /**
+     * Construit un index des composantes à partir des numéros de composante de chaque nœud
+     *
+     * @param strongComponents (IntBuffer) : le numéro de la composante fortement connexe de chaque nœud
+     * @param weakComponents   (IntBuffer) : le numéro de la composante faiblement connexe de chaque nœud
+     * @param reachability     (ByteBuffer) : pour chaque composante fortement connexe, un octet dont le bit 0 vaut 1
+     *                         ssi elle permet d'atteindre la plus grande composante, et le bit 1 vaut 1 ssi elle est
+     *                         accessible depuis celle-ci
+     * @throws IllegalArgumentException si les deux tampons de composantes n'ont pas la même taille, ou si le tampon
+     *                                  d'accessibilité ne contient pas un octet par composante fortement connexe
+     */
+    public ComponentIndex(IntBuffer strongComponents, IntBuffer weakComponents, ByteBuffer reachability) {
+        Preconditions.checkArgument(strongComponents.capacity() == weakComponents.capacity());
+        Preconditions.checkArgument(reachability.capacity() == componentCount(strongComponents));
+        this.strongComponents = strongComponents;
+        this.weakComponents = weakComponents;
+        this.reachability = reachability;
+        this.largestStrongComponent = largestComponent(strongComponents);
+        Preconditions.checkArgument(reachability.capacity() == 0
+                || reachability.get(largestStrongComponent) == (REACHES_LARGEST | REACHED_FROM_LARGEST));
+    }
+
+    /**
+     * Méthode calculant les composantes du graphe donné pour la fonction de coût donnée, en temps proportionnel à sa
+     * taille (algorithme de Tarjan pour les composantes fortement connexes)
+     *
+     * @param graph        (Graph) : le graphe
+     * @param costFunction (CostFunction) : la fonction de coût
+     * @return (ComponentIndex) : l'index des composantes
+     */
+    public static ComponentIndex of(Graph graph, CostFunction costFunction) {
+        IntBuffer strongComponents = IntBuffer.wrap(strongComponents(graph, costFunction));
+        return new ComponentIndex(strongComponents, IntBuffer.wrap(weakComponents(graph, costFunction)),
+                ByteBuffer.wrap(reachability(graph, costFunction, strongComponents)));
+    }
+
+    /**
+     * Méthode chargeant l'index des composantes de nom donné depuis le répertoire d'un graphe, dans lequel il a été
+     * écrit par writeTo
+     *
+     * @param basePath (Path) : chemin d'accès du répertoire
+     * @param name     (String) : le nom de l'index, p. ex. celui de la fonction de coût
+     * @return (ComponentIndex) : l'index chargé
+     * @throws IOException en cas d'erreur d'entrée/sortie, p. ex. si l'un des fichiers attendus n'existe pas ou si
+     *                     leurs tailles ne correspondent pas (fichiers tronqués ou écrits pour des graphes différents)
+     */
+    public static ComponentIndex loadFrom(Path basePath, String name) throws IOException {
+        Path strongPath = strongPath(basePath, name);
+        Path weakPath = weakPath(basePath, name);
+        long strongBytes = Files.size(strongPath);
+        long weakBytes = Files.size(weakPath);
+        if (strongBytes % Integer.BYTES != 0)
+            throw new IOException(strongPath + " : taille invalide (" + strongBytes + " octets)");
+        if (weakBytes != strongBytes)
+            throw new IOException(weakPath + " : taille " + weakBytes + " au lieu de " + strongBytes + " octets");
+        Path reachabilityPath = reachabilityPath(basePath, name);
+        ByteBuffer reachability = map(reachabilityPath);
+        try {
+            return new ComponentIndex(map(strongPath).asIntBuffer(), map(weakPath).asIntBuffer(), reachability);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(reachabilityPath + " : ne correspond pas à " + strongPath, e);
+        }
+    }
+
+    /**
+     * Méthode chargeant l'index des composantes de nom donné depuis le répertoire du graphe donné ou, s'il n'y a pas
+     * été écrit ou ne correspond pas au graphe, le calculant puis l'y écrivant pour les chargements suivants. L'échec
+     * de cette écriture, p. ex. dans un répertoire en lecture seule, n'empêche pas d'utiliser l'index calculé. Un
+     * graphe réécrit dans le même répertoire avec le même nombre de nœuds n'étant pas détecté, les fichiers de
+     * l'index doivent alors être supprimés.
+     *
+     * @param basePath     (Path) : chemin d'accès du répertoire du graphe
+     * @param name         (String) : le nom de l'index, p. ex. celui de la fonction de coût
+     * @param graph        (Graph) : le graphe chargé depuis ce répertoire
+     * @param costFunction (CostFunction) : la fonction de coût, utilisée si l'index doit être calculé
+     * @return (ComponentIndex) : l'index chargé ou calculé
+     */
+    public static ComponentIndex loadOrCompute(Path basePath, String name, Graph graph, CostFunction costFunction) {
+        try {
+            ComponentIndex loaded = loadFrom(basePath, name);
+            if (loaded.nodeCount() == graph.nodeCount()) return loaded;
+        } catch (IOException e) {
+            // Fichiers absents ou invalides : l'index est recalculé
+        }
+        ComponentIndex components = of(graph, costFunction);
+        try {
+            components.writeTo(basePath, name);
+        } catch (IOException e) {
+            // L'index calculé reste utilisable, il sera simplement recalculé au prochain chargement
+        }
+        return components;
+    }
+
+    /**
+     * Méthode écrivant l'index dans le répertoire d'un graphe, à côté des fichiers de celui-ci, dans les fichiers
+     * components_[nom]_strong.bin, components_[nom]_weak.bin et components_[nom]_reachability.bin
+     *
+     * @param basePath (Path) : chemin d'accès du répertoire
+     * @param name     (String) : le nom de l'index, p. ex. celui de la fonction de coût
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    public void writeTo(Path basePath, String name) throws IOException {
+        write(strongPath(basePath, name), strongComponents);
+        write(weakPath(basePath, name), weakComponents);
+        ByteBuffer bytes = reachability.duplicate().clear();
+        try (FileChannel channel = FileChannel.open(reachabilityPath(basePath, name), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) channel.write(bytes);
+        }
+    }
+
+    /**
+     * Méthode retournant le nombre de nœuds du graphe pour lequel l'index a été calculé
+     *
+     * @return (int) : le nombre de nœuds
+     */
+    public int nodeCount() {
+        return strongComponents.capacity();
+    }
+
+    /**
+     * Méthode retournant le numéro de la composante fortement connexe du nœud donné
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (int) : le numéro de sa composante fortement connexe
+     */
+    public int strongComponentOf(int nodeId) {
+        return strongComponents.get(nodeId);
+    }
+
+    /**
+     * Méthode retournant le numéro de la composante faiblement connexe du nœud donné
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (int) : le numéro de sa composante faiblement connexe
+     */
+    public int weakComponentOf(int nodeId) {
+        return weakComponents.get(nodeId);
+    }
+
+    /**
+     * Méthode retournant vrai ssi le nœud donné appartient à la plus grande composante fortement connexe du graphe,
+     * à l'intérieur de laquelle tout nœud est accessible depuis tout autre
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (boolean) : vrai ssi le nœud appartient à la plus grande composante fortement connexe
+     */
+    public boolean isInLargestComponent(int nodeId) {
+        return strongComponents.get(nodeId) == largestStrongComponent;
+    }
+
+    /**
+     * Méthode retournant faux si aucun itinéraire ne peut exister du premier nœud donné au second, parce que les deux
+     * nœuds appartiennent à des composantes faiblement connexes différentes, parce que la composante fortement
+     * connexe du second précède celle du premier dans l'ordre topologique, ou parce que la plus grande composante
+     * fortement connexe l'exclut. Le résultat est exact si les deux nœuds ont la même composante fortement connexe ou
+     * si l'un d'eux appartient à la plus grande ; dans les autres cas, il s'agit d'un préfiltre prudent, et un
+     * résultat vrai ne garantit pas l'existence d'un itinéraire
+     *
+     * @param fromNodeId (int) : l'identité du nœud de départ
+     * @param toNodeId   (int) : l'identité du nœud d'arrivée
+     * @return (boolean) : faux si aucun itinéraire n'existe
+     */
+    public boolean mayReach(int fromNodeId, int toNodeId) {
+        int fromComponent = strongComponents.get(fromNodeId);
+        int toComponent = strongComponents.get(toNodeId);
+        if (fromComponent == toComponent) return true;
+        if (toComponent > fromComponent || weakComponents.get(fromNodeId) != weakComponents.get(toNodeId))
+            return false;
+        if (fromComponent == largestStrongComponent) return (reachability.get(toComponent) & REACHED_FROM_LARGEST) != 0;
+        if (toComponent == largestStrongComponent) return (reachability.get(fromComponent) & REACHES_LARGEST) != 0;
+        // Un itinéraire d'une composante accessible depuis la plus grande à une composante qui permet de l'atteindre
+        // fermerait un cycle passant par la plus grande, à laquelle les deux appartiendraient alors
+        return (reachability.get(fromComponent) & REACHED_FROM_LARGEST) == 0
+                || (reachability.get(toComponent) & REACHES_LARGEST) == 0;
+    }
+
+    /**
+     * Méthode privée calculant les composantes fortement connexes au moyen d'une version itérative de l'algorithme
+     * de Tarjan, qui les découvre dans l'ordre topologique inverse
+     *
+     * @param graph        (Graph) : le graphe
+     * @param costFunction (CostFunction) : la fonction de coût
+     * @return (int[]) : le numéro de la composante de chaque nœud
+     */
+    private static int[] strongComponents(Graph graph, CostFunction costFunction) {
+        int nodeCount = graph.nodeCount();
+        int[] components = new int[nodeCount];
+        int[] index = new int[nodeCount]; // ordre de découverte + 1, 0 si le nœud n'a pas encore été découvert
+        int[] lowLink = new int[nodeCount];
+        boolean[] onStack = new boolean[nodeCount];
+        int[] stack = new int[nodeCount];
+        int stackSize = 0;
+        // Pile d'appels explicite : nœud et index de la prochaine arête à parcourir
+        int[] callNodes = new int[nodeCount];
+        int[] callEdges = new int[nodeCount];
+        int nextIndex = 1;
+        int componentCount = 0;
+
+        for (int root = 0; root < nodeCount; root++) {
+            if (index[root] != 0) continue;
+            int depth = 0;
+            callNodes[0] = root;
+            callEdges[0] = 0;
+            index[root] = lowLink[root] = nextIndex++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int nodeId = callNodes[depth];
+                int edgeIndex = callEdges[depth];
+                if (edgeIndex < graph.nodeOutDegree(nodeId)) {
+                    callEdges[depth] += 1;
+                    int edgeId = graph.nodeOutEdgeId(nodeId, edgeIndex);
+                    if (costFunction.costFactor(nodeId, edgeId) == Double.POSITIVE_INFINITY) continue;
+                    int targetId = graph.edgeTargetNodeId(edgeId);
+                    if (index[targetId] == 0) {
+                        index[targetId] = lowLink[targetId] = nextIndex++;
+                        stack[stackSize++] = targetId;
+                        onStack[targetId] = true;
+                        depth += 1;
+                        callNodes[depth] = targetId;
+                        callEdges[depth] = 0;
+                    } else if (onStack[targetId]) {
+                        lowLink[nodeId] = Math.min(lowLink[nodeId], index[targetId]);
+                    }
+                } else {
+                    // Toutes les arêtes du nœud ont été parcourues : on « retourne » à son parent
+                    if (lowLink[nodeId] == index[nodeId]) {
+                        int member;
+                        do {
+                            member = stack[--stackSize];
+                            onStack[member] = false;
+                            components[member] = componentCount;
+                        } while (member != nodeId);
+                        componentCount += 1;
+                    }
+                    depth -= 1;
+                    if (depth >= 0) {
+                        int parent = callNodes[depth];
+                        lowLink[parent] = Math.min(lowLink[parent], lowLink[nodeId]);
+                    }
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Méthode privée calculant, pour chaque composante fortement connexe, si elle permet d'atteindre la plus grande
+     * et si elle est accessible depuis celle-ci. Les arêtes reliant deux composantes allant toujours d'un numéro
+     * supérieur à un numéro inférieur, il suffit de parcourir les composantes une fois dans chaque sens.
+     *
+     * @param graph            (Graph) : le graphe
+     * @param costFunction     (CostFunction) : la fonction de coût
+     * @param strongComponents (IntBuffer) : le numéro de la composante fortement connexe de chaque nœud
+     * @return (byte[]) : les indicateurs d'accessibilité de chaque composante
+     */
+    private static byte[] reachability(Graph graph, CostFunction costFunction, IntBuffer strongComponents) {
+        int nodeCount = graph.nodeCount();
+        int componentCount = componentCount(strongComponents);
+        // Tri par dénombrement des nœuds selon leur composante : ceux de la composante c sont dans
+        // nodes[firstNodes[c]..firstNodes[c + 1]]
+        int[] firstNodes = new int[componentCount + 1];
+        for (int nodeId = 0; nodeId < nodeCount; nodeId++) firstNodes[strongComponents.get(nodeId) + 1] += 1;
+        for (int c = 0; c < componentCount; c++) firstNodes[c + 1] += firstNodes[c];
+        int[] nodes = new int[nodeCount];
+        int[] next = Arrays.copyOf(firstNodes, componentCount);
+        for (int nodeId = 0; nodeId < nodeCount; nodeId++) nodes[next[strongComponents.get(nodeId)]++] = nodeId;
+
+        byte[] reachability = new byte[componentCount];
+        if (componentCount == 0) return reachability;
+        int largest = largestComponent(strongComponents);
+        reachability[largest] = REACHES_LARGEST | REACHED_FROM_LARGEST;
+        // Par numéro croissant, les composantes cibles des arêtes sortantes sont déjà traitées
+        for (int c = largest + 1; c < componentCount; c++) {
+            for (int i = firstNodes[c]; i < firstNodes[c + 1] && reachability[c] == 0; i++) {
+                int nodeId = nodes[i];
+                for (int j = 0; j < graph.nodeOutDegree(nodeId); j++) {
+                    int edgeId = graph.nodeOutEdgeId(nodeId, j);
+                    if (costFunction.costFactor(nodeId, edgeId) == Double.POSITIVE_INFINITY) continue;
+                    if ((reachability[strongComponents.get(graph.edgeTargetNodeId(edgeId))] & REACHES_LARGEST) != 0) {
+                        reachability[c] |= REACHES_LARGEST;
+                        break;
+                    }
+                }
+            }
+        }
+        // Par numéro décroissant, les composantes sources des arêtes entrantes sont déjà traitées
+        for (int c = largest; c >= 0; c--) {
+            if ((reachability[c] & REACHED_FROM_LARGEST) == 0) continue;
+            for (int i = firstNodes[c]; i < firstNodes[c + 1]; i++) {
+                int nodeId = nodes[i];
+                for (int j = 0; j < graph.nodeOutDegree(nodeId); j++) {
+                    int edgeId = graph.nodeOutEdgeId(nodeId, j);
+                    if (costFunction.costFactor(nodeId, edgeId) == Double.POSITIVE_INFINITY) continue;
+                    reachability[strongComponents.get(graph.edgeTargetNodeId(edgeId))] |= REACHED_FROM_LARGEST;
+                }
+            }
+        }
+        return reachability;
+    }
+
+    private static int componentCount(IntBuffer strongComponents) {
+        int componentCount = 0;
+        for (int i = 0; i < strongComponents.capacity(); i++) {
+            componentCount = Math.max(componentCount, strongComponents.get(i) + 1);
+        }
+        return componentCount;
+    }
+
+    private static int largestComponent(IntBuffer strongComponents) {
+        int[] sizes = new int[componentCount(strongComponents)];
+        for (int i = 0; i < strongComponents.capacity(); i++) sizes[strongComponents.get(i)] += 1;
+        int largest = 0;
+        for (int component = 1; component < sizes.length; component++) {
+            if (sizes[component] > sizes[largest]) largest = component;
+        }
+        return largest;
+    }
+
+    /**
+     * Méthode privée calculant les composantes faiblement connexes au moyen d'une structure union-find
+     *
+     * @param graph        (Graph) : le graphe
+     * @param costFunction (CostFunction) : la fonction de coût
+     * @return (int[]) : le numéro de la composante de chaque nœud, de 0 au nombre de composantes - 1
+     */
+    private static int[] weakComponents(Graph graph, CostFunction costFunction) {
+        int nodeCount = graph.nodeCount();
+        int[] parents = new int[nodeCount];
+        for (int nodeId = 0; nodeId < nodeCount; nodeId++) parents[nodeId] = nodeId;
+
+        for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+            int outDegree = graph.nodeOutDegree(nodeId);
+            for (int i = 0; i < outDegree; i++) {
+                int edgeId = graph.nodeOutEdgeId(nodeId, i);
+                if (costFunction.costFactor(nodeId, edgeId) == Double.POSITIVE_INFINITY) continue;
+                int root1 = find(parents, nodeId);
+                int root2 = find(parents, graph.edgeTargetNodeId(edgeId));
+                if (root1 != root2) parents[Math.max(root1, root2)] = Math.min(root1, root2);
+            }
+        }
+
+        // Les racines étant les plus petits nœuds de leur composante, on peut numéroter celles-ci en un seul passage
+        int[] components = new int[nodeCount];
+        int[] numbers = new int[nodeCount];
+        Arrays.fill(numbers, -1);
+        int componentCount = 0;
+        for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+            int root = find(parents, nodeId);
+            if (numbers[root] == -1) numbers[root] = componentCount++;
+            components[nodeId] = numbers[root];
+        }
+        return components;
+    }
+
+    private static int find(int[] parents, int nodeId) {
+        int root = nodeId;
+        while (parents[root] != root) root = parents[root];
+        // Compression des chemins
+        while (parents[nodeId] != root) {
+            int next = parents[nodeId];
+            parents[nodeId] = root;
+            nodeId = next;
+        }
+        return root;
+    }
+
+    private static Path strongPath(Path basePath, String name) {
+        return basePath.resolve("components_" + name + "_strong.bin");
+    }
+
+    private static Path weakPath(Path basePath, String name) {
+        return basePath.resolve("components_" + name + "_weak.bin");
+    }
+
+    private static Path reachabilityPath(Path basePath, String name) {
+        return basePath.resolve("components_" + name + "_reachability.bin");
+    }
+
+    private static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static void write(Path path, IntBuffer components) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(components.capacity() * Integer.BYTES);
+        bytes.asIntBuffer().put(components.duplicate().clear());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) channel.write(bytes);
+        }
+    }
+
+}
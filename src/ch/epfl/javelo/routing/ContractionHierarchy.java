@@ -0,0 +1,260 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Enregistrement représentant une hiérarchie de contraction (contraction hierarchy) calculée sur un graphe JaVelo
+ * pour une fonction de coût donnée. Elle est constituée d'arcs, qui sont soit des arêtes du graphe, soit des
+ * raccourcis remplaçant deux arcs consécutifs, et de deux listes d'adjacence : pour chaque nœud, les arcs qui en
+ * partent vers un nœud de rang supérieur (montants), et ceux qui y arrivent depuis un nœud de rang supérieur
+ * (descendants).
+ * <p>
+ * Chaque arc occupe 28 octets : nœud de départ (int), nœud d'arrivée (int), coût (float), longueur (float),
+ * identité de l'arête du graphe (int, -1 pour un raccourci) et identités des deux arcs remplacés par un raccourci
+ * (int, -1 pour une arête). Chaque liste d'adjacence commence par le nombre de nœuds, suivi de l'index du premier arc
+ * de chaque nœud (nombre de nœuds + 1 valeurs) puis des identités des arcs.
+ *
+ * @param arcs     (ByteBuffer) : la mémoire tampon contenant la totalité des arcs
+ * @param upArcs   (IntBuffer) : la liste d'adjacence des arcs montants de chaque nœud
+ * @param downArcs (IntBuffer) : la liste d'adjacence des arcs descendants de chaque nœud
+ * @author : Roxanne Chevalley (339716)
+ */
+public record ContractionHierarchy(ByteBuffer arcs, IntBuffer upArcs, IntBuffer downArcs) {
+
+    private static final int OFFSET_FROM = 0;
+    private static final int OFFSET_TO = OFFSET_FROM + Integer.BYTES;
+    private static final int OFFSET_COST = OFFSET_TO + Integer.BYTES;
+    private static final int OFFSET_LENGTH = OFFSET_COST + Float.BYTES;
+    private static final int OFFSET_EDGE = OFFSET_LENGTH + Float.BYTES;
+    private static final int OFFSET_FIRST_CHILD = OFFSET_EDGE + Integer.BYTES;
+    private static final int OFFSET_SECOND_CHILD = OFFSET_FIRST_CHILD + Integer.BYTES;
+    static final int ARC_BYTES = OFFSET_SECOND_CHILD + Integer.BYTES;
+
+    // Index, dans une liste d'adjacence, du nombre de nœuds puis du premier index
+    private static final int INDEX_NODE_COUNT = 0;
+    private static final int INDEX_FIRST_ARC = INDEX_NODE_COUNT + 1;
+
+    /**
+     * Méthode calculant la hiérarchie de contraction du graphe donné pour la fonction de coût donnée. Les arêtes de
+     * coût infini sont ignorées.
+     *
+     * @param graph        (Graph) : le graphe
+     * @param costFunction (CostFunction) : la fonction de coût
+     * @return (ContractionHierarchy) : la hiérarchie de contraction
+     */
+    public static ContractionHierarchy of(Graph graph, CostFunction costFunction) {
+        return new ContractionHierarchyBuilder(graph, costFunction).build();
+    }
+
+    /**
+     * Méthode chargeant la hiérarchie de contraction de nom donné depuis le répertoire d'un graphe, dans lequel elle
+     * a été écrite par writeTo
+     *
+     * @param basePath (Path) : chemin d'accès du répertoire
+     * @param name     (String) : le nom de la hiérarchie, p. ex. celui de la fonction de coût
+     * @return (ContractionHierarchy) : la hiérarchie chargée
+     * @throws IOException en cas d'erreur d'entrée/sortie, p. ex. si l'un des fichiers attendus n'existe pas
+     */
+    public static ContractionHierarchy loadFrom(Path basePath, String name) throws IOException {
+        ByteBuffer arcs;
+        IntBuffer upArcs;
+        IntBuffer downArcs;
+        try (FileChannel channel = FileChannel.open(arcsPath(basePath, name))) {
+            arcs = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try (FileChannel channel = FileChannel.open(upArcsPath(basePath, name))) {
+            upArcs = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asIntBuffer();
+        }
+        try (FileChannel channel = FileChannel.open(downArcsPath(basePath, name))) {
+            downArcs = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asIntBuffer();
+        }
+        return new ContractionHierarchy(arcs, upArcs, downArcs);
+    }
+
+    /**
+     * Méthode écrivant la hiérarchie dans le répertoire d'un graphe, à côté des fichiers de celui-ci (nodes.bin,
+     * edges.bin, etc.), dans les fichiers ch_[nom]_arcs.bin, ch_[nom]_up.bin et ch_[nom]_down.bin
+     *
+     * @param basePath (Path) : chemin d'accès du répertoire
+     * @param name     (String) : le nom de la hiérarchie, p. ex. celui de la fonction de coût
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    public void writeTo(Path basePath, String name) throws IOException {
+        write(arcsPath(basePath, name), arcs.duplicate().clear());
+        write(upArcsPath(basePath, name), asBytes(upArcs));
+        write(downArcsPath(basePath, name), asBytes(downArcs));
+    }
+
+    /**
+     * Méthode retournant le nombre de nœuds du graphe sur lequel la hiérarchie a été calculée
+     *
+     * @return (int) : le nombre de nœuds
+     */
+    public int nodeCount() {
+        return upArcs.get(INDEX_NODE_COUNT);
+    }
+
+    /**
+     * Méthode retournant le nombre total d'arcs (arêtes et raccourcis) de la hiérarchie
+     *
+     * @return (int) : le nombre d'arcs
+     */
+    public int arcCount() {
+        return arcs.capacity() / ARC_BYTES;
+    }
+
+    /**
+     * Méthode retournant le nombre d'arcs montants du nœud d'identité donnée
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (int) : le nombre d'arcs montants
+     */
+    public int upDegree(int nodeId) {
+        return degree(upArcs, nodeId);
+    }
+
+    /**
+     * Méthode retournant l'identité du arcIndex-ième arc montant du nœud d'identité donnée
+     *
+     * @param nodeId   (int) : l'identité du nœud
+     * @param arcIndex (int) : l'index de l'arc
+     * @return (int) : l'identité de l'arc
+     */
+    public int upArcId(int nodeId, int arcIndex) {
+        return arcId(upArcs, nodeId, arcIndex);
+    }
+
+    /**
+     * Méthode retournant le nombre d'arcs descendants arrivant au nœud d'identité donnée
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (int) : le nombre d'arcs descendants
+     */
+    public int downDegree(int nodeId) {
+        return degree(downArcs, nodeId);
+    }
+
+    /**
+     * Méthode retournant l'identité du arcIndex-ième arc descendant arrivant au nœud d'identité donnée
+     *
+     * @param nodeId   (int) : l'identité du nœud
+     * @param arcIndex (int) : l'index de l'arc
+     * @return (int) : l'identité de l'arc
+     */
+    public int downArcId(int nodeId, int arcIndex) {
+        return arcId(downArcs, nodeId, arcIndex);
+    }
+
+    /**
+     * Méthode retournant l'identité du nœud de départ de l'arc d'identité donnée
+     *
+     * @param arcId (int) : l'identité de l'arc
+     * @return (int) : l'identité du nœud de départ
+     */
+    public int arcFromNodeId(int arcId) {
+        return arcs.getInt(arcId * ARC_BYTES + OFFSET_FROM);
+    }
+
+    /**
+     * Méthode retournant l'identité du nœud d'arrivée de l'arc d'identité donnée
+     *
+     * @param arcId (int) : l'identité de l'arc
+     * @return (int) : l'identité du nœud d'arrivée
+     */
+    public int arcToNodeId(int arcId) {
+        return arcs.getInt(arcId * ARC_BYTES + OFFSET_TO);
+    }
+
+    /**
+     * Méthode retournant le coût de l'arc d'identité donnée
+     *
+     * @param arcId (int) : l'identité de l'arc
+     * @return (float) : le coût de l'arc
+     */
+    public float arcCost(int arcId) {
+        return arcs.getFloat(arcId * ARC_BYTES + OFFSET_COST);
+    }
+
+    /**
+     * Méthode retournant la longueur, en mètres, de l'arc d'identité donnée
+     *
+     * @param arcId (int) : l'identité de l'arc
+     * @return (float) : la longueur de l'arc
+     */
+    public float arcLength(int arcId) {
+        return arcs.getFloat(arcId * ARC_BYTES + OFFSET_LENGTH);
+    }
+
+    /**
+     * Méthode retournant l'identité de l'arête du graphe correspondant à l'arc d'identité donnée, ou -1 s'il s'agit
+     * d'un raccourci
+     *
+     * @param arcId (int) : l'identité de l'arc
+     * @return (int) : l'identité de l'arête, ou -1
+     */
+    public int arcEdgeId(int arcId) {
+        return arcs.getInt(arcId * ARC_BYTES + OFFSET_EDGE);
+    }
+
+    /**
+     * Méthode retournant l'identité du premier des deux arcs remplacés par le raccourci d'identité donnée
+     *
+     * @param arcId (int) : l'identité du raccourci
+     * @return (int) : l'identité du premier arc remplacé
+     */
+    public int arcFirstChildId(int arcId) {
+        return arcs.getInt(arcId * ARC_BYTES + OFFSET_FIRST_CHILD);
+    }
+
+    /**
+     * Méthode retournant l'identité du second des deux arcs remplacés par le raccourci d'identité donnée
+     *
+     * @param arcId (int) : l'identité du raccourci
+     * @return (int) : l'identité du second arc remplacé
+     */
+    public int arcSecondChildId(int arcId) {
+        return arcs.getInt(arcId * ARC_BYTES + OFFSET_SECOND_CHILD);
+    }
+
+    private static int degree(IntBuffer adjacency, int nodeId) {
+        return adjacency.get(INDEX_FIRST_ARC + nodeId + 1) - adjacency.get(INDEX_FIRST_ARC + nodeId);
+    }
+
+    private static int arcId(IntBuffer adjacency, int nodeId, int arcIndex) {
+        int nodeCount = adjacency.get(INDEX_NODE_COUNT);
+        return adjacency.get(INDEX_FIRST_ARC + nodeCount + 1 + adjacency.get(INDEX_FIRST_ARC + nodeId) + arcIndex);
+    }
+
+    private static Path arcsPath(Path basePath, String name) {
+        return basePath.resolve("ch_" + name + "_arcs.bin");
+    }
+
+    private static Path upArcsPath(Path basePath, String name) {
+        return basePath.resolve("ch_" + name + "_up.bin");
+    }
+
+    private static Path downArcsPath(Path basePath, String name) {
+        return basePath.resolve("ch_" + name + "_down.bin");
+    }
+
+    private static ByteBuffer asBytes(IntBuffer buffer) {
+        ByteBuffer bytes = ByteBuffer.allocate(buffer.capacity() * Integer.BYTES);
+        bytes.asIntBuffer().put(buffer.duplicate().clear());
+        return bytes;
+    }
+
+    private static void write(Path path, ByteBuffer content) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (content.hasRemaining()) channel.write(content);
+        }
+    }
+
+}
@@ -0,0 +1,384 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Classe publique et finale calculant hors ligne la hiérarchie de contraction d'un graphe JaVelo pour une fonction de
+ * coût donnée. Les nœuds sont contractés un à un, dans l'ordre donné par leur priorité (différence entre le nombre de
+ * raccourcis qu'ajouterait leur contraction et le nombre d'arcs qu'elle supprimerait, plus le nombre de voisins déjà
+ * contractés) ; contracter un nœud v consiste à ajouter un raccourci u → w pour chaque paire d'arcs u → v → w dont il
+ * n'existe pas de chemin témoin, évitant v, de coût inférieur ou égal.
+ * <p>
+ * Sa méthode main permet de calculer la hiérarchie d'un répertoire de graphe pour la fonction CityBikeCF et de
+ * l'écrire à côté des fichiers du graphe : ContractionHierarchyBuilder [répertoire] [nom (citybike)].
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class ContractionHierarchyBuilder {
+
+    // Nombre maximal de nœuds visités par une recherche de chemin témoin
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final int INITIAL_ARC_CAPACITY = 1 << 10;
+    private static final int INITIAL_DEGREE = 4;
+
+    private final Graph graph;
+    private final CostFunction costFunction;
+    private final int nodeCount;
+
+    // Les arcs (arêtes et raccourcis), stockés dans des tableaux parallèles
+    private int arcCount;
+    private int[] arcFrom = new int[INITIAL_ARC_CAPACITY];
+    private int[] arcTo = new int[INITIAL_ARC_CAPACITY];
+    private float[] arcCost = new float[INITIAL_ARC_CAPACITY];
+    private float[] arcLength = new float[INITIAL_ARC_CAPACITY];
+    private int[] arcEdge = new int[INITIAL_ARC_CAPACITY];
+    private int[] arcFirstChild = new int[INITIAL_ARC_CAPACITY];
+    private int[] arcSecondChild = new int[INITIAL_ARC_CAPACITY];
+
+    // Les arcs sortant de et arrivant à chaque nœud non encore contracté, entre nœuds non contractés
+    private final int[][] outArcs;
+    private final int[] outDegree;
+    private final int[][] inArcs;
+    private final int[] inDegree;
+
+    // Les arcs finaux de chaque nœud, fixés lors de sa contraction
+    private final int[][] upArcs;
+    private final int[][] downArcs;
+
+    private final boolean[] contracted;
+    private final int[] contractedNeighbours;
+    private final SearchWorkspace witnessWorkspace;
+
+    /**
+     * Construit un calculateur de hiérarchie de contraction pour le graphe et la fonction de coût donnés
+     *
+     * @param graph        (Graph) : le graphe
+     * @param costFunction (CostFunction) : la fonction de coût
+     */
+    ContractionHierarchyBuilder(Graph graph, CostFunction costFunction) {
+        this.graph = graph;
+        this.costFunction = costFunction;
+        this.nodeCount = graph.nodeCount();
+        this.outArcs = new int[nodeCount][];
+        this.outDegree = new int[nodeCount];
+        this.inArcs = new int[nodeCount][];
+        this.inDegree = new int[nodeCount];
+        this.upArcs = new int[nodeCount][];
+        this.downArcs = new int[nodeCount][];
+        this.contracted = new boolean[nodeCount];
+        this.contractedNeighbours = new int[nodeCount];
+        this.witnessWorkspace = new SearchWorkspace(nodeCount);
+    }
+
+    /**
+     * Calcule la hiérarchie de contraction du graphe donné pour la fonction CityBikeCF et l'écrit dans son
+     * répertoire
+     *
+     * @param args (String[]) : le répertoire du graphe et, facultativement, le nom de la hiérarchie
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    public static void main(String[] args) throws IOException {
+        Path basePath = Path.of(args.length > 0 ? args[0] : "javelo-data");
+        String name = args.length > 1 ? args[1] : "citybike";
+        Graph graph = Graph.loadFrom(basePath);
+
+        long t0 = System.nanoTime();
+        ContractionHierarchy hierarchy = ContractionHierarchy.of(graph, new CityBikeCF(graph));
+        hierarchy.writeTo(basePath, name);
+        System.out.printf("Hiérarchie « %s » calculée en %d s : %d nœuds, %d arêtes, %d arcs%n",
+                name, (System.nanoTime() - t0) / 1_000_000_000, graph.nodeCount(), graph.edgeCount(),
+                hierarchy.arcCount());
+    }
+
+    /**
+     * Méthode contractant tous les nœuds du graphe et retournant la hiérarchie obtenue
+     *
+     * @return (ContractionHierarchy) : la hiérarchie de contraction
+     */
+    ContractionHierarchy build() {
+        for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+            outArcs[nodeId] = new int[INITIAL_DEGREE];
+            inArcs[nodeId] = new int[INITIAL_DEGREE];
+        }
+        addGraphEdges();
+
+        NodeHeap queue = new NodeHeap(nodeCount);
+        for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+            queue.update(nodeId, priority(nodeId));
+        }
+
+        while (!queue.isEmpty()) {
+            int nodeId = queue.removeMin();
+            // Les priorités n'étant mises à jour que pour les voisins des nœuds contractés, on vérifie paresseusement
+            // que celle du nœud retenu est toujours la plus petite
+            float priority = priority(nodeId);
+            if (!queue.isEmpty() && priority > queue.minKey()) {
+                queue.update(nodeId, priority);
+                continue;
+            }
+
+            int[] neighbours = neighboursOf(nodeId);
+            contract(nodeId);
+            for (int neighbour : neighbours) {
+                contractedNeighbours[neighbour] += 1;
+                queue.update(neighbour, priority(neighbour));
+            }
+        }
+        return toHierarchy();
+    }
+
+    /**
+     * Méthode privée ajoutant un arc pour chaque arête de coût fini du graphe, en ne gardant que le moins coûteux
+     * lorsque plusieurs arêtes relient deux mêmes nœuds
+     */
+    private void addGraphEdges() {
+        for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+            int degree = graph.nodeOutDegree(nodeId);
+            for (int i = 0; i < degree; i++) {
+                int edgeId = graph.nodeOutEdgeId(nodeId, i);
+                int targetId = graph.edgeTargetNodeId(edgeId);
+                double length = graph.edgeLength(edgeId);
+                float cost = (float) (length * costFunction.costFactor(nodeId, edgeId));
+                if (targetId == nodeId || cost == Float.POSITIVE_INFINITY) continue;
+                addArcIfBetter(nodeId, targetId, cost, (float) length, edgeId, -1, -1);
+            }
+        }
+    }
+
+    /**
+     * Méthode privée ajoutant un arc entre deux nœuds non contractés, sauf s'il en existe déjà un de coût inférieur
+     * ou égal ; un arc existant plus coûteux est retiré des listes d'adjacence (mais reste disponible pour
+     * développer les raccourcis qui y font référence)
+     *
+     * @param from        (int) : le nœud de départ
+     * @param to          (int) : le nœud d'arrivée
+     * @param cost        (float) : le coût de l'arc
+     * @param length      (float) : la longueur de l'arc
+     * @param edgeId      (int) : l'arête correspondante, ou -1 pour un raccourci
+     * @param firstChild  (int) : le premier arc remplacé, ou -1
+     * @param secondChild (int) : le second arc remplacé, ou -1
+     */
+    private void addArcIfBetter(int from, int to, float cost, float length, int edgeId, int firstChild,
+                                int secondChild) {
+        for (int i = 0; i < outDegree[from]; i++) {
+            int arcId = outArcs[from][i];
+            if (arcTo[arcId] == to) {
+                if (arcCost[arcId] <= cost) return;
+                removeArc(arcId);
+                break;
+            }
+        }
+
+        if (arcCount == arcFrom.length) growArcs();
+        int arcId = arcCount++;
+        arcFrom[arcId] = from;
+        arcTo[arcId] = to;
+        arcCost[arcId] = cost;
+        arcLength[arcId] = length;
+        arcEdge[arcId] = edgeId;
+        arcFirstChild[arcId] = firstChild;
+        arcSecondChild[arcId] = secondChild;
+
+        if (outDegree[from] == outArcs[from].length) outArcs[from] = Arrays.copyOf(outArcs[from], 2 * outDegree[from]);
+        outArcs[from][outDegree[from]++] = arcId;
+        if (inDegree[to] == inArcs[to].length) inArcs[to] = Arrays.copyOf(inArcs[to], 2 * inDegree[to]);
+        inArcs[to][inDegree[to]++] = arcId;
+    }
+
+    /**
+     * Méthode privée retirant l'arc donné des listes d'adjacence de ses deux extrémités
+     *
+     * @param arcId (int) : l'identité de l'arc
+     */
+    private void removeArc(int arcId) {
+        int from = arcFrom[arcId];
+        int to = arcTo[arcId];
+        outDegree[from] = remove(outArcs[from], outDegree[from], arcId);
+        inDegree[to] = remove(inArcs[to], inDegree[to], arcId);
+    }
+
+    private static int remove(int[] arcs, int degree, int arcId) {
+        for (int i = 0; i < degree; i++) {
+            if (arcs[i] == arcId) {
+                arcs[i] = arcs[degree - 1];
+                return degree - 1;
+            }
+        }
+        return degree;
+    }
+
+    private void growArcs() {
+        int capacity = 2 * arcFrom.length;
+        arcFrom = Arrays.copyOf(arcFrom, capacity);
+        arcTo = Arrays.copyOf(arcTo, capacity);
+        arcCost = Arrays.copyOf(arcCost, capacity);
+        arcLength = Arrays.copyOf(arcLength, capacity);
+        arcEdge = Arrays.copyOf(arcEdge, capacity);
+        arcFirstChild = Arrays.copyOf(arcFirstChild, capacity);
+        arcSecondChild = Arrays.copyOf(arcSecondChild, capacity);
+    }
+
+    /**
+     * Méthode privée retournant la priorité de contraction du nœud donné (plus elle est petite, plus tôt il est
+     * contracté)
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (float) : la priorité du nœud
+     */
+    private float priority(int nodeId) {
+        int shortcuts = shortcutsFor(nodeId, false);
+        return shortcuts - (inDegree[nodeId] + outDegree[nodeId]) + contractedNeighbours[nodeId];
+    }
+
+    /**
+     * Méthode privée retournant les voisins (non contractés) du nœud donné, chacun une seule fois
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (int[]) : les voisins du nœud
+     */
+    private int[] neighboursOf(int nodeId) {
+        int[] neighbours = new int[inDegree[nodeId] + outDegree[nodeId]];
+        for (int i = 0; i < inDegree[nodeId]; i++) neighbours[i] = arcFrom[inArcs[nodeId][i]];
+        for (int i = 0; i < outDegree[nodeId]; i++) neighbours[inDegree[nodeId] + i] = arcTo[outArcs[nodeId][i]];
+        return Arrays.stream(neighbours).distinct().toArray();
+    }
+
+    /**
+     * Méthode privée contractant le nœud donné : ses arcs deviennent définitifs, les raccourcis nécessaires sont
+     * ajoutés et il est retiré du graphe restant
+     *
+     * @param nodeId (int) : l'identité du nœud
+     */
+    private void contract(int nodeId) {
+        upArcs[nodeId] = Arrays.copyOf(outArcs[nodeId], outDegree[nodeId]);
+        downArcs[nodeId] = Arrays.copyOf(inArcs[nodeId], inDegree[nodeId]);
+        shortcutsFor(nodeId, true);
+
+        contracted[nodeId] = true;
+        for (int arcId : upArcs[nodeId]) {
+            int to = arcTo[arcId];
+            inDegree[to] = remove(inArcs[to], inDegree[to], arcId);
+        }
+        for (int arcId : downArcs[nodeId]) {
+            int from = arcFrom[arcId];
+            outDegree[from] = remove(outArcs[from], outDegree[from], arcId);
+        }
+        outArcs[nodeId] = null;
+        inArcs[nodeId] = null;
+        outDegree[nodeId] = 0;
+        inDegree[nodeId] = 0;
+    }
+
+    /**
+     * Méthode privée déterminant les raccourcis nécessaires à la contraction du nœud donné, et les ajoutant si
+     * demandé
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @param add    (boolean) : vrai ssi les raccourcis doivent être ajoutés, faux s'ils doivent seulement être
+     *               comptés
+     * @return (int) : le nombre de raccourcis nécessaires
+     */
+    private int shortcutsFor(int nodeId, boolean add) {
+        if (inDegree[nodeId] == 0 || outDegree[nodeId] == 0) return 0;
+
+        // Les arcs pouvant être modifiés par l'ajout de raccourcis, on travaille sur des copies
+        int[] ins = Arrays.copyOf(inArcs[nodeId], inDegree[nodeId]);
+        int[] outs = Arrays.copyOf(outArcs[nodeId], outDegree[nodeId]);
+        float maxOutCost = 0;
+        for (int outArc : outs) maxOutCost = Math.max(maxOutCost, arcCost[outArc]);
+
+        int shortcuts = 0;
+        for (int inArc : ins) {
+            int source = arcFrom[inArc];
+            witnessSearch(source, nodeId, arcCost[inArc] + maxOutCost);
+            for (int outArc : outs) {
+                int target = arcTo[outArc];
+                if (target == source) continue;
+                float cost = arcCost[inArc] + arcCost[outArc];
+                if (witnessWorkspace.distance(target) <= cost) continue;
+                shortcuts += 1;
+                if (add) {
+                    addArcIfBetter(source, target, cost, arcLength[inArc] + arcLength[outArc], -1, inArc,
+                            outArc);
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    /**
+     * Méthode privée recherchant, depuis le nœud donné et dans le graphe restant privé du nœud exclu, les chemins de
+     * coût inférieur ou égal au coût maximal donné ; les distances trouvées sont celles de l'espace de travail
+     * witnessWorkspace
+     *
+     * @param source   (int) : le nœud de départ
+     * @param excluded (int) : le nœud à éviter (celui en cours de contraction)
+     * @param maxCost  (float) : le coût au-delà duquel la recherche s'arrête
+     */
+    private void witnessSearch(int source, int excluded, float maxCost) {
+        SearchWorkspace workspace = witnessWorkspace;
+        NodeHeap queue = workspace.heap();
+        workspace.reset();
+        workspace.update(source, 0, source, -1);
+        queue.insertOrDecrease(source, 0);
+
+        while (!queue.isEmpty() && workspace.settledCount() < WITNESS_SETTLE_LIMIT) {
+            if (queue.minKey() > maxCost) break;
+            int nodeId = queue.removeMin();
+            float distance = workspace.distance(nodeId);
+            for (int i = 0; i < outDegree[nodeId]; i++) {
+                int arcId = outArcs[nodeId][i];
+                int to = arcTo[arcId];
+                if (to == excluded || workspace.isSettled(to)) continue;
+                float toDistance = distance + arcCost[arcId];
+                if (toDistance < workspace.distance(to)) {
+                    workspace.update(to, toDistance, nodeId, arcId);
+                    queue.insertOrDecrease(to, toDistance);
+                }
+            }
+            workspace.settle(nodeId);
+        }
+    }
+
+    /**
+     * Méthode privée convertissant les arcs et les listes d'adjacence finales en hiérarchie de contraction
+     *
+     * @return (ContractionHierarchy) : la hiérarchie de contraction
+     */
+    private ContractionHierarchy toHierarchy() {
+        ByteBuffer arcs = ByteBuffer.allocate(arcCount * ContractionHierarchy.ARC_BYTES);
+        for (int arcId = 0; arcId < arcCount; arcId++) {
+            arcs.putInt(arcFrom[arcId])
+                    .putInt(arcTo[arcId])
+                    .putFloat(arcCost[arcId])
+                    .putFloat(arcLength[arcId])
+                    .putInt(arcEdge[arcId])
+                    .putInt(arcFirstChild[arcId])
+                    .putInt(arcSecondChild[arcId]);
+        }
+        return new ContractionHierarchy(arcs.clear(), adjacency(upArcs), adjacency(downArcs));
+    }
+
+    private IntBuffer adjacency(int[][] arcsOfNodes) {
+        int total = 0;
+        for (int[] arcs : arcsOfNodes) total += arcs.length;
+
+        IntBuffer adjacency = IntBuffer.allocate(1 + nodeCount + 1 + total);
+        adjacency.put(nodeCount);
+        int first = 0;
+        for (int[] arcs : arcsOfNodes) {
+            adjacency.put(first);
+            first += arcs.length;
+        }
+        adjacency.put(first);
+        for (int[] arcs : arcsOfNodes) adjacency.put(arcs);
+        return adjacency.clear();
+    }
+
+}
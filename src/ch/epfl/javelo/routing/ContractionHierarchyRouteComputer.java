@@ -0,0 +1,182 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.Preconditions;
+import ch.epfl.javelo.data.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Classe publique et immuable représentant un planificateur d'itinéraire utilisant une hiérarchie de contraction
+ * précalculée. Une recherche avant, depuis le nœud de départ, ne suit que les arcs montants, et une recherche arrière,
+ * depuis le nœud d'arrivée, ne suit que les arcs descendants ; les deux se rejoignent au nœud de rang le plus élevé du
+ * meilleur itinéraire, dont les raccourcis sont finalement remplacés par les arêtes du graphe qu'ils représentent.
+ * <p>
+ * Les itinéraires obtenus sont de coût minimal pour la fonction de coût avec laquelle la hiérarchie a été calculée.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class ContractionHierarchyRouteComputer {
+
+    private final Graph graph;
+    private final ContractionHierarchy hierarchy;
+    // Réserve d'espaces de travail réutilisés d'une recherche à l'autre, quel que soit le fil d'exécution
+    private final SearchWorkspacePool workspaces;
+
+    /**
+     * Construit un planificateur d'itinéraire pour le graphe et la hiérarchie de contraction donnés
+     *
+     * @param graph     (Graph) : le graphe donné
+     * @param hierarchy (ContractionHierarchy) : la hiérarchie de contraction calculée sur ce graphe
+     * @throws IllegalArgumentException si la hiérarchie n'a pas le même nombre de nœuds que le graphe
+     */
+    public ContractionHierarchyRouteComputer(Graph graph, ContractionHierarchy hierarchy) {
+        Preconditions.checkArgument(hierarchy.nodeCount() == graph.nodeCount());
+        this.graph = graph;
+        this.hierarchy = hierarchy;
+        this.workspaces = new SearchWorkspacePool(graph.nodeCount());
+    }
+
+    /**
+     * Méthode retournant l'itinéraire de coût total minimal allant du nœud d'identité startNodeId au nœud d'identité
+     * endNodeId, ou null si aucun itinéraire n'existe.
+     *
+     * @param startNodeId (int) : l'identité du nœud de départ
+     * @param endNodeId   (int) : l'identité du nœud d'arrivée
+     * @return (Route) : l'itinéraire de coût total minimal
+     * @throws IllegalArgumentException si le nœud de départ et d'arrivée sont identiques
+     */
+    public Route bestRouteBetween(int startNodeId, int endNodeId) {
+        Preconditions.checkArgument(startNodeId != endNodeId);
+        SearchWorkspace forward = workspaces.acquire();
+        try {
+            SearchWorkspace backward = workspaces.acquire();
+            try {
+                return bestRouteBetween(startNodeId, endNodeId, forward, backward);
+            } finally {
+                workspaces.release(backward);
+            }
+        } finally {
+            workspaces.release(forward);
+        }
+    }
+
+    /**
+     * Méthode privée effectuant la recherche bidirectionnelle dans les espaces de travail donnés
+     *
+     * @param startNodeId (int) : l'identité du nœud de départ
+     * @param endNodeId   (int) : l'identité du nœud d'arrivée
+     * @param forward     (SearchWorkspace) : l'espace de travail de la recherche avant
+     * @param backward    (SearchWorkspace) : l'espace de travail de la recherche arrière
+     * @return (Route) : l'itinéraire de coût total minimal, ou null
+     */
+    private Route bestRouteBetween(int startNodeId, int endNodeId, SearchWorkspace forward,
+                                   SearchWorkspace backward) {
+        forward.reset();
+        backward.reset();
+        NodeHeap forwardQueue = forward.heap();
+        NodeHeap backwardQueue = backward.heap();
+
+        // Dans les deux espaces de travail, l'« arête » mémorisée pour un nœud est l'arc par lequel on l'atteint
+        forward.update(startNodeId, 0, startNodeId, -1);
+        forwardQueue.insertOrDecrease(startNodeId, 0);
+        backward.update(endNodeId, 0, endNodeId, -1);
+        backwardQueue.insertOrDecrease(endNodeId, 0);
+
+        float bestCost = Float.POSITIVE_INFINITY;
+        int meetingNodeId = -1;
+
+        // Chaque recherche s'arrête dès que sa plus petite distance atteint le coût du meilleur itinéraire trouvé
+        while (true) {
+            boolean forwardActive = !forwardQueue.isEmpty() && forwardQueue.minKey() < bestCost;
+            boolean backwardActive = !backwardQueue.isEmpty() && backwardQueue.minKey() < bestCost;
+            if (!forwardActive && !backwardActive) break;
+
+            if (forwardActive && (!backwardActive || forwardQueue.minKey() <= backwardQueue.minKey())) {
+                int nodeId = forwardQueue.removeMin();
+                float nodeDistance = forward.distance(nodeId);
+                int degree = hierarchy.upDegree(nodeId);
+                for (int i = 0; i < degree; i++) {
+                    int arcId = hierarchy.upArcId(nodeId, i);
+                    int targetId = hierarchy.arcToNodeId(arcId);
+                    if (forward.isSettled(targetId)) continue;
+                    float distance = nodeDistance + hierarchy.arcCost(arcId);
+                    if (distance < forward.distance(targetId)) {
+                        forward.update(targetId, distance, nodeId, arcId);
+                        forwardQueue.insertOrDecrease(targetId, distance);
+                        float cost = distance + backward.distance(targetId);
+                        if (cost < bestCost) {
+                            bestCost = cost;
+                            meetingNodeId = targetId;
+                        }
+                    }
+                }
+                forward.settle(nodeId);
+            } else {
+                int nodeId = backwardQueue.removeMin();
+                float nodeDistance = backward.distance(nodeId);
+                int degree = hierarchy.downDegree(nodeId);
+                for (int i = 0; i < degree; i++) {
+                    int arcId = hierarchy.downArcId(nodeId, i);
+                    int sourceId = hierarchy.arcFromNodeId(arcId);
+                    if (backward.isSettled(sourceId)) continue;
+                    float distance = nodeDistance + hierarchy.arcCost(arcId);
+                    if (distance < backward.distance(sourceId)) {
+                        // Dans la recherche arrière, le « prédécesseur » est le nœud suivant sur l'itinéraire
+                        backward.update(sourceId, distance, nodeId, arcId);
+                        backwardQueue.insertOrDecrease(sourceId, distance);
+                        float cost = distance + forward.distance(sourceId);
+                        if (cost < bestCost) {
+                            bestCost = cost;
+                            meetingNodeId = sourceId;
+                        }
+                    }
+                }
+                backward.settle(nodeId);
+            }
+        }
+
+        if (meetingNodeId == -1) return null;
+
+        // On rassemble les arcs de l'itinéraire dans l'ordre, puis on remplace les raccourcis par leurs arêtes
+        List<Integer> forwardArcs = new ArrayList<>();
+        for (int nodeId = meetingNodeId; nodeId != startNodeId; nodeId = forward.predecessor(nodeId)) {
+            forwardArcs.add(forward.edge(nodeId));
+        }
+        List<Edge> edges = new ArrayList<>();
+        for (int i = forwardArcs.size() - 1; i >= 0; i--) {
+            addEdges(edges, forwardArcs.get(i));
+        }
+        for (int nodeId = meetingNodeId; nodeId != endNodeId; nodeId = backward.predecessor(nodeId)) {
+            addEdges(edges, backward.edge(nodeId));
+        }
+        return new SingleRoute(edges);
+    }
+
+    /**
+     * Méthode privée ajoutant à la liste donnée, dans l'ordre, les arêtes du graphe représentées par l'arc donné ;
+     * les raccourcis sont développés au moyen d'une pile explicite, leur imbrication pouvant être profonde
+     *
+     * @param edges (List<Edge>) : la liste à laquelle ajouter les arêtes
+     * @param arcId (int) : l'identité de l'arc
+     */
+    private void addEdges(List<Edge> edges, int arcId) {
+        int[] stack = new int[16];
+        int size = 0;
+        stack[size++] = arcId;
+        while (size > 0) {
+            int current = stack[--size];
+            int edgeId = hierarchy.arcEdgeId(current);
+            if (edgeId != -1) {
+                edges.add(Edge.of(graph, edgeId, hierarchy.arcFromNodeId(current), hierarchy.arcToNodeId(current)));
+                continue;
+            }
+            if (size + 2 > stack.length) stack = Arrays.copyOf(stack, 2 * stack.length);
+            // Le second arc est empilé en premier afin que le premier soit développé d'abord
+            stack[size++] = hierarchy.arcSecondChildId(current);
+            stack[size++] = hierarchy.arcFirstChildId(current);
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package ch.epfl.javelo.routing;
+
+import jdk.jfr.*;
+
+/**
+ * Événement Java Flight Recorder émis lors de l'écriture d'un itinéraire au format GPX, dont la durée est celle de la
+ * création et de l'écriture du document ; il n'est créé que si un enregistrement actif l'a activé (voir
+ * beginIfEnabled)
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+@Name("ch.epfl.javelo.GpxExport")
+@Label("GPX Export")
+@Category({"JaVelo", "Routing"})
+@Description("Écriture d'un itinéraire au format GPX")
+final class GpxExportEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(GpxExportEvent.class);
+
+    @Label("Points")
+    private int points;
+
+    @Label("Characters Written")
+    private long characters;
+
+    /**
+     * Méthode créant et commençant un événement si un enregistrement actif l'a activé
+     *
+     * @return (GpxExportEvent) : l'événement commencé, ou null si aucun enregistrement actif ne l'a activé
+     */
+    static GpxExportEvent beginIfEnabled() {
+        if (!TYPE.isEnabled()) return null;
+        GpxExportEvent event = new GpxExportEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Méthode terminant l'événement et l'enregistrant, si l'enregistrement est actif, avec les valeurs données
+     *
+     * @param points     (int) : le nombre de points de l'itinéraire
+     * @param characters (long) : le nombre de caractères écrits, égal au nombre d'octets, le document étant ASCII
+     */
+    void commit(int points, long characters) {
+        if (!shouldCommit()) return;
+        this.points = points;
+        this.characters = characters;
+        commit();
+    }
+
+}
@@ -10,6 +10,7 @@ import javax.xml.transform.*;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import java.io.FileWriter;
+import java.io.FilterWriter;
 import java.io.IOException;
 import java.io.Writer;
 
@@ -92,20 +93,38 @@ public final class GpxGenerator {
      * @throws IOException en cas d'erreur d'entrée/sortie
      */
     public static void writeGpx(String fileName, Route route, ElevationProfile elevationProfile) throws IOException {
+        try (Writer w = new FileWriter(fileName)) {
+            writeGpx(w, route, elevationProfile);
+        }
+    }
+
+    /**
+     * Méthode permettant d'écrire le document GPX correspondant aux paramètres passés en argument dans le Writer
+     * donné, p. ex. le corps d'une réponse HTTP ; le Writer n'est pas fermé. Chaque écriture émet un événement Java
+     * Flight Recorder (GpxExportEvent), enregistré uniquement si un enregistrement est actif.
+     *
+     * @param w                (Writer) : le Writer dans lequel on écrit le document GPX
+     * @param route            (Route) : l'itinéraire passé en argument
+     * @param elevationProfile (ElevationProfile) : le profil de cet itinéraire
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    public static void writeGpx(Writer w, Route route, ElevationProfile elevationProfile) throws IOException {
+        GpxExportEvent event = GpxExportEvent.beginIfEnabled();
+        // Les caractères écrits ne sont comptés que si l'événement est enregistré
+        CountingWriter counter = event != null ? new CountingWriter(w) : null;
 
         // On commence par créer le document GPX correspondant aux paramètres passés en argument
-        // On crée également un Writer de type FileWriter
         Document doc = createGpx(route, elevationProfile);
-        Writer w = new FileWriter(fileName);
 
         try {
             Transformer transformer = newTransformer();
             transformer.setOutputProperty(OutputKeys.INDENT, "yes");
             transformer.transform(new DOMSource(doc),
-                    new StreamResult(w));
+                    new StreamResult(counter != null ? counter : w));
         } catch (TransformerException e) {
-            throw new IOException();
+            throw new IOException(e);
         }
+        if (event != null) event.commit(route.points().size(), counter.count);
 
     }
 
@@ -142,4 +161,41 @@ public final class GpxGenerator {
         }
     }
 
+    /**
+     * Classe privée représentant un Writer comptant les caractères qu'il transmet au Writer sous-jacent
+     */
+    private static final class CountingWriter extends FilterWriter {
+
+        private long count;
+
+        private CountingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            super.write(c);
+            count += 1;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            super.write(cbuf, off, len);
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            super.write(str, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Le Writer sous-jacent appartient à l'appelant et n'est pas fermé
+            flush();
+        }
+
+    }
+
 }
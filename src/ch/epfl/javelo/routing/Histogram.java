@@ -0,0 +1,136 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Classe représentant un histogramme de valeurs entières positives, pouvant être alimenté simultanément par plusieurs
+ * fils d'exécution. Les classes sont des puissances de deux : la classe 0 compte les valeurs nulles et la classe
+ * i > 0 les valeurs comprises entre 2^(i-1) (inclus) et 2^i (exclu). Cette précision d'un facteur deux suffit à
+ * suivre l'évolution des quantiles d'une distribution très étalée, comme celle des durées des recherches, sans
+ * jamais allouer de mémoire lors de l'ajout d'une valeur.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class Histogram {
+
+    /**
+     * Le nombre de classes de l'histogramme
+     */
+    public static final int BUCKET_COUNT = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Méthode ajoutant la valeur donnée à l'histogramme
+     *
+     * @param value (long) : la valeur
+     * @throws IllegalArgumentException si la valeur est négative
+     */
+    public void record(long value) {
+        Preconditions.checkArgument(value >= 0);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Méthode retournant le nombre de valeurs ajoutées à l'histogramme
+     *
+     * @return (long) : le nombre de valeurs
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Méthode retournant la somme des valeurs ajoutées à l'histogramme
+     *
+     * @return (long) : la somme des valeurs
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * Méthode retournant la plus grande valeur ajoutée à l'histogramme, ou 0 s'il est vide
+     *
+     * @return (long) : la plus grande valeur
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Méthode retournant la moyenne des valeurs ajoutées à l'histogramme, ou 0 s'il est vide
+     *
+     * @return (double) : la moyenne des valeurs
+     */
+    public double mean() {
+        long n = count();
+        return n == 0 ? 0 : (double) sum() / n;
+    }
+
+    /**
+     * Méthode retournant le nombre de valeurs de la classe d'index donné
+     *
+     * @param index (int) : l'index de la classe
+     * @return (long) : le nombre de valeurs de la classe
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et BUCKET_COUNT (exclu)
+     */
+    public long bucketCount(int index) {
+        return buckets.get(index);
+    }
+
+    /**
+     * Méthode retournant la borne supérieure (inclusive) des valeurs de la classe d'index donné
+     *
+     * @param index (int) : l'index de la classe
+     * @return (long) : la plus grande valeur de la classe
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et BUCKET_COUNT (exclu)
+     */
+    public static long bucketUpperBound(int index) {
+        if (index < 0 || index >= BUCKET_COUNT) throw new IndexOutOfBoundsException(index);
+        return index == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << index) - 1;
+    }
+
+    /**
+     * Méthode retournant une borne supérieure du quantile donné des valeurs ajoutées : la borne supérieure de la
+     * classe qui le contient, ou la plus grande valeur si elle est plus petite. Elle vaut 0 si l'histogramme est vide.
+     *
+     * @param quantile (double) : le quantile, compris entre 0 et 1 (p. ex. 0.99 pour le 99e centile)
+     * @return (long) : la borne supérieure du quantile
+     * @throws IllegalArgumentException si le quantile n'est pas compris entre 0 et 1
+     */
+    public long quantile(double quantile) {
+        Preconditions.checkArgument(0 <= quantile && quantile <= 1);
+        long n = count();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) return Math.min(bucketUpperBound(i), max());
+        }
+        // Des valeurs ont été comptées mais pas encore ajoutées à leur classe par un autre fil d'exécution
+        return max();
+    }
+
+    /**
+     * Méthode privée retournant l'index de la classe de la valeur donnée
+     *
+     * @param value (long) : la valeur, positive ou nulle
+     * @return (int) : l'index de la classe
+     */
+    private static int bucketOf(long value) {
+        return Math.min(Long.SIZE - Long.numberOfLeadingZeros(value), BUCKET_COUNT - 1);
+    }
+
+}
@@ -0,0 +1,127 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.Preconditions;
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.projection.PointCh;
+import ch.epfl.javelo.projection.PointWebMercator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Enregistrement représentant l'ensemble des nœuds atteignables depuis un nœud de départ sans dépasser un budget
+ * donné, par ordre croissant de la grandeur sur laquelle porte ce budget (coût ou longueur), ainsi que le coût et la
+ * longueur du meilleur itinéraire menant à chacun d'eux. Le nœud de départ est le premier de l'ensemble.
+ * <p>
+ * Les tableaux ne sont pas copiés : ceux retournés par {@link #nodeIds()}, {@link #costs()} et {@link #lengths()}
+ * sont partagés et ne doivent pas être modifiés.
+ *
+ * @param nodeIds (int[]) : les identités des nœuds atteignables
+ * @param costs   (float[]) : le coût de l'itinéraire menant à chacun d'eux
+ * @param lengths (float[]) : la longueur, en mètres, de l'itinéraire menant à chacun d'eux
+ * @author : Roxanne Chevalley (339716)
+ */
+public record Isochrone(int[] nodeIds, float[] costs, float[] lengths) {
+
+    /**
+     * Construit un ensemble de nœuds atteignables
+     *
+     * @throws IllegalArgumentException si les trois tableaux n'ont pas la même taille
+     */
+    public Isochrone {
+        Preconditions.checkArgument(costs.length == nodeIds.length && lengths.length == nodeIds.length);
+    }
+
+    /**
+     * Méthode retournant le nombre de nœuds atteignables
+     *
+     * @return (int) : le nombre de nœuds
+     */
+    public int size() {
+        return nodeIds.length;
+    }
+
+    /**
+     * Méthode retournant l'identité du nœud d'index donné
+     *
+     * @param index (int) : l'index du nœud
+     * @return (int) : l'identité du nœud
+     */
+    public int nodeId(int index) {
+        return nodeIds[index];
+    }
+
+    /**
+     * Méthode retournant le coût de l'itinéraire menant au nœud d'index donné
+     *
+     * @param index (int) : l'index du nœud
+     * @return (float) : le coût de l'itinéraire
+     */
+    public float cost(int index) {
+        return costs[index];
+    }
+
+    /**
+     * Méthode retournant la longueur, en mètres, de l'itinéraire menant au nœud d'index donné
+     *
+     * @param index (int) : l'index du nœud
+     * @return (float) : la longueur de l'itinéraire
+     */
+    public float length(int index) {
+        return lengths[index];
+    }
+
+    /**
+     * Méthode retournant l'enveloppe convexe des positions des nœuds atteignables dans le graphe donné, sous la forme
+     * de ses sommets dans le sens inverse des aiguilles d'une montre ; s'il y a moins de trois nœuds, leurs positions
+     * sont retournées telles quelles
+     *
+     * @param graph (Graph) : le graphe dans lequel les nœuds ont été atteints
+     * @return (List<PointCh>) : les sommets de l'enveloppe
+     */
+    public List<PointCh> hull(Graph graph) {
+        PointCh[] points = new PointCh[nodeIds.length];
+        for (int i = 0; i < nodeIds.length; i++) points[i] = graph.nodePoint(nodeIds[i]);
+        if (points.length < 3) return List.of(points);
+
+        // Algorithme de la chaîne monotone d'Andrew : on construit la partie inférieure puis supérieure de l'enveloppe
+        Arrays.sort(points, Comparator.comparingDouble(PointCh::e).thenComparingDouble(PointCh::n));
+        PointCh[] hull = new PointCh[2 * points.length];
+        int size = 0;
+        for (PointCh point : points) {
+            while (size >= 2 && cross(hull[size - 2], hull[size - 1], point) <= 0) size -= 1;
+            hull[size++] = point;
+        }
+        int lowerSize = size + 1;
+        for (int i = points.length - 2; i >= 0; i--) {
+            while (size >= lowerSize && cross(hull[size - 2], hull[size - 1], points[i]) <= 0) size -= 1;
+            hull[size++] = points[i];
+        }
+        // Le dernier sommet ajouté est le premier
+        return List.of(Arrays.copyOf(hull, size - 1));
+    }
+
+    /**
+     * Méthode retournant l'enveloppe convexe des positions des nœuds atteignables, projetée dans le système
+     * Web Mercator afin d'être affichée sur la carte
+     *
+     * @param graph (Graph) : le graphe dans lequel les nœuds ont été atteints
+     * @return (List<PointWebMercator>) : les sommets de l'enveloppe
+     */
+    public List<PointWebMercator> webMercatorHull(Graph graph) {
+        List<PointWebMercator> hull = new ArrayList<>();
+        for (PointCh point : hull(graph)) hull.add(PointWebMercator.ofPointCh(point));
+        return List.copyOf(hull);
+    }
+
+    /**
+     * Méthode privée retournant le produit vectoriel des vecteurs ab et ac, positif ssi a, b et c tournent dans le
+     * sens inverse des aiguilles d'une montre
+     */
+    private static double cross(PointCh a, PointCh b, PointCh c) {
+        return (b.e() - a.e()) * (c.n() - a.n()) - (b.n() - a.n()) * (c.e() - a.e());
+    }
+
+}
@@ -0,0 +1,164 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.Preconditions;
+import ch.epfl.javelo.data.Graph;
+
+import java.util.Arrays;
+
+/**
+ * Classe publique et immuable calculant l'ensemble des nœuds atteignables depuis un nœud donné sans dépasser un
+ * budget de coût ou de longueur, au moyen d'une unique recherche (algorithme de Dijkstra) interrompue dès que ce
+ * budget est atteint. Comme le planificateur d'itinéraire, chaque fil d'exécution réutilise son propre espace de
+ * travail, de sorte qu'une recherche ne coûte que le nombre de nœuds qu'elle explore.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class IsochroneComputer {
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final Graph graph;
+    private final CostFunction costFunction;
+    // Réserve d'espaces de travail réutilisés d'une recherche à l'autre, quel que soit le fil d'exécution ; la
+    // colonne supplémentaire de chacun mémorise, pour chaque nœud visité, la grandeur qui n'est pas celle minimisée
+    // par la recherche (la longueur lorsque le budget porte sur le coût, et inversement)
+    private final SearchWorkspacePool workspaces;
+
+    /**
+     * Construit un calculateur de nœuds atteignables pour le graphe et la fonction de coût donnés
+     *
+     * @param graph        (Graph) : le graphe donné
+     * @param costFunction (CostFunction) : la fonction de coût donnée
+     */
+    public IsochroneComputer(Graph graph, CostFunction costFunction) {
+        this.graph = graph;
+        this.costFunction = costFunction;
+        this.workspaces = new SearchWorkspacePool(graph.nodeCount());
+    }
+
+    /**
+     * Méthode retournant les nœuds que les itinéraires de coût minimal partant du nœud donné atteignent pour un coût
+     * inférieur ou égal au coût maximal donné
+     *
+     * @param startNodeId (int) : l'identité du nœud de départ
+     * @param maxCost     (double) : le coût maximal
+     * @return (Isochrone) : les nœuds atteignables, par coût croissant
+     * @throws IllegalArgumentException si le coût maximal est négatif
+     */
+    public Isochrone reachableWithinCost(int startNodeId, double maxCost) {
+        Preconditions.checkArgument(maxCost >= 0);
+        return reachableWithin(startNodeId, maxCost, true);
+    }
+
+    /**
+     * Méthode retournant les nœuds que les itinéraires les plus courts partant du nœud donné atteignent en
+     * parcourant une longueur inférieure ou égale à la longueur maximale donnée ; seules les arêtes de coût fini
+     * sont empruntées
+     *
+     * @param startNodeId (int) : l'identité du nœud de départ
+     * @param maxLength   (double) : la longueur maximale, en mètres
+     * @return (Isochrone) : les nœuds atteignables, par longueur croissante
+     * @throws IllegalArgumentException si la longueur maximale est négative
+     */
+    public Isochrone reachableWithinLength(int startNodeId, double maxLength) {
+        Preconditions.checkArgument(maxLength >= 0);
+        return reachableWithin(startNodeId, maxLength, false);
+    }
+
+    /**
+     * Méthode privée effectuant la recherche bornée
+     *
+     * @param startNodeId (int) : l'identité du nœud de départ
+     * @param budget      (double) : la valeur maximale de la grandeur minimisée
+     * @param byCost      (boolean) : vrai si la recherche minimise le coût, faux si elle minimise la longueur
+     * @return (Isochrone) : les nœuds atteignables
+     */
+    private Isochrone reachableWithin(int startNodeId, double budget, boolean byCost) {
+        SearchWorkspace workspace = workspaces.acquire();
+        try {
+            return reachableWithin(startNodeId, budget, byCost, workspace);
+        } finally {
+            workspaces.release(workspace);
+        }
+    }
+
+    /**
+     * Méthode privée effectuant la recherche bornée dans l'espace de travail donné
+     *
+     * @param startNodeId (int) : l'identité du nœud de départ
+     * @param budget      (double) : la valeur maximale de la grandeur minimisée
+     * @param byCost      (boolean) : vrai si la recherche minimise le coût, faux si elle minimise la longueur
+     * @param workspace   (SearchWorkspace) : l'espace de travail, à l'usage exclusif de la recherche
+     * @return (Isochrone) : les nœuds atteignables
+     */
+    private Isochrone reachableWithin(int startNodeId, double budget, boolean byCost, SearchWorkspace workspace) {
+        float[] other = workspace.values();
+        NodeHeap queue = workspace.heap();
+        workspace.reset();
+        workspace.update(startNodeId, 0, startNodeId, -1);
+        queue.insertOrDecrease(startNodeId, 0);
+
+        int[] nodeIds = new int[INITIAL_CAPACITY];
+        float[] values = new float[INITIAL_CAPACITY];
+        float[] otherOfNodes = new float[INITIAL_CAPACITY];
+        int size = 0;
+
+        // Les nœuds étant visités par ordre croissant de la grandeur minimisée, on s'arrête au premier qui dépasse
+        // le budget
+        while (!queue.isEmpty() && queue.minKey() <= budget) {
+            int nodeId = queue.removeMin();
+            workspace.settle(nodeId);
+            float value = workspace.distance(nodeId);
+            int predecessor = workspace.predecessor(nodeId);
+            other[nodeId] = nodeId == startNodeId
+                    ? 0
+                    : other[predecessor] + otherValue(predecessor, workspace.edge(nodeId), byCost);
+
+            if (size == nodeIds.length) {
+                nodeIds = Arrays.copyOf(nodeIds, 2 * size);
+                values = Arrays.copyOf(values, 2 * size);
+                otherOfNodes = Arrays.copyOf(otherOfNodes, 2 * size);
+            }
+            nodeIds[size] = nodeId;
+            values[size] = value;
+            otherOfNodes[size] = other[nodeId];
+            size += 1;
+
+            int outDegree = graph.nodeOutDegree(nodeId);
+            for (int i = 0; i < outDegree; i++) {
+                int edgeId = graph.nodeOutEdgeId(nodeId, i);
+                int targetId = graph.edgeTargetNodeId(edgeId);
+                if (workspace.isSettled(targetId)) continue;
+                double costFactor = costFunction.costFactor(nodeId, edgeId);
+                if (costFactor == Double.POSITIVE_INFINITY) continue;
+                double edgeValue = byCost ? graph.edgeLength(edgeId) * costFactor : graph.edgeLength(edgeId);
+                float distance = (float) (value + edgeValue);
+                if (distance < workspace.distance(targetId)) {
+                    workspace.update(targetId, distance, nodeId, edgeId);
+                    queue.insertOrDecrease(targetId, distance);
+                }
+            }
+        }
+
+        nodeIds = Arrays.copyOf(nodeIds, size);
+        values = Arrays.copyOf(values, size);
+        otherOfNodes = Arrays.copyOf(otherOfNodes, size);
+        return byCost
+                ? new Isochrone(nodeIds, values, otherOfNodes)
+                : new Isochrone(nodeIds, otherOfNodes, values);
+    }
+
+    /**
+     * Méthode privée retournant, pour l'arête donnée, la grandeur qui n'est pas minimisée par la recherche
+     *
+     * @param nodeId (int) : l'identité du nœud de départ de l'arête
+     * @param edgeId (int) : l'identité de l'arête
+     * @param byCost (boolean) : vrai si la recherche minimise le coût
+     * @return (float) : la longueur de l'arête si la recherche minimise le coût, son coût sinon
+     */
+    private float otherValue(int nodeId, int edgeId, boolean byCost) {
+        double length = graph.edgeLength(edgeId);
+        return (float) (byCost ? length : length * costFunction.costFactor(nodeId, edgeId));
+    }
+
+}
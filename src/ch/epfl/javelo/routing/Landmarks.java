@@ -0,0 +1,207 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.Preconditions;
+import ch.epfl.javelo.data.Graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Enregistrement représentant des points de repère (landmarks) d'un graphe JaVelo et les coûts, pour une fonction de
+ * coût donnée, des meilleurs itinéraires allant de chacun d'eux à chaque nœud du graphe et de chaque nœud du graphe à
+ * chacun d'eux. L'inégalité triangulaire permet d'en déduire une borne inférieure du coût de tout itinéraire (méthode
+ * ALT), nettement plus proche du coût réel que la distance à vol d'oiseau sur un terrain vallonné.
+ * <p>
+ * Les coûts sont rangés nœud par nœud : ceux du nœud d'identité n se trouvent aux index n * landmarkCount() à
+ * (n + 1) * landmarkCount() - 1. Un nœud que l'itinéraire considéré ne permet pas d'atteindre a un coût infini.
+ *
+ * @param landmarkNodeIds (IntBuffer) : l'identité du nœud de chaque point de repère
+ * @param fromLandmarks   (FloatBuffer) : le coût de chaque point de repère à chaque nœud
+ * @param toLandmarks     (FloatBuffer) : le coût de chaque nœud à chaque point de repère
+ * @author : Roxanne Chevalley (339716)
+ */
+public record Landmarks(IntBuffer landmarkNodeIds, FloatBuffer fromLandmarks, FloatBuffer toLandmarks) {
+
+    /**
+     * Constructeur compact vérifiant que les tables des coûts contiennent autant de coûts l'une que l'autre, à savoir
+     * un par point de repère pour chaque nœud
+     *
+     * @throws IllegalArgumentException s'il n'y a aucun point de repère ou si la taille des tables ne correspond pas
+     */
+    public Landmarks {
+        int landmarkCount = landmarkNodeIds.capacity();
+        Preconditions.checkArgument(landmarkCount > 0
+                && fromLandmarks.capacity() == toLandmarks.capacity()
+                && fromLandmarks.capacity() % landmarkCount == 0);
+    }
+
+    /**
+     * Méthode choisissant le nombre donné de points de repère dans le graphe donné et calculant leurs coûts pour la
+     * fonction de coût donnée
+     *
+     * @param graph         (Graph) : le graphe
+     * @param costFunction  (CostFunction) : la fonction de coût
+     * @param landmarkCount (int) : le nombre de points de repère
+     * @return (Landmarks) : les points de repère et leurs coûts
+     */
+    public static Landmarks of(Graph graph, CostFunction costFunction, int landmarkCount) {
+        return new LandmarksBuilder(graph, costFunction).build(landmarkCount);
+    }
+
+    /**
+     * Méthode chargeant les points de repère de nom donné depuis le répertoire d'un graphe, dans lequel ils ont été
+     * écrits par writeTo
+     *
+     * @param basePath (Path) : chemin d'accès du répertoire
+     * @param name     (String) : le nom des points de repère, p. ex. celui de la fonction de coût
+     * @return (Landmarks) : les points de repère chargés
+     * @throws IOException en cas d'erreur d'entrée/sortie, p. ex. si l'un des fichiers attendus n'existe pas ou si
+     *                     leurs tailles ne correspondent pas (fichiers tronqués ou écrits pour des graphes différents)
+     */
+    public static Landmarks loadFrom(Path basePath, String name) throws IOException {
+        Path nodesPath = nodesPath(basePath, name);
+        Path fromPath = fromPath(basePath, name);
+        Path toPath = toPath(basePath, name);
+        long nodesBytes = Files.size(nodesPath);
+        long fromBytes = Files.size(fromPath);
+        long toBytes = Files.size(toPath);
+        if (nodesBytes == 0 || nodesBytes % Integer.BYTES != 0)
+            throw new IOException(nodesPath + " : taille invalide (" + nodesBytes + " octets)");
+        // Chaque table contient, pour chaque nœud, un coût (float) par point de repère (identifié par un int)
+        if (fromBytes % nodesBytes != 0)
+            throw new IOException(fromPath + " : taille invalide (" + fromBytes + " octets)");
+        if (toBytes != fromBytes)
+            throw new IOException(toPath + " : taille " + toBytes + " au lieu de " + fromBytes + " octets");
+        return new Landmarks(map(nodesPath).asIntBuffer(), map(fromPath).asFloatBuffer(),
+                map(toPath).asFloatBuffer());
+    }
+
+    /**
+     * Méthode écrivant les points de repère dans le répertoire d'un graphe, à côté des fichiers de celui-ci, dans les
+     * fichiers alt_[nom]_nodes.bin, alt_[nom]_from.bin et alt_[nom]_to.bin
+     *
+     * @param basePath (Path) : chemin d'accès du répertoire
+     * @param name     (String) : le nom des points de repère, p. ex. celui de la fonction de coût
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    public void writeTo(Path basePath, String name) throws IOException {
+        ByteBuffer nodes = ByteBuffer.allocate(landmarkNodeIds.capacity() * Integer.BYTES);
+        nodes.asIntBuffer().put(landmarkNodeIds.duplicate().clear());
+        write(nodesPath(basePath, name), nodes);
+        write(fromPath(basePath, name), asBytes(fromLandmarks));
+        write(toPath(basePath, name), asBytes(toLandmarks));
+    }
+
+    /**
+     * Méthode retournant le nombre de points de repère
+     *
+     * @return (int) : le nombre de points de repère
+     */
+    public int landmarkCount() {
+        return landmarkNodeIds.capacity();
+    }
+
+    /**
+     * Méthode retournant le nombre de nœuds du graphe pour lequel les points de repère ont été calculés
+     *
+     * @return (int) : le nombre de nœuds
+     */
+    public int nodeCount() {
+        return fromLandmarks.capacity() / landmarkCount();
+    }
+
+    /**
+     * Méthode retournant l'identité du nœud du point de repère d'index donné
+     *
+     * @param landmarkIndex (int) : l'index du point de repère
+     * @return (int) : l'identité de son nœud
+     */
+    public int landmarkNodeId(int landmarkIndex) {
+        return landmarkNodeIds.get(landmarkIndex);
+    }
+
+    /**
+     * Méthode retournant le coût du meilleur itinéraire allant du point de repère d'index donné au nœud donné
+     *
+     * @param landmarkIndex (int) : l'index du point de repère
+     * @param nodeId        (int) : l'identité du nœud
+     * @return (float) : le coût, infini si le nœud ne peut être atteint
+     */
+    public float costFromLandmark(int landmarkIndex, int nodeId) {
+        return fromLandmarks.get(nodeId * landmarkCount() + landmarkIndex);
+    }
+
+    /**
+     * Méthode retournant le coût du meilleur itinéraire allant du nœud donné au point de repère d'index donné
+     *
+     * @param landmarkIndex (int) : l'index du point de repère
+     * @param nodeId        (int) : l'identité du nœud
+     * @return (float) : le coût, infini si le point de repère ne peut être atteint
+     */
+    public float costToLandmark(int landmarkIndex, int nodeId) {
+        return toLandmarks.get(nodeId * landmarkCount() + landmarkIndex);
+    }
+
+    /**
+     * Méthode retournant une borne inférieure du coût du meilleur itinéraire allant du nœud fromNodeId au nœud
+     * toNodeId, c.-à-d. la plus grande des valeurs d(L, to) - d(L, from) et d(from, L) - d(to, L) sur l'ensemble des
+     * points de repère L. Les termes faisant intervenir un coût infini sont ignorés ; si aucun ne convient, la borne
+     * est nulle.
+     *
+     * @param fromNodeId (int) : l'identité du nœud de départ
+     * @param toNodeId   (int) : l'identité du nœud d'arrivée
+     * @return (float) : une borne inférieure, positive ou nulle, du coût de l'itinéraire
+     */
+    public float lowerBound(int fromNodeId, int toNodeId) {
+        int landmarkCount = landmarkCount();
+        int fromIndex = fromNodeId * landmarkCount;
+        int toIndex = toNodeId * landmarkCount;
+        float bound = 0;
+        for (int i = 0; i < landmarkCount; i++) {
+            float forward = fromLandmarks.get(toIndex + i) - fromLandmarks.get(fromIndex + i);
+            // La différence de deux coûts finis est finie ; un coût infini donne l'infini ou NaN, que l'on ignore
+            if (forward > bound && forward != Float.POSITIVE_INFINITY) bound = forward;
+            float backward = toLandmarks.get(fromIndex + i) - toLandmarks.get(toIndex + i);
+            if (backward > bound && backward != Float.POSITIVE_INFINITY) bound = backward;
+        }
+        return bound;
+    }
+
+    private static Path nodesPath(Path basePath, String name) {
+        return basePath.resolve("alt_" + name + "_nodes.bin");
+    }
+
+    private static Path fromPath(Path basePath, String name) {
+        return basePath.resolve("alt_" + name + "_from.bin");
+    }
+
+    private static Path toPath(Path basePath, String name) {
+        return basePath.resolve("alt_" + name + "_to.bin");
+    }
+
+    private static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static ByteBuffer asBytes(FloatBuffer buffer) {
+        ByteBuffer bytes = ByteBuffer.allocate(buffer.capacity() * Float.BYTES);
+        bytes.asFloatBuffer().put(buffer.duplicate().clear());
+        return bytes;
+    }
+
+    private static void write(Path path, ByteBuffer content) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (content.hasRemaining()) channel.write(content);
+        }
+    }
+
+}
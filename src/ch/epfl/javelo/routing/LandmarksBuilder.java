@@ -0,0 +1,208 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.Preconditions;
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.data.GraphReverseEdges;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Classe publique et finale choisissant hors ligne les points de repère d'un graphe JaVelo et calculant leurs coûts
+ * pour une fonction de coût donnée. Les points de repère sont choisis l'un après l'autre comme le nœud le plus
+ * coûteux à atteindre depuis le plus proche de ceux déjà choisis (méthode « farthest »), ce qui les place en
+ * périphérie du graphe, là où ils donnent les meilleures bornes.
+ * <p>
+ * Sa méthode main permet de calculer les points de repère d'un répertoire de graphe pour la fonction CityBikeCF et
+ * de les écrire à côté des fichiers du graphe : LandmarksBuilder [répertoire] [nom (citybike)] [nombre (16)].
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class LandmarksBuilder {
+
+    private static final int DEFAULT_LANDMARK_COUNT = 16;
+    // Nombre maximal de tentatives pour trouver un premier nœud appartenant à la composante principale du graphe
+    private static final int SEED_ATTEMPTS = 10;
+
+    private final Graph graph;
+    private final CostFunction costFunction;
+    private final int nodeCount;
+
+    /**
+     * Construit un calculateur de points de repère pour le graphe et la fonction de coût donnés
+     *
+     * @param graph        (Graph) : le graphe
+     * @param costFunction (CostFunction) : la fonction de coût
+     */
+    LandmarksBuilder(Graph graph, CostFunction costFunction) {
+        this.graph = graph;
+        this.costFunction = costFunction;
+        this.nodeCount = graph.nodeCount();
+    }
+
+    /**
+     * Calcule les points de repère du graphe donné pour la fonction CityBikeCF et les écrit dans son répertoire
+     *
+     * @param args (String[]) : le répertoire du graphe et, facultativement, le nom et le nombre de points de repère
+     * @throws IOException en cas d'erreur d'entrée/sortie
+     */
+    public static void main(String[] args) throws IOException {
+        Path basePath = Path.of(args.length > 0 ? args[0] : "javelo-data");
+        String name = args.length > 1 ? args[1] : "citybike";
+        int landmarkCount = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_LANDMARK_COUNT;
+        Graph graph = Graph.loadFrom(basePath);
+
+        long t0 = System.nanoTime();
+        Landmarks landmarks = Landmarks.of(graph, new CityBikeCF(graph), landmarkCount);
+        landmarks.writeTo(basePath, name);
+        System.out.printf("%d points de repère « %s » calculés en %d s%n",
+                landmarks.landmarkCount(), name, (System.nanoTime() - t0) / 1_000_000_000);
+    }
+
+    /**
+     * Méthode choisissant le nombre donné de points de repère et calculant leurs coûts
+     *
+     * @param landmarkCount (int) : le nombre de points de repère
+     * @return (Landmarks) : les points de repère et leurs coûts
+     * @throws IllegalArgumentException si le nombre de points de repère n'est pas strictement positif
+     */
+    Landmarks build(int landmarkCount) {
+        Preconditions.checkArgument(landmarkCount > 0);
+
+        // Les coûts depuis chaque point de repère servent aussi à choisir le suivant ; on les calcule donc au fur et
+        // à mesure, puis les coûts vers les points de repère, indépendants les uns des autres, en parallèle
+        int[] landmarkNodeIds = new int[landmarkCount];
+        float[][] from = new float[landmarkCount][];
+        float[] minCost = new float[nodeCount];
+        Arrays.fill(minCost, Float.POSITIVE_INFINITY);
+
+        float[] seedCosts = costsFrom(mainComponentSeed(), null);
+        int next = farthest(seedCosts, seedCosts);
+        for (int l = 0; l < landmarkCount; l++) {
+            landmarkNodeIds[l] = next;
+            from[l] = costsFrom(next, null);
+            for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+                minCost[nodeId] = Math.min(minCost[nodeId], from[l][nodeId]);
+            }
+            if (l + 1 < landmarkCount) next = farthest(minCost, from[0]);
+        }
+
+        GraphReverseEdges reverseEdges = GraphReverseEdges.of(graph);
+        float[][] to = IntStream.range(0, landmarkCount)
+                .parallel()
+                .mapToObj(l -> costsFrom(landmarkNodeIds[l], reverseEdges))
+                .toArray(float[][]::new);
+
+        return new Landmarks(IntBuffer.wrap(landmarkNodeIds), nodeMajor(from), nodeMajor(to));
+    }
+
+    /**
+     * Méthode privée retournant un nœud depuis lequel on peut atteindre au moins la moitié des nœuds du graphe, ou à
+     * défaut celui qui en atteint le plus parmi quelques essais, afin de ne pas placer les points de repère sur une
+     * île
+     *
+     * @return (int) : l'identité du nœud
+     */
+    private int mainComponentSeed() {
+        int bestSeed = 0;
+        int bestReached = -1;
+        for (int attempt = 0; attempt < SEED_ATTEMPTS; attempt++) {
+            int seed = (int) ((long) nodeCount * (2 * attempt + 1) / (2 * SEED_ATTEMPTS));
+            float[] costs = costsFrom(seed, null);
+            int reached = 0;
+            for (float cost : costs) if (cost != Float.POSITIVE_INFINITY) reached += 1;
+            if (reached > bestReached) {
+                bestSeed = seed;
+                bestReached = reached;
+            }
+            if (2 * reached >= nodeCount) break;
+        }
+        return bestSeed;
+    }
+
+    /**
+     * Méthode privée retournant le nœud de plus grand coût fini, parmi ceux accessibles selon les coûts de
+     * référence donnés
+     *
+     * @param costs          (float[]) : le coût de chaque nœud
+     * @param referenceCosts (float[]) : des coûts dont ceux qui sont infinis désignent les nœuds à ignorer
+     * @return (int) : l'identité du nœud
+     */
+    private int farthest(float[] costs, float[] referenceCosts) {
+        int farthest = 0;
+        float maxCost = -1;
+        for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+            if (referenceCosts[nodeId] == Float.POSITIVE_INFINITY) continue;
+            if (costs[nodeId] > maxCost) {
+                maxCost = costs[nodeId];
+                farthest = nodeId;
+            }
+        }
+        return farthest;
+    }
+
+    /**
+     * Méthode privée calculant, au moyen de l'algorithme de Dijkstra, le coût des meilleurs itinéraires allant du
+     * nœud donné à tous les autres, ou de tous les autres au nœud donné si les arêtes entrantes sont données
+     *
+     * @param nodeId       (int) : l'identité du nœud
+     * @param reverseEdges (GraphReverseEdges) : les arêtes entrantes pour un calcul à rebours, ou null
+     * @return (float[]) : le coût de chaque nœud, infini s'il n'est pas relié au nœud donné
+     */
+    private float[] costsFrom(int nodeId, GraphReverseEdges reverseEdges) {
+        float[] costs = new float[nodeCount];
+        Arrays.fill(costs, Float.POSITIVE_INFINITY);
+        NodeHeap queue = new NodeHeap(nodeCount);
+        costs[nodeId] = 0;
+        queue.insertOrDecrease(nodeId, 0);
+
+        while (!queue.isEmpty()) {
+            int current = queue.removeMin();
+            float cost = costs[current];
+            int degree = reverseEdges == null ? graph.nodeOutDegree(current) : reverseEdges.inDegree(current);
+            for (int i = 0; i < degree; i++) {
+                int edgeId;
+                int fromNodeId;
+                int neighbour;
+                if (reverseEdges == null) {
+                    edgeId = graph.nodeOutEdgeId(current, i);
+                    fromNodeId = current;
+                    neighbour = graph.edgeTargetNodeId(edgeId);
+                } else {
+                    edgeId = reverseEdges.edgeId(current, i);
+                    fromNodeId = reverseEdges.sourceNodeId(current, i);
+                    neighbour = fromNodeId;
+                }
+                float neighbourCost = (float) (cost
+                        + graph.edgeLength(edgeId) * costFunction.costFactor(fromNodeId, edgeId));
+                if (neighbourCost < costs[neighbour]) {
+                    costs[neighbour] = neighbourCost;
+                    queue.insertOrDecrease(neighbour, neighbourCost);
+                }
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Méthode privée rangeant nœud par nœud les coûts donnés point de repère par point de repère
+     *
+     * @param costs (float[][]) : les coûts de chaque point de repère
+     * @return (FloatBuffer) : les coûts de chaque nœud
+     */
+    private FloatBuffer nodeMajor(float[][] costs) {
+        int landmarkCount = costs.length;
+        float[] nodeMajor = new float[nodeCount * landmarkCount];
+        for (int l = 0; l < landmarkCount; l++) {
+            for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+                nodeMajor[nodeId * landmarkCount + l] = costs[l][nodeId];
+            }
+        }
+        return FloatBuffer.wrap(nodeMajor);
+    }
+
+}
@@ -0,0 +1,206 @@
+package ch.epfl.javelo.routing;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Classe représentant un tas 4-aire indexé de nœuds, dont les priorités sont des float ; chaque nœud ne peut s'y
+ * trouver qu'une seule fois, ce qui permet d'abaisser sa priorité sans ajouter de nouvelle entrée. Une fois construit,
+ * le tas n'alloue plus aucune mémoire.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+final class NodeHeap implements NodeQueue {
+
+    private static final int ARITY = 4;
+    private static final int ABSENT = -1;
+
+    private final int[] nodes; // les nœuds, dans l'ordre du tas
+    private final float[] keys; // la priorité de chaque entrée du tas
+    private final int[] positions; // pour chaque nœud, sa position dans le tas (ou ABSENT)
+    private int size;
+    private int pushCount;
+    private int maxSize;
+
+    /**
+     * Construit un tas vide pouvant contenir les nœuds d'identité 0 à capacity - 1
+     *
+     * @param capacity (int) : le nombre de nœuds du graphe
+     */
+    NodeHeap(int capacity) {
+        this.nodes = new int[capacity];
+        this.keys = new float[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Méthode retournant le nombre de nœuds contenus dans le tas
+     *
+     * @return (int) : le nombre de nœuds du tas
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Méthode retournant vrai ssi le nœud donné se trouve dans le tas
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (boolean) : vrai ssi le nœud se trouve dans le tas
+     */
+    boolean contains(int nodeId) {
+        return positions[nodeId] != ABSENT;
+    }
+
+    /**
+     * Méthode retournant la plus petite priorité du tas
+     *
+     * @return (float) : la plus petite priorité
+     * @throws NoSuchElementException si le tas est vide
+     */
+    float minKey() {
+        if (size == 0) throw new NoSuchElementException();
+        return keys[0];
+    }
+
+    /**
+     * Méthode retournant la priorité actuelle du nœud donné, qui doit se trouver dans le tas
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (float) : la priorité du nœud
+     */
+    float keyOf(int nodeId) {
+        assert contains(nodeId);
+        return keys[positions[nodeId]];
+    }
+
+    @Override
+    public void insertOrDecrease(int nodeId, float key) {
+        int position = positions[nodeId];
+        if (position == ABSENT) {
+            position = size++;
+            pushed();
+        } else if (key >= keys[position]) {
+            return; // la priorité n'est jamais augmentée
+        }
+        siftUp(position, nodeId, key);
+    }
+
+    /**
+     * Méthode ajoutant le nœud donné au tas avec la priorité donnée, ou remplaçant sa priorité, qu'elle soit plus
+     * petite ou plus grande, s'il s'y trouve déjà
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @param key    (float) : la nouvelle priorité du nœud
+     */
+    void update(int nodeId, float key) {
+        int position = positions[nodeId];
+        if (position == ABSENT) {
+            siftUp(size++, nodeId, key);
+            pushed();
+        } else if (key < keys[position]) {
+            siftUp(position, nodeId, key);
+        } else {
+            siftDown(position, nodeId, key);
+        }
+    }
+
+    @Override
+    public int removeMin() {
+        if (size == 0) throw new NoSuchElementException();
+        int min = nodes[0];
+        positions[min] = ABSENT;
+        size -= 1;
+        if (size > 0) siftDown(0, nodes[size], keys[size]);
+        return min;
+    }
+
+    @Override
+    public void clear() {
+        // Seuls les nœuds encore présents ont une position à effacer
+        for (int i = 0; i < size; i++) {
+            positions[nodes[i]] = ABSENT;
+        }
+        size = 0;
+        pushCount = 0;
+        maxSize = 0;
+    }
+
+    @Override
+    public int pushCount() {
+        return pushCount;
+    }
+
+    @Override
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Méthode privée comptabilisant l'ajout d'une entrée, la taille du tas venant d'être incrémentée
+     */
+    private void pushed() {
+        pushCount += 1;
+        if (size > maxSize) maxSize = size;
+    }
+
+    /**
+     * Méthode privée plaçant le nœud donné à la position donnée puis le faisant remonter jusqu'à sa place
+     *
+     * @param position (int) : la position de départ
+     * @param nodeId   (int) : l'identité du nœud
+     * @param key      (float) : la priorité du nœud
+     */
+    private void siftUp(int position, int nodeId, float key) {
+        while (position > 0) {
+            int parent = (position - 1) / ARITY;
+            if (keys[parent] <= key) break;
+            place(position, nodes[parent], keys[parent]);
+            position = parent;
+        }
+        place(position, nodeId, key);
+    }
+
+    /**
+     * Méthode privée plaçant le nœud donné à la position donnée puis le faisant descendre jusqu'à sa place
+     *
+     * @param position (int) : la position de départ
+     * @param nodeId   (int) : l'identité du nœud
+     * @param key      (float) : la priorité du nœud
+     */
+    private void siftDown(int position, int nodeId, float key) {
+        while (true) {
+            int firstChild = ARITY * position + 1;
+            if (firstChild >= size) break;
+            int lastChild = Math.min(firstChild + ARITY, size);
+            int minChild = firstChild;
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (keys[child] < keys[minChild]) minChild = child;
+            }
+            if (key <= keys[minChild]) break;
+            place(position, nodes[minChild], keys[minChild]);
+            position = minChild;
+        }
+        place(position, nodeId, key);
+    }
+
+    /**
+     * Méthode privée écrivant le nœud et sa priorité à la position donnée du tas
+     *
+     * @param position (int) : la position dans le tas
+     * @param nodeId   (int) : l'identité du nœud
+     * @param key      (float) : la priorité du nœud
+     */
+    private void place(int position, int nodeId, float key) {
+        nodes[position] = nodeId;
+        keys[position] = key;
+        positions[nodeId] = position;
+    }
+
+}
@@ -0,0 +1,54 @@
+package ch.epfl.javelo.routing;
+
+/**
+ * Interface représentant une file de priorité de nœuds, utilisée par le planificateur d'itinéraire pour choisir le
+ * prochain nœud à explorer
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+interface NodeQueue {
+
+    /**
+     * Méthode retournant vrai ssi la file ne contient aucun nœud
+     *
+     * @return (boolean) : vrai ssi la file est vide
+     */
+    boolean isEmpty();
+
+    /**
+     * Méthode ajoutant le nœud donné à la file avec la priorité donnée, ou abaissant sa priorité s'il s'y trouve déjà
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @param key    (float) : la priorité du nœud (plus elle est petite, plus le nœud sort tôt)
+     */
+    void insertOrDecrease(int nodeId, float key);
+
+    /**
+     * Méthode retirant de la file le nœud de plus petite priorité et retournant son identité
+     *
+     * @return (int) : l'identité du nœud retiré
+     */
+    int removeMin();
+
+    /**
+     * Méthode vidant la file afin qu'elle puisse être réutilisée pour une nouvelle recherche
+     */
+    void clear();
+
+    /**
+     * Méthode retournant le nombre d'entrées ajoutées à la file depuis qu'elle a été vidée pour la dernière fois
+     * (les abaissements de priorité d'un nœud déjà présent n'en ajoutent pas)
+     *
+     * @return (int) : le nombre d'entrées ajoutées
+     */
+    int pushCount();
+
+    /**
+     * Méthode retournant le plus grand nombre d'entrées que la file a contenu depuis qu'elle a été vidée pour la
+     * dernière fois
+     *
+     * @return (int) : la taille maximale de la file
+     */
+    int maxSize();
+
+}
@@ -0,0 +1,67 @@
+package ch.epfl.javelo.routing;
+
+import java.util.PriorityQueue;
+
+/**
+ * Classe représentant la file de priorité utilisée à l'origine par le planificateur d'itinéraire : une
+ * PriorityQueue dans laquelle chaque mise à jour ajoute une nouvelle entrée. Les entrées périmées sont ignorées par
+ * le planificateur lorsqu'elles sortent de la file. Elle est conservée à des fins de comparaison.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+final class PriorityNodeQueue implements NodeQueue {
+
+    private final PriorityQueue<WeightedNode> queue = new PriorityQueue<>();
+    private int pushCount;
+    private int maxSize;
+
+    /**
+     * Enregistrement représentant un nœud et sa priorité
+     *
+     * @param nodeId   (int) : l'identité du nœud
+     * @param distance (float) : la priorité du nœud
+     */
+    private record WeightedNode(int nodeId, float distance) implements Comparable<WeightedNode> {
+
+        @Override
+        public int compareTo(WeightedNode that) {
+            return Float.compare(this.distance, that.distance);
+        }
+
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public void insertOrDecrease(int nodeId, float key) {
+        queue.add(new WeightedNode(nodeId, key));
+        pushCount += 1;
+        maxSize = Math.max(maxSize, queue.size());
+    }
+
+    @Override
+    public int removeMin() {
+        return queue.remove().nodeId();
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+        pushCount = 0;
+        maxSize = 0;
+    }
+
+    @Override
+    public int pushCount() {
+        return pushCount;
+    }
+
+    @Override
+    public int maxSize() {
+        return maxSize;
+    }
+
+}
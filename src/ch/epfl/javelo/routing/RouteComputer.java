@@ -2,21 +2,90 @@ package ch.epfl.javelo.routing;
 
 import ch.epfl.javelo.Preconditions;
 import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.data.GraphReverseEdges;
+import ch.epfl.javelo.projection.PointCh;
 
 import java.util.*;
 
 
 /**
- * Classe publique et immuable représentant un planificateur d'itinéraire
+ * Classe publique et immuable représentant un planificateur d'itinéraire. Il peut être partagé entre fils d'exécution :
+ * chaque recherche emprunte à une réserve commune un espace de travail réutilisé d'une recherche à l'autre, de sorte
+ * qu'une recherche ne coûte que le nombre de nœuds qu'elle explore et qu'il n'existe jamais plus d'espaces de travail
+ * que de recherches simultanées.
+ * <p>
+ * L'algorithme A* est guidé par une borne inférieure du coût restant : la distance à vol d'oiseau et, si des points
+ * de repère calculés pour la même fonction de coût sont fournis, la borne qu'ils donnent (méthode ALT). Si l'index
+ * des composantes connexes du graphe pour cette fonction de coût est fourni, les recherches dont le nœud d'arrivée
+ * est inaccessible depuis le nœud de départ échouent immédiatement au lieu d'explorer toute la composante de départ.
+ * <p>
+ * Les statistiques d'une recherche (nœuds visités, arêtes relâchées, taille des files de priorité et durées de ses
+ * phases) sont retournées par measuredRouteBetween et, si des métriques ont été attachées au planificateur au moyen
+ * de withMetrics, cumulées dans celles-ci pour toutes ses recherches. Sans métriques, bestRouteBetween ne mesure
+ * aucune durée et n'alloue aucune statistique. Chaque recherche émet en outre un événement Java Flight Recorder
+ * (RouteSearchEvent), qui n'est créé que si un enregistrement actif l'a activé.
  *
  * @author : Roxanne Chevalley (339716)
  */
 public final class RouteComputer {
 
+    // Facteur appliqué à la borne des points de repère, la gardant inférieure au coût malgré les erreurs d'arrondi
+    private static final float LANDMARK_BOUND_FACTOR = 0.999f;
+
     private final Graph graph;
     private final CostFunction costFunction;
-    private static final float INITIATE = Float.POSITIVE_INFINITY;
-    private static final float MARK = Float.NEGATIVE_INFINITY;
+    // La fonction de coût si elle mémorise ses facteurs, lus alors directement dans la boucle principale (null sinon)
+    private final CachedCostFunction cachedCostFunction;
+    private final Algorithm algorithm;
+    private final QueueType queueType;
+    // Arêtes entrantes de chaque nœud, nécessaires uniquement à la recherche bidirectionnelle (null sinon)
+    private final GraphReverseEdges reverseEdges;
+    // Points de repère donnant une meilleure borne inférieure que la distance à vol d'oiseau (null si absents)
+    private final Landmarks landmarks;
+    // Composantes connexes du graphe permettant d'écarter immédiatement les nœuds inaccessibles (null si absentes)
+    private final ComponentIndex components;
+    // Réserve d'espaces de travail réutilisés d'une recherche à l'autre, quel que soit le fil d'exécution
+    private final SearchWorkspacePool workspaces;
+    // Statistiques cumulées de toutes les recherches (null si elles ne sont pas enregistrées)
+    private final RouteMetrics metrics;
+
+    /**
+     * Énumération des algorithmes de recherche pouvant être utilisés par le planificateur
+     */
+    public enum Algorithm {
+        /**
+         * Algorithme A* partant du nœud de départ (choix par défaut)
+         */
+        ASTAR,
+        /**
+         * Algorithme A* bidirectionnel, explorant simultanément depuis le nœud de départ et, à rebours, depuis le nœud
+         * d'arrivée ; il visite nettement moins de nœuds sur les longs itinéraires
+         */
+        BIDIRECTIONAL_ASTAR
+    }
+
+    /**
+     * Énumération des files de priorité pouvant être utilisées par le planificateur
+     */
+    public enum QueueType {
+        /**
+         * Tas indexé de nœuds, ne faisant aucune allocation par nœud exploré (choix par défaut)
+         */
+        INDEXED_HEAP,
+        /**
+         * PriorityQueue de java.util utilisée à l'origine, conservée à des fins de comparaison
+         */
+        PRIORITY_QUEUE
+    }
+
+    /**
+     * Enregistrement représentant le résultat d'une recherche d'itinéraire accompagné de ses statistiques
+     *
+     * @param route      (Route) : l'itinéraire de coût total minimal, ou null si aucun itinéraire n'existe
+     * @param statistics (RouteStatistics) : les statistiques de la recherche
+     */
+    public record MeasuredRoute(Route route, RouteStatistics statistics) {
+    }
 
     /**
      * Construit un planificateur d'itinéraire pour le graphe et la fonction de coût donnée
@@ -25,9 +94,129 @@ public final class RouteComputer {
      * @param costFunction (CostFunction) : la fonction de coût donnée
      */
     public RouteComputer(Graph graph, CostFunction costFunction) {
+        this(graph, costFunction, Algorithm.ASTAR, QueueType.INDEXED_HEAP, null, null);
+    }
+
+    /**
+     * Construit un planificateur d'itinéraire pour le graphe et la fonction de coût donnée, écartant sans recherche
+     * une partie des nœuds d'arrivée inaccessibles au moyen de l'index des composantes donné (voir
+     * ComponentIndex.mayReach)
+     *
+     * @param graph        (Graph) : le graphe donné
+     * @param costFunction (CostFunction) : la fonction de coût donnée
+     * @param components   (ComponentIndex) : l'index des composantes, calculé sur ce graphe pour cette fonction de coût
+     * @throws IllegalArgumentException si l'index n'a pas le même nombre de nœuds que le graphe
+     */
+    public RouteComputer(Graph graph, CostFunction costFunction, ComponentIndex components) {
+        this(graph, costFunction, Algorithm.ASTAR, QueueType.INDEXED_HEAP, null, Objects.requireNonNull(components));
+    }
+
+    /**
+     * Construit un planificateur d'itinéraire pour le graphe et la fonction de coût donnée, utilisant la file de
+     * priorité donnée
+     *
+     * @param graph        (Graph) : le graphe donné
+     * @param costFunction (CostFunction) : la fonction de coût donnée
+     * @param queueType    (QueueType) : le type de file de priorité à utiliser
+     */
+    public RouteComputer(Graph graph, CostFunction costFunction, QueueType queueType) {
+        this(graph, costFunction, Algorithm.ASTAR, queueType, null, null);
+    }
+
+    /**
+     * Construit un planificateur d'itinéraire pour le graphe et la fonction de coût donnée, utilisant l'algorithme
+     * de recherche donné
+     *
+     * @param graph        (Graph) : le graphe donné
+     * @param costFunction (CostFunction) : la fonction de coût donnée
+     * @param algorithm    (Algorithm) : l'algorithme de recherche à utiliser
+     */
+    public RouteComputer(Graph graph, CostFunction costFunction, Algorithm algorithm) {
+        this(graph, costFunction, algorithm, QueueType.INDEXED_HEAP, null, null);
+    }
+
+    /**
+     * Construit un planificateur d'itinéraire pour le graphe et la fonction de coût donnée, utilisant l'algorithme
+     * de recherche donné guidé par les points de repère donnés
+     *
+     * @param graph        (Graph) : le graphe donné
+     * @param costFunction (CostFunction) : la fonction de coût donnée
+     * @param algorithm    (Algorithm) : l'algorithme de recherche à utiliser
+     * @param landmarks    (Landmarks) : les points de repère, calculés sur ce graphe pour cette fonction de coût
+     * @throws IllegalArgumentException si les points de repère n'ont pas le même nombre de nœuds que le graphe
+     */
+    public RouteComputer(Graph graph, CostFunction costFunction, Algorithm algorithm, Landmarks landmarks) {
+        this(graph, costFunction, algorithm, QueueType.INDEXED_HEAP, Objects.requireNonNull(landmarks), null);
+    }
+
+    /**
+     * Construit un planificateur d'itinéraire pour le graphe et la fonction de coût donnée, utilisant l'algorithme
+     * de recherche donné, guidé par les points de repère donnés s'ils ne sont pas nuls et écartant les nœuds
+     * inaccessibles au moyen de l'index des composantes donné s'il n'est pas nul
+     *
+     * @param graph        (Graph) : le graphe donné
+     * @param costFunction (CostFunction) : la fonction de coût donnée
+     * @param algorithm    (Algorithm) : l'algorithme de recherche à utiliser
+     * @param landmarks    (Landmarks) : les points de repère, calculés sur ce graphe pour cette fonction de coût, ou
+     *                     null
+     * @param components   (ComponentIndex) : l'index des composantes, calculé sur ce graphe pour cette fonction de
+     *                     coût, ou null
+     * @throws IllegalArgumentException si les points de repère ou l'index n'ont pas le même nombre de nœuds que le
+     *                                  graphe
+     */
+    public RouteComputer(Graph graph, CostFunction costFunction, Algorithm algorithm, Landmarks landmarks,
+                         ComponentIndex components) {
+        this(graph, costFunction, algorithm, QueueType.INDEXED_HEAP, landmarks, components);
+    }
+
+    private RouteComputer(Graph graph, CostFunction costFunction, Algorithm algorithm, QueueType queueType,
+                          Landmarks landmarks, ComponentIndex components) {
+        Preconditions.checkArgument(landmarks == null || landmarks.nodeCount() == graph.nodeCount());
+        Preconditions.checkArgument(components == null || components.nodeCount() == graph.nodeCount());
         this.graph = graph;
         this.costFunction = costFunction;
+        this.cachedCostFunction = costFunction instanceof CachedCostFunction cached ? cached : null;
+        this.algorithm = algorithm;
+        this.queueType = queueType;
+        this.landmarks = landmarks;
+        this.components = components;
+        this.workspaces = new SearchWorkspacePool(graph.nodeCount());
+        this.reverseEdges = algorithm == Algorithm.BIDIRECTIONAL_ASTAR ? GraphReverseEdges.of(graph) : null;
+        this.metrics = null;
+    }
+
+    private RouteComputer(RouteComputer that, RouteMetrics metrics) {
+        this.graph = that.graph;
+        this.costFunction = that.costFunction;
+        this.cachedCostFunction = that.cachedCostFunction;
+        this.algorithm = that.algorithm;
+        this.queueType = that.queueType;
+        this.landmarks = that.landmarks;
+        this.components = that.components;
+        this.workspaces = that.workspaces;
+        this.reverseEdges = that.reverseEdges;
+        this.metrics = metrics;
+    }
 
+    /**
+     * Méthode retournant un planificateur identique au récepteur (this), partageant ses espaces de travail, mais
+     * cumulant les statistiques de chacune de ses recherches dans les métriques données
+     *
+     * @param metrics (RouteMetrics) : les métriques à alimenter, pouvant être partagées entre planificateurs
+     * @return (RouteComputer) : le planificateur enregistrant ses statistiques
+     */
+    public RouteComputer withMetrics(RouteMetrics metrics) {
+        return new RouteComputer(this, Objects.requireNonNull(metrics));
+    }
+
+    /**
+     * Méthode retournant les métriques dans lesquelles le planificateur cumule les statistiques de ses recherches, ou
+     * null s'il ne les enregistre pas
+     *
+     * @return (RouteMetrics) : les métriques, ou null
+     */
+    public RouteMetrics metrics() {
+        return metrics;
     }
 
     /**
@@ -40,81 +229,355 @@ public final class RouteComputer {
      * @throws IllegalArgumentException si le nœud de départ et d'arrivée sont identiques
      */
     public Route bestRouteBetween(int startNodeId, int endNodeId) throws IllegalArgumentException {
-        Preconditions.checkArgument(startNodeId != endNodeId);
+        return metrics == null
+                ? routeBetween(startNodeId, endNodeId, null)
+                : measuredRouteBetween(startNodeId, endNodeId).route();
+    }
 
-        record WeightedNode(int nodeId, float distance) implements Comparable<WeightedNode> {
+    /**
+     * Méthode retournant l'itinéraire de coût total minimal allant du nœud d'identité startNodeId au nœud d'identité
+     * endNodeId, ou null si aucun itinéraire n'existe, accompagné des statistiques de la recherche ; celles-ci sont
+     * également cumulées dans les métriques du planificateur s'il en a.
+     *
+     * @param startNodeId (int) : l'identité du nœud de départ
+     * @param endNodeId   (int) : l'identité du nœud d'arrivée
+     * @return (MeasuredRoute) : l'itinéraire de coût total minimal et les statistiques de la recherche
+     * @throws IllegalArgumentException si le nœud de départ et d'arrivée sont identiques
+     */
+    public MeasuredRoute measuredRouteBetween(int startNodeId, int endNodeId) throws IllegalArgumentException {
+        RouteStatistics[] statistics = new RouteStatistics[1];
+        Route route = routeBetween(startNodeId, endNodeId, statistics);
+        if (metrics != null) metrics.record(statistics[0], route != null);
+        return new MeasuredRoute(route, statistics[0]);
+    }
 
-            @Override
-            public int compareTo(WeightedNode that) {
-                return Float.compare(this.distance, that.distance);
+    /**
+     * Méthode privée calculant le meilleur itinéraire au moyen de l'algorithme du planificateur et, si le tableau
+     * donné n'est pas nul, mesurant la recherche
+     *
+     * @param startNodeId (int) : l'identité du nœud de départ
+     * @param endNodeId   (int) : l'identité du nœud d'arrivée
+     * @param statistics  (RouteStatistics[]) : le tableau (d'un élément) dans lequel placer les statistiques de la
+     *                    recherche, ou null si elle ne doit pas être mesurée
+     * @return (Route) : l'itinéraire de coût total minimal, ou null
+     */
+    private Route routeBetween(int startNodeId, int endNodeId, RouteStatistics[] statistics) {
+        Preconditions.checkArgument(startNodeId != endNodeId);
+        RouteSearchEvent event = RouteSearchEvent.beginIfEnabled();
+        boolean measured = statistics != null;
+        long searchStart = measured ? System.nanoTime() : 0;
+        if (components != null && !components.mayReach(startNodeId, endNodeId)) {
+            if (measured) statistics[0] = new RouteStatistics(0, 0, 0, 0, System.nanoTime() - searchStart, 0);
+            if (event != null) event.commit(startNodeId, endNodeId, 0, false);
+            return null;
+        }
+        SearchWorkspace forward = workspaces.acquire();
+        try {
+            if (algorithm != Algorithm.BIDIRECTIONAL_ASTAR) {
+                NodeQueue queue = queueType == QueueType.INDEXED_HEAP ? forward.heap() : new PriorityNodeQueue();
+                boolean found = forwardSearch(startNodeId, endNodeId, forward, queue);
+                long routeStart = measured ? System.nanoTime() : 0;
+                Route route = found ? createRoad(endNodeId, startNodeId, forward) : null;
+                if (measured) {
+                    statistics[0] = new RouteStatistics(
+                            forward.settledCount(),
+                            forward.examinedCount(),
+                            queue.pushCount(),
+                            queue.maxSize(),
+                            routeStart - searchStart,
+                            found ? System.nanoTime() - routeStart : 0);
+                }
+                if (event != null) event.commit(startNodeId, endNodeId, forward.settledCount(), found);
+                return route;
             }
-
+            SearchWorkspace backward = workspaces.acquire();
+            try {
+                int meetingNodeId = bidirectionalSearch(startNodeId, endNodeId, forward, backward);
+                long routeStart = measured ? System.nanoTime() : 0;
+                Route route = meetingNodeId != -1
+                        ? createBidirectionalRoad(startNodeId, endNodeId, meetingNodeId, forward, backward)
+                        : null;
+                if (measured) {
+                    statistics[0] = new RouteStatistics(
+                            forward.settledCount() + backward.settledCount(),
+                            forward.examinedCount() + backward.examinedCount(),
+                            forward.heap().pushCount() + backward.heap().pushCount(),
+                            forward.maxQueueSize(),
+                            routeStart - searchStart,
+                            route != null ? System.nanoTime() - routeStart : 0);
+                }
+                if (event != null) {
+                    event.commit(startNodeId, endNodeId, forward.settledCount() + backward.settledCount(),
+                            route != null);
+                }
+                return route;
+            } finally {
+                workspaces.release(backward);
+            }
+        } finally {
+            workspaces.release(forward);
         }
+    }
 
-        // Pour chaque nœud de graphe, définir une distance et un nœud prédecesseur
-        float[] distance = new float[graph.nodeCount()];
-        int[] predecesseur = new int[graph.nodeCount()];
-        int [] arrete = new int [graph.nodeCount()];
-
-        Arrays.fill(distance,0,graph.nodeCount(),INITIATE);
+    /**
+     * Méthode privée explorant le graphe au moyen de l'algorithme A*, partant du nœud de départ, jusqu'à visiter le
+     * nœud d'arrivée ; l'itinéraire est ensuite donné par les prédécesseurs mémorisés dans l'espace de travail
+     *
+     * @param startNodeId   (int) : l'identité du nœud de départ
+     * @param endNodeId     (int) : l'identité du nœud d'arrivée
+     * @param workspace     (SearchWorkspace) : l'espace de travail de la recherche
+     * @param enExploration (NodeQueue) : la file de priorité de la recherche, vide
+     * @return (boolean) : vrai ssi le nœud d'arrivée a été atteint
+     */
+    private boolean forwardSearch(int startNodeId, int endNodeId, SearchWorkspace workspace,
+                                  NodeQueue enExploration) {
+        // Pour chaque nœud de graphe, l'espace de travail mémorise une distance, un nœud prédecesseur et une arête
+        workspace.reset();
 
+        PointCh endPoint = graph.nodePoint(endNodeId);
 
-        distance[startNodeId] = 0;
-        PriorityQueue<WeightedNode> enExploration = new PriorityQueue<>();
-        enExploration.add(new WeightedNode(startNodeId, distance[startNodeId]));
+        workspace.update(startNodeId, 0, startNodeId, -1);
+        enExploration.insertOrDecrease(startNodeId, 0);
 
         while (!enExploration.isEmpty()) {
-            int retenir=enExploration.remove().nodeId;
+            int retenir = enExploration.removeMin();
+
+            // Une entrée périmée de la PriorityQueue peut désigner un nœud déjà visité
+            if (workspace.isSettled(retenir)) continue;
 
-            if (retenir == endNodeId) { // On a trouvé le chemin et on construit maintenant la route correspondante
-                return createRoad(endNodeId,startNodeId,predecesseur,arrete);
+            if (retenir == endNodeId) { // On a trouvé le chemin, que l'appelant construit à partir des prédécesseurs
+                workspace.settle(retenir);
+                return true;
             }
 
-            // Si on n'a pas encore trouvé le chemin
-            int[] nodesOut = new int[graph.nodeOutDegree(retenir)]; // Création d'un tableau avec les arêtes sortant de "retenir"
-            for (int i = 0; i < nodesOut.length; i++) {
+            // Si on n'a pas encore trouvé le chemin, on parcourt les arêtes sortant de "retenir"
+            float distanceRetenir = workspace.distance(retenir);
+            int outDegree = graph.nodeOutDegree(retenir);
+            workspace.examine(outDegree);
+            for (int i = 0; i < outDegree; i++) {
                 int outEdge = graph.nodeOutEdgeId(retenir, i); // Recherche de l'arête
                 int nPrime = graph.edgeTargetNodeId(outEdge); // Nœud associé à l'arête
-                if(distance[nPrime]!=MARK){
-                    float minimum = distance[nPrime];
-                    float distanceN = (float) (distance[retenir] + graph.edgeLength(outEdge) * costFunction.costFactor(retenir, outEdge)); //(Dijkstra)
+                if (!workspace.isSettled(nPrime)) {
+                    float minimum = workspace.distance(nPrime);
+                    float distanceN = (float) (distanceRetenir + graph.edgeLength(outEdge) * costFactor(retenir, outEdge)); //(Dijkstra)
                     if (distanceN < minimum) {
-                        distance[nPrime] = distanceN;
-                        predecesseur[nPrime] = retenir;
-                        arrete[nPrime]= outEdge;
-                        // On calcule la distance à vol d'oiseau entre le nœud d'arrivée et le nœud considéré
-                        float volOiseau = (float) graph.nodePoint(nPrime).distanceTo(graph.nodePoint(endNodeId));
-                        float weightedDis= Math.abs(volOiseau + distance[nPrime]);
-                        enExploration.add(new WeightedNode(nPrime, weightedDis));
+                        workspace.update(nPrime, distanceN, retenir, outEdge);
+                        // On estime le coût restant entre le nœud considéré et le nœud d'arrivée
+                        float estimation = lowerBound(nPrime, endNodeId, endPoint, true);
+                        enExploration.insertOrDecrease(nPrime, estimation + distanceN);
+                    }
+                }
+            }
+            workspace.settle(retenir); // Marque le nœud visité
+
+        }
+        return false;
+    }
+
+    /**
+     * Méthode privée explorant le graphe au moyen de l'algorithme A* bidirectionnel. Les deux recherches
+     * utilisent le potentiel moyen p(n) = (b(n, arrivée) - b(départ, n)) / 2, où b est la borne inférieure du coût :
+     * la recherche avant ordonne les nœuds selon distance + p(n), la recherche arrière selon distance - p(n). Ce
+     * potentiel étant cohérent pour les deux recherches, on peut s'arrêter dès que la somme des plus petites priorités
+     * des deux files atteint le coût du meilleur itinéraire trouvé jusque-là.
+     *
+     * @param startNodeId (int) : l'identité du nœud de départ
+     * @param endNodeId   (int) : l'identité du nœud d'arrivée
+     * @param forward     (SearchWorkspace) : l'espace de travail de la recherche avant
+     * @param backward    (SearchWorkspace) : l'espace de travail de la recherche arrière
+     * @return (int) : l'identité du nœud où les deux recherches se rejoignent sur le meilleur itinéraire, ou -1
+     * s'il n'en existe aucun
+     */
+    private int bidirectionalSearch(int startNodeId, int endNodeId, SearchWorkspace forward,
+                                    SearchWorkspace backward) {
+        forward.reset();
+        backward.reset();
+        NodeHeap forwardQueue = forward.heap();
+        NodeHeap backwardQueue = backward.heap();
+
+        PointCh startPoint = graph.nodePoint(startNodeId);
+        PointCh endPoint = graph.nodePoint(endNodeId);
+
+        forward.update(startNodeId, 0, startNodeId, -1);
+        forwardQueue.insertOrDecrease(startNodeId, potential(startNodeId, startNodeId, endNodeId, startPoint, endPoint));
+        backward.update(endNodeId, 0, endNodeId, -1);
+        backwardQueue.insertOrDecrease(endNodeId, -potential(endNodeId, startNodeId, endNodeId, startPoint, endPoint));
+        // La taille totale des deux files, dont la plus grande valeur est mémorisée par l'espace de travail avant
+        int queueSize = 2;
+        forward.observeQueueSize(queueSize);
+
+        // Coût du meilleur itinéraire trouvé jusque-là, et nœud où les deux recherches se rejoignent sur celui-ci
+        float bestCost = Float.POSITIVE_INFINITY;
+        int meetingNodeId = -1;
+
+        while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()
+                && forwardQueue.minKey() + backwardQueue.minKey() < bestCost) {
+
+            if (forwardQueue.minKey() <= backwardQueue.minKey()) {
+                // Recherche avant : on parcourt les arêtes sortant du nœud retenu
+                int nodeId = forwardQueue.removeMin();
+                queueSize -= 1;
+                float nodeDistance = forward.distance(nodeId);
+                int outDegree = graph.nodeOutDegree(nodeId);
+                forward.examine(outDegree);
+                for (int i = 0; i < outDegree; i++) {
+                    int edgeId = graph.nodeOutEdgeId(nodeId, i);
+                    int targetId = graph.edgeTargetNodeId(edgeId);
+                    if (forward.isSettled(targetId)) continue;
+                    float distance = (float) (nodeDistance
+                            + graph.edgeLength(edgeId) * costFactor(nodeId, edgeId));
+                    if (distance < forward.distance(targetId)) {
+                        // Un nœud déjà atteint est encore dans la file, dont seule sa priorité change
+                        if (!forward.isReached(targetId)) forward.observeQueueSize(++queueSize);
+                        forward.update(targetId, distance, nodeId, edgeId);
+                        forwardQueue.insertOrDecrease(targetId,
+                                distance + potential(targetId, startNodeId, endNodeId, startPoint, endPoint));
+                        float cost = distance + backward.distance(targetId);
+                        if (cost < bestCost) {
+                            bestCost = cost;
+                            meetingNodeId = targetId;
+                        }
+                    }
+                }
+                forward.settle(nodeId);
+            } else {
+                // Recherche arrière : on parcourt les arêtes arrivant au nœud retenu
+                int nodeId = backwardQueue.removeMin();
+                queueSize -= 1;
+                float nodeDistance = backward.distance(nodeId);
+                int inDegree = reverseEdges.inDegree(nodeId);
+                backward.examine(inDegree);
+                for (int i = 0; i < inDegree; i++) {
+                    int edgeId = reverseEdges.edgeId(nodeId, i);
+                    int sourceId = reverseEdges.sourceNodeId(nodeId, i);
+                    if (backward.isSettled(sourceId)) continue;
+                    float distance = (float) (nodeDistance
+                            + graph.edgeLength(edgeId) * costFactor(sourceId, edgeId));
+                    if (distance < backward.distance(sourceId)) {
+                        if (!backward.isReached(sourceId)) forward.observeQueueSize(++queueSize);
+                        // Dans la recherche arrière, le « prédécesseur » est le nœud suivant sur l'itinéraire
+                        backward.update(sourceId, distance, nodeId, edgeId);
+                        backwardQueue.insertOrDecrease(sourceId,
+                                distance - potential(sourceId, startNodeId, endNodeId, startPoint, endPoint));
+                        float cost = distance + forward.distance(sourceId);
+                        if (cost < bestCost) {
+                            bestCost = cost;
+                            meetingNodeId = sourceId;
+                        }
                     }
                 }
+                backward.settle(nodeId);
             }
-            distance[retenir]=MARK; // Marque le nœud visité
+        }
 
+        return meetingNodeId;
+    }
+
+    /**
+     * Méthode privée construisant l'itinéraire trouvé par la recherche bidirectionnelle, formé du chemin mémorisé par
+     * la recherche avant jusqu'au nœud de rencontre puis de celui mémorisé par la recherche arrière
+     *
+     * @param startNodeId   (int) : l'identité du nœud de départ
+     * @param endNodeId     (int) : l'identité du nœud d'arrivée
+     * @param meetingNodeId (int) : l'identité du nœud où les deux recherches se rejoignent
+     * @param forward       (SearchWorkspace) : l'espace de travail de la recherche avant
+     * @param backward      (SearchWorkspace) : l'espace de travail de la recherche arrière
+     * @return (SingleRoute) : l'itinéraire
+     */
+    private SingleRoute createBidirectionalRoad(int startNodeId, int endNodeId, int meetingNodeId,
+                                                SearchWorkspace forward, SearchWorkspace backward) {
+        List<Edge> edges = new ArrayList<>();
+        addForwardEdges(edges, startNodeId, meetingNodeId, forward);
+        // On complète l'itinéraire en suivant les nœuds suivants mémorisés par la recherche arrière
+        int noeud1 = meetingNodeId;
+        while (noeud1 != endNodeId) {
+            int noeud2 = backward.predecessor(noeud1);
+            edges.add(Edge.of(graph, backward.edge(noeud1), noeud1, noeud2));
+            noeud1 = noeud2;
         }
-        return null;
+        return new SingleRoute(edges);
+    }
+
+    /**
+     * Méthode privée retournant le facteur de coût de l'arête donnée, lu directement dans la colonne mémorisée si la
+     * fonction de coût en a une
+     *
+     * @param nodeId (int) : l'identité du nœud de départ de l'arête
+     * @param edgeId (int) : l'identité de l'arête
+     * @return (double) : le facteur de coût de l'arête
+     */
+    private double costFactor(int nodeId, int edgeId) {
+        return cachedCostFunction != null
+                ? cachedCostFunction.factor(edgeId)
+                : costFunction.costFactor(nodeId, edgeId);
+    }
+
+    /**
+     * Méthode privée retournant le potentiel moyen du nœud donné, utilisé par la recherche bidirectionnelle
+     *
+     * @param nodeId      (int) : l'identité du nœud
+     * @param startNodeId (int) : l'identité du nœud de départ
+     * @param endNodeId   (int) : l'identité du nœud d'arrivée
+     * @param startPoint  (PointCh) : la position du nœud de départ
+     * @param endPoint    (PointCh) : la position du nœud d'arrivée
+     * @return (float) : le potentiel du nœud
+     */
+    private float potential(int nodeId, int startNodeId, int endNodeId, PointCh startPoint, PointCh endPoint) {
+        return (lowerBound(nodeId, endNodeId, endPoint, true) - lowerBound(nodeId, startNodeId, startPoint, false)) / 2;
     }
 
+    /**
+     * Méthode privée retournant une borne inférieure du coût du meilleur itinéraire reliant le nœud donné à l'autre
+     * nœud donné : la distance à vol d'oiseau (le facteur de coût valant au moins 1) ou, si elle est plus grande, la
+     * borne donnée par les points de repère. Cette dernière est très légèrement réduite afin que les erreurs
+     * d'arrondi des coûts, calculés en float, ne puissent la rendre supérieure au coût réel.
+     *
+     * @param nodeId      (int) : l'identité du nœud
+     * @param otherNodeId (int) : l'identité de l'autre nœud
+     * @param otherPoint  (PointCh) : la position de l'autre nœud
+     * @param towards     (boolean) : vrai si l'itinéraire va du nœud à l'autre nœud, faux s'il va de l'autre au nœud
+     * @return (float) : la borne inférieure du coût
+     */
+    private float lowerBound(int nodeId, int otherNodeId, PointCh otherPoint, boolean towards) {
+        float bound = (float) graph.nodePoint(nodeId).distanceTo(otherPoint);
+        if (landmarks == null) return bound;
+        float landmarkBound = towards
+                ? landmarks.lowerBound(nodeId, otherNodeId)
+                : landmarks.lowerBound(otherNodeId, nodeId);
+        return Math.max(bound, LANDMARK_BOUND_FACTOR * landmarkBound);
+    }
+
+    private SingleRoute createRoad(int endNodeId, int startNodeId, SearchWorkspace workspace){
+        List<Edge> edges = new ArrayList<>(); // On crée une liste d'arêtes
+        addForwardEdges(edges, startNodeId, endNodeId, workspace);
+        return new SingleRoute(edges);
+    }
 
-    private SingleRoute createRoad(int endNodeId, int startNodeId, int[] predecesseur, int[] arrete){
+    /**
+     * Méthode privée ajoutant à la liste donnée, dans l'ordre, les arêtes du chemin allant du nœud de départ au nœud
+     * d'arrivée donnés, tel que mémorisé par les prédécesseurs de l'espace de travail
+     *
+     * @param edges       (List<Edge>) : la liste à laquelle ajouter les arêtes
+     * @param startNodeId (int) : l'identité du nœud de départ
+     * @param endNodeId   (int) : l'identité du nœud d'arrivée
+     * @param workspace   (SearchWorkspace) : l'espace de travail de la recherche
+     */
+    private void addForwardEdges(List<Edge> edges, int startNodeId, int endNodeId, SearchWorkspace workspace) {
         List<Integer> noeudsTrajet = new ArrayList<>(); // Création d'une liste des nœuds du chemin
         int k = endNodeId;
         noeudsTrajet.add(k);
         while (k != startNodeId) { // Remplissage des nœuds du trajet (de la fin vers le début)
-            k = predecesseur[k];
+            k = workspace.predecessor(k);
             noeudsTrajet.add(k);
         }
 
-        List<Edge> edges = new ArrayList<>(); // On crée une liste d'arêtes
-
         int noeud1 = noeudsTrajet.remove(noeudsTrajet.size() - 1);
         while (noeudsTrajet.size() >= 1) { // Construction des arêtes à partir des nœuds
             int noeud2 = noeudsTrajet.remove(noeudsTrajet.size() - 1);
-            Edge edge = Edge.of(graph, arrete[noeud2], noeud1, noeud2);
+            Edge edge = Edge.of(graph, workspace.edge(noeud2), noeud1, noeud2);
             edges.add(edge);
             noeud1=noeud2;
         }
-        return new SingleRoute(edges);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.Preconditions;
+
+/**
+ * Enregistrement représentant la matrice des meilleurs itinéraires entre des nœuds de départ (les lignes) et des nœuds
+ * d'arrivée (les colonnes) : le coût de chacun d'eux et sa longueur, rangés ligne par ligne. Lorsqu'aucun itinéraire
+ * n'existe, le coût et la longueur valent l'infini positif.
+ * <p>
+ * Les tableaux des coûts et des longueurs ne sont pas copiés : ceux retournés par {@link #costs()} et
+ * {@link #lengths()} sont partagés et ne doivent pas être modifiés.
+ *
+ * @param rowCount    (int) : le nombre de lignes, c.-à-d. de nœuds de départ
+ * @param columnCount (int) : le nombre de colonnes, c.-à-d. de nœuds d'arrivée
+ * @param costs       (float[]) : le coût de chaque itinéraire
+ * @param lengths     (float[]) : la longueur de chaque itinéraire, en mètres
+ * @author : Roxanne Chevalley (339716)
+ */
+public record RouteMatrix(int rowCount, int columnCount, float[] costs, float[] lengths) {
+
+    /**
+     * Construit une matrice à partir des coûts et longueurs donnés, rangés ligne par ligne
+     *
+     * @throws IllegalArgumentException si le nombre de lignes ou de colonnes est négatif, ou si le nombre de coûts
+     *                                  ou de longueurs ne correspond pas à la taille de la matrice
+     * @throws ArithmeticException      si la taille de la matrice dépasse la capacité d'un entier
+     */
+    public RouteMatrix {
+        Preconditions.checkArgument(rowCount >= 0 && columnCount >= 0);
+        int size = Math.multiplyExact(rowCount, columnCount);
+        Preconditions.checkArgument(costs.length == size);
+        Preconditions.checkArgument(lengths.length == size);
+    }
+
+    /**
+     * Méthode retournant le coût du meilleur itinéraire allant du nœud de départ d'index donné au nœud d'arrivée
+     * d'index donné
+     *
+     * @param row    (int) : l'index du nœud de départ
+     * @param column (int) : l'index du nœud d'arrivée
+     * @return (float) : le coût de l'itinéraire, infini s'il n'existe pas
+     */
+    public float cost(int row, int column) {
+        return costs[index(row, column)];
+    }
+
+    /**
+     * Méthode retournant la longueur du meilleur itinéraire allant du nœud de départ d'index donné au nœud d'arrivée
+     * d'index donné
+     *
+     * @param row    (int) : l'index du nœud de départ
+     * @param column (int) : l'index du nœud d'arrivée
+     * @return (float) : la longueur de l'itinéraire en mètres, infinie s'il n'existe pas
+     */
+    public float length(int row, int column) {
+        return lengths[index(row, column)];
+    }
+
+    private int index(int row, int column) {
+        if (row < 0 || row >= rowCount || column < 0 || column >= columnCount)
+            throw new IndexOutOfBoundsException();
+        return row * columnCount + column;
+    }
+
+}
@@ -0,0 +1,352 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.Preconditions;
+import ch.epfl.javelo.data.Graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Classe publique et immuable calculant les matrices de coûts et de longueurs des meilleurs itinéraires entre des
+ * nœuds de départ et des nœuds d'arrivée, sans construire les itinéraires eux-mêmes. Les lignes de la matrice sont
+ * calculées en parallèle.
+ * <p>
+ * Sans hiérarchie de contraction, chaque ligne est obtenue par une unique recherche (algorithme de Dijkstra) partant
+ * de son nœud de départ et s'arrêtant dès que tous les nœuds d'arrivée ont été visités. Avec une hiérarchie, on
+ * utilise la méthode des « seaux » : une recherche arrière montante depuis chaque nœud d'arrivée dépose, dans le seau
+ * de chaque nœud visité, son coût jusqu'à ce nœud d'arrivée ; une recherche avant montante depuis chaque nœud de
+ * départ n'a alors plus qu'à parcourir les seaux des nœuds qu'elle visite.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class RouteMatrixComputer {
+
+    private static final int INITIAL_SEARCH_SPACE = 256;
+
+    private final Graph graph;
+    private final CostFunction costFunction; // null si une hiérarchie de contraction est utilisée
+    private final ContractionHierarchy hierarchy; // null sinon
+    // Réserve d'espaces de travail réutilisés d'une recherche à l'autre, quel que soit le fil d'exécution ; la
+    // colonne supplémentaire de chacun mémorise la longueur de l'itinéraire menant à chaque nœud visité
+    private final SearchWorkspacePool workspaces;
+
+    /**
+     * Construit un calculateur de matrices pour le graphe et la fonction de coût donnés
+     *
+     * @param graph        (Graph) : le graphe donné
+     * @param costFunction (CostFunction) : la fonction de coût donnée
+     */
+    public RouteMatrixComputer(Graph graph, CostFunction costFunction) {
+        this(graph, costFunction, null);
+    }
+
+    /**
+     * Construit un calculateur de matrices pour le graphe et la hiérarchie de contraction donnés ; les coûts sont
+     * ceux de la fonction de coût avec laquelle la hiérarchie a été calculée
+     *
+     * @param graph     (Graph) : le graphe donné
+     * @param hierarchy (ContractionHierarchy) : la hiérarchie de contraction calculée sur ce graphe
+     * @throws IllegalArgumentException si la hiérarchie n'a pas le même nombre de nœuds que le graphe
+     */
+    public RouteMatrixComputer(Graph graph, ContractionHierarchy hierarchy) {
+        this(graph, null, hierarchy);
+        Preconditions.checkArgument(hierarchy.nodeCount() == graph.nodeCount());
+    }
+
+    private RouteMatrixComputer(Graph graph, CostFunction costFunction, ContractionHierarchy hierarchy) {
+        this.graph = graph;
+        this.costFunction = costFunction;
+        this.hierarchy = hierarchy;
+        this.workspaces = new SearchWorkspacePool(graph.nodeCount());
+    }
+
+    /**
+     * Méthode retournant la matrice des meilleurs itinéraires allant de chacun des nœuds de départ donnés à chacun
+     * des nœuds d'arrivée donnés. L'itinéraire allant d'un nœud à lui-même a un coût et une longueur nuls.
+     *
+     * @param startNodeIds (int[]) : les identités des nœuds de départ (les lignes)
+     * @param endNodeIds   (int[]) : les identités des nœuds d'arrivée (les colonnes)
+     * @return (RouteMatrix) : la matrice des coûts et longueurs des itinéraires
+     * @throws ArithmeticException si la taille de la matrice dépasse la capacité d'un entier
+     */
+    public RouteMatrix matrixBetween(int[] startNodeIds, int[] endNodeIds) {
+        int rowCount = startNodeIds.length;
+        int columnCount = endNodeIds.length;
+        int size = Math.multiplyExact(rowCount, columnCount);
+        float[] costs = new float[size];
+        float[] lengths = new float[size];
+        Arrays.fill(costs, Float.POSITIVE_INFINITY);
+        Arrays.fill(lengths, Float.POSITIVE_INFINITY);
+
+        if (hierarchy == null) {
+            BitSet targets = new BitSet(graph.nodeCount());
+            for (int endNodeId : endNodeIds) targets.set(endNodeId);
+            IntStream.range(0, rowCount)
+                    .parallel()
+                    .forEach(row -> oneToMany(startNodeIds[row], endNodeIds, targets,
+                            costs, lengths, row * columnCount));
+        } else {
+            Buckets buckets = buckets(endNodeIds);
+            IntStream.range(0, rowCount)
+                    .parallel()
+                    .forEach(row -> scanBuckets(startNodeIds[row], buckets, costs, lengths, row * columnCount));
+        }
+        return new RouteMatrix(rowCount, columnCount, costs, lengths);
+    }
+
+    /**
+     * Méthode privée calculant une ligne de la matrice au moyen d'une recherche partant du nœud de départ donné et
+     * s'arrêtant dès que tous les nœuds d'arrivée ont été visités
+     *
+     * @param startNodeId (int) : l'identité du nœud de départ
+     * @param endNodeIds  (int[]) : les identités des nœuds d'arrivée
+     * @param targets     (BitSet) : l'ensemble des nœuds d'arrivée
+     * @param costs       (float[]) : les coûts de la matrice
+     * @param lengths     (float[]) : les longueurs de la matrice
+     * @param rowOffset   (int) : l'index, dans la matrice, du premier élément de la ligne
+     */
+    private void oneToMany(int startNodeId, int[] endNodeIds, BitSet targets, float[] costs, float[] lengths,
+                           int rowOffset) {
+        SearchWorkspace workspace = workspaces.acquire();
+        try {
+            oneToMany(startNodeId, endNodeIds, targets, costs, lengths, rowOffset, workspace);
+        } finally {
+            workspaces.release(workspace);
+        }
+    }
+
+    /**
+     * Méthode privée calculant une ligne de la matrice, comme la précédente, dans l'espace de travail donné
+     */
+    private void oneToMany(int startNodeId, int[] endNodeIds, BitSet targets, float[] costs, float[] lengths,
+                           int rowOffset, SearchWorkspace workspace) {
+        float[] nodeLength = workspace.values();
+        NodeHeap queue = workspace.heap();
+        workspace.reset();
+        workspace.update(startNodeId, 0, startNodeId, -1);
+        queue.insertOrDecrease(startNodeId, 0);
+
+        int remaining = targets.cardinality();
+        while (!queue.isEmpty() && remaining > 0) {
+            int nodeId = queue.removeMin();
+            workspace.settle(nodeId);
+            nodeLength[nodeId] = nodeId == startNodeId
+                    ? 0
+                    : (float) (nodeLength[workspace.predecessor(nodeId)] + graph.edgeLength(workspace.edge(nodeId)));
+            if (targets.get(nodeId)) remaining -= 1;
+
+            float nodeDistance = workspace.distance(nodeId);
+            int outDegree = graph.nodeOutDegree(nodeId);
+            for (int i = 0; i < outDegree; i++) {
+                int edgeId = graph.nodeOutEdgeId(nodeId, i);
+                int targetId = graph.edgeTargetNodeId(edgeId);
+                if (workspace.isSettled(targetId)) continue;
+                float distance = (float) (nodeDistance
+                        + graph.edgeLength(edgeId) * costFunction.costFactor(nodeId, edgeId));
+                if (distance < workspace.distance(targetId)) {
+                    workspace.update(targetId, distance, nodeId, edgeId);
+                    queue.insertOrDecrease(targetId, distance);
+                }
+            }
+        }
+
+        for (int column = 0; column < endNodeIds.length; column++) {
+            int endNodeId = endNodeIds[column];
+            if (workspace.isSettled(endNodeId)) {
+                costs[rowOffset + column] = workspace.distance(endNodeId);
+                lengths[rowOffset + column] = nodeLength[endNodeId];
+            }
+        }
+    }
+
+    /**
+     * Méthode privée effectuant, dans la hiérarchie, une recherche montante complète depuis le nœud donné et
+     * retournant les nœuds visités ainsi que le coût et la longueur des itinéraires les reliant au nœud donné
+     *
+     * @param nodeId   (int) : l'identité du nœud de départ de la recherche
+     * @param backward (boolean) : vrai pour une recherche arrière (arcs descendants), faux pour une recherche avant
+     *                 (arcs montants)
+     * @param column   (int) : la colonne à associer aux nœuds visités
+     * @return (SearchSpace) : les nœuds visités par la recherche
+     */
+    private SearchSpace upwardSearch(int nodeId, boolean backward, int column) {
+        SearchWorkspace workspace = workspaces.acquire();
+        try {
+            return upwardSearch(nodeId, backward, column, workspace);
+        } finally {
+            workspaces.release(workspace);
+        }
+    }
+
+    /**
+     * Méthode privée effectuant une recherche montante, comme la précédente, dans l'espace de travail donné
+     */
+    private SearchSpace upwardSearch(int nodeId, boolean backward, int column, SearchWorkspace workspace) {
+        float[] nodeLength = workspace.values();
+        NodeHeap queue = workspace.heap();
+        workspace.reset();
+        workspace.update(nodeId, 0, nodeId, -1);
+        queue.insertOrDecrease(nodeId, 0);
+
+        SearchSpace space = new SearchSpace(column);
+        while (!queue.isEmpty()) {
+            int current = queue.removeMin();
+            workspace.settle(current);
+            nodeLength[current] = current == nodeId
+                    ? 0
+                    : nodeLength[workspace.predecessor(current)] + hierarchy.arcLength(workspace.edge(current));
+            float currentDistance = workspace.distance(current);
+            space.add(current, currentDistance, nodeLength[current]);
+
+            int degree = backward ? hierarchy.downDegree(current) : hierarchy.upDegree(current);
+            for (int i = 0; i < degree; i++) {
+                int arcId = backward ? hierarchy.downArcId(current, i) : hierarchy.upArcId(current, i);
+                int neighbour = backward ? hierarchy.arcFromNodeId(arcId) : hierarchy.arcToNodeId(arcId);
+                if (workspace.isSettled(neighbour)) continue;
+                float distance = currentDistance + hierarchy.arcCost(arcId);
+                if (distance < workspace.distance(neighbour)) {
+                    workspace.update(neighbour, distance, current, arcId);
+                    queue.insertOrDecrease(neighbour, distance);
+                }
+            }
+        }
+        return space;
+    }
+
+    /**
+     * Méthode privée calculant en parallèle les recherches arrière depuis les nœuds d'arrivée donnés et rangeant
+     * leurs résultats dans les seaux des nœuds visités
+     *
+     * @param endNodeIds (int[]) : les identités des nœuds d'arrivée
+     * @return (Buckets) : les seaux
+     */
+    private Buckets buckets(int[] endNodeIds) {
+        List<SearchSpace> spaces = IntStream.range(0, endNodeIds.length)
+                .parallel()
+                .mapToObj(column -> upwardSearch(endNodeIds[column], true, column))
+                .collect(Collectors.toList());
+
+        int entryCount = 0;
+        for (SearchSpace space : spaces) entryCount += space.size;
+
+        // On trie les entrées par nœud, en gardant dans les bits de poids faible leur position d'origine
+        long[] keys = new long[entryCount];
+        int index = 0;
+        for (int s = 0; s < spaces.size(); s++) {
+            SearchSpace space = spaces.get(s);
+            for (int i = 0; i < space.size; i++) {
+                keys[index] = ((long) space.nodeIds[i] << Integer.SIZE) | index;
+                index += 1;
+            }
+        }
+        Arrays.sort(keys);
+
+        float[] allCosts = new float[entryCount];
+        float[] allLengths = new float[entryCount];
+        int[] allColumns = new int[entryCount];
+        index = 0;
+        for (SearchSpace space : spaces) {
+            for (int i = 0; i < space.size; i++) {
+                allCosts[index] = space.costs[i];
+                allLengths[index] = space.lengths[i];
+                allColumns[index] = space.column;
+                index += 1;
+            }
+        }
+
+        int[] nodeIds = new int[entryCount];
+        int[] columns = new int[entryCount];
+        float[] costs = new float[entryCount];
+        float[] lengths = new float[entryCount];
+        for (int i = 0; i < entryCount; i++) {
+            int origin = (int) keys[i];
+            nodeIds[i] = (int) (keys[i] >>> Integer.SIZE);
+            columns[i] = allColumns[origin];
+            costs[i] = allCosts[origin];
+            lengths[i] = allLengths[origin];
+        }
+        return new Buckets(nodeIds, columns, costs, lengths);
+    }
+
+    /**
+     * Méthode privée calculant une ligne de la matrice au moyen d'une recherche avant montante depuis le nœud donné,
+     * en parcourant les seaux de chaque nœud visité
+     *
+     * @param startNodeId (int) : l'identité du nœud de départ
+     * @param buckets     (Buckets) : les seaux remplis par les recherches arrière
+     * @param costs       (float[]) : les coûts de la matrice
+     * @param lengths     (float[]) : les longueurs de la matrice
+     * @param rowOffset   (int) : l'index, dans la matrice, du premier élément de la ligne
+     */
+    private void scanBuckets(int startNodeId, Buckets buckets, float[] costs, float[] lengths, int rowOffset) {
+        SearchSpace space = upwardSearch(startNodeId, false, -1);
+        for (int i = 0; i < space.size; i++) {
+            int nodeId = space.nodeIds[i];
+            for (int entry = buckets.first(nodeId); entry < buckets.nodeIds.length
+                    && buckets.nodeIds[entry] == nodeId; entry++) {
+                int index = rowOffset + buckets.columns[entry];
+                float cost = space.costs[i] + buckets.costs[entry];
+                if (cost < costs[index]) {
+                    costs[index] = cost;
+                    lengths[index] = space.lengths[i] + buckets.lengths[entry];
+                }
+            }
+        }
+    }
+
+    /**
+     * Classe privée représentant les nœuds visités par une recherche montante, dans l'ordre de leur visite
+     */
+    private static final class SearchSpace {
+        private final int column;
+        private int[] nodeIds = new int[INITIAL_SEARCH_SPACE];
+        private float[] costs = new float[INITIAL_SEARCH_SPACE];
+        private float[] lengths = new float[INITIAL_SEARCH_SPACE];
+        private int size;
+
+        private SearchSpace(int column) {
+            this.column = column;
+        }
+
+        private void add(int nodeId, float cost, float length) {
+            if (size == nodeIds.length) {
+                nodeIds = Arrays.copyOf(nodeIds, 2 * size);
+                costs = Arrays.copyOf(costs, 2 * size);
+                lengths = Arrays.copyOf(lengths, 2 * size);
+            }
+            nodeIds[size] = nodeId;
+            costs[size] = cost;
+            lengths[size] = length;
+            size += 1;
+        }
+    }
+
+    /**
+     * Enregistrement privé représentant le contenu des seaux, trié par nœud : pour chaque entrée, le nœud du seau, la
+     * colonne (nœud d'arrivée) et le coût et la longueur de l'itinéraire allant du nœud à ce nœud d'arrivée
+     */
+    private record Buckets(int[] nodeIds, int[] columns, float[] costs, float[] lengths) {
+
+        /**
+         * Méthode retournant l'index de la première entrée du seau du nœud donné, ou celui de la première entrée d'un
+         * nœud suivant si ce seau est vide
+         *
+         * @param nodeId (int) : l'identité du nœud
+         * @return (int) : l'index de la première entrée
+         */
+        private int first(int nodeId) {
+            int low = 0;
+            int high = nodeIds.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (nodeIds[middle] < nodeId) low = middle + 1;
+                else high = middle;
+            }
+            return low;
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+package ch.epfl.javelo.routing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Classe représentant les statistiques cumulées des recherches d'un ou plusieurs planificateurs d'itinéraire, destinée
+ * à être lue périodiquement par un exportateur de métriques. Elle peut être alimentée et lue simultanément par
+ * plusieurs fils d'exécution ; les valeurs lues pendant qu'une recherche est enregistrée peuvent ne refléter que
+ * partiellement cette dernière.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+public final class RouteMetrics {
+
+    private final LongAdder queryCount = new LongAdder();
+    private final LongAdder routeCount = new LongAdder();
+    private final LongAdder settledNodes = new LongAdder();
+    private final LongAdder relaxedEdges = new LongAdder();
+    private final LongAdder heapPushes = new LongAdder();
+    private final Histogram settledNodesHistogram = new Histogram();
+    private final Histogram maxHeapSizeHistogram = new Histogram();
+    private final Histogram searchMicros = new Histogram();
+    private final Histogram routeMicros = new Histogram();
+
+    /**
+     * Méthode ajoutant aux statistiques cumulées celles d'une recherche
+     *
+     * @param statistics (RouteStatistics) : les statistiques de la recherche
+     * @param found      (boolean) : vrai ssi la recherche a trouvé un itinéraire
+     */
+    public void record(RouteStatistics statistics, boolean found) {
+        queryCount.increment();
+        if (found) routeCount.increment();
+        settledNodes.add(statistics.settledNodes());
+        relaxedEdges.add(statistics.relaxedEdges());
+        heapPushes.add(statistics.heapPushes());
+        settledNodesHistogram.record(statistics.settledNodes());
+        maxHeapSizeHistogram.record(statistics.maxHeapSize());
+        searchMicros.record(TimeUnit.NANOSECONDS.toMicros(statistics.searchNanos()));
+        routeMicros.record(TimeUnit.NANOSECONDS.toMicros(statistics.routeNanos()));
+    }
+
+    /**
+     * Méthode retournant le nombre de recherches enregistrées
+     *
+     * @return (long) : le nombre de recherches
+     */
+    public long queryCount() {
+        return queryCount.sum();
+    }
+
+    /**
+     * Méthode retournant le nombre de recherches enregistrées ayant trouvé un itinéraire
+     *
+     * @return (long) : le nombre d'itinéraires trouvés
+     */
+    public long routeCount() {
+        return routeCount.sum();
+    }
+
+    /**
+     * Méthode retournant le nombre total de nœuds visités par les recherches enregistrées
+     *
+     * @return (long) : le nombre de nœuds visités
+     */
+    public long settledNodes() {
+        return settledNodes.sum();
+    }
+
+    /**
+     * Méthode retournant le nombre total d'arêtes examinées lors des recherches enregistrées
+     *
+     * @return (long) : le nombre d'arêtes relâchées
+     */
+    public long relaxedEdges() {
+        return relaxedEdges.sum();
+    }
+
+    /**
+     * Méthode retournant le nombre total d'entrées ajoutées aux files de priorité par les recherches enregistrées
+     *
+     * @return (long) : le nombre d'entrées ajoutées
+     */
+    public long heapPushes() {
+        return heapPushes.sum();
+    }
+
+    /**
+     * Méthode retournant l'histogramme du nombre de nœuds visités par recherche
+     *
+     * @return (Histogram) : l'histogramme, mis à jour à chaque recherche enregistrée
+     */
+    public Histogram settledNodesHistogram() {
+        return settledNodesHistogram;
+    }
+
+    /**
+     * Méthode retournant l'histogramme de la taille maximale des files de priorité par recherche
+     *
+     * @return (Histogram) : l'histogramme, mis à jour à chaque recherche enregistrée
+     */
+    public Histogram maxHeapSizeHistogram() {
+        return maxHeapSizeHistogram;
+    }
+
+    /**
+     * Méthode retournant l'histogramme des durées d'exploration du graphe, en microsecondes
+     *
+     * @return (Histogram) : l'histogramme, mis à jour à chaque recherche enregistrée
+     */
+    public Histogram searchMicros() {
+        return searchMicros;
+    }
+
+    /**
+     * Méthode retournant l'histogramme des durées de construction des itinéraires, en microsecondes
+     *
+     * @return (Histogram) : l'histogramme, mis à jour à chaque recherche enregistrée
+     */
+    public Histogram routeMicros() {
+        return routeMicros;
+    }
+
+}
@@ -0,0 +1,62 @@
+package ch.epfl.javelo.routing;
+
+import jdk.jfr.*;
+
+/**
+ * Événement Java Flight Recorder émis par chaque recherche d'itinéraire, dont la durée est celle de la recherche,
+ * construction de l'itinéraire comprise ; il n'est créé que si un enregistrement actif l'a activé (voir
+ * beginIfEnabled), une recherche n'allouant donc rien en l'absence d'enregistrement
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+@Name("ch.epfl.javelo.RouteSearch")
+@Label("Route Search")
+@Category({"JaVelo", "Routing"})
+@Description("Recherche du meilleur itinéraire entre deux nœuds")
+@StackTrace(false)
+final class RouteSearchEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(RouteSearchEvent.class);
+
+    @Label("Start Node")
+    private int startNodeId;
+
+    @Label("End Node")
+    private int endNodeId;
+
+    @Label("Settled Nodes")
+    private int settledNodes;
+
+    @Label("Route Found")
+    private boolean found;
+
+    /**
+     * Méthode créant et commençant un événement si un enregistrement actif l'a activé
+     *
+     * @return (RouteSearchEvent) : l'événement commencé, ou null si aucun enregistrement actif ne l'a activé
+     */
+    static RouteSearchEvent beginIfEnabled() {
+        if (!TYPE.isEnabled()) return null;
+        RouteSearchEvent event = new RouteSearchEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Méthode terminant l'événement et l'enregistrant, si l'enregistrement est actif, avec les valeurs données
+     *
+     * @param startNodeId  (int) : l'identité du nœud de départ
+     * @param endNodeId    (int) : l'identité du nœud d'arrivée
+     * @param settledNodes (int) : le nombre de nœuds visités
+     * @param found        (boolean) : vrai ssi un itinéraire a été trouvé
+     */
+    void commit(int startNodeId, int endNodeId, int settledNodes, boolean found) {
+        if (!shouldCommit()) return;
+        this.startNodeId = startNodeId;
+        this.endNodeId = endNodeId;
+        this.settledNodes = settledNodes;
+        this.found = found;
+        commit();
+    }
+
+}
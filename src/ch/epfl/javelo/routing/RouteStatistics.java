@@ -0,0 +1,43 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.Preconditions;
+
+/**
+ * Enregistrement représentant les statistiques d'une recherche d'itinéraire, additionnées sur les deux sens pour la
+ * recherche bidirectionnelle. Une recherche écartée d'emblée, son nœud d'arrivée étant inaccessible, n'a visité
+ * aucun nœud.
+ *
+ * @param settledNodes (int) : le nombre de nœuds visités
+ * @param relaxedEdges (int) : le nombre d'arêtes examinées lors de l'exploration des nœuds visités, qu'elles aient
+ *                     amélioré ou non la distance de leur extrémité
+ * @param heapPushes   (int) : le nombre d'entrées ajoutées aux files de priorité
+ * @param maxHeapSize  (int) : la taille maximale atteinte par les files de priorité ; pour la recherche
+ *                     bidirectionnelle, la plus grande taille totale des deux files à un même instant
+ * @param searchNanos  (long) : la durée de l'exploration du graphe, en nanosecondes
+ * @param routeNanos   (long) : la durée de la construction de l'itinéraire à partir des nœuds explorés, en
+ *                     nanosecondes (0 si aucun itinéraire n'a été trouvé)
+ * @author : Roxanne Chevalley (339716)
+ */
+public record RouteStatistics(int settledNodes, int relaxedEdges, int heapPushes, int maxHeapSize,
+                              long searchNanos, long routeNanos) {
+
+    /**
+     * Constructeur compact validant les statistiques
+     *
+     * @throws IllegalArgumentException si l'une des valeurs est négative
+     */
+    public RouteStatistics {
+        Preconditions.checkArgument(settledNodes >= 0 && relaxedEdges >= 0 && heapPushes >= 0 && maxHeapSize >= 0
+                && searchNanos >= 0 && routeNanos >= 0);
+    }
+
+    /**
+     * Méthode retournant la durée totale de la recherche, en nanosecondes
+     *
+     * @return (long) : la durée de l'exploration et de la construction de l'itinéraire
+     */
+    public long totalNanos() {
+        return searchNanos + routeNanos;
+    }
+
+}
@@ -0,0 +1,212 @@
+package ch.epfl.javelo.routing;
+
+import java.util.Arrays;
+
+/**
+ * Classe représentant l'espace de travail réutilisable d'une recherche d'itinéraire : distance, prédécesseur et arête
+ * de chaque nœud ainsi que la file de priorité. Plutôt que de réinitialiser tous les tableaux à chaque recherche, on
+ * associe à chaque nœud le numéro (génération) de la dernière recherche l'ayant atteint, ou son opposé si elle l'a
+ * visité ; une entrée dont la génération n'est pas la génération courante est considérée comme non atteinte. Le coût
+ * d'une recherche est ainsi proportionnel au nombre de nœuds qu'elle explore.
+ * <p>
+ * Une instance ne doit être utilisée que par un seul fil d'exécution à la fois.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+final class SearchWorkspace {
+
+    private static final float UNREACHED = Float.POSITIVE_INFINITY;
+
+    private final float[] distance;
+    private final int[] predecessor;
+    private final int[] edge;
+    private final int[] generations;
+    private final NodeHeap heap;
+    private float[] values; // colonne supplémentaire, allouée à la première utilisation
+    private int generation;
+    private int settledCount;
+    private int examinedCount;
+    private int maxQueueSize;
+
+    /**
+     * Construit un espace de travail pour un graphe comportant le nombre de nœuds donné
+     *
+     * @param nodeCount (int) : le nombre de nœuds du graphe
+     */
+    SearchWorkspace(int nodeCount) {
+        this.distance = new float[nodeCount];
+        this.predecessor = new int[nodeCount];
+        this.edge = new int[nodeCount];
+        this.generations = new int[nodeCount];
+        this.heap = new NodeHeap(nodeCount);
+        this.generation = 0;
+    }
+
+    /**
+     * Méthode préparant l'espace de travail pour une nouvelle recherche, en temps constant (sauf lorsque le compteur
+     * de générations déborde, ce qui n'arrive qu'une fois toutes les 2^31 recherches)
+     */
+    void reset() {
+        heap.clear();
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(generations, 0);
+            generation = 0;
+        }
+        generation += 1;
+        settledCount = 0;
+        examinedCount = 0;
+        maxQueueSize = 0;
+    }
+
+    /**
+     * Méthode retournant la file de priorité de l'espace de travail
+     *
+     * @return (NodeHeap) : la file de priorité
+     */
+    NodeHeap heap() {
+        return heap;
+    }
+
+    /**
+     * Méthode retournant une colonne supplémentaire contenant une valeur par nœud, qu'une recherche peut utiliser pour
+     * associer une seconde grandeur à chaque nœud visité (p. ex. la longueur lorsqu'elle minimise le coût). Allouée à
+     * la première utilisation, elle est réutilisée avec l'espace de travail et n'est jamais réinitialisée : seules les
+     * valeurs écrites par la recherche courante doivent être lues.
+     *
+     * @return (float[]) : la colonne, indexée par l'identité des nœuds
+     */
+    float[] values() {
+        if (values == null) values = new float[distance.length];
+        return values;
+    }
+
+    /**
+     * Méthode retournant le nombre de nœuds visités depuis le début de la recherche courante
+     *
+     * @return (int) : le nombre de nœuds visités
+     */
+    int settledCount() {
+        return settledCount;
+    }
+
+    /**
+     * Méthode comptant les arêtes examinées lors de l'exploration d'un nœud, qu'elles améliorent ou non la distance
+     * de leur extrémité
+     *
+     * @param edgeCount (int) : le nombre d'arêtes examinées, c.-à-d. le degré du nœud exploré
+     */
+    void examine(int edgeCount) {
+        examinedCount += edgeCount;
+    }
+
+    /**
+     * Méthode retournant le nombre d'arêtes examinées depuis le début de la recherche courante
+     *
+     * @return (int) : le nombre d'arêtes examinées
+     */
+    int examinedCount() {
+        return examinedCount;
+    }
+
+    /**
+     * Méthode mémorisant la taille donnée des files de priorité de la recherche courante si elle est la plus grande
+     * observée jusque-là ; elle permet de suivre la taille totale des deux files de la recherche bidirectionnelle
+     *
+     * @param queueSize (int) : la taille totale des files
+     */
+    void observeQueueSize(int queueSize) {
+        if (queueSize > maxQueueSize) maxQueueSize = queueSize;
+    }
+
+    /**
+     * Méthode retournant la plus grande taille donnée à observeQueueSize depuis le début de la recherche courante
+     *
+     * @return (int) : la plus grande taille totale des files
+     */
+    int maxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     * Méthode retournant la meilleure distance connue jusqu'au nœud donné (définitive s'il a été visité), ou l'infini
+     * positif s'il n'a pas encore été atteint
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (float) : la distance du nœud
+     */
+    float distance(int nodeId) {
+        return isReached(nodeId) ? distance[nodeId] : UNREACHED;
+    }
+
+    /**
+     * Méthode retournant vrai ssi le nœud donné a déjà été visité lors de la recherche courante
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (boolean) : vrai ssi le nœud a été visité
+     */
+    boolean isSettled(int nodeId) {
+        return generations[nodeId] == -generation;
+    }
+
+    /**
+     * Méthode retournant vrai ssi le nœud donné a été atteint (visité ou non) lors de la recherche courante
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (boolean) : vrai ssi le nœud a été atteint
+     */
+    boolean isReached(int nodeId) {
+        int nodeGeneration = generations[nodeId];
+        return nodeGeneration == generation || nodeGeneration == -generation;
+    }
+
+    /**
+     * Méthode mémorisant une nouvelle meilleure distance pour le nœud donné, qui ne doit pas avoir été visité, ainsi
+     * que le nœud et l'arête par lesquels on l'atteint
+     *
+     * @param nodeId          (int) : l'identité du nœud
+     * @param nodeDistance    (float) : la distance jusqu'au nœud
+     * @param predecessorId   (int) : l'identité du nœud prédécesseur
+     * @param edgeId          (int) : l'identité de l'arête reliant le prédécesseur au nœud
+     */
+    void update(int nodeId, float nodeDistance, int predecessorId, int edgeId) {
+        assert !isSettled(nodeId);
+        distance[nodeId] = nodeDistance;
+        predecessor[nodeId] = predecessorId;
+        edge[nodeId] = edgeId;
+        generations[nodeId] = generation;
+    }
+
+    /**
+     * Méthode marquant le nœud donné, déjà atteint, comme visité ; sa distance devient alors définitive
+     *
+     * @param nodeId (int) : l'identité du nœud
+     */
+    void settle(int nodeId) {
+        assert generations[nodeId] == generation;
+        generations[nodeId] = -generation;
+        settledCount += 1;
+    }
+
+    /**
+     * Méthode retournant le prédécesseur du nœud donné, qui doit avoir été atteint
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (int) : l'identité du prédécesseur
+     */
+    int predecessor(int nodeId) {
+        assert isReached(nodeId);
+        return predecessor[nodeId];
+    }
+
+    /**
+     * Méthode retournant l'arête par laquelle le nœud donné, qui doit avoir été atteint, est atteint
+     *
+     * @param nodeId (int) : l'identité du nœud
+     * @return (int) : l'identité de l'arête
+     */
+    int edge(int nodeId) {
+        assert isReached(nodeId);
+        return edge[nodeId];
+    }
+
+}
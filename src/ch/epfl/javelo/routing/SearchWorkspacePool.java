@@ -0,0 +1,58 @@
+package ch.epfl.javelo.routing;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Classe représentant une réserve d'espaces de travail partagée entre les fils d'exécution. Contrairement à un
+ * ThreadLocal, elle ne crée pas un espace de travail par fil d'exécution mais seulement autant qu'il y a de
+ * recherches simultanées, ce qui la rend adaptée aux fils virtuels, créés pour chaque requête. Les espaces de travail
+ * sont réutilisés dans l'ordre inverse de leur restitution, le dernier rendu étant le plus susceptible d'être encore
+ * en cache.
+ *
+ * @author : Roxanne Chevalley (339716)
+ */
+final class SearchWorkspacePool {
+
+    private final int nodeCount;
+    private final ConcurrentLinkedDeque<SearchWorkspace> available = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Construit une réserve, initialement vide, d'espaces de travail pour un graphe comportant le nombre de nœuds
+     * donné
+     *
+     * @param nodeCount (int) : le nombre de nœuds du graphe
+     */
+    SearchWorkspacePool(int nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     * Méthode retirant un espace de travail de la réserve, ou en créant un nouveau si elle est vide ; il doit être
+     * rendu au moyen de release une fois la recherche terminée
+     *
+     * @return (SearchWorkspace) : l'espace de travail, à l'usage exclusif de l'appelant jusqu'à sa restitution
+     */
+    SearchWorkspace acquire() {
+        SearchWorkspace workspace = available.pollFirst();
+        return workspace != null ? workspace : new SearchWorkspace(nodeCount);
+    }
+
+    /**
+     * Méthode rendant à la réserve un espace de travail obtenu au moyen de acquire
+     *
+     * @param workspace (SearchWorkspace) : l'espace de travail, que l'appelant ne doit plus utiliser
+     */
+    void release(SearchWorkspace workspace) {
+        available.offerFirst(workspace);
+    }
+
+    /**
+     * Méthode retournant le nombre d'espaces de travail disponibles dans la réserve
+     *
+     * @return (int) : le nombre d'espaces de travail disponibles
+     */
+    int availableCount() {
+        return available.size();
+    }
+
+}
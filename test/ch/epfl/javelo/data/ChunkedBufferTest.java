@@ -0,0 +1,103 @@
+package ch.epfl.javelo.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedBufferTest {
+
+    private static final int CHUNK_SHIFT = 6;
+
+    private static ByteBuffer randomFile(Path path, int size) throws IOException {
+        var rng = newRandom();
+        byte[] bytes = new byte[size];
+        rng.nextBytes(bytes);
+        Files.write(path, bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    @Test
+    void chunkedBufferReadsTheSameValuesAsAByteBuffer(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("data.bin");
+        ByteBuffer expected = randomFile(path, 1000);
+        ChunkedBuffer actual = ChunkedBuffer.map(path, CHUNK_SHIFT);
+
+        assertEquals(1000, actual.byteSize());
+        for (int offset = 0; offset + Short.BYTES <= 1000; offset += 1)
+            assertEquals(expected.getShort(offset), actual.getShort(offset));
+        for (int offset = 0; offset + Integer.BYTES <= 1000; offset += 1)
+            assertEquals(expected.getInt(offset), actual.getInt(offset));
+        for (int offset = 0; offset + Long.BYTES <= 1000; offset += 1)
+            assertEquals(expected.getLong(offset), actual.getLong(offset));
+    }
+
+    @Test
+    void chunkedBufferReadsValuesStraddlingChunkBoundaries(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("data.bin");
+        ByteBuffer expected = randomFile(path, 4096);
+        ChunkedBuffer actual = ChunkedBuffer.map(path, CHUNK_SHIFT);
+
+        for (int boundary = 1 << CHUNK_SHIFT; boundary < 4096; boundary += 1 << CHUNK_SHIFT) {
+            for (int offset = boundary - Long.BYTES + 1; offset < boundary; offset += 1) {
+                assertEquals(expected.getShort(offset), actual.getShort(offset));
+                assertEquals(expected.getInt(offset), actual.getInt(offset));
+                assertEquals(expected.getLong(offset), actual.getLong(offset));
+            }
+        }
+    }
+
+    @Test
+    void chunkedBufferThrowsOnOutOfBoundsReads(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("data.bin");
+        randomFile(path, 100);
+        ChunkedBuffer buffer = ChunkedBuffer.map(path, CHUNK_SHIFT);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getShort(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getShort(99));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getInt(97));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getLong(93));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getLong(1L << 40));
+        assertDoesNotThrow(() -> buffer.getLong(92));
+    }
+
+    @Test
+    void chunkedBufferAcceptsEmptyFiles(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("data.bin");
+        Files.write(path, new byte[0]);
+        ChunkedBuffer buffer = ChunkedBuffer.map(path, CHUNK_SHIFT);
+
+        assertEquals(0, buffer.byteSize());
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getShort(0));
+    }
+
+    @Test
+    void chunkedBufferThrowsOnInvalidChunkShift(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("data.bin");
+        randomFile(path, 100);
+        assertThrows(IllegalArgumentException.class, () -> ChunkedBuffer.map(path, 3));
+        assertThrows(IllegalArgumentException.class, () -> ChunkedBuffer.map(path, 31));
+    }
+
+    @Test
+    void chunkedBufferWorksWithAllChunkSizes(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("data.bin");
+        ByteBuffer expected = randomFile(path, 2000);
+        var rng = newRandom();
+        for (int chunkShift = 4; chunkShift <= 12; chunkShift += 1) {
+            ChunkedBuffer actual = ChunkedBuffer.map(path, chunkShift);
+            for (int i = 0; i < RANDOM_ITERATIONS; i += 1) {
+                int offset = rng.nextInt(2000 - Long.BYTES + 1);
+                assertEquals(expected.getLong(offset), actual.getLong(offset));
+            }
+        }
+    }
+
+}
@@ -2,10 +2,16 @@ package ch.epfl.javelo.data;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
 
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
 import static org.junit.jupiter.api.Assertions.*;
 
 class GraphEdgesTest {
@@ -123,4 +129,112 @@ class GraphEdgesTest {
         edgesBuffer.putShort(8, (short) 2022);
         assertEquals(2022, edges.attributesIndex(0));
     }
-}
\ No newline at end of file
+
+    private static ByteBuffer map(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of("lausanne").resolve(fileName))) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private void putKnownEdge() {
+        edgesBuffer.putInt(0, ~12);
+        edgesBuffer.putShort(4, (short) 0x10_b);
+        edgesBuffer.putShort(6, (short) 0x10_0);
+        edgesBuffer.putShort(8, (short) 2022);
+    }
+
+    @Test
+    void profileSamplesIntoArrayWorksOnKnownEdge() {
+        putKnownEdge();
+        float[] samples = new float[14];
+        Arrays.fill(samples, -1);
+        assertEquals(10, edges.profileSampleCount(0));
+        assertEquals(10, edges.profileSamples(0, samples, 3));
+        float[] expectedSamples = new float[]{
+                -1, -1, -1,
+                384.0625f, 384.125f, 384.25f, 384.3125f, 384.375f,
+                384.4375f, 384.5f, 384.5625f, 384.6875f, 384.75f,
+                -1
+        };
+        assertArrayEquals(expectedSamples, samples);
+        assertThrows(IndexOutOfBoundsException.class, () -> edges.profileSamples(0, new float[14], 5));
+    }
+
+    @Test
+    void profileSamplesIntoArrayWritesNothingWithoutProfile() {
+        putKnownEdge();
+        var noProfile = new GraphEdges(edgesBuffer, IntBuffer.wrap(new int[]{1}), elevations);
+        float[] samples = new float[2];
+        assertEquals(0, noProfile.profileSampleCount(0));
+        assertEquals(0, noProfile.profileSamples(0, samples, 2));
+        assertArrayEquals(new float[2], samples);
+    }
+
+    @Test
+    void profileSamplesDecodesRandomlyEncodedProfiles() {
+        var rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; i += 1) {
+            int type = 1 + rng.nextInt(3);
+            int sampleCount = 1 + rng.nextInt(100);
+            int deltaBits = type == 2 ? 8 : 4;
+            int perShort = type == 1 ? 1 : 16 / deltaBits;
+
+            float[] expected = new float[sampleCount];
+            int first = 16 * 200 + rng.nextInt(16 * 100);
+            expected[0] = first / 16f;
+            short[] encoded = new short[1 + 1 + (sampleCount - 1 + perShort - 1) / perShort];
+            encoded[1] = (short) first;
+            for (int n = 1; n < sampleCount; n += 1) {
+                if (type == 1) {
+                    int value = rng.nextInt(1 << 16);
+                    expected[n] = value / 16f;
+                    encoded[1 + n] = (short) value;
+                } else {
+                    int delta = rng.nextInt(-(1 << (deltaBits - 1)), 1 << (deltaBits - 1));
+                    expected[n] = expected[n - 1] + delta / 16f;
+                    int index = 1 + (n + perShort - 1) / perShort;
+                    int shift = 16 - deltaBits * (1 + (n - 1) % perShort);
+                    encoded[index] |= (short) ((delta & ((1 << deltaBits) - 1)) << shift);
+                }
+            }
+            boolean inverted = rng.nextBoolean();
+            if (inverted) {
+                for (int a = 0, b = sampleCount - 1; a < b; a += 1, b -= 1) {
+                    float tmp = expected[a];
+                    expected[a] = expected[b];
+                    expected[b] = tmp;
+                }
+            }
+
+            ByteBuffer edgeBuffer = ByteBuffer.allocate(10);
+            edgeBuffer.putInt(0, inverted ? ~0 : 0);
+            edgeBuffer.putShort(4, (short) (2 * 16 * (sampleCount - 1)));
+            var randomEdges = new GraphEdges(edgeBuffer,
+                    IntBuffer.wrap(new int[]{(type << 30) | 1}), ShortBuffer.wrap(encoded));
+            assertArrayEquals(expected, randomEdges.profileSamples(0));
+        }
+    }
+
+    @Test
+    void profileSamplesOfManyEdgesThrowsOnInvalidOffsets() {
+        putKnownEdge();
+        assertThrows(IllegalArgumentException.class, () -> edges.profileSamples(new int[]{0}, new int[1]));
+    }
+
+    @Test
+    void profileSamplesOfManyEdgesAreContiguous() throws IOException {
+        GraphEdges graphEdges = new GraphEdges(map("edges.bin"), map("profile_ids.bin").asIntBuffer(),
+                map("elevations.bin").asShortBuffer());
+        int edgeCount = graphEdges.count();
+        int[] edgeIds = new int[Math.min(edgeCount, 500)];
+        for (int i = 0; i < edgeIds.length; i += 1) edgeIds[i] = (int) ((i * 7919L) % edgeCount);
+        int[] offsets = new int[edgeIds.length + 1];
+        float[] samples = graphEdges.profileSamples(edgeIds, offsets);
+
+        assertEquals(samples.length, offsets[edgeIds.length]);
+        for (int i = 0; i < edgeIds.length; i += 1) {
+            float[] expected = graphEdges.profileSamples(edgeIds[i]);
+            assertArrayEquals(expected, Arrays.copyOfRange(samples, offsets[i], offsets[i + 1]));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ch.epfl.javelo.data;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphFileLoadEventTest {
+
+    @Test
+    void graphLoadingEmitsOneEventPerFile(@TempDir Path directory) throws IOException {
+        Path basePath = Path.of("lausanne");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("ch.epfl.javelo.GraphFileLoad");
+            recording.start();
+            Graph.loadFrom(basePath);
+            recording.stop();
+            Path dump = directory.resolve("graph.jfr");
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump);
+        }
+
+        Set<String> expectedFiles = Set.of("nodes.bin", "sectors.bin", "edges.bin", "profile_ids.bin",
+                "elevations.bin", "attributes.bin");
+        assertEquals(expectedFiles.size(), events.size());
+        Set<String> actualFiles = events.stream()
+                .map(e -> Path.of(e.getString("file")).getFileName().toString())
+                .collect(Collectors.toSet());
+        assertEquals(expectedFiles, actualFiles);
+        for (RecordedEvent event : events) {
+            assertEquals(Files.size(Path.of(event.getString("file"))), event.getLong("bytesMapped"));
+        }
+    }
+
+}
@@ -0,0 +1,208 @@
+package ch.epfl.javelo.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphHolderTest {
+
+    private static Graph lausanneGraph() {
+        try {
+            return Graph.loadFrom(Path.of("lausanne"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Données dérivées mémorisant leur graphe et leur fermeture
+    private static final class Derived implements AutoCloseable {
+        private final Graph graph;
+        private volatile boolean closed;
+
+        private Derived(Graph graph) {
+            this.graph = graph;
+        }
+
+        @Override
+        public void close() {
+            assertFalse(closed);
+            closed = true;
+        }
+    }
+
+    @Test
+    void leaseKeepsItsGraphUntilItIsClosed() {
+        Graph first = lausanneGraph();
+        Graph second = lausanneGraph();
+        try (var holder = new GraphHolder<>(first, Graph.LoadOptions.DEFAULT, Derived::new)) {
+            var lease = holder.acquire();
+            Derived firstDerived = lease.derived();
+            assertEquals(1, lease.generation());
+            lease.graph().edgeProfile(0);
+            assertTrue(first.profileCache().size() > 0);
+
+            assertEquals(2, holder.swap(second));
+            assertSame(first, lease.graph());
+            assertSame(first, firstDerived.graph);
+            assertFalse(firstDerived.closed);
+            assertEquals(first.nodeCount(), lease.graph().nodeCount());
+
+            try (var newLease = holder.acquire()) {
+                assertSame(second, newLease.graph());
+                assertSame(second, newLease.derived().graph);
+                assertEquals(2, newLease.generation());
+            }
+
+            lease.close();
+            assertTrue(firstDerived.closed);
+            assertEquals(0, first.profileCache().size());
+            lease.close();
+            assertThrows(IllegalStateException.class, lease::graph);
+        }
+    }
+
+    @Test
+    void swapReleasesThePreviousSnapshotImmediatelyWithoutLeases() {
+        try (var holder = new GraphHolder<>(lausanneGraph(), Graph.LoadOptions.DEFAULT, Derived::new)) {
+            Derived firstDerived;
+            try (var lease = holder.acquire()) {
+                firstDerived = lease.derived();
+            }
+            holder.swap(lausanneGraph());
+            assertTrue(firstDerived.closed);
+            assertEquals(2, holder.generation());
+        }
+    }
+
+    @Test
+    void closeReleasesTheCurrentSnapshotAfterTheLastLease() {
+        var holder = new GraphHolder<>(lausanneGraph(), Graph.LoadOptions.DEFAULT, Derived::new);
+        var lease = holder.acquire();
+        holder.close();
+        assertFalse(lease.derived().closed);
+        Derived derived = lease.derived();
+        lease.close();
+        assertTrue(derived.closed);
+
+        assertThrows(IllegalStateException.class, holder::acquire);
+        assertThrows(IllegalStateException.class, holder::generation);
+        Graph graph = lausanneGraph();
+        assertThrows(IllegalStateException.class, () -> holder.swap(graph));
+        holder.close();
+    }
+
+    @Test
+    void reloadLoadsTheNewGraphInTheBackground() throws Exception {
+        try (var holder = GraphHolder.loadFrom(Path.of("lausanne"), Graph.LoadOptions.DEFAULT, Derived::new)) {
+            Graph first;
+            try (var lease = holder.acquire()) {
+                first = lease.graph();
+            }
+            assertEquals(2, (long) holder.reload(Path.of("lausanne")).get());
+            try (var lease = holder.acquire()) {
+                assertNotSame(first, lease.graph());
+                assertEquals(first.nodeCount(), lease.graph().nodeCount());
+                assertEquals(first.edgeCount(), lease.graph().edgeCount());
+            }
+        }
+    }
+
+    @Test
+    void failedReloadKeepsTheCurrentGraph(@TempDir Path directory) {
+        try (var holder = new GraphHolder<>(lausanneGraph(), Graph.LoadOptions.DEFAULT, Derived::new)) {
+            var exception = assertThrows(ExecutionException.class, () -> holder.reload(directory).get());
+            assertTrue(exception.getCause() instanceof UncheckedIOException);
+            assertEquals(1, holder.generation());
+            try (var lease = holder.acquire()) {
+                assertFalse(lease.derived().closed);
+            }
+        }
+    }
+
+    @Test
+    void failedDerivationKeepsTheCurrentGraph() {
+        Graph first = lausanneGraph();
+        try (var holder = new GraphHolder<Graph>(first, Graph.LoadOptions.DEFAULT, graph -> {
+            if (graph != first) throw new IllegalStateException();
+            return graph;
+        })) {
+            assertThrows(IllegalStateException.class, () -> holder.swap(lausanneGraph()));
+            assertEquals(1, holder.generation());
+            try (var lease = holder.acquire()) {
+                assertSame(first, lease.derived());
+            }
+        }
+    }
+
+    @Test
+    void readersNeverSeeAReleasedGraph() throws Exception {
+        List<Derived> allDerived = new ArrayList<>();
+        try (var holder = new GraphHolder<>(lausanneGraph(), Graph.LoadOptions.DEFAULT, graph -> {
+            Derived derived = new Derived(graph);
+            synchronized (allDerived) {
+                allDerived.add(derived);
+            }
+            return derived;
+        })) {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            AtomicBoolean stop = new AtomicBoolean();
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                readers.add(executor.submit(() -> {
+                    while (!stop.get()) {
+                        try (var lease = holder.acquire()) {
+                            assertFalse(lease.derived().closed);
+                            Graph graph = lease.graph();
+                            for (int edgeId = 0; edgeId < 1000; edgeId++) {
+                                graph.edgeLength(edgeId);
+                                graph.edgeProfile(edgeId);
+                            }
+                        }
+                    }
+                }));
+            }
+            for (int i = 0; i < 5; i++) holder.swap(lausanneGraph());
+            stop.set(true);
+            for (Future<?> reader : readers) reader.get();
+            executor.shutdown();
+
+            assertEquals(6, holder.generation());
+            synchronized (allDerived) {
+                assertEquals(6, allDerived.size());
+                for (int i = 0; i < 5; i++) assertTrue(allDerived.get(i).closed);
+                assertFalse(allDerived.get(5).closed);
+            }
+        }
+    }
+
+    @Test
+    void unmapReleasesOnlyLoadedGraphs() {
+        Graph graph = lausanneGraph();
+        Graph copy = graph.withProfileCache(new ProfileCache(0));
+        assertEquals(MappedBuffers.isSupported(), graph.unmap());
+        // Libérer de nouveau les mêmes projections n'a aucun effet
+        assertEquals(MappedBuffers.isSupported(), copy.unmap());
+
+        var nodes = new GraphNodes(IntBuffer.wrap(new int[]{0, 0, 0}));
+        var sectors = new GraphSectors(ByteBuffer.allocate(6));
+        var edges = new GraphEdges(ByteBuffer.allocate(10), IntBuffer.allocate(1),
+                ShortBuffer.allocate(0));
+        assertFalse(new Graph(nodes, sectors, edges, List.of()).unmap());
+    }
+
+}
@@ -0,0 +1,132 @@
+package ch.epfl.javelo.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphManifestTest {
+
+    private static final List<String> FILE_NAMES = List.of(
+            "nodes.bin", "sectors.bin", "edges.bin", "profile_ids.bin", "elevations.bin", "attributes.bin");
+
+    private static Path copyOfLausanne(Path directory) throws IOException {
+        for (String name : FILE_NAMES) {
+            Files.copy(Path.of("lausanne").resolve(name), directory.resolve(name));
+        }
+        return directory;
+    }
+
+    private static void truncate(Path path, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - bytes);
+        }
+    }
+
+    private static void flipByte(Path path, long position) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[(int) position] ^= 0x5A;
+        Files.write(path, bytes);
+    }
+
+    @Test
+    void graphWithoutManifestIsStillLoaded() throws IOException {
+        assertFalse(Files.exists(Path.of("lausanne").resolve(GraphManifest.FILE_NAME)));
+        assertDoesNotThrow(() -> GraphManifest.verify(Path.of("lausanne"), false));
+        assertDoesNotThrow(() -> Graph.loadFrom(Path.of("lausanne")));
+    }
+
+    @Test
+    void checksumVerificationRequiresManifest() {
+        assertFalse(Files.exists(Path.of("lausanne").resolve(GraphManifest.FILE_NAME)));
+        assertThrows(NoSuchFileException.class, () -> GraphManifest.verify(Path.of("lausanne"), true));
+        assertThrows(NoSuchFileException.class, () -> Graph.loadFrom(Path.of("lausanne"),
+                Graph.LoadOptions.DEFAULT.withChecksumVerification(true)));
+    }
+
+    @Test
+    void truncatedEdgesAreDetectedWithoutManifest(@TempDir Path directory) throws IOException {
+        Path basePath = copyOfLausanne(directory);
+        truncate(basePath.resolve("edges.bin"), 10);
+        assertThrows(IOException.class, () -> Graph.loadFrom(basePath));
+    }
+
+    @Test
+    void truncatedNodesAreDetectedWithoutManifest(@TempDir Path directory) throws IOException {
+        Path basePath = copyOfLausanne(directory);
+        truncate(basePath.resolve("nodes.bin"), 5);
+        assertThrows(IOException.class, () -> Graph.loadFrom(basePath));
+    }
+
+    @Test
+    void writtenManifestIsVerified(@TempDir Path directory) throws IOException {
+        Path basePath = copyOfLausanne(directory);
+        GraphManifest.write(basePath);
+
+        List<String> lines = Files.readAllLines(basePath.resolve(GraphManifest.FILE_NAME));
+        assertTrue(lines.get(0).startsWith("javelo-manifest " + GraphManifest.VERSION + " "));
+        assertEquals(1 + FILE_NAMES.size(), lines.size());
+        assertDoesNotThrow(() -> GraphManifest.verify(basePath, true));
+
+        Graph expected = Graph.loadFrom(Path.of("lausanne"));
+        Graph actual = Graph.loadFrom(basePath, Graph.LoadOptions.DEFAULT.withChecksumVerification(true));
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+    }
+
+    @Test
+    void sizeMismatchWithManifestIsDetected(@TempDir Path directory) throws IOException {
+        Path basePath = copyOfLausanne(directory);
+        GraphManifest.write(basePath);
+        // Reste cohérent avec les autres fichiers, mais ne correspond plus au manifeste
+        truncate(basePath.resolve("elevations.bin"), 2);
+        assertThrows(IOException.class, () -> Graph.loadFrom(basePath));
+    }
+
+    @Test
+    void corruptedFileIsOnlyDetectedWhenVerifyingChecksums(@TempDir Path directory) throws IOException {
+        Path basePath = copyOfLausanne(directory);
+        GraphManifest.write(basePath);
+        flipByte(basePath.resolve("elevations.bin"), Files.size(basePath.resolve("elevations.bin")) / 2);
+
+        assertDoesNotThrow(() -> Graph.loadFrom(basePath));
+        assertThrows(IOException.class, () -> GraphManifest.verify(basePath, true));
+        assertThrows(IOException.class, () -> Graph.loadFrom(basePath,
+                new Graph.LoadOptions(Graph.StorageMode.CHUNKED, true)));
+    }
+
+    @Test
+    void unknownManifestVersionIsRejected(@TempDir Path directory) throws IOException {
+        Path basePath = copyOfLausanne(directory);
+        GraphManifest.write(basePath);
+        Path manifest = basePath.resolve(GraphManifest.FILE_NAME);
+        List<String> lines = Files.readAllLines(manifest);
+        lines.set(0, lines.get(0).replace("javelo-manifest 1 ", "javelo-manifest 99 "));
+        Files.write(manifest, lines);
+        assertThrows(IOException.class, () -> Graph.loadFrom(basePath));
+    }
+
+    @Test
+    void invalidManifestIsRejected(@TempDir Path directory) throws IOException {
+        Path basePath = copyOfLausanne(directory);
+        GraphManifest.write(basePath);
+        Files.writeString(basePath.resolve(GraphManifest.FILE_NAME), "javelo-manifest 1 16\nedges.bin abc -\n");
+        assertThrows(IOException.class, () -> Graph.loadFrom(basePath));
+    }
+
+    @Test
+    void loadOptionsConstructorThrowsOnNullStorageMode() {
+        assertThrows(NullPointerException.class, () -> new Graph.LoadOptions(null, false));
+        assertEquals(new Graph.LoadOptions(Graph.StorageMode.DECODED, true),
+                Graph.LoadOptions.DEFAULT.withStorageMode(Graph.StorageMode.DECODED).withChecksumVerification(true));
+    }
+
+}
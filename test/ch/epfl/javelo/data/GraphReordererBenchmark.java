@@ -0,0 +1,75 @@
+package ch.epfl.javelo.data;
+
+import ch.epfl.javelo.routing.CityBikeCF;
+import ch.epfl.javelo.routing.RouteComputer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+
+/**
+ * Compare la latence du calcul d'itinéraire sur un graphe et sur sa version renumérotée par GraphReorderer, pour les
+ * mêmes paires de nœuds aléatoires éloignés d'au moins 5 km. Le graphe renuméroté est écrit dans un répertoire
+ * temporaire, à moins qu'un répertoire de destination ne soit donné.
+ * Usage : GraphReordererBenchmark [répertoire du graphe (lausanne)] [répertoire du graphe renuméroté]
+ */
+public final class GraphReordererBenchmark {
+    private static final int PAIRS = 50;
+    private static final int WARMUP_PASSES = 3;
+    private static final int MEASURED_PASSES = 5;
+    private static final double MIN_DISTANCE = 5_000;
+
+    public static void main(String[] args) throws IOException {
+        Path basePath = Path.of(args.length > 0 ? args[0] : "lausanne");
+        Path reorderedPath = args.length > 1 ? Path.of(args[1]) : Files.createTempDirectory("javelo-reordered");
+
+        long t0 = System.nanoTime();
+        GraphReorderer.Result result = GraphReorderer.reorder(basePath, reorderedPath);
+        System.out.printf("Graphe renuméroté en %.1f s dans %s%n", (System.nanoTime() - t0) / 1e9, reorderedPath);
+        System.out.printf("Échecs du cache de pages simulé : %.2f %% -> %.2f %%%n",
+                100 * result.before().pageMissRate(), 100 * result.after().pageMissRate());
+
+        Graph original = Graph.loadFrom(basePath);
+        Graph reordered = Graph.loadFrom(reorderedPath);
+        int[] newIds = result.newNodeIds();
+
+        List<int[]> pairs = new ArrayList<>();
+        var rng = newRandom();
+        for (int i = 0; pairs.size() < PAIRS && i < 100 * PAIRS; i += 1) {
+            int start = rng.nextInt(original.nodeCount());
+            int end = rng.nextInt(original.nodeCount());
+            if (original.nodePoint(start).distanceTo(original.nodePoint(end)) >= MIN_DISTANCE)
+                pairs.add(new int[]{start, end});
+        }
+        if (pairs.isEmpty()) {
+            System.out.println("Aucune paire de nœuds suffisamment éloignés dans ce graphe");
+            return;
+        }
+        List<int[]> renumberedPairs = new ArrayList<>();
+        for (int[] pair : pairs) renumberedPairs.add(new int[]{newIds[pair[0]], newIds[pair[1]]});
+
+        double before = run("Numérotation d'origine", pairs, new RouteComputer(original, new CityBikeCF(original)));
+        double after = run("Numérotation de Hilbert", renumberedPairs,
+                new RouteComputer(reordered, new CityBikeCF(reordered)));
+        System.out.printf("Accélération : %.2f×%n", before / after);
+    }
+
+    private static double run(String name, List<int[]> pairs, RouteComputer rc) {
+        // Quelques passes pour chauffer la JVM
+        for (int pass = 0; pass < WARMUP_PASSES; pass += 1) {
+            for (int[] pair : pairs) rc.bestRouteBetween(pair[0], pair[1]);
+        }
+
+        long t0 = System.nanoTime();
+        for (int pass = 0; pass < MEASURED_PASSES; pass += 1) {
+            for (int[] pair : pairs) rc.bestRouteBetween(pair[0], pair[1]);
+        }
+        double msPerRoute = (System.nanoTime() - t0) / 1e6 / (MEASURED_PASSES * pairs.size());
+        System.out.printf("%s : %.2f ms par itinéraire (%d itinéraires)%n", name, msPerRoute, pairs.size());
+        return msPerRoute;
+    }
+}
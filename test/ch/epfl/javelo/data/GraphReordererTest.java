@@ -0,0 +1,132 @@
+package ch.epfl.javelo.data;
+
+import ch.epfl.javelo.routing.CityBikeCF;
+import ch.epfl.javelo.routing.CostFunction;
+import ch.epfl.javelo.routing.Edge;
+import ch.epfl.javelo.routing.Route;
+import ch.epfl.javelo.routing.RouteComputer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphReordererTest {
+
+    @Test
+    void hilbertIndexVisitsEveryCellOnceThroughAdjacentCells() {
+        int order = 4;
+        int side = 1 << order;
+        int[][] cells = new int[side * side][];
+        for (int x = 0; x < side; x += 1) {
+            for (int y = 0; y < side; y += 1) {
+                int d = (int) GraphReorderer.hilbertIndex(order, x, y);
+                assertNull(cells[d]);
+                cells[d] = new int[]{x, y};
+            }
+        }
+        for (int d = 1; d < cells.length; d += 1) {
+            int dx = Math.abs(cells[d][0] - cells[d - 1][0]);
+            int dy = Math.abs(cells[d][1] - cells[d - 1][1]);
+            assertEquals(1, dx + dy);
+        }
+    }
+
+    @Test
+    void graphReordererThrowsWhenReorderingInPlace() {
+        Path basePath = Path.of("lausanne");
+        assertThrows(IllegalArgumentException.class, () -> GraphReorderer.reorder(basePath, basePath));
+    }
+
+    @Test
+    void reorderedGraphIsTheSameGraphWithRenumberedNodes(@TempDir Path directory) throws IOException {
+        var result = GraphReorderer.reorder(Path.of("lausanne"), directory);
+        var original = Graph.loadFrom(Path.of("lausanne"));
+        var reordered = Graph.loadFrom(directory);
+        int[] newIds = result.newNodeIds();
+
+        assertEquals(original.nodeCount(), reordered.nodeCount());
+        Set<Integer> seen = new HashSet<>();
+        for (int nodeId = 0; nodeId < original.nodeCount(); nodeId += 1) {
+            int newId = newIds[nodeId];
+            assertTrue(seen.add(newId));
+            assertEquals(original.nodePoint(nodeId), reordered.nodePoint(newId));
+            assertEquals(original.nodeOutDegree(nodeId), reordered.nodeOutDegree(newId));
+            for (int i = 0; i < original.nodeOutDegree(nodeId); i += 1) {
+                int edgeId = original.nodeOutEdgeId(nodeId, i);
+                int newEdgeId = reordered.nodeOutEdgeId(newId, i);
+                assertEquals(newIds[original.edgeTargetNodeId(edgeId)], reordered.edgeTargetNodeId(newEdgeId));
+                assertEquals(original.edgeIsInverted(edgeId), reordered.edgeIsInverted(newEdgeId));
+                assertEquals(original.edgeLength(edgeId), reordered.edgeLength(newEdgeId));
+                assertEquals(original.edgeElevationGain(edgeId), reordered.edgeElevationGain(newEdgeId));
+                assertEquals(original.edgeAttributes(edgeId), reordered.edgeAttributes(newEdgeId));
+                assertEquals(original.edgeProfile(edgeId).applyAsDouble(1),
+                        reordered.edgeProfile(newEdgeId).applyAsDouble(1));
+            }
+        }
+
+        var rng = newRandom();
+        for (int i = 0; i < 20; i += 1) {
+            var point = original.nodePoint(rng.nextInt(original.nodeCount()));
+            int nodeId = original.nodeClosestTo(point, 100);
+            int reorderedNodeId = reordered.nodeClosestTo(point, 100);
+            // Plusieurs nœuds peuvent être à égale distance du point, seule la distance est donc comparée
+            assertEquals(original.nodePoint(nodeId).distanceTo(point),
+                    reordered.nodePoint(reorderedNodeId).distanceTo(point));
+        }
+    }
+
+    @Test
+    void reorderedGraphGivesRoutesOfSameLengthWithBetterLocality(@TempDir Path directory) throws IOException {
+        var result = GraphReorderer.reorder(Path.of("lausanne"), directory);
+        var original = Graph.loadFrom(Path.of("lausanne"));
+        var reordered = Graph.loadFrom(directory);
+        var originalCostFunction = new CityBikeCF(original);
+        var reorderedCostFunction = new CityBikeCF(reordered);
+        var originalComputer = new RouteComputer(original, originalCostFunction);
+        var reorderedComputer = new RouteComputer(reordered, reorderedCostFunction);
+        int[] newIds = result.newNodeIds();
+
+        var rng = newRandom();
+        for (int i = 0; i < 10; i += 1) {
+            int start = rng.nextInt(original.nodeCount());
+            int end = rng.nextInt(original.nodeCount());
+            if (start == end) continue;
+            var expected = originalComputer.bestRouteBetween(start, end);
+            var actual = reorderedComputer.bestRouteBetween(newIds[start], newIds[end]);
+            if (expected == null) {
+                assertNull(actual);
+            } else {
+                // Plusieurs itinéraires peuvent être de coût minimal, seuls leur longueur et leur coût sont comparés
+                assertEquals(expected.length(), actual.length(), 1e-6);
+                assertEquals(routeCost(original, originalCostFunction, expected),
+                        routeCost(reordered, reorderedCostFunction, actual), 1e-3);
+            }
+        }
+
+        assertTrue(result.after().pageMissRate() < result.before().pageMissRate());
+        assertTrue(result.missReduction() > 1);
+    }
+
+    // Coût total de l'itinéraire, chaque arête de l'itinéraire étant la moins coûteuse reliant ses deux nœuds
+    private static double routeCost(Graph graph, CostFunction costFunction, Route route) {
+        double cost = 0;
+        for (Edge edge : route.edges()) {
+            double edgeCost = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < graph.nodeOutDegree(edge.fromNodeId()); i += 1) {
+                int edgeId = graph.nodeOutEdgeId(edge.fromNodeId(), i);
+                if (graph.edgeTargetNodeId(edgeId) != edge.toNodeId()) continue;
+                edgeCost = Math.min(edgeCost,
+                        graph.edgeLength(edgeId) * costFunction.costFactor(edge.fromNodeId(), edgeId));
+            }
+            cost += edgeCost;
+        }
+        return cost;
+    }
+
+}
@@ -0,0 +1,38 @@
+package ch.epfl.javelo.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphReverseEdgesTest {
+
+    @Test
+    void reverseEdgesContainEveryEdgeOnceAtItsTarget() throws IOException {
+        Graph graph = Graph.loadFrom(Path.of("lausanne"));
+        GraphReverseEdges reverseEdges = GraphReverseEdges.of(graph);
+
+        boolean[] seen = new boolean[graph.edgeCount()];
+        int total = 0;
+        for (int nodeId = 0; nodeId < graph.nodeCount(); nodeId += 1) {
+            for (int i = 0; i < reverseEdges.inDegree(nodeId); i += 1) {
+                int edgeId = reverseEdges.edgeId(nodeId, i);
+                int sourceId = reverseEdges.sourceNodeId(nodeId, i);
+                assertEquals(nodeId, graph.edgeTargetNodeId(edgeId));
+                assertFalse(seen[edgeId]);
+                seen[edgeId] = true;
+
+                boolean isOutEdgeOfSource = false;
+                for (int j = 0; j < graph.nodeOutDegree(sourceId); j += 1) {
+                    if (graph.nodeOutEdgeId(sourceId, j) == edgeId) isOutEdgeOfSource = true;
+                }
+                assertTrue(isOutEdgeOfSource);
+                total += 1;
+            }
+        }
+        assertEquals(graph.edgeCount(), total);
+    }
+
+}
@@ -13,6 +13,7 @@ import java.nio.LongBuffer;
 import java.nio.ShortBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -178,4 +179,99 @@ class GraphTest {
         System.out.println(graph.edgeProfile(7).applyAsDouble(30));
         ;
     }
-}
\ No newline at end of file
+
+    @Test
+    void chunkedStorageModeLoadsTheSameGraph() throws IOException {
+        assertSameGraph(Graph.loadFrom(Path.of("lausanne"), Graph.StorageMode.BUFFER),
+                Graph.loadFrom(Path.of("lausanne"), Graph.StorageMode.CHUNKED));
+    }
+
+    @Test
+    void decodedStorageModeLoadsTheSameGraph() throws IOException {
+        assertSameGraph(Graph.loadFrom(Path.of("lausanne"), Graph.StorageMode.BUFFER),
+                Graph.loadFrom(Path.of("lausanne"), Graph.StorageMode.DECODED));
+    }
+
+    @Test
+    void heapBytesIsOnlyPositiveForDecodedGraphs() throws IOException {
+        Graph buffer = Graph.loadFrom(Path.of("lausanne"), Graph.StorageMode.BUFFER);
+        Graph chunked = Graph.loadFrom(Path.of("lausanne"), Graph.StorageMode.CHUNKED);
+        Graph decoded = Graph.loadFrom(Path.of("lausanne"), Graph.StorageMode.DECODED);
+        assertEquals(0, buffer.heapBytes());
+        assertEquals(0, chunked.heapBytes());
+        assertEquals(21L * decoded.nodeCount() + 15L * decoded.edgeCount(), decoded.heapBytes());
+    }
+
+    @Test
+    void mappedBytesCoversEveryStorageMode() throws IOException {
+        long fileBytes = 0;
+        for (Graph.DataFile file : Graph.DataFile.values())
+            fileBytes += Files.size(Path.of("lausanne").resolve(file.fileName()));
+        assertEquals(fileBytes, Graph.loadFrom(Path.of("lausanne"), Graph.StorageMode.BUFFER).mappedBytes());
+        assertEquals(fileBytes, Graph.loadFrom(Path.of("lausanne"), Graph.StorageMode.DECODED).mappedBytes());
+        assertTrue(Graph.loadFrom(Path.of("lausanne"), Graph.StorageMode.CHUNKED).mappedBytes() >= fileBytes);
+
+        var nodes = new GraphNodes(IntBuffer.wrap(new int[]{0, 0, 0}));
+        var sectors = new GraphSectors(ByteBuffer.allocate(6));
+        var edges = new GraphEdges(ByteBuffer.allocate(10), IntBuffer.allocate(1), ShortBuffer.allocate(0));
+        assertEquals(0, new Graph(nodes, sectors, edges, List.of()).mappedBytes());
+    }
+
+    private static void assertSameGraph(Graph expected, Graph actual) {
+
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        for (int nodeId = 0; nodeId < expected.nodeCount(); nodeId += 1) {
+            assertEquals(expected.nodePoint(nodeId), actual.nodePoint(nodeId));
+            assertEquals(expected.nodeOutDegree(nodeId), actual.nodeOutDegree(nodeId));
+            for (int i = 0; i < expected.nodeOutDegree(nodeId); i += 1)
+                assertEquals(expected.nodeOutEdgeId(nodeId, i), actual.nodeOutEdgeId(nodeId, i));
+        }
+
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        for (int edgeId = 0; edgeId < expected.edgeCount(); edgeId += 1) {
+            assertEquals(expected.edgeTargetNodeId(edgeId), actual.edgeTargetNodeId(edgeId));
+            assertEquals(expected.edgeIsInverted(edgeId), actual.edgeIsInverted(edgeId));
+            assertEquals(expected.edgeLength(edgeId), actual.edgeLength(edgeId));
+            assertEquals(expected.edgeElevationGain(edgeId), actual.edgeElevationGain(edgeId));
+            assertEquals(expected.edgeAttributesIndex(edgeId), actual.edgeAttributesIndex(edgeId));
+            var expectedProfile = expected.edgeProfile(edgeId);
+            var actualProfile = actual.edgeProfile(edgeId);
+            for (double x = 0; x <= expected.edgeLength(edgeId); x += 1)
+                assertEquals(expectedProfile.applyAsDouble(x), actualProfile.applyAsDouble(x));
+        }
+    }
+
+    @Test
+    void edgeAttributeBitsAgreesWithEdgeAttributes() throws IOException {
+        Graph graph = Graph.loadFrom(Path.of("lausanne"));
+        for (int edgeId = 0; edgeId < graph.edgeCount(); edgeId += 1) {
+            long bits = graph.edgeAttributeBits(edgeId);
+            assertEquals(graph.edgeAttributes(edgeId).bits(), bits);
+            assertEquals(graph.attributeSet(graph.edgeAttributesIndex(edgeId)), new AttributeSet(bits));
+        }
+    }
+
+    @Test
+    void graphConstructorKeepsTheGivenAttributeSets() {
+        var attributeSets = List.of(
+                AttributeSet.of(Attribute.HIGHWAY_TRACK),
+                AttributeSet.of(Attribute.HIGHWAY_CYCLEWAY, Attribute.SURFACE_ASPHALT));
+        ByteBuffer edgesBuffer = ByteBuffer.allocate(20);
+        edgesBuffer.putShort(8, (short) 1);
+        var edges = new GraphEdges(edgesBuffer, IntBuffer.allocate(2), ShortBuffer.allocate(0));
+        var nodes = new GraphNodes(IntBuffer.allocate(0));
+        var sectors = new GraphSectors(ByteBuffer.allocate(0));
+        var list = new ArrayList<>(attributeSets);
+        Graph graph = new Graph(nodes, sectors, edges, list);
+        list.clear();
+
+        assertEquals(2, graph.attributeSetCount());
+        assertEquals(attributeSets.get(0), graph.attributeSet(0));
+        assertEquals(attributeSets.get(1), graph.attributeSet(1));
+        assertEquals(attributeSets.get(0), graph.edgeAttributes(1));
+        assertEquals(attributeSets.get(1), graph.edgeAttributes(0));
+        assertEquals(attributeSets.get(1).bits(), graph.edgeAttributeBits(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> graph.attributeSet(2));
+    }
+
+}
@@ -0,0 +1,73 @@
+package ch.epfl.javelo.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphWarmUpTest {
+
+    @Test
+    void graphIsNotWarmedUpByDefault() throws IOException {
+        Graph graph = Graph.loadFrom(Path.of("lausanne"));
+        assertEquals(0, graph.warmUpNanos());
+        assertTrue(Graph.LoadOptions.DEFAULT.warmUpFiles().isEmpty());
+    }
+
+    @Test
+    void warmedUpGraphReportsItsWarmUpDuration() throws IOException {
+        Graph expected = Graph.loadFrom(Path.of("lausanne"));
+        Graph graph = Graph.loadFrom(Path.of("lausanne"),
+                Graph.LoadOptions.DEFAULT.withWarmUp(Graph.DataFile.ROUTING));
+        assertTrue(graph.warmUpNanos() > 0);
+        assertEquals(graph.warmUpNanos(), graph.withProfileCache(new ProfileCache(0)).warmUpNanos());
+        assertEquals(expected.nodeCount(), graph.nodeCount());
+        assertEquals(expected.edgeCount(), graph.edgeCount());
+    }
+
+    @Test
+    void warmUpWorksForAllFilesAndStorageModes() throws IOException {
+        for (Graph.StorageMode storageMode : Graph.StorageMode.values()) {
+            var options = new Graph.LoadOptions(storageMode, false, EnumSet.allOf(Graph.DataFile.class));
+            assertTrue(Graph.loadFrom(Path.of("lausanne"), options).warmUpNanos() > 0);
+        }
+    }
+
+    @Test
+    void warmUpOfEmptyFilesDoesNotThrow(@TempDir Path directory) throws IOException {
+        Files.write(directory.resolve("attributes.bin"), new byte[0]);
+        assertDoesNotThrow(() -> GraphWarmUp.warmUp(directory, Set.of(Graph.DataFile.ATTRIBUTES)));
+    }
+
+    @Test
+    void warmUpThrowsOnMissingFile(@TempDir Path directory) {
+        assertThrows(NoSuchFileException.class, () -> GraphWarmUp.warmUp(directory, Set.of(Graph.DataFile.NODES)));
+    }
+
+    @Test
+    void loadOptionsCopyTheirWarmUpFiles() {
+        var files = EnumSet.of(Graph.DataFile.NODES);
+        var options = Graph.LoadOptions.DEFAULT.withWarmUp(files);
+        files.add(Graph.DataFile.EDGES);
+        assertEquals(Set.of(Graph.DataFile.NODES), options.warmUpFiles());
+        assertThrows(NullPointerException.class,
+                () -> new Graph.LoadOptions(Graph.StorageMode.BUFFER, false, null));
+        assertEquals("edges.bin", Graph.DataFile.EDGES.fileName());
+    }
+
+    @Test
+    void routingAndProfileFilesAreDisjoint() {
+        var files = EnumSet.copyOf(Graph.DataFile.ROUTING);
+        files.addAll(Graph.DataFile.PROFILES);
+        assertEquals(Graph.DataFile.ROUTING.size() + Graph.DataFile.PROFILES.size(), files.size());
+        assertEquals(EnumSet.complementOf(EnumSet.of(Graph.DataFile.SECTORS)), files);
+    }
+
+}
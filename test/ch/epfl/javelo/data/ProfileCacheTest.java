@@ -0,0 +1,131 @@
+package ch.epfl.javelo.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileCacheTest {
+
+    private static float[] samples(int edgeId) {
+        return new float[]{edgeId, edgeId + 1, edgeId + 2};
+    }
+
+    @Test
+    void profileCacheConstructorThrowsOnNegativeBudget() {
+        assertThrows(IllegalArgumentException.class, () -> new ProfileCache(-1));
+    }
+
+    @Test
+    void profileCacheDecodesEachProfileOnceWhenItFits() {
+        var cache = new ProfileCache(ProfileCache.DEFAULT_BYTE_BUDGET);
+        var decodings = new AtomicInteger();
+        for (int i = 0; i < 3; i += 1) {
+            for (int edgeId = 0; edgeId < 100; edgeId += 1) {
+                float[] profile = cache.get(edgeId, id -> {
+                    decodings.incrementAndGet();
+                    return samples(id);
+                });
+                assertArrayEquals(samples(edgeId), profile);
+            }
+        }
+        assertEquals(100, decodings.get());
+        assertEquals(100, cache.missCount());
+        assertEquals(200, cache.hitCount());
+        assertEquals(2.0 / 3.0, cache.hitRate(), 1e-9);
+        assertEquals(100, cache.size());
+        assertEquals(100 * ProfileCache.entryBytes(samples(0)), cache.byteSize());
+        assertEquals(0, cache.evictionCount());
+    }
+
+    @Test
+    void profileCacheRespectsItsBudget() {
+        long budget = 16 * 10 * ProfileCache.entryBytes(samples(0));
+        var cache = new ProfileCache(budget);
+        for (int edgeId = 0; edgeId < 10_000; edgeId += 1) {
+            cache.get(edgeId, ProfileCacheTest::samples);
+            assertTrue(cache.byteSize() <= budget);
+        }
+        assertTrue(cache.evictionCount() > 0);
+        assertEquals(10_000, cache.size() + cache.evictionCount());
+    }
+
+    @Test
+    void profileCacheEvictsLeastRecentlyUsedProfiles() {
+        // Une seule entrée par segment, de sorte que chaque nouvelle arête d'un segment évince la précédente
+        var cache = new ProfileCache(16 * ProfileCache.entryBytes(samples(0)));
+        cache.get(0, ProfileCacheTest::samples);
+        float[] first = cache.get(0, ProfileCacheTest::samples);
+        assertSame(first, cache.get(0, ProfileCacheTest::samples));
+        for (int edgeId = 1; edgeId < 1_000; edgeId += 1) {
+            cache.get(edgeId, ProfileCacheTest::samples);
+        }
+        assertNotSame(first, cache.get(0, ProfileCacheTest::samples));
+    }
+
+    @Test
+    void profileCacheWithZeroBudgetNeverStoresProfiles() {
+        var cache = new ProfileCache(0);
+        for (int i = 0; i < 10; i += 1) {
+            cache.get(1, ProfileCacheTest::samples);
+        }
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.byteSize());
+        assertEquals(0, cache.hitCount());
+        assertEquals(10, cache.missCount());
+        assertEquals(0, cache.hitRate());
+    }
+
+    @Test
+    void profileCacheClearEmptiesTheCache() {
+        var cache = new ProfileCache(ProfileCache.DEFAULT_BYTE_BUDGET);
+        for (int edgeId = 0; edgeId < 100; edgeId += 1) {
+            cache.get(edgeId, ProfileCacheTest::samples);
+        }
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.byteSize());
+        assertEquals(100, cache.missCount());
+    }
+
+    @Test
+    void profileCacheWorksWithConcurrentAccesses() {
+        long budget = 16 * 50 * ProfileCache.entryBytes(samples(0));
+        var cache = new ProfileCache(budget);
+        var seen = ConcurrentHashMap.<Integer>newKeySet();
+        IntStream.range(0, 100_000).parallel().forEach(i -> {
+            int edgeId = i % 2_000;
+            assertArrayEquals(samples(edgeId), cache.get(edgeId, ProfileCacheTest::samples));
+            seen.add(edgeId);
+        });
+        assertEquals(2_000, seen.size());
+        assertEquals(100_000, cache.hitCount() + cache.missCount());
+        assertTrue(cache.byteSize() <= budget);
+    }
+
+    @Test
+    void graphEdgeProfileGoesThroughTheProfileCache() throws IOException {
+        var cache = new ProfileCache(ProfileCache.DEFAULT_BYTE_BUDGET);
+        Graph uncached = Graph.loadFrom(Path.of("lausanne")).withProfileCache(new ProfileCache(0));
+        Graph graph = uncached.withProfileCache(cache);
+        assertSame(cache, graph.profileCache());
+
+        for (int edgeId = 0; edgeId < Math.min(graph.edgeCount(), 1_000); edgeId += 1) {
+            var expected = uncached.edgeProfile(edgeId);
+            for (int i = 0; i < 2; i += 1) {
+                var actual = graph.edgeProfile(edgeId);
+                for (double x = 0; x <= graph.edgeLength(edgeId); x += 0.5)
+                    assertEquals(expected.applyAsDouble(x), actual.applyAsDouble(x));
+            }
+        }
+        assertTrue(cache.size() > 0);
+        assertEquals(cache.size(), cache.missCount());
+        assertEquals(cache.size(), cache.hitCount());
+    }
+
+}
@@ -0,0 +1,112 @@
+package ch.epfl.javelo.headless;
+
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.routing.CityBikeCF;
+import ch.epfl.javelo.routing.RouteComputer;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Locale;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRouterTest {
+
+    private static Graph graph;
+
+    private static Graph lausanneGraph() {
+        if (graph == null) {
+            try {
+                graph = Graph.loadFrom(Path.of("lausanne"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return graph;
+    }
+
+    private static String pointOf(Graph g, int nodeId) {
+        var point = g.nodePoint(nodeId);
+        return String.format(Locale.ROOT, "%.7f,%.7f", Math.toDegrees(point.lat()), Math.toDegrees(point.lon()));
+    }
+
+    private static BatchRouter newRouter(Graph g) {
+        var cf = new CityBikeCF(g);
+        return new BatchRouter(g, cf, new RouteComputer(g, cf), nodeId -> true);
+    }
+
+    @Test
+    void batchRouterWritesOneResultPerLineInInputOrder() throws IOException {
+        var g = lausanneGraph();
+        var rc = new RouteComputer(g, new CityBikeCF(g));
+        var rng = newRandom();
+        var input = new StringBuilder("fromLat,fromLon,toLat,toLon\n");
+        var expectedLengths = new ArrayList<Double>();
+        for (int i = 0; i < 100; i += 1) {
+            int from = rng.nextInt(g.nodeCount());
+            int to = rng.nextInt(g.nodeCount());
+            if (from == to) continue;
+            input.append(pointOf(g, from)).append(',').append(pointOf(g, to)).append('\n');
+            var route = rc.bestRouteBetween(from, to);
+            expectedLengths.add(route == null ? null : route.length());
+        }
+
+        var output = new StringWriter();
+        var summary = newRouter(g).run(new BufferedReader(new StringReader(input.toString())), output, s -> {});
+        var lines = output.toString().split("\n");
+        assertEquals("line,status,length,elevationGain,cost", lines[0]);
+        assertEquals(expectedLengths.size() + 1, lines.length);
+        assertEquals(expectedLengths.size(), summary.lineCount());
+        for (int i = 0; i < expectedLengths.size(); i += 1) {
+            var fields = lines[i + 1].split(",", -1);
+            assertEquals(Integer.toString(i + 2), fields[0]);
+            if (expectedLengths.get(i) == null) {
+                assertEquals("NO_ROUTE", fields[1]);
+            } else {
+                assertEquals("OK", fields[1]);
+                assertEquals(expectedLengths.get(i), Double.parseDouble(fields[2]), 0.1);
+                assertTrue(Double.parseDouble(fields[3]) >= 0);
+                assertTrue(Double.parseDouble(fields[4]) >= Double.parseDouble(fields[2]) - 0.1);
+            }
+        }
+    }
+
+    @Test
+    void batchRouterReportsFailures() throws IOException {
+        var g = lausanneGraph();
+        var input = String.join("\n",
+                pointOf(g, 159049) + "," + pointOf(g, 117669),
+                "",
+                "46.5,6.6,foo,6.6",
+                "46.5,6.6,46.5",
+                "0,0,46.5,6.6",
+                pointOf(g, 149195) + "," + pointOf(g, 153181),
+                pointOf(g, 159049) + "," + pointOf(g, 159049));
+        var output = new StringWriter();
+        var progress = new ArrayList<String>();
+        var summary = newRouter(g).run(new BufferedReader(new StringReader(input)), output, progress::add);
+
+        var lines = output.toString().split("\n");
+        assertTrue(lines[1].startsWith("1,OK,9588.6,"));
+        assertEquals("3,INVALID,,,", lines[2]);
+        assertEquals("4,INVALID,,,", lines[3]);
+        assertEquals("5,INVALID,,,", lines[4]);
+        assertEquals("6,NO_ROUTE,,,", lines[5]);
+        assertEquals("7,OK,0.0,0.0,0.0", lines[6]);
+        assertEquals(6, summary.lineCount());
+        assertEquals(2, summary.count(BatchRouter.Status.OK));
+        assertEquals(3, summary.count(BatchRouter.Status.INVALID));
+        assertEquals(1, summary.count(BatchRouter.Status.NO_ROUTE));
+        assertThrows(UnsupportedOperationException.class,
+                () -> summary.statusCounts().put(BatchRouter.Status.OK, 0L));
+        assertFalse(progress.isEmpty());
+    }
+
+}
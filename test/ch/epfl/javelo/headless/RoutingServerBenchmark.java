@@ -0,0 +1,102 @@
+package ch.epfl.javelo.headless;
+
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.routing.CityBikeCFTable;
+import ch.epfl.javelo.routing.RouteComputer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+
+/**
+ * Test de charge du serveur HTTP : démarre un serveur local sur le graphe donné, lui envoie des requêtes /route entre
+ * des nœuds aléatoires en en gardant un nombre donné en cours simultanément, puis affiche le débit obtenu et la
+ * distribution des latences vues par le client.
+ * Usage : RoutingServerBenchmark [répertoire du graphe (lausanne)] [requêtes (2000)] [requêtes simultanées (32)]
+ */
+public final class RoutingServerBenchmark {
+    private static final int WARMUP_REQUESTS = 200;
+
+    public static void main(String[] args) throws Exception {
+        Graph graph = Graph.loadFrom(Path.of(args.length > 0 ? args[0] : "lausanne"));
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+
+        try (RoutingService service = new RoutingService(new RouteComputer(graph, CityBikeCFTable.of(graph)));
+             RoutingServer server = new RoutingServer(graph, service, nodeId -> true,
+                     new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), line -> {})) {
+            server.start();
+            HttpClient client = HttpClient.newHttpClient();
+            URI[] uris = randomRouteUris(graph, server.port(), WARMUP_REQUESTS + requests);
+
+            run(client, Arrays.copyOf(uris, WARMUP_REQUESTS), concurrency);
+            long t0 = System.nanoTime();
+            double[] latencies = run(client, Arrays.copyOfRange(uris, WARMUP_REQUESTS, uris.length), concurrency);
+            double elapsedS = (System.nanoTime() - t0) / 1e9;
+
+            Arrays.sort(latencies);
+            System.out.printf(Locale.ROOT, "%d requêtes, %d simultanées : %.0f requêtes/s%n",
+                    requests, concurrency, requests / elapsedS);
+            System.out.printf(Locale.ROOT, "Latence (ms) : p50 %.2f, p95 %.2f, p99 %.2f, max %.2f%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                    latencies[latencies.length - 1]);
+        }
+    }
+
+    private static URI[] randomRouteUris(Graph graph, int port, int count) {
+        var rng = newRandom();
+        URI[] uris = new URI[count];
+        for (int i = 0; i < count; i += 1) {
+            int from = rng.nextInt(graph.nodeCount());
+            int to = rng.nextInt(graph.nodeCount());
+            uris[i] = URI.create("http://localhost:" + port + "/route?from=" + point(graph, from) + "&to="
+                    + point(graph, to));
+        }
+        return uris;
+    }
+
+    private static String point(Graph graph, int nodeId) {
+        var p = graph.nodePoint(nodeId);
+        return String.format(Locale.ROOT, "%.7f,%.7f", Math.toDegrees(p.lat()), Math.toDegrees(p.lon()));
+    }
+
+    private static double[] run(HttpClient client, URI[] uris, int concurrency) throws InterruptedException {
+        double[] latencies = new double[uris.length];
+        AtomicIntegerArray statusCounts = new AtomicIntegerArray(600);
+        Semaphore inFlight = new Semaphore(concurrency);
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[uris.length];
+        for (int i = 0; i < uris.length; i += 1) {
+            inFlight.acquire();
+            int index = i;
+            long start = System.nanoTime();
+            responses[i] = client.sendAsync(HttpRequest.newBuilder(uris[i]).build(),
+                            HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[index] = (System.nanoTime() - start) / 1e6;
+                        if (response != null) statusCounts.incrementAndGet(response.statusCode());
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(responses).exceptionally(e -> null).join();
+        for (int status = 0; status < statusCounts.length(); status += 1) {
+            if (statusCounts.get(status) > 0) System.out.printf("  statut %d : %d%n", status, statusCounts.get(status));
+        }
+        return latencies;
+    }
+
+    private static double percentile(double[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))];
+    }
+}
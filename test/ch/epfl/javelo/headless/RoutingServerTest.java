@@ -0,0 +1,142 @@
+package ch.epfl.javelo.headless;
+
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.data.GraphHolder;
+import ch.epfl.javelo.routing.CityBikeCF;
+import ch.epfl.javelo.routing.RouteComputer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutingServerTest {
+
+    private static Graph graph;
+
+    private static Graph lausanneGraph() {
+        if (graph == null) {
+            try {
+                graph = Graph.loadFrom(Path.of("lausanne"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return graph;
+    }
+
+    private static String pointOf(Graph g, int nodeId) {
+        var point = g.nodePoint(nodeId);
+        return String.format(Locale.ROOT, "%.7f,%.7f", Math.toDegrees(point.lat()), Math.toDegrees(point.lon()));
+    }
+
+    private static HttpResponse<String> get(RoutingServer server, String pathAndQuery) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + pathAndQuery)).build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static RoutingServer newServer(Graph g, RoutingService service, List<String> log) throws IOException {
+        var server = new RoutingServer(g, service, nodeId -> true,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), line -> {
+            synchronized (log) {
+                log.add(line);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    @Test
+    void routingServerAnswersNearestRouteAndProfileRequests() throws Exception {
+        var g = lausanneGraph();
+        var log = new ArrayList<String>();
+        try (var service = new RoutingService(new RouteComputer(g, new CityBikeCF(g)));
+             var server = newServer(g, service, log)) {
+            var nearest = get(server, "/nearest?point=" + pointOf(g, 159049));
+            assertEquals(200, nearest.statusCode());
+            assertTrue(nearest.body().startsWith("{\"nodeId\":159049,"));
+
+            var route = get(server, "/route?from=" + pointOf(g, 159049) + "&to=" + pointOf(g, 117669));
+            assertEquals(200, route.statusCode());
+            assertTrue(route.body().startsWith("{\"length\":9588.5"));
+            assertTrue(route.headers().firstValue("Server-Timing").orElseThrow().startsWith("app;dur="));
+            // Le corps est envoyé par morceaux, au fur et à mesure de sa production
+            assertTrue(route.headers().firstValue("Content-Length").isEmpty());
+
+            var gpx = get(server, "/route?from=" + pointOf(g, 159049) + "&to=" + pointOf(g, 117669)
+                    + "&format=gpx");
+            assertEquals(200, gpx.statusCode());
+            assertTrue(gpx.headers().firstValue("Content-Type").orElseThrow().startsWith("application/gpx+xml"));
+            assertTrue(gpx.body().contains("<rtept"));
+
+            var profile = get(server, "/profile?from=" + pointOf(g, 159049) + "&to=" + pointOf(g, 117669)
+                    + "&samples=10");
+            assertEquals(200, profile.statusCode());
+            var elevations = profile.body().substring(profile.body().indexOf("\"elevations\":["));
+            assertEquals(9, elevations.chars().filter(c -> c == ',').count());
+        }
+        assertEquals(4, log.size());
+        assertTrue(log.get(0).startsWith("GET /nearest?point="));
+    }
+
+    @Test
+    void routingServerUsesTheCurrentGraphOfItsHolder() throws Exception {
+        var log = new ArrayList<String>();
+        try (var holder = GraphHolder.loadFrom(Path.of("lausanne"), Graph.LoadOptions.DEFAULT,
+                g -> new RoutingServer.Routing(new RouteComputer(g, new CityBikeCF(g)), nodeId -> true));
+             var service = new RoutingService(2);
+             var server = new RoutingServer(holder, service,
+                     new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), log::add)) {
+            server.start();
+            var g = lausanneGraph();
+            String query = "/route?from=" + pointOf(g, 159049) + "&to=" + pointOf(g, 117669);
+            var before = get(server, query);
+            assertEquals(200, before.statusCode());
+
+            assertEquals(2, (long) holder.reload(Path.of("lausanne")).get());
+            var after = get(server, query);
+            assertEquals(200, after.statusCode());
+            assertEquals(before.body(), after.body());
+        }
+    }
+
+    @Test
+    void routingServerRejectsInvalidRequests() throws Exception {
+        var g = lausanneGraph();
+        var log = new ArrayList<String>();
+        try (var service = new RoutingService(new RouteComputer(g, new CityBikeCF(g)));
+             var server = newServer(g, service, log)) {
+            assertEquals(400, get(server, "/route?from=" + pointOf(g, 159049)).statusCode());
+            assertEquals(400, get(server, "/nearest?point=0,0").statusCode());
+            assertEquals(400, get(server, "/nearest?point=46.5").statusCode());
+            assertEquals(400, get(server, "/route?from=" + pointOf(g, 159049) + "&to=" + pointOf(g, 159049))
+                    .statusCode());
+            assertEquals(400, get(server, "/route?from=" + pointOf(g, 159049) + "&to=" + pointOf(g, 117669)
+                    + "&format=kml").statusCode());
+            var notFound = get(server, "/route?from=" + pointOf(g, 149195) + "&to=" + pointOf(g, 153181));
+            assertEquals(404, notFound.statusCode());
+            // Les réponses d'erreur, produites d'un bloc, sont envoyées avec leur longueur
+            assertEquals(notFound.body().getBytes(StandardCharsets.UTF_8).length,
+                    Long.parseLong(notFound.headers().firstValue("Content-Length").orElseThrow()));
+
+            var post = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + "/nearest"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            assertEquals(405, HttpClient.newHttpClient().send(post, HttpResponse.BodyHandlers.ofString())
+                    .statusCode());
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+package ch.epfl.javelo.headless;
+
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.routing.CityBikeCF;
+import ch.epfl.javelo.routing.Edge;
+import ch.epfl.javelo.routing.Route;
+import ch.epfl.javelo.routing.RouteComputer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutingServiceTest {
+
+    private static final int PAIR_COUNT = 200;
+    private static final int CLIENT_THREADS = 16;
+    private static final int CONCURRENT_SEARCHES = 8;
+
+    private static Graph graph;
+
+    private static Graph lausanneGraph() {
+        if (graph == null) {
+            try {
+                graph = Graph.loadFrom(Path.of("lausanne"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return graph;
+    }
+
+    private static int[][] randomPairs(Graph g) {
+        var rng = newRandom();
+        var pairs = new int[2][PAIR_COUNT];
+        for (int i = 0; i < PAIR_COUNT; i += 1) {
+            do {
+                pairs[0][i] = rng.nextInt(g.nodeCount());
+                pairs[1][i] = rng.nextInt(g.nodeCount());
+            } while (pairs[0][i] == pairs[1][i]);
+        }
+        return pairs;
+    }
+
+    private static void assertSameRoute(Route expected, Route actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertNotNull(actual);
+        assertEquals(expected.length(), actual.length());
+        List<Edge> expectedEdges = expected.edges();
+        List<Edge> actualEdges = actual.edges();
+        assertEquals(expectedEdges.size(), actualEdges.size());
+        for (int i = 0; i < expectedEdges.size(); i += 1) {
+            assertEquals(expectedEdges.get(i).fromNodeId(), actualEdges.get(i).fromNodeId());
+            assertEquals(expectedEdges.get(i).toNodeId(), actualEdges.get(i).toNodeId());
+        }
+    }
+
+    @Test
+    void routingServiceFindsSameRoutesAsSingleThreadedRunsUnderContention() throws Exception {
+        var g = lausanneGraph();
+        var cf = new CityBikeCF(g);
+        var pairs = randomPairs(g);
+        var expected = new Route[PAIR_COUNT];
+        var reference = new RouteComputer(g, cf);
+        for (int i = 0; i < PAIR_COUNT; i += 1) expected[i] = reference.bestRouteBetween(pairs[0][i], pairs[1][i]);
+
+        try (var service = new RoutingService(new RouteComputer(g, cf), CONCURRENT_SEARCHES)) {
+            // Chaque client soumet toutes les paires, dans un ordre différent, au même moment que les autres
+            var start = new CountDownLatch(1);
+            var clients = new ArrayList<Thread>();
+            var futures = new ArrayList<List<CompletableFuture<Route>>>();
+            for (int c = 0; c < CLIENT_THREADS; c += 1) {
+                var clientFutures = new ArrayList<CompletableFuture<Route>>();
+                for (int i = 0; i < PAIR_COUNT; i += 1) clientFutures.add(null);
+                futures.add(clientFutures);
+                var offset = c;
+                clients.add(new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    for (int k = 0; k < PAIR_COUNT; k += 1) {
+                        var i = (k * 7 + offset * 13) % PAIR_COUNT;
+                        clientFutures.set(i, service.route(pairs[0][i], pairs[1][i]));
+                    }
+                }));
+            }
+            clients.forEach(Thread::start);
+            start.countDown();
+            for (var client : clients) client.join();
+
+            for (var clientFutures : futures) {
+                for (int i = 0; i < PAIR_COUNT; i += 1) assertSameRoute(expected[i], clientFutures.get(i).get());
+            }
+        }
+    }
+
+    @Test
+    void routingServiceBatchFindsSameRoutesAsSingleThreadedRuns() throws Exception {
+        var g = lausanneGraph();
+        var cf = new CityBikeCF(g);
+        var pairs = randomPairs(g);
+        var reference = new RouteComputer(g, cf);
+
+        try (var service = new RoutingService(new RouteComputer(g, cf, RouteComputer.Algorithm.BIDIRECTIONAL_ASTAR))) {
+            var batches = new ArrayList<CompletableFuture<List<Route>>>();
+            for (int b = 0; b < 4; b += 1) batches.add(service.routeAll(pairs[0], pairs[1]));
+            for (var batch : batches) {
+                var routes = batch.get();
+                assertEquals(PAIR_COUNT, routes.size());
+                for (int i = 0; i < PAIR_COUNT; i += 1) {
+                    var expected = reference.bestRouteBetween(pairs[0][i], pairs[1][i]);
+                    if (expected == null) assertNull(routes.get(i));
+                    else assertEquals(expected.length(), routes.get(i).length(), 1e-3);
+                }
+            }
+        }
+    }
+
+    @Test
+    void routingServiceRejectsInvalidRequests() throws ExecutionException, InterruptedException {
+        var g = lausanneGraph();
+        try (var service = new RoutingService(new RouteComputer(g, new CityBikeCF(g)), 2)) {
+            assertThrows(IllegalArgumentException.class, () -> service.route(1, 1));
+            assertThrows(IllegalArgumentException.class, () -> service.routeAll(new int[]{1, 2}, new int[]{3}));
+            assertThrows(IllegalArgumentException.class, () -> service.routeAll(new int[]{1, 2}, new int[]{3, 2}));
+            assertEquals(List.of(), service.routeAll(new int[0], new int[0]).get());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new RoutingService(new RouteComputer(g, new CityBikeCF(g)), 0));
+    }
+
+    @Test
+    void routingServiceWithoutDefaultComputerUsesTheGivenOne() {
+        var g = lausanneGraph();
+        var computer = new RouteComputer(g, new CityBikeCF(g));
+        var rng = newRandom();
+        try (var service = new RoutingService(2)) {
+            assertNull(service.routeComputer());
+            assertThrows(IllegalStateException.class, () -> service.route(1, 2));
+            assertThrows(IllegalStateException.class, () -> service.routeAll(new int[]{1}, new int[]{2}));
+            for (int i = 0; i < 10; i++) {
+                int start = rng.nextInt(g.nodeCount());
+                int end = (start + 1 + rng.nextInt(g.nodeCount() - 1)) % g.nodeCount();
+                Route expected = computer.bestRouteBetween(start, end);
+                Route actual = service.route(computer, start, end).join();
+                if (expected == null) assertNull(actual);
+                else assertEquals(expected.length(), actual.length(), 1e-3);
+                List<Route> routes = service.routeAll(computer, new int[]{start}, new int[]{end}).join();
+                assertEquals(expected == null, routes.get(0) == null);
+            }
+        }
+    }
+
+}
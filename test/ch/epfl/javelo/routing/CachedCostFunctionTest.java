@@ -0,0 +1,96 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedCostFunctionTest {
+
+    private static Graph graph;
+
+    private static Graph lausanneGraph() {
+        if (graph == null) {
+            try {
+                graph = Graph.loadFrom(Path.of("lausanne"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return graph;
+    }
+
+    private static void assertSameFactors(CostFunction expected, CachedCostFunction actual) {
+        for (int nodeId = 0; nodeId < graph.nodeCount(); nodeId += 1) {
+            int outDegree = graph.nodeOutDegree(nodeId);
+            for (int i = 0; i < outDegree; i += 1) {
+                int edgeId = graph.nodeOutEdgeId(nodeId, i);
+                assertEquals((float) expected.costFactor(nodeId, edgeId), actual.factor(edgeId));
+                assertEquals(actual.factor(edgeId), actual.costFactor(nodeId, edgeId));
+            }
+        }
+    }
+
+    @Test
+    void cachedCostFunctionHasSameFactorsRoundedToFloat() {
+        var g = lausanneGraph();
+        var cf = new CityBikeCF(g);
+        assertSameFactors(cf, CachedCostFunction.of(g, cf));
+    }
+
+    @Test
+    void cachedCostFunctionIsWrittenThenLoaded(@TempDir Path directory) throws IOException {
+        var g = lausanneGraph();
+        var cf = new CityBikeCF(g);
+        var fingerprint = CachedCostFunction.fingerprint(Path.of("lausanne"), cf, 1);
+        assertEquals(fingerprint, CachedCostFunction.fingerprint(Path.of("lausanne"), new CityBikeCF(g), 1));
+        assertNotEquals(fingerprint, CachedCostFunction.fingerprint(Path.of("lausanne"), cf, 2));
+        assertNotEquals(fingerprint, CachedCostFunction.fingerprint(Path.of("lausanne"), (nodeId, edgeId) -> 1, 1));
+
+        assertSameFactors(cf, CachedCostFunction.loadOrCompute(g, cf, directory, fingerprint));
+        var path = directory.resolve("cost_" + fingerprint + ".bin");
+        assertEquals(4L * g.edgeCount(), Files.size(path));
+        assertSameFactors(cf, CachedCostFunction.loadOrCompute(g, cf, directory, fingerprint));
+    }
+
+    @Test
+    void fingerprintChangesWhenGraphChangesWithSameSize(@TempDir Path directory) throws IOException {
+        var cf = new CityBikeCF(lausanneGraph());
+        for (Graph.DataFile file : Graph.DataFile.values()) {
+            Files.copy(Path.of("lausanne").resolve(file.fileName()), directory.resolve(file.fileName()));
+        }
+        var fingerprint = CachedCostFunction.fingerprint(directory, cf, 1);
+        assertEquals(CachedCostFunction.fingerprint(Path.of("lausanne"), cf, 1), fingerprint);
+
+        var edgesPath = directory.resolve(Graph.DataFile.EDGES.fileName());
+        byte[] edges = Files.readAllBytes(edgesPath);
+        edges[edges.length / 2] ^= 1;
+        Files.write(edgesPath, edges);
+        assertNotEquals(fingerprint, CachedCostFunction.fingerprint(directory, cf, 1));
+    }
+
+    @Test
+    void cachedCostFunctionIsRecomputedWhenFileHasWrongSize(@TempDir Path directory) throws IOException {
+        var g = lausanneGraph();
+        var cf = new CityBikeCF(g);
+        Files.write(directory.resolve("cost_test.bin"), new byte[12]);
+        assertSameFactors(cf, CachedCostFunction.loadOrCompute(g, cf, directory, "test"));
+    }
+
+    @Test
+    void routeComputerFindsSameRoutesWithCachedCostFunction() {
+        var g = lausanneGraph();
+        var cf = new CityBikeCF(g);
+        var rc = new RouteComputer(g, CachedCostFunction.of(g, cf));
+        assertNull(rc.bestRouteBetween(149195, 153181));
+        assertEquals(9588.5625, rc.bestRouteBetween(159049, 117669).length(), 1);
+        assertEquals(38612.75, rc.bestRouteBetween(210641, 43713).length(), 1);
+    }
+
+}
@@ -0,0 +1,39 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CityBikeCFTableTest {
+
+    @Test
+    void slopeClassWorksOnKnownValues() {
+        assertEquals(0, CityBikeCF.slopeClass(0));
+        assertEquals(0, CityBikeCF.slopeClass(0.0099));
+        assertEquals(1, CityBikeCF.slopeClass(0.01));
+        assertEquals(2, CityBikeCF.slopeClass(0.04));
+        assertEquals(3, CityBikeCF.slopeClass(0.05));
+        assertEquals(4, CityBikeCF.slopeClass(0.10));
+        assertEquals(4, CityBikeCF.slopeClass(Double.POSITIVE_INFINITY));
+        assertEquals(4, CityBikeCF.slopeClass(Double.NaN));
+    }
+
+    @Test
+    void cityBikeCFTableGivesExactlyTheSameFactorsAsCityBikeCF() throws IOException {
+        var graph = Graph.loadFrom(Path.of("lausanne"));
+        var cf = new CityBikeCF(graph);
+        var table = CityBikeCFTable.of(graph);
+        for (int nodeId = 0; nodeId < graph.nodeCount(); nodeId += 1) {
+            int outDegree = graph.nodeOutDegree(nodeId);
+            for (int i = 0; i < outDegree; i += 1) {
+                int edgeId = graph.nodeOutEdgeId(nodeId, i);
+                assertEquals(cf.costFactor(nodeId, edgeId), table.costFactor(nodeId, edgeId));
+            }
+        }
+    }
+
+}
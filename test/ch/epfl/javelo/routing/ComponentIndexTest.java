@@ -0,0 +1,187 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.data.GraphEdges;
+import ch.epfl.javelo.data.GraphNodes;
+import ch.epfl.javelo.data.GraphSectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentIndexTest {
+
+    private static Graph graph;
+
+    private static Graph lausanneGraph() {
+        if (graph == null) {
+            try {
+                graph = Graph.loadFrom(Path.of("lausanne"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return graph;
+    }
+
+    @Test
+    void componentIndexRejectsUnreachableNode() {
+        var g = lausanneGraph();
+        var components = ComponentIndex.of(g, new CityBikeCF(g));
+        assertFalse(components.mayReach(149195, 153181));
+        assertTrue(components.mayReach(159049, 117669));
+        assertTrue(components.isInLargestComponent(159049));
+        assertTrue(components.isInLargestComponent(117669));
+    }
+
+    @Test
+    void componentIndexAgreesWithRouteComputer() {
+        var g = lausanneGraph();
+        var cf = new CityBikeCF(g);
+        var components = ComponentIndex.of(g, cf);
+        var rc = new RouteComputer(g, cf);
+        var rcWithComponents = new RouteComputer(g, cf, components);
+        var rng = newRandom();
+        for (int i = 0; i < 50; i += 1) {
+            var startNodeId = rng.nextInt(g.nodeCount());
+            var endNodeId = rng.nextInt(g.nodeCount());
+            if (startNodeId == endNodeId) continue;
+            var route = rc.bestRouteBetween(startNodeId, endNodeId);
+            if (!components.mayReach(startNodeId, endNodeId)) assertNull(route);
+            if (components.strongComponentOf(startNodeId) == components.strongComponentOf(endNodeId))
+                assertNotNull(route);
+            var routeWithComponents = rcWithComponents.bestRouteBetween(startNodeId, endNodeId);
+            if (route == null) assertNull(routeWithComponents);
+            else assertEquals(route.length(), routeWithComponents.length(), 1e-3);
+        }
+    }
+
+    @Test
+    void componentIndexRejectsUnreachablePairInSameWeakComponent() {
+        // Les nœuds 0 et 1 forment la plus grande composante fortement connexe ; le nœud 2 ne peut être atteint
+        // depuis elle ni l'atteindre, bien que tous les nœuds soient dans la même composante faiblement connexe
+        // grâce au nœud 3, accessible depuis 0 et depuis 2
+        int[] edgeTargets = {1, 3, 0, 3};
+        var nodes = new GraphNodes(IntBuffer.wrap(new int[]{
+                0, 0, 2 << 28,
+                0, 0, 1 << 28 | 2,
+                0, 0, 1 << 28 | 3,
+                0, 0, 4}));
+        var edgesBuffer = ByteBuffer.allocate(10 * edgeTargets.length);
+        for (int edgeId = 0; edgeId < edgeTargets.length; edgeId += 1)
+            edgesBuffer.putInt(10 * edgeId, edgeTargets[edgeId]);
+        var edges = new GraphEdges(edgesBuffer, IntBuffer.allocate(edgeTargets.length), ShortBuffer.allocate(0));
+        var g = new Graph(nodes, new GraphSectors(ByteBuffer.allocate(6)), edges, List.of());
+        var components = ComponentIndex.of(g, (nodeId, edgeId) -> 1);
+
+        assertTrue(components.isInLargestComponent(0));
+        assertTrue(components.isInLargestComponent(1));
+        for (int nodeId = 1; nodeId < 4; nodeId += 1)
+            assertEquals(components.weakComponentOf(0), components.weakComponentOf(nodeId));
+        assertFalse(components.mayReach(0, 2));
+        assertFalse(components.mayReach(2, 0));
+        assertFalse(components.mayReach(2, 1));
+        assertFalse(components.mayReach(3, 0));
+        assertTrue(components.mayReach(0, 3));
+        assertTrue(components.mayReach(2, 3));
+        assertTrue(components.mayReach(1, 0));
+    }
+
+    @Test
+    void componentIndexIsWrittenThenLoaded(@TempDir Path directory) throws IOException {
+        var g = lausanneGraph();
+        var components = ComponentIndex.of(g, new CityBikeCF(g));
+        components.writeTo(directory, "citybike");
+        assertEquals(4L * g.nodeCount(), Files.size(directory.resolve("components_citybike_strong.bin")));
+        assertEquals(4L * g.nodeCount(), Files.size(directory.resolve("components_citybike_weak.bin")));
+        assertTrue(Files.exists(directory.resolve("components_citybike_reachability.bin")));
+
+        var loaded = ComponentIndex.loadFrom(directory, "citybike");
+        int mainNodeId = -1;
+        for (int nodeId = 0; nodeId < g.nodeCount(); nodeId += 1) {
+            assertEquals(components.strongComponentOf(nodeId), loaded.strongComponentOf(nodeId));
+            assertEquals(components.weakComponentOf(nodeId), loaded.weakComponentOf(nodeId));
+            assertEquals(components.isInLargestComponent(nodeId), loaded.isInLargestComponent(nodeId));
+            if (mainNodeId == -1 && components.isInLargestComponent(nodeId)) mainNodeId = nodeId;
+        }
+        for (int nodeId = 0; nodeId < g.nodeCount(); nodeId += 1) {
+            assertEquals(components.mayReach(nodeId, mainNodeId), loaded.mayReach(nodeId, mainNodeId));
+            assertEquals(components.mayReach(mainNodeId, nodeId), loaded.mayReach(mainNodeId, nodeId));
+        }
+    }
+
+    @Test
+    void componentIndexIsExactForPairsInvolvingLargestComponent() {
+        var g = lausanneGraph();
+        var cf = new CityBikeCF(g);
+        var components = ComponentIndex.of(g, cf);
+        var rc = new RouteComputer(g, cf);
+        int mainNodeId = 0;
+        while (!components.isInLargestComponent(mainNodeId)) mainNodeId += 1;
+
+        var rng = newRandom();
+        for (int i = 0; i < 50; i += 1) {
+            var nodeId = rng.nextInt(g.nodeCount());
+            if (nodeId == mainNodeId) continue;
+            assertEquals(components.mayReach(nodeId, mainNodeId), rc.bestRouteBetween(nodeId, mainNodeId) != null);
+            assertEquals(components.mayReach(mainNodeId, nodeId), rc.bestRouteBetween(mainNodeId, nodeId) != null);
+        }
+    }
+
+    @Test
+    void componentIndexIsComputedOnceThenLoaded(@TempDir Path directory) throws IOException {
+        var g = lausanneGraph();
+        var cf = new CityBikeCF(g);
+        var computed = ComponentIndex.loadOrCompute(directory, "citybike", g, cf);
+        Path strong = directory.resolve("components_citybike_strong.bin");
+        assertEquals(4L * g.nodeCount(), Files.size(strong));
+
+        // Des fichiers d'un autre graphe sont remplacés
+        new ComponentIndex(IntBuffer.wrap(new int[]{0}), IntBuffer.wrap(new int[]{0}), ByteBuffer.wrap(new byte[]{3}))
+                .writeTo(directory, "other");
+        var recomputed = ComponentIndex.loadOrCompute(directory, "other", g, cf);
+        assertEquals(g.nodeCount(), recomputed.nodeCount());
+        assertEquals(4L * g.nodeCount(), Files.size(directory.resolve("components_other_strong.bin")));
+
+        var loaded = ComponentIndex.loadOrCompute(directory, "citybike", g, cf);
+        for (int nodeId = 0; nodeId < g.nodeCount(); nodeId += 1) {
+            assertEquals(computed.strongComponentOf(nodeId), loaded.strongComponentOf(nodeId));
+            assertEquals(computed.strongComponentOf(nodeId), recomputed.strongComponentOf(nodeId));
+        }
+    }
+
+    @Test
+    void componentIndexOfAnotherGraphIsRejected(@TempDir Path directory) throws IOException {
+        var g = lausanneGraph();
+        var cf = new CityBikeCF(g);
+        var components = ComponentIndex.of(g, cf);
+        assertEquals(g.nodeCount(), components.nodeCount());
+        var other = new ComponentIndex(IntBuffer.wrap(new int[]{0}), IntBuffer.wrap(new int[]{0}),
+                ByteBuffer.wrap(new byte[]{3}));
+        assertThrows(IllegalArgumentException.class, () -> new RouteComputer(g, cf, other));
+        assertThrows(IllegalArgumentException.class, () -> new ComponentIndex(IntBuffer.wrap(new int[]{0}),
+                IntBuffer.wrap(new int[]{0, 0}), ByteBuffer.wrap(new byte[]{3})));
+        assertThrows(IllegalArgumentException.class, () -> new ComponentIndex(IntBuffer.wrap(new int[]{0, 1}),
+                IntBuffer.wrap(new int[]{0, 0}), ByteBuffer.wrap(new byte[]{3})));
+
+        components.writeTo(directory, "citybike");
+        Path weak = directory.resolve("components_citybike_weak.bin");
+        try (FileChannel channel = FileChannel.open(weak, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - Integer.BYTES);
+        }
+        assertThrows(IOException.class, () -> ComponentIndex.loadFrom(directory, "citybike"));
+    }
+
+}
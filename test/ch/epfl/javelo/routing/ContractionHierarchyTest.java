@@ -0,0 +1,113 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractionHierarchyTest {
+
+    // Le calcul de la hiérarchie de Lausanne prenant un certain temps, il n'est fait qu'une fois pour tous les tests
+    private static Graph graph;
+    private static ContractionHierarchy hierarchy;
+
+    private static ContractionHierarchy lausanneHierarchy() {
+        if (hierarchy == null) {
+            try {
+                graph = Graph.loadFrom(Path.of("lausanne"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            hierarchy = ContractionHierarchy.of(graph, new CityBikeCF(graph));
+        }
+        return hierarchy;
+    }
+
+    @Test
+    void contractionHierarchyContainsAllNodesAndAtLeastAllUsableEdges() {
+        var ch = lausanneHierarchy();
+        assertEquals(graph.nodeCount(), ch.nodeCount());
+        int shortcuts = 0;
+        for (int arcId = 0; arcId < ch.arcCount(); arcId += 1) {
+            if (ch.arcEdgeId(arcId) == -1) {
+                shortcuts += 1;
+                int first = ch.arcFirstChildId(arcId);
+                int second = ch.arcSecondChildId(arcId);
+                assertEquals(ch.arcFromNodeId(arcId), ch.arcFromNodeId(first));
+                assertEquals(ch.arcToNodeId(first), ch.arcFromNodeId(second));
+                assertEquals(ch.arcToNodeId(arcId), ch.arcToNodeId(second));
+                assertEquals(ch.arcCost(first) + ch.arcCost(second), ch.arcCost(arcId), 1e-3);
+            } else {
+                assertEquals(-1, ch.arcFirstChildId(arcId));
+                assertEquals(graph.edgeTargetNodeId(ch.arcEdgeId(arcId)), ch.arcToNodeId(arcId));
+            }
+        }
+        assertTrue(shortcuts > 0);
+    }
+
+    @Test
+    void contractionHierarchyRouteComputerThrowsOnIdenticalStartAndEndNodes() {
+        var ch = lausanneHierarchy();
+        var rc = new ContractionHierarchyRouteComputer(graph, ch);
+        assertThrows(IllegalArgumentException.class, () -> rc.bestRouteBetween(2022, 2022));
+    }
+
+    @Test
+    void contractionHierarchyRouteComputerFindsRoutesOfSameLength() {
+        var ch = lausanneHierarchy();
+        var expectedComputer = new RouteComputer(graph, new CityBikeCF(graph));
+        var rc = new ContractionHierarchyRouteComputer(graph, ch);
+        assertNull(rc.bestRouteBetween(149195, 153181));
+        assertEquals(9588.5625, rc.bestRouteBetween(159049, 117669).length(), 1);
+        assertEquals(38612.75, rc.bestRouteBetween(210641, 43713).length(), 1);
+
+        var rng = newRandom();
+        for (int i = 0; i < 50; i += 1) {
+            int startNodeId = rng.nextInt(graph.nodeCount());
+            int endNodeId = rng.nextInt(graph.nodeCount());
+            if (startNodeId == endNodeId) continue;
+            var expected = expectedComputer.bestRouteBetween(startNodeId, endNodeId);
+            var actual = rc.bestRouteBetween(startNodeId, endNodeId);
+            if (expected == null) {
+                assertNull(actual);
+            } else {
+                assertNotNull(actual);
+                assertEquals(expected.length(), actual.length(), 1);
+                var edges = actual.edges();
+                assertEquals(startNodeId, edges.get(0).fromNodeId());
+                assertEquals(endNodeId, edges.get(edges.size() - 1).toNodeId());
+                for (int j = 1; j < edges.size(); j += 1) {
+                    assertEquals(edges.get(j - 1).toNodeId(), edges.get(j).fromNodeId());
+                }
+            }
+        }
+    }
+
+    @Test
+    void contractionHierarchyIsIdenticalOnceWrittenAndLoaded(@TempDir Path directory) throws IOException {
+        var ch = lausanneHierarchy();
+        ch.writeTo(directory, "citybike");
+        var loaded = ContractionHierarchy.loadFrom(directory, "citybike");
+        assertEquals(ch.nodeCount(), loaded.nodeCount());
+        assertEquals(ch.arcCount(), loaded.arcCount());
+        for (int nodeId = 0; nodeId < ch.nodeCount(); nodeId += 97) {
+            assertEquals(ch.upDegree(nodeId), loaded.upDegree(nodeId));
+            assertEquals(ch.downDegree(nodeId), loaded.downDegree(nodeId));
+            for (int i = 0; i < ch.upDegree(nodeId); i += 1) {
+                assertEquals(ch.upArcId(nodeId, i), loaded.upArcId(nodeId, i));
+            }
+        }
+        for (int arcId = 0; arcId < ch.arcCount(); arcId += 13) {
+            assertEquals(ch.arcCost(arcId), loaded.arcCost(arcId));
+            assertEquals(ch.arcLength(arcId), loaded.arcLength(arcId));
+            assertEquals(ch.arcEdgeId(arcId), loaded.arcEdgeId(arcId));
+        }
+    }
+
+}
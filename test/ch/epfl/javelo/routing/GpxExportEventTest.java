@@ -0,0 +1,41 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GpxExportEventTest {
+
+    @Test
+    void gpxExportEmitsEventWithPointAndCharacterCounts(@TempDir Path directory) throws IOException {
+        var graph = Graph.loadFrom(Path.of("lausanne"));
+        var route = new RouteComputer(graph, new CityBikeCF(graph)).bestRouteBetween(159049, 117669);
+        var profile = ElevationProfileComputer.elevationProfile(route, 5);
+        var gpx = new StringWriter();
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("ch.epfl.javelo.GpxExport");
+            recording.start();
+            GpxGenerator.writeGpx(gpx, route, profile);
+            recording.stop();
+            Path dump = directory.resolve("gpx.jfr");
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump);
+        }
+
+        assertEquals(1, events.size());
+        assertEquals(route.points().size(), events.get(0).getInt("points"));
+        assertEquals(gpx.toString().length(), events.get(0).getLong("characters"));
+    }
+
+}
@@ -0,0 +1,73 @@
+package ch.epfl.javelo.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTest {
+
+    @Test
+    void histogramIsEmptyInitially() {
+        var histogram = new Histogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.sum());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.mean());
+        assertEquals(0, histogram.quantile(0.5));
+    }
+
+    @Test
+    void histogramThrowsOnNegativeValuesAndInvalidQuantiles() {
+        var histogram = new Histogram();
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.quantile(1.5));
+        assertThrows(IndexOutOfBoundsException.class, () -> Histogram.bucketUpperBound(Histogram.BUCKET_COUNT));
+    }
+
+    @Test
+    void histogramPlacesValuesInPowerOfTwoBuckets() {
+        var histogram = new Histogram();
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(2);
+        histogram.record(3);
+        histogram.record(1000);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(1, histogram.bucketCount(0));
+        assertEquals(1, histogram.bucketCount(1));
+        assertEquals(2, histogram.bucketCount(2));
+        assertEquals(1, histogram.bucketCount(10));
+        assertEquals(1, histogram.bucketCount(Histogram.BUCKET_COUNT - 1));
+        assertEquals(0, Histogram.bucketUpperBound(0));
+        assertEquals(1023, Histogram.bucketUpperBound(10));
+        assertEquals(Long.MAX_VALUE, Histogram.bucketUpperBound(Histogram.BUCKET_COUNT - 1));
+        assertEquals(Long.MAX_VALUE, histogram.max());
+    }
+
+    @Test
+    void histogramQuantilesBoundValuesWithinAFactorOfTwo() {
+        var histogram = new Histogram();
+        for (int v = 1; v <= 1000; v += 1) histogram.record(v);
+        assertEquals(1000, histogram.count());
+        assertEquals(500_500, histogram.sum());
+        assertEquals(500.5, histogram.mean());
+        long median = histogram.quantile(0.5);
+        assertTrue(500 <= median && median < 1000);
+        assertEquals(1000, histogram.quantile(1));
+        assertEquals(1, histogram.quantile(0));
+    }
+
+    @Test
+    void histogramCountsAllValuesRecordedConcurrently() {
+        var histogram = new Histogram();
+        IntStream.range(0, 100_000).parallel().forEach(histogram::record);
+        assertEquals(100_000, histogram.count());
+        long bucketTotal = 0;
+        for (int i = 0; i < Histogram.BUCKET_COUNT; i += 1) bucketTotal += histogram.bucketCount(i);
+        assertEquals(100_000, bucketTotal);
+        assertEquals(99_999, histogram.max());
+    }
+
+}
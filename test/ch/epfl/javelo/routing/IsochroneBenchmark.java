@@ -0,0 +1,54 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+
+/**
+ * Mesure le temps de calcul des nœuds atteignables depuis des nœuds aléatoires pour plusieurs budgets de coût, et le
+ * compare à celui de l'ancienne méthode consistant à appeler bestRouteBetween pour un échantillon de nœuds.
+ * Usage : IsochroneBenchmark [répertoire du graphe (lausanne)]
+ */
+public final class IsochroneBenchmark {
+    private static final int STARTS = 20;
+    private static final int WARMUP_PASSES = 3;
+    private static final int BRUTE_FORCE_SAMPLE = 200;
+    private static final double[] BUDGETS = {2_000, 5_000, 10_000, 20_000};
+
+    public static void main(String[] args) throws IOException {
+        Graph graph = Graph.loadFrom(Path.of(args.length > 0 ? args[0] : "lausanne"));
+        CostFunction cf = new CityBikeCF(graph);
+        IsochroneComputer ic = new IsochroneComputer(graph, cf);
+
+        var rng = newRandom();
+        int[] starts = rng.ints(STARTS, 0, graph.nodeCount()).toArray();
+
+        for (double budget : BUDGETS) {
+            // Quelques passes pour chauffer la JVM
+            for (int pass = 0; pass < WARMUP_PASSES; pass += 1) {
+                for (int start : starts) ic.reachableWithinCost(start, budget);
+            }
+
+            long reached = 0;
+            long t0 = System.nanoTime();
+            for (int start : starts) reached += ic.reachableWithinCost(start, budget).size();
+            double elapsedMs = (System.nanoTime() - t0) / 1e6;
+            System.out.printf("Budget %.0f : %d nœuds atteignables en moyenne, %.2f ms par calcul%n",
+                    budget, reached / STARTS, elapsedMs / STARTS);
+        }
+
+        // Ancienne méthode : un itinéraire par nœud candidat, extrapolée à l'ensemble du graphe
+        RouteComputer rc = new RouteComputer(graph, cf);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < BRUTE_FORCE_SAMPLE; i += 1) {
+            int end = rng.nextInt(graph.nodeCount());
+            if (end != starts[0]) rc.bestRouteBetween(starts[0], end);
+        }
+        double perRouteMs = (System.nanoTime() - t0) / 1e6 / BRUTE_FORCE_SAMPLE;
+        System.out.printf("Méthode par itinéraires : %.2f ms par nœud candidat, soit ~%.0f s pour tout le graphe%n",
+                perRouteMs, perRouteMs * graph.nodeCount() / 1000);
+    }
+}
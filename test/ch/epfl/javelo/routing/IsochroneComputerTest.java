@@ -0,0 +1,105 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.projection.PointCh;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsochroneComputerTest {
+
+    private static Graph graph;
+
+    private static Graph lausanneGraph() {
+        if (graph == null) {
+            try {
+                graph = Graph.loadFrom(Path.of("lausanne"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return graph;
+    }
+
+    @Test
+    void isochroneConstructorThrowsOnDifferentSizes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Isochrone(new int[2], new float[2], new float[1]));
+    }
+
+    @Test
+    void isochroneComputerThrowsOnNegativeBudget() {
+        var g = lausanneGraph();
+        var ic = new IsochroneComputer(g, new CityBikeCF(g));
+        assertThrows(IllegalArgumentException.class, () -> ic.reachableWithinCost(159049, -1));
+        assertThrows(IllegalArgumentException.class, () -> ic.reachableWithinLength(159049, -1));
+    }
+
+    @Test
+    void isochroneComputerReturnsNodesInIncreasingOrderWithinBudget() {
+        var g = lausanneGraph();
+        var ic = new IsochroneComputer(g, new CityBikeCF(g));
+        var byCost = ic.reachableWithinCost(159049, 3000);
+        var byLength = ic.reachableWithinLength(159049, 3000);
+        for (var isochrone : List.of(byCost, byLength)) {
+            assertEquals(159049, isochrone.nodeId(0));
+            assertEquals(0, isochrone.cost(0));
+            assertEquals(0, isochrone.length(0));
+            assertTrue(isochrone.size() > 1);
+        }
+        for (int i = 1; i < byCost.size(); i += 1) {
+            assertTrue(byCost.cost(i - 1) <= byCost.cost(i));
+            assertTrue(byCost.cost(i) <= 3000);
+            assertTrue(byCost.length(i) <= byCost.cost(i) + 1e-2);
+        }
+        for (int i = 1; i < byLength.size(); i += 1) {
+            assertTrue(byLength.length(i - 1) <= byLength.length(i));
+            assertTrue(byLength.length(i) <= 3000);
+        }
+        // Le facteur de coût valant au moins 1, tout nœud atteint pour un coût donné l'est pour la même longueur
+        var reachedByLength = new HashSet<Integer>();
+        for (int nodeId : byLength.nodeIds()) reachedByLength.add(nodeId);
+        for (int nodeId : byCost.nodeIds()) assertTrue(reachedByLength.contains(nodeId));
+    }
+
+    @Test
+    void isochroneComputerFindsSameCostsAsRouteComputer() {
+        var g = lausanneGraph();
+        var cf = new CityBikeCF(g);
+        var rc = new RouteComputer(g, cf);
+        var isochrone = new IsochroneComputer(g, cf).reachableWithinCost(117669, 5000);
+        var rng = newRandom();
+        for (int i = 0; i < 20; i += 1) {
+            int index = 1 + rng.nextInt(isochrone.size() - 1);
+            var route = rc.bestRouteBetween(117669, isochrone.nodeId(index));
+            assertNotNull(route);
+            assertEquals(route.length(), isochrone.length(index), 1);
+        }
+    }
+
+    @Test
+    void isochroneHullContainsAllReachedNodes() {
+        var g = lausanneGraph();
+        var isochrone = new IsochroneComputer(g, new CityBikeCF(g)).reachableWithinCost(159049, 5000);
+        List<PointCh> hull = isochrone.hull(g);
+        assertTrue(hull.size() >= 3);
+        assertEquals(hull.size(), isochrone.webMercatorHull(g).size());
+        for (int nodeId : isochrone.nodeIds()) {
+            PointCh p = g.nodePoint(nodeId);
+            for (int i = 0; i < hull.size(); i += 1) {
+                PointCh a = hull.get(i);
+                PointCh b = hull.get((i + 1) % hull.size());
+                double cross = (b.e() - a.e()) * (p.n() - a.n()) - (b.n() - a.n()) * (p.e() - a.e());
+                assertTrue(cross >= -1e-6);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LandmarksTest {
+
+    private static final int LANDMARK_COUNT = 8;
+
+    // Le calcul des points de repère de Lausanne prenant un certain temps, il n'est fait qu'une fois pour tous les tests
+    private static Graph graph;
+    private static Landmarks landmarks;
+
+    private static Landmarks lausanneLandmarks() {
+        if (landmarks == null) {
+            try {
+                graph = Graph.loadFrom(Path.of("lausanne"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            landmarks = Landmarks.of(graph, new CityBikeCF(graph), LANDMARK_COUNT);
+        }
+        return landmarks;
+    }
+
+    @Test
+    void landmarksAreDistinctAndHaveZeroCostToThemselves() {
+        var lm = lausanneLandmarks();
+        assertEquals(LANDMARK_COUNT, lm.landmarkCount());
+        for (int i = 0; i < LANDMARK_COUNT; i += 1) {
+            int nodeId = lm.landmarkNodeId(i);
+            assertEquals(0, lm.costFromLandmark(i, nodeId));
+            assertEquals(0, lm.costToLandmark(i, nodeId));
+            for (int j = 0; j < i; j += 1) assertNotEquals(lm.landmarkNodeId(j), nodeId);
+        }
+    }
+
+    @Test
+    void landmarksThrowOnNonPositiveCount() {
+        var lm = lausanneLandmarks();
+        assertThrows(IllegalArgumentException.class, () -> Landmarks.of(graph, new CityBikeCF(graph), 0));
+    }
+
+    @Test
+    void landmarksLowerBoundNeverExceedsRouteCost() {
+        var lm = lausanneLandmarks();
+        var cf = new CityBikeCF(graph);
+        var rc = new RouteComputer(graph, cf);
+        var rng = newRandom();
+        for (int i = 0; i < 20; i += 1) {
+            int startNodeId = rng.nextInt(graph.nodeCount());
+            int endNodeId = rng.nextInt(graph.nodeCount());
+            if (startNodeId == endNodeId) continue;
+            var route = rc.bestRouteBetween(startNodeId, endNodeId);
+            if (route == null) continue;
+            double cost = 0;
+            for (Edge edge : route.edges()) {
+                int edgeId = -1;
+                for (int j = 0; j < graph.nodeOutDegree(edge.fromNodeId()); j += 1) {
+                    int candidate = graph.nodeOutEdgeId(edge.fromNodeId(), j);
+                    if (graph.edgeTargetNodeId(candidate) == edge.toNodeId()
+                            && graph.edgeLength(candidate) == edge.length()) edgeId = candidate;
+                }
+                cost += edge.length() * cf.costFactor(edge.fromNodeId(), edgeId);
+            }
+            assertTrue(lm.lowerBound(startNodeId, endNodeId) <= cost * 1.0001);
+        }
+    }
+
+    @Test
+    void routeComputerWithLandmarksFindsRoutesOfSameLength() {
+        var lm = lausanneLandmarks();
+        var cf = new CityBikeCF(graph);
+        var rc = new RouteComputer(graph, cf);
+        for (var algorithm : RouteComputer.Algorithm.values()) {
+            var alt = new RouteComputer(graph, cf, algorithm, lm);
+            assertNull(alt.bestRouteBetween(149195, 153181));
+            assertEquals(9588.5625, alt.bestRouteBetween(159049, 117669).length(), 1);
+            assertEquals(38612.75, alt.bestRouteBetween(210641, 43713).length(), 1);
+
+            var rng = newRandom();
+            for (int i = 0; i < 20; i += 1) {
+                int startNodeId = rng.nextInt(graph.nodeCount());
+                int endNodeId = rng.nextInt(graph.nodeCount());
+                if (startNodeId == endNodeId) continue;
+                var expected = rc.bestRouteBetween(startNodeId, endNodeId);
+                var actual = alt.bestRouteBetween(startNodeId, endNodeId);
+                if (expected == null) {
+                    assertNull(actual);
+                } else {
+                    assertNotNull(actual);
+                    assertEquals(expected.length(), actual.length(), 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    void landmarksAreIdenticalOnceWrittenAndLoaded(@TempDir Path directory) throws IOException {
+        var lm = lausanneLandmarks();
+        lm.writeTo(directory, "citybike");
+        var loaded = Landmarks.loadFrom(directory, "citybike");
+        assertEquals(lm.landmarkCount(), loaded.landmarkCount());
+        for (int i = 0; i < lm.landmarkCount(); i += 1) {
+            assertEquals(lm.landmarkNodeId(i), loaded.landmarkNodeId(i));
+        }
+        for (int nodeId = 0; nodeId < graph.nodeCount(); nodeId += 101) {
+            for (int i = 0; i < lm.landmarkCount(); i += 1) {
+                assertEquals(lm.costFromLandmark(i, nodeId), loaded.costFromLandmark(i, nodeId));
+                assertEquals(lm.costToLandmark(i, nodeId), loaded.costToLandmark(i, nodeId));
+            }
+        }
+    }
+
+    @Test
+    void landmarksOfAnotherGraphAreRejected(@TempDir Path directory) throws IOException {
+        var lm = lausanneLandmarks();
+        assertEquals(graph.nodeCount(), lm.nodeCount());
+        var cf = new CityBikeCF(graph);
+        var other = new Landmarks(IntBuffer.wrap(new int[]{0}), FloatBuffer.wrap(new float[]{0, 1}),
+                FloatBuffer.wrap(new float[]{0, 1}));
+        assertEquals(2, other.nodeCount());
+        assertThrows(IllegalArgumentException.class,
+                () -> new RouteComputer(graph, cf, RouteComputer.Algorithm.ASTAR, other));
+        assertThrows(IllegalArgumentException.class, () -> new Landmarks(IntBuffer.wrap(new int[]{0, 1}),
+                FloatBuffer.wrap(new float[]{0, 1, 2}), FloatBuffer.wrap(new float[]{0, 1, 2})));
+
+        lm.writeTo(directory, "citybike");
+        Path to = directory.resolve("alt_citybike_to.bin");
+        try (FileChannel channel = FileChannel.open(to, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - Float.BYTES);
+        }
+        assertThrows(IOException.class, () -> Landmarks.loadFrom(directory, "citybike"));
+    }
+
+}
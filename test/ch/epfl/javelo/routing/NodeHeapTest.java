@@ -0,0 +1,123 @@
+package ch.epfl.javelo.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeHeapTest {
+
+    @Test
+    void nodeHeapThrowsWhenEmpty() {
+        var heap = new NodeHeap(10);
+        assertTrue(heap.isEmpty());
+        assertThrows(NoSuchElementException.class, heap::removeMin);
+        assertThrows(NoSuchElementException.class, heap::minKey);
+    }
+
+    @Test
+    void nodeHeapRemovesNodesInKeyOrder() {
+        var heap = new NodeHeap(5);
+        heap.insertOrDecrease(3, 4f);
+        heap.insertOrDecrease(0, 1f);
+        heap.insertOrDecrease(4, 3f);
+        heap.insertOrDecrease(1, 2f);
+        assertEquals(4, heap.size());
+        assertEquals(1f, heap.minKey());
+        assertEquals(0, heap.removeMin());
+        assertEquals(1, heap.removeMin());
+        assertEquals(4, heap.removeMin());
+        assertEquals(3, heap.removeMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void nodeHeapDecreasesButNeverIncreasesKeys() {
+        var heap = new NodeHeap(3);
+        heap.insertOrDecrease(0, 5f);
+        heap.insertOrDecrease(1, 3f);
+        heap.insertOrDecrease(0, 1f);
+        heap.insertOrDecrease(1, 10f);
+        assertEquals(2, heap.size());
+        assertEquals(3f, heap.keyOf(1));
+        assertEquals(0, heap.removeMin());
+        assertEquals(1, heap.removeMin());
+    }
+
+    @Test
+    void nodeHeapUpdateIncreasesAndDecreasesKeys() {
+        var heap = new NodeHeap(4);
+        heap.update(0, 1f);
+        heap.update(1, 2f);
+        heap.update(2, 3f);
+        heap.update(0, 10f);
+        heap.update(2, 0.5f);
+        assertEquals(3, heap.size());
+        assertEquals(10f, heap.keyOf(0));
+        assertEquals(2, heap.removeMin());
+        assertEquals(1, heap.removeMin());
+        assertEquals(0, heap.removeMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void nodeHeapClearForgetsRemainingNodes() {
+        var heap = new NodeHeap(4);
+        heap.insertOrDecrease(2, 1f);
+        heap.insertOrDecrease(3, 2f);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(2));
+        assertFalse(heap.contains(3));
+        heap.insertOrDecrease(3, 7f);
+        assertEquals(7f, heap.keyOf(3));
+    }
+
+    @Test
+    void nodeHeapCountsPushesAndMaxSizeUntilCleared() {
+        var heap = new NodeHeap(5);
+        heap.insertOrDecrease(0, 3f);
+        heap.insertOrDecrease(1, 2f);
+        heap.insertOrDecrease(1, 1f);
+        heap.removeMin();
+        heap.insertOrDecrease(2, 5f);
+        heap.insertOrDecrease(3, 4f);
+        assertEquals(4, heap.pushCount());
+        assertEquals(3, heap.maxSize());
+        heap.clear();
+        assertEquals(0, heap.pushCount());
+        assertEquals(0, heap.maxSize());
+    }
+
+    @Test
+    void nodeHeapWorksOnRandomOperations() {
+        var rng = newRandom();
+        int capacity = 500;
+        for (int i = 0; i < RANDOM_ITERATIONS / 10; i += 1) {
+            var heap = new NodeHeap(capacity);
+            var expectedKeys = new float[capacity];
+            Arrays.fill(expectedKeys, Float.POSITIVE_INFINITY);
+            for (int j = 0; j < 2_000; j += 1) {
+                int nodeId = rng.nextInt(capacity);
+                float key = rng.nextFloat(1000);
+                heap.insertOrDecrease(nodeId, key);
+                expectedKeys[nodeId] = Math.min(expectedKeys[nodeId], key);
+            }
+            float previous = Float.NEGATIVE_INFINITY;
+            while (!heap.isEmpty()) {
+                float key = heap.minKey();
+                int nodeId = heap.removeMin();
+                assertEquals(expectedKeys[nodeId], key);
+                assertTrue(previous <= key);
+                expectedKeys[nodeId] = Float.POSITIVE_INFINITY;
+                previous = key;
+            }
+            for (float key : expectedKeys) assertEquals(Float.POSITIVE_INFINITY, key);
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+import ch.epfl.javelo.projection.PointCh;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+
+/**
+ * Compare le nombre de nœuds visités et la latence des algorithmes de recherche du planificateur, sans et avec points
+ * de repère (chargés depuis le répertoire du graphe s'ils y ont été écrits, calculés sinon), sur le trajet
+ * Genève–Lausanne (si le graphe le couvre) et sur des paires de nœuds aléatoires éloignés d'au moins 20 km.
+ * Usage : RouteComputerBenchmark [répertoire du graphe (ch_west)] [distance minimale en mètres (20000)]
+ */
+public final class RouteComputerBenchmark {
+    private static final int PAIRS = 50;
+    private static final int WARMUP_PASSES = 3;
+    private static final int LANDMARKS = 16;
+
+    public static void main(String[] args) throws IOException {
+        Path basePath = Path.of(args.length > 0 ? args[0] : "ch_west");
+        Graph graph = Graph.loadFrom(basePath);
+        double minDistance = args.length > 1 ? Double.parseDouble(args[1]) : 20_000;
+        CostFunction cf = new CityBikeCF(graph);
+
+        List<int[]> pairs = new ArrayList<>();
+        int geneva = graph.nodeClosestTo(new PointCh(2_500_100, 1_117_900), 1_000);
+        int lausanne = graph.nodeClosestTo(new PointCh(2_538_100, 1_152_600), 1_000);
+        if (geneva != -1 && lausanne != -1) pairs.add(new int[]{geneva, lausanne});
+
+        var rng = newRandom();
+        for (int i = 0; pairs.size() < PAIRS && i < 100 * PAIRS; i += 1) {
+            int start = rng.nextInt(graph.nodeCount());
+            int end = rng.nextInt(graph.nodeCount());
+            if (graph.nodePoint(start).distanceTo(graph.nodePoint(end)) >= minDistance)
+                pairs.add(new int[]{start, end});
+        }
+
+        if (pairs.isEmpty()) {
+            System.out.println("Aucune paire de nœuds suffisamment éloignés dans ce graphe");
+            return;
+        }
+
+        Landmarks landmarks;
+        try {
+            landmarks = Landmarks.loadFrom(basePath, "citybike");
+        } catch (IOException e) {
+            landmarks = Landmarks.of(graph, cf, LANDMARKS);
+        }
+
+        for (RouteComputer.Algorithm algorithm : RouteComputer.Algorithm.values()) {
+            run(pairs, geneva, lausanne, algorithm.toString(), new RouteComputer(graph, cf, algorithm));
+            run(pairs, geneva, lausanne, algorithm + " + ALT",
+                    new RouteComputer(graph, cf, algorithm, landmarks));
+        }
+        run(pairs, geneva, lausanne, "ASTAR (CityBikeCFTable)", new RouteComputer(graph, CityBikeCFTable.of(graph)));
+    }
+
+    private static void run(List<int[]> pairs, int geneva, int lausanne, String name, RouteComputer rc) {
+        // Quelques passes pour chauffer la JVM
+        for (int pass = 0; pass < WARMUP_PASSES; pass += 1) {
+            for (int[] pair : pairs) rc.bestRouteBetween(pair[0], pair[1]);
+        }
+
+        long settled = 0;
+        long t0 = System.nanoTime();
+        for (int[] pair : pairs) {
+            RouteComputer.MeasuredRoute measured = rc.measuredRouteBetween(pair[0], pair[1]);
+            Route route = measured.route();
+            settled += measured.statistics().settledNodes();
+            if (pair[0] == geneva && pair[1] == lausanne)
+                System.out.printf("%s Genève–Lausanne : %d nœuds visités, %.1f km%n",
+                        name, measured.statistics().settledNodes(), route == null ? 0 : route.length() / 1000);
+        }
+        double elapsedMs = (System.nanoTime() - t0) / 1e6;
+        System.out.printf("%s : %d nœuds visités en moyenne, %.2f ms par itinéraire (%d itinéraires)%n",
+                name, settled / pairs.size(), elapsedMs / pairs.size(), pairs.size());
+    }
+}
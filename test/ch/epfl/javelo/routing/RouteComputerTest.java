@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
 
+import static ch.epfl.test.TestRandomizer.newRandom;
 import static org.junit.jupiter.api.Assertions.*;
 
 class RouteComputerTest {
@@ -117,4 +118,99 @@ class RouteComputerTest {
         assertEquals(expected20kN, actualPointAt20kN, 1);
     }
 
+    @Test
+    void routeComputerFindsSameRoutesWithBothQueueTypes() {
+        var rc = newLausanneRouteComputer();
+        var legacy = new RouteComputer(graph, new CityBikeCF(graph), RouteComputer.QueueType.PRIORITY_QUEUE);
+        var rng = newRandom();
+        for (int i = 0; i < 20; i += 1) {
+            int startNodeId = rng.nextInt(graph.nodeCount());
+            int endNodeId = rng.nextInt(graph.nodeCount());
+            if (startNodeId == endNodeId) continue;
+            var expected = legacy.bestRouteBetween(startNodeId, endNodeId);
+            var actual = rc.bestRouteBetween(startNodeId, endNodeId);
+            if (expected == null) {
+                assertNull(actual);
+            } else {
+                assertNotNull(actual);
+                assertEquals(expected.length(), actual.length(), 1e-6);
+                assertEquals(expected.points(), actual.points());
+            }
+        }
+    }
+
+    @Test
+    void routeComputerGivesSameResultsWhenReused() {
+        var rc = newLausanneRouteComputer();
+        var first = rc.bestRouteBetween(159049, 117669);
+        assertNull(rc.bestRouteBetween(149195, 153181));
+        rc.bestRouteBetween(210641, 43713);
+        var second = rc.bestRouteBetween(159049, 117669);
+        assertEquals(first.length(), second.length());
+        assertEquals(first.points(), second.points());
+    }
+
+    @Test
+    void bidirectionalRouteComputerFindsRoutesOfSameLength() {
+        var rc = newLausanneRouteComputer();
+        var bidirectional = new RouteComputer(graph, new CityBikeCF(graph), RouteComputer.Algorithm.BIDIRECTIONAL_ASTAR);
+        assertNull(bidirectional.bestRouteBetween(149195, 153181));
+        assertEquals(9588.5625, bidirectional.bestRouteBetween(159049, 117669).length(), 1);
+        assertEquals(38612.75, bidirectional.bestRouteBetween(210641, 43713).length(), 1);
+
+        var rng = newRandom();
+        for (int i = 0; i < 20; i += 1) {
+            int startNodeId = rng.nextInt(graph.nodeCount());
+            int endNodeId = rng.nextInt(graph.nodeCount());
+            if (startNodeId == endNodeId) continue;
+            var expected = rc.bestRouteBetween(startNodeId, endNodeId);
+            var actual = bidirectional.bestRouteBetween(startNodeId, endNodeId);
+            if (expected == null) {
+                assertNull(actual);
+            } else {
+                assertNotNull(actual);
+                assertEquals(expected.length(), actual.length(), 1);
+                assertEquals(startNodeId, actual.edges().get(0).fromNodeId());
+                assertEquals(endNodeId, actual.edges().get(actual.edges().size() - 1).toNodeId());
+            }
+        }
+    }
+
+    @Test
+    void measuredRouteComputerReturnsSameRouteAndConsistentStatistics() {
+        var rc = newLausanneRouteComputer();
+        for (var algorithm : RouteComputer.Algorithm.values()) {
+            var measuring = new RouteComputer(graph, new CityBikeCF(graph), algorithm);
+            var measured = measuring.measuredRouteBetween(159049, 117669);
+            assertEquals(rc.bestRouteBetween(159049, 117669).length(), measured.route().length(), 1);
+            var statistics = measured.statistics();
+            assertTrue(statistics.settledNodes() > 0);
+            assertTrue(statistics.relaxedEdges() >= statistics.settledNodes() - 1);
+            assertTrue(statistics.heapPushes() <= statistics.relaxedEdges() + 2);
+            assertTrue(statistics.maxHeapSize() <= statistics.heapPushes());
+            assertTrue(statistics.routeNanos() > 0);
+
+            var unreachable = measuring.measuredRouteBetween(149195, 153181);
+            assertNull(unreachable.route());
+            assertEquals(0, unreachable.statistics().routeNanos());
+        }
+    }
+
+    @Test
+    void routeComputerWithMetricsAccumulatesStatistics() {
+        var metrics = new RouteMetrics();
+        var rc = newLausanneRouteComputer().withMetrics(metrics);
+        assertSame(metrics, rc.metrics());
+        var first = rc.measuredRouteBetween(159049, 117669);
+        assertNotNull(rc.bestRouteBetween(210641, 43713));
+        assertNull(rc.bestRouteBetween(149195, 153181));
+
+        assertEquals(3, metrics.queryCount());
+        assertEquals(2, metrics.routeCount());
+        assertTrue(metrics.settledNodes() > first.statistics().settledNodes());
+        assertEquals(3, metrics.searchMicros().count());
+        assertEquals(metrics.settledNodes(), metrics.settledNodesHistogram().sum());
+        assertNull(newLausanneRouteComputer().metrics());
+    }
+
 }
\ No newline at end of file
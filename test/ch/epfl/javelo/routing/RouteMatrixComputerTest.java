@@ -0,0 +1,87 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteMatrixComputerTest {
+
+    private static Graph graph;
+
+    private static Graph lausanneGraph() {
+        if (graph == null) {
+            try {
+                graph = Graph.loadFrom(Path.of("lausanne"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return graph;
+    }
+
+    @Test
+    void routeMatrixConstructorThrowsOnInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new RouteMatrix(2, 2, new float[3], new float[4]));
+        assertThrows(IllegalArgumentException.class, () -> new RouteMatrix(2, 2, new float[4], new float[5]));
+        assertThrows(IllegalArgumentException.class, () -> new RouteMatrix(-1, 0, new float[0], new float[0]));
+        assertThrows(ArithmeticException.class, () -> new RouteMatrix(1 << 16, 1 << 16, new float[0], new float[0]));
+    }
+
+    @Test
+    void routeMatrixReturnsValuesRowByRow() {
+        var matrix = new RouteMatrix(2, 3, new float[]{0, 1, 2, 3, 4, 5}, new float[]{6, 7, 8, 9, 10, 11});
+        assertEquals(4, matrix.cost(1, 1));
+        assertEquals(8, matrix.length(0, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.cost(2, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.length(0, 3));
+    }
+
+    @Test
+    void routeMatrixComputerHandlesIdenticalAndUnreachableNodes() {
+        var g = lausanneGraph();
+        var mc = new RouteMatrixComputer(g, new CityBikeCF(g));
+        var matrix = mc.matrixBetween(new int[]{149195, 159049}, new int[]{149195, 153181});
+        assertEquals(0, matrix.cost(0, 0));
+        assertEquals(0, matrix.length(0, 0));
+        assertEquals(Float.POSITIVE_INFINITY, matrix.cost(0, 1));
+        assertEquals(Float.POSITIVE_INFINITY, matrix.length(0, 1));
+    }
+
+    @Test
+    void routeMatrixComputerFindsSameLengthsAsRouteComputer() {
+        var g = lausanneGraph();
+        var cf = new CityBikeCF(g);
+        var rc = new RouteComputer(g, cf);
+        var hierarchy = ContractionHierarchy.of(g, cf);
+
+        var rng = newRandom();
+        int[] startNodeIds = rng.ints(5, 0, g.nodeCount()).toArray();
+        int[] endNodeIds = rng.ints(7, 0, g.nodeCount()).toArray();
+        var matrices = new RouteMatrix[]{
+                new RouteMatrixComputer(g, cf).matrixBetween(startNodeIds, endNodeIds),
+                new RouteMatrixComputer(g, hierarchy).matrixBetween(startNodeIds, endNodeIds)
+        };
+        for (var matrix : matrices) {
+            assertEquals(startNodeIds.length, matrix.rowCount());
+            assertEquals(endNodeIds.length, matrix.columnCount());
+            for (int row = 0; row < startNodeIds.length; row += 1) {
+                for (int column = 0; column < endNodeIds.length; column += 1) {
+                    if (startNodeIds[row] == endNodeIds[column]) continue;
+                    var route = rc.bestRouteBetween(startNodeIds[row], endNodeIds[column]);
+                    if (route == null) {
+                        assertEquals(Float.POSITIVE_INFINITY, matrix.cost(row, column));
+                    } else {
+                        assertEquals(route.length(), matrix.length(row, column), 1);
+                    }
+                }
+            }
+        }
+    }
+
+}
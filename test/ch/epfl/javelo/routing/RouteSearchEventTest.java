@@ -0,0 +1,60 @@
+package ch.epfl.javelo.routing;
+
+import ch.epfl.javelo.data.Graph;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteSearchEventTest {
+    private static Graph graph;
+
+    private static Graph lausanneGraph() {
+        if (graph == null) {
+            try {
+                graph = Graph.loadFrom(Path.of("lausanne"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return graph;
+    }
+
+    @Test
+    void routeSearchesEmitOneEventEach(@TempDir Path directory) throws IOException {
+        var graph = lausanneGraph();
+        var rc = new RouteComputer(graph, new CityBikeCF(graph));
+        List<RecordedEvent> events;
+        int settledNodes;
+        try (Recording recording = new Recording()) {
+            recording.enable("ch.epfl.javelo.RouteSearch");
+            recording.start();
+            settledNodes = rc.measuredRouteBetween(159049, 117669).statistics().settledNodes();
+            rc.bestRouteBetween(149195, 153181);
+            recording.stop();
+            Path dump = directory.resolve("route.jfr");
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump);
+        }
+
+        assertEquals(2, events.size());
+        var found = events.get(0);
+        assertEquals(159049, found.getInt("startNodeId"));
+        assertEquals(117669, found.getInt("endNodeId"));
+        assertEquals(settledNodes, found.getInt("settledNodes"));
+        assertTrue(found.getBoolean("found"));
+        assertFalse(found.getDuration().isNegative());
+        var notFound = events.get(1);
+        assertEquals(149195, notFound.getInt("startNodeId"));
+        assertFalse(notFound.getBoolean("found"));
+    }
+
+}
@@ -0,0 +1,75 @@
+package ch.epfl.javelo.routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchWorkspaceTest {
+
+    @Test
+    void searchWorkspaceStartsWithUnreachedNodes() {
+        var workspace = new SearchWorkspace(3);
+        workspace.reset();
+        for (int i = 0; i < 3; i += 1) {
+            assertFalse(workspace.isReached(i));
+            assertFalse(workspace.isSettled(i));
+            assertEquals(Float.POSITIVE_INFINITY, workspace.distance(i));
+        }
+    }
+
+    @Test
+    void searchWorkspaceRemembersUpdatesAndSettledNodes() {
+        var workspace = new SearchWorkspace(3);
+        workspace.reset();
+        workspace.update(1, 12.5f, 0, 7);
+        assertTrue(workspace.isReached(1));
+        assertEquals(12.5f, workspace.distance(1));
+        assertEquals(0, workspace.predecessor(1));
+        assertEquals(7, workspace.edge(1));
+        workspace.settle(1);
+        assertTrue(workspace.isSettled(1));
+        assertTrue(workspace.isReached(1));
+        assertEquals(12.5f, workspace.distance(1));
+        assertEquals(1, workspace.settledCount());
+    }
+
+    @Test
+    void searchWorkspaceResetForgetsPreviousSearch() {
+        var workspace = new SearchWorkspace(3);
+        workspace.reset();
+        workspace.update(2, 3f, 1, 4);
+        workspace.settle(2);
+        workspace.heap().insertOrDecrease(0, 1f);
+        workspace.reset();
+        assertFalse(workspace.isReached(2));
+        assertFalse(workspace.isSettled(2));
+        assertEquals(Float.POSITIVE_INFINITY, workspace.distance(2));
+        assertEquals(0, workspace.settledCount());
+        assertTrue(workspace.heap().isEmpty());
+        assertFalse(workspace.heap().contains(0));
+    }
+
+    @Test
+    void searchWorkspaceValuesAreReusedAcrossSearches() {
+        var workspace = new SearchWorkspace(3);
+        workspace.reset();
+        float[] values = workspace.values();
+        assertEquals(3, values.length);
+        values[1] = 4f;
+        workspace.reset();
+        assertSame(values, workspace.values());
+    }
+
+    @Test
+    void searchWorkspacePoolReusesReleasedWorkspaces() {
+        var pool = new SearchWorkspacePool(3);
+        var first = pool.acquire();
+        var second = pool.acquire();
+        assertNotSame(first, second);
+        pool.release(first);
+        assertEquals(1, pool.availableCount());
+        assertSame(first, pool.acquire());
+        assertEquals(0, pool.availableCount());
+    }
+
+}